@@ -0,0 +1,142 @@
+package com.bt.openlink.benchmarks;
+
+import java.io.StringReader;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+
+import org.dom4j.Element;
+import org.dom4j.io.SAXReader;
+import org.jivesoftware.smack.util.PacketParserUtils;
+import org.jxmpp.jid.Jid;
+import org.jxmpp.jid.impl.JidCreate;
+import org.jxmpp.stringprep.XmppStringprepException;
+import org.xmlpull.v1.XmlPullParser;
+import org.xmpp.packet.IQ;
+import org.xmpp.packet.JID;
+import org.xmpp.packet.Message;
+
+import com.bt.openlink.CoreFixtures;
+import com.bt.openlink.GetCallHistoryFixtures;
+import com.bt.openlink.GetFeaturesFixtures;
+import com.bt.openlink.GetInterestFixtures;
+import com.bt.openlink.GetInterestsFixtures;
+import com.bt.openlink.GetProfilesFixtures;
+import com.bt.openlink.MakeCallFixtures;
+import com.bt.openlink.PubSubMessageFixtures;
+import com.bt.openlink.PubSubPublishFixtures;
+import com.bt.openlink.PubSubSubscribeFixtures;
+import com.bt.openlink.RequestActionFixtures;
+
+/**
+ * The payloads used by the benchmarks. These are taken from the core test fixtures, so that the benchmarks exercise
+ * the same stanzas as the unit tests, plus some scaled variants of the call status message.
+ */
+final class BenchmarkCorpus {
+
+    static final JID TINDER_TO_JID = new JID(CoreFixtures.TO_JID_STRING);
+    static final JID TINDER_FROM_JID = new JID(CoreFixtures.FROM_JID_STRING);
+    static final JID TINDER_USER_JID = new JID(CoreFixtures.USER_BARE_JID_STRING);
+    static final Jid SMACK_TO_JID;
+    static final Jid SMACK_FROM_JID;
+    static final Jid SMACK_USER_JID;
+    static {
+        try {
+            SMACK_TO_JID = JidCreate.from(CoreFixtures.TO_JID_STRING);
+            SMACK_FROM_JID = JidCreate.from(CoreFixtures.FROM_JID_STRING);
+            SMACK_USER_JID = JidCreate.from(CoreFixtures.USER_BARE_JID_STRING);
+        } catch (final XmppStringprepException e) {
+            throw new IllegalStateException("Invalid benchmark jid", e);
+        }
+    }
+
+    /**
+     * Every Openlink IQ stanza, keyed by a short name suitable for use as a JMH parameter.
+     */
+    static final Map<String, String> IQ_STANZAS;
+    static {
+        final Map<String, String> stanzas = new LinkedHashMap<>();
+        stanzas.put("get-profiles-request", GetProfilesFixtures.GET_PROFILES_REQUEST);
+        stanzas.put("get-profiles-result", GetProfilesFixtures.GET_PROFILES_RESULT_WITH_NO_NOTES);
+        stanzas.put("get-interests-request", GetInterestsFixtures.GET_INTERESTS_REQUEST);
+        stanzas.put("get-interests-result", GetInterestsFixtures.GET_INTERESTS_RESULT);
+        stanzas.put("get-interest-request", GetInterestFixtures.GET_INTEREST_REQUEST);
+        stanzas.put("get-interest-result", GetInterestFixtures.GET_INTEREST_RESULT);
+        stanzas.put("get-features-request", GetFeaturesFixtures.GET_FEATURES_REQUEST);
+        stanzas.put("get-features-result", GetFeaturesFixtures.GET_FEATURES_RESULT);
+        stanzas.put("get-call-history-request", GetCallHistoryFixtures.GET_CALL_HISTORY_REQUEST_WITH_ALL_FIELDS);
+        stanzas.put("make-call-request", MakeCallFixtures.MAKE_CALL_REQUEST);
+        stanzas.put("make-call-result", MakeCallFixtures.MAKE_CALL_RESULT);
+        stanzas.put("request-action-request", RequestActionFixtures.REQUEST_ACTION_REQUEST);
+        stanzas.put("request-action-result", RequestActionFixtures.REQUEST_ACTION_RESULT);
+        stanzas.put("pubsub-subscribe-request", PubSubSubscribeFixtures.SUBSCRIBE_REQUEST);
+        stanzas.put("pubsub-subscribe-result", PubSubSubscribeFixtures.SUBSCRIBE_RESULT);
+        stanzas.put("pubsub-publish-request", PubSubPublishFixtures.PUBLISH_REQUEST_CALL_STATUS);
+        IQ_STANZAS = Collections.unmodifiableMap(stanzas);
+    }
+
+    private static final String CALL_START_TAG = "  <call>\n";
+    private static final String CALL_END_TAG = "  </call>\n";
+    private static final String CALL_ID_ELEMENT = "<id>" + CoreFixtures.CALL_ID + "</id>";
+
+    private BenchmarkCorpus() {
+    }
+
+    /**
+     * Generates a call status message containing the given number of calls. Each call is a copy of the call in the
+     * standard call status fixture, with a unique call id.
+     *
+     * @param callCount the number of calls in the message
+     * @return the XML of the message
+     */
+    @Nonnull
+    static String callStatusMessage(final int callCount) {
+        final String message = PubSubMessageFixtures.CALL_STATUS_MESSAGE;
+        final int callStart = message.indexOf(CALL_START_TAG);
+        final int callEnd = message.indexOf(CALL_END_TAG) + CALL_END_TAG.length();
+        final String call = message.substring(callStart, callEnd);
+        final StringBuilder sb = new StringBuilder(message.length() + call.length() * callCount);
+        sb.append(message, 0, callStart);
+        for (int i = 0; i < callCount; i++) {
+            sb.append(call.replace(CALL_ID_ELEMENT, "<id>" + CoreFixtures.CALL_ID + "-" + i + "</id>"));
+        }
+        sb.append(message, callEnd, message.length());
+        return sb.toString();
+    }
+
+    @Nonnull
+    static IQ tinderIQ(@Nonnull final String xml) {
+        return new IQ(elementFrom(xml));
+    }
+
+    @Nonnull
+    static Message tinderMessage(@Nonnull final String xml) {
+        return new Message(elementFrom(xml));
+    }
+
+    /**
+     * Creates a Smack parser positioned at the child element of the IQ, as it would be when the provider is invoked.
+     *
+     * @param xml the XML of the IQ
+     * @return the parser
+     * @throws Exception if the XML could not be parsed
+     */
+    @Nonnull
+    static XmlPullParser smackParserAtChildElement(@Nonnull final String xml) throws Exception {
+        final XmlPullParser parser = PacketParserUtils.getParserFor(xml);
+        parser.nextTag();
+        return parser;
+    }
+
+    @Nonnull
+    private static Element elementFrom(@Nonnull final String xml) {
+        try {
+            return new SAXReader().read(new StringReader(xml)).getRootElement();
+        } catch (final Exception e) {
+            throw new IllegalArgumentException("Unable to parse benchmark stanza", e);
+        }
+    }
+
+}
@@ -0,0 +1,71 @@
+package com.bt.openlink.benchmarks;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import com.bt.openlink.CoreFixtures;
+import com.bt.openlink.type.Call;
+import com.bt.openlink.type.CallState;
+import com.bt.openlink.type.RequestAction;
+
+/**
+ * Measures deriving the next version of a call from the last - as a switch adapter does for each CTI event - by copying
+ * every field by hand, compared with deriving it from the last call, which shares the unchanged lists.
+ */
+@State(Scope.Thread)
+public class CallDerivationBenchmark {
+
+    private static final List<RequestAction> ESTABLISHED_ACTIONS = Arrays.asList(RequestAction.CLEAR_CALL, RequestAction.HOLD_CALL);
+
+    private final Call call = CoreFixtures.CALL_INCOMING_ORIGINATED;
+    private final Call.Builder reusableBuilder = call.toBuilder();
+
+    @Benchmark
+    public Call copyByHand() {
+        final Call.Builder builder = Call.Builder.start();
+        call.getId().ifPresent(builder::setId);
+        call.getConferenceId().ifPresent(builder::setConferenceId);
+        call.getSite().ifPresent(builder::setSite);
+        call.getProfileId().ifPresent(builder::setProfileId);
+        call.getUserId().ifPresent(builder::setUserId);
+        call.getInterestId().ifPresent(builder::setInterestId);
+        call.getChanged().ifPresent(builder::setChanged);
+        call.getDirection().ifPresent(builder::setDirection);
+        call.getCallerNumber().ifPresent(builder::setCallerNumber);
+        call.getCallerName().ifPresent(builder::setCallerName);
+        builder.addCallerE164Numbers(call.getCallerE164Numbers());
+        call.getCalledNumber().ifPresent(builder::setCalledNumber);
+        call.getCalledName().ifPresent(builder::setCalledName);
+        call.getCalledDestination().ifPresent(builder::setCalledDestination);
+        builder.addCalledE164Numbers(call.getCalledE164Numbers());
+        call.getOriginatorReferences().forEach(reference -> builder.addOriginatorReference(reference.getKey(), reference.getValue()));
+        call.getStartTime().ifPresent(builder::setStartTime);
+        call.getDuration().ifPresent(builder::setDuration);
+        call.getFeatures().forEach(builder::addFeature);
+        call.getParticipants().forEach(builder::addParticipant);
+        ESTABLISHED_ACTIONS.forEach(builder::addAction);
+        return builder.setState(CallState.CALL_ESTABLISHED).build();
+    }
+
+    @Benchmark
+    public Call derive() {
+        return call.toBuilder()
+                .setState(CallState.CALL_ESTABLISHED)
+                .clearActions()
+                .addActions(ESTABLISHED_ACTIONS)
+                .build();
+    }
+
+    @Benchmark
+    public Call reuseBuilder() {
+        return reusableBuilder
+                .setState(CallState.CALL_ESTABLISHED)
+                .clearActions()
+                .addActions(ESTABLISHED_ACTIONS)
+                .build();
+    }
+}
@@ -0,0 +1,91 @@
+package com.bt.openlink.benchmarks;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import com.bt.openlink.CallStateStore;
+import com.bt.openlink.CoreFixtures;
+import com.bt.openlink.type.Call;
+import com.bt.openlink.type.CallDirection;
+import com.bt.openlink.type.CallId;
+import com.bt.openlink.type.CallState;
+import com.bt.openlink.type.InterestId;
+
+/**
+ * Measures updating and querying a call state store holding a large estate of calls from many threads at once, as many
+ * XMPP reader threads would.
+ */
+@Threads(8)
+public class CallStateStoreBenchmark {
+
+    private static final int INTEREST_COUNT = 1000;
+
+    @State(Scope.Benchmark)
+    public static class StoreState {
+
+        @Param({ "100000" })
+        public int callCount;
+
+        final CallStateStore store = new CallStateStore();
+        Call[] establishedCalls;
+        InterestId[] interestIds;
+
+        @Setup
+        public void setUp() {
+            interestIds = new InterestId[INTEREST_COUNT];
+            for (int i = 0; i < INTEREST_COUNT; i++) {
+                interestIds[i] = InterestId.from("interest-" + i).get();
+            }
+            establishedCalls = new Call[callCount];
+            for (int i = 0; i < callCount; i++) {
+                final CallId callId = CallId.from("call-" + i).get();
+                store.apply(call(callId, interestIds[i % INTEREST_COUNT], CallState.CALL_ORIGINATED));
+                establishedCalls[i] = call(callId, interestIds[i % INTEREST_COUNT], CallState.CALL_ESTABLISHED);
+            }
+        }
+    }
+
+    private static Call call(final CallId callId, final InterestId interestId, final CallState state) {
+        return Call.Builder.start()
+                .setId(callId)
+                .setSite(CoreFixtures.SITE)
+                .setProfileId(CoreFixtures.PROFILE_ID)
+                .setUserId(CoreFixtures.USER_ID)
+                .setInterestId(interestId)
+                .setState(state)
+                .setDirection(CallDirection.INCOMING)
+                .setStartTime(Instant.EPOCH)
+                .setDuration(Duration.ZERO)
+                .build();
+    }
+
+    @Benchmark
+    public Object applyCall(final StoreState state) {
+        return state.store.apply(state.establishedCalls[ThreadLocalRandom.current().nextInt(state.callCount)]);
+    }
+
+    @Benchmark
+    public Object getCall(final StoreState state) {
+        final Call call = state.establishedCalls[ThreadLocalRandom.current().nextInt(state.callCount)];
+        return state.store.getCall(call.getId().get(), call.getInterestId().get());
+    }
+
+    @Benchmark
+    public int iterateCallsForInterest(final StoreState state) {
+        int participatingCount = 0;
+        for (final Call call : state.store.getCallsForInterest(state.interestIds[ThreadLocalRandom.current().nextInt(INTEREST_COUNT)])) {
+            if (call.getState().get().isParticipating(CallDirection.INCOMING)) {
+                participatingCount++;
+            }
+        }
+        return participatingCount;
+    }
+}
@@ -0,0 +1,67 @@
+package com.bt.openlink.benchmarks;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.bt.openlink.CallStatusRouter;
+import com.bt.openlink.CoreFixtures;
+import com.bt.openlink.type.Call;
+import com.bt.openlink.type.CallDirection;
+import com.bt.openlink.type.CallId;
+import com.bt.openlink.type.CallState;
+import com.bt.openlink.type.InterestId;
+
+/**
+ * Measures routing a call to a router with many listeners, each watching a single interest, as the widgets of a large UI
+ * would. The time to route a call should not grow with the number of listeners.
+ */
+public class CallStatusRouterBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class RouterState {
+
+        @Param({ "10", "1000", "10000" })
+        public int listenerCount;
+
+        final CallStatusRouter router = new CallStatusRouter();
+        Call[] calls;
+        int routedCount;
+
+        @Setup
+        public void setUp() {
+            calls = new Call[listenerCount];
+            for (int i = 0; i < listenerCount; i++) {
+                final InterestId interestId = InterestId.from("interest-" + i).get();
+                router.addListener(CallStatusRouter.Filter.forInterest(interestId), call -> routedCount++);
+                calls[i] = call(CallId.from("call-" + i).get(), interestId);
+            }
+        }
+    }
+
+    private static Call call(final CallId callId, final InterestId interestId) {
+        return Call.Builder.start()
+                .setId(callId)
+                .setSite(CoreFixtures.SITE)
+                .setProfileId(CoreFixtures.PROFILE_ID)
+                .setUserId(CoreFixtures.USER_ID)
+                .setInterestId(interestId)
+                .setState(CallState.CALL_ESTABLISHED)
+                .setDirection(CallDirection.INCOMING)
+                .setStartTime(Instant.EPOCH)
+                .setDuration(Duration.ZERO)
+                .build();
+    }
+
+    @Benchmark
+    public int routeCall(final RouterState state) {
+        state.router.route(state.calls[ThreadLocalRandom.current().nextInt(state.listenerCount)]);
+        return state.routedCount;
+    }
+}
@@ -0,0 +1,84 @@
+package com.bt.openlink.benchmarks;
+
+import java.util.Optional;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.bt.openlink.type.CallDirection;
+import com.bt.openlink.type.CallState;
+import com.bt.openlink.type.Changed;
+import com.bt.openlink.type.FeatureType;
+import com.bt.openlink.type.ParticipantType;
+import com.bt.openlink.type.RequestAction;
+
+/**
+ * Measures the lookup of the enums decoded for every call in a callstatus message. The values are held in state rather
+ * than as constants so that the lookups cannot be folded away; the gc profiler's gc.alloc.rate.norm should report zero
+ * bytes per operation for each benchmark, whatever the case of the value.
+ */
+public class EnumLookupBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class LookupState {
+
+        @Param({ "exact", "lowercase" })
+        public String valueCase;
+
+        String callState;
+        String requestAction;
+        String changed;
+        String featureType;
+        String callDirection;
+        String participantType;
+
+        @Setup
+        public void setUp() {
+            callState = toCase(CallState.CALL_MISSED.getLabel());
+            requestAction = toCase(RequestAction.DISCONNECT_SPEAKER.getId());
+            changed = toCase(Changed.MICROPHONE.getId());
+            featureType = toCase(FeatureType.DEVICE_KEYS.getId());
+            callDirection = toCase(CallDirection.OUTGOING.getLabel());
+            participantType = toCase(ParticipantType.ACTIVE.getId());
+        }
+
+        private String toCase(final String value) {
+            // Copy the value so that it is not the same instance as the one held by the enum
+            return "exact".equals(valueCase) ? new String(value) : value.toLowerCase();
+        }
+    }
+
+    @Benchmark
+    public Optional<CallState> callState(final LookupState state) {
+        return CallState.from(state.callState);
+    }
+
+    @Benchmark
+    public Optional<RequestAction> requestAction(final LookupState state) {
+        return RequestAction.from(state.requestAction);
+    }
+
+    @Benchmark
+    public Optional<Changed> changed(final LookupState state) {
+        return Changed.from(state.changed);
+    }
+
+    @Benchmark
+    public Optional<FeatureType> featureType(final LookupState state) {
+        return FeatureType.from(state.featureType);
+    }
+
+    @Benchmark
+    public Optional<CallDirection> callDirection(final LookupState state) {
+        return CallDirection.from(state.callDirection);
+    }
+
+    @Benchmark
+    public Optional<ParticipantType> participantType(final LookupState state) {
+        return ParticipantType.from(state.participantType);
+    }
+
+}
@@ -0,0 +1,71 @@
+package com.bt.openlink.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.xmpp.packet.JID;
+
+import com.bt.openlink.CoreFixtures;
+import com.bt.openlink.PubSubMessageFixtures;
+import com.bt.openlink.tinder.StanzaFanOut;
+import com.bt.openlink.tinder.message.CallStatusMessage;
+import com.bt.openlink.tinder.message.OpenlinkMessageParser;
+import com.bt.openlink.type.Call;
+
+/**
+ * Measures publishing a call status message to many subscribers, either building and serialising the message for each
+ * subscriber or encoding it once and addressing a copy to each subscriber.
+ */
+public class FanOutBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class FanOutState {
+
+        @Param({ "1", "10", "300" })
+        public int subscriberCount;
+
+        List<Call> calls;
+        List<JID> subscribers;
+
+        @Setup
+        public void setUp() {
+            final CallStatusMessage message = (CallStatusMessage) OpenlinkMessageParser.parse(BenchmarkCorpus.tinderMessage(BenchmarkCorpus.callStatusMessage(10)));
+            calls = message.getCalls();
+            subscribers = new ArrayList<>(subscriberCount);
+            for (int i = 0; i < subscriberCount; i++) {
+                subscribers.add(new JID("subscriber-" + i, "test-domain", "test-resource"));
+            }
+        }
+    }
+
+    private static CallStatusMessage.Builder builder(final FanOutState state, final JID to) {
+        return CallStatusMessage.Builder.start()
+                .setId(CoreFixtures.STANZA_ID)
+                .setTo(to)
+                .setFrom(BenchmarkCorpus.TINDER_FROM_JID)
+                .setPubSubNodeId(PubSubMessageFixtures.NODE_ID)
+                .setItemId(PubSubMessageFixtures.ITEM_ID)
+                .addCalls(state.calls);
+    }
+
+    @Benchmark
+    public void serialisePerSubscriber(final FanOutState state, final Blackhole blackhole) {
+        for (final JID subscriber : state.subscribers) {
+            blackhole.consume(builder(state, subscriber).build().toXML());
+        }
+    }
+
+    @Benchmark
+    public void fanOut(final FanOutState state, final Blackhole blackhole) {
+        final StanzaFanOut fanOut = builder(state, BenchmarkCorpus.TINDER_TO_JID).buildLazily().fanOut();
+        for (final JID subscriber : state.subscribers) {
+            blackhole.consume(fanOut.toXML(subscriber));
+        }
+    }
+}
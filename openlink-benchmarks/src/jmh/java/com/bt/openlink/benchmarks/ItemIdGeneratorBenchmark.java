@@ -0,0 +1,60 @@
+package com.bt.openlink.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import com.bt.openlink.type.ItemId;
+import com.bt.openlink.type.ItemIdGenerator;
+
+/**
+ * Measures generating item ids with each generator on one thread and on every core, as the publishing threads of a
+ * server do. The throughput of the secure random generator barely changes with more threads, as they queue on the lock
+ * of the shared {@link java.security.SecureRandom}. The time-ordered generator is lock-free but every thread updates the
+ * same sequence, which its ordering guarantee requires, so it contends under load and scales less than linearly. The
+ * fast random and node counter generators keep their state per thread and should scale with the number of cores.
+ */
+public class ItemIdGeneratorBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class GeneratorState {
+
+        @Param({ "secureRandom", "fastRandom", "timeOrdered", "nodeCounter" })
+        public String generatorName;
+
+        ItemIdGenerator generator;
+
+        @Setup
+        public void setUp() {
+            switch (generatorName) {
+                case "secureRandom":
+                    generator = ItemIdGenerator.secureRandom();
+                    break;
+                case "fastRandom":
+                    generator = ItemIdGenerator.fastRandom();
+                    break;
+                case "timeOrdered":
+                    generator = ItemIdGenerator.timeOrdered();
+                    break;
+                default:
+                    generator = ItemIdGenerator.nodeCounter("benchmark-node");
+                    break;
+            }
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public ItemId oneThread(final GeneratorState state) {
+        return state.generator.next();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public ItemId everyCore(final GeneratorState state) {
+        return state.generator.next();
+    }
+}
@@ -0,0 +1,45 @@
+package com.bt.openlink.benchmarks;
+
+import org.jivesoftware.smack.packet.IQ;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.bt.openlink.smack.iq.OpenlinkIQProvider;
+
+/**
+ * Measures the parsing of an Openlink IQ by the Smack provider. The pull parser has to be created for each invocation,
+ * so the {@link #createParser} benchmark provides a baseline for the cost of that.
+ */
+public class SmackProviderBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class IQState {
+
+        @Param({
+                "get-profiles-request", "get-profiles-result",
+                "get-interests-request", "get-interests-result" })
+        public String stanza;
+
+        final OpenlinkIQProvider provider = new OpenlinkIQProvider();
+        String xml;
+
+        @Setup
+        public void setUp() {
+            xml = BenchmarkCorpus.IQ_STANZAS.get(stanza);
+        }
+    }
+
+    @Benchmark
+    public Object createParser(final IQState state) throws Exception {
+        return BenchmarkCorpus.smackParserAtChildElement(state.xml);
+    }
+
+    @Benchmark
+    public IQ parseIQ(final IQState state) throws Exception {
+        return state.provider.parse(BenchmarkCorpus.smackParserAtChildElement(state.xml));
+    }
+
+}
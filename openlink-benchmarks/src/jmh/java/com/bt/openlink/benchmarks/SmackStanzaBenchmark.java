@@ -0,0 +1,77 @@
+package com.bt.openlink.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.bt.openlink.CoreFixtures;
+import com.bt.openlink.GetProfilesFixtures;
+import com.bt.openlink.smack.iq.GetInterestsRequest;
+import com.bt.openlink.smack.iq.GetInterestsResult;
+import com.bt.openlink.smack.iq.GetProfilesRequest;
+import com.bt.openlink.smack.iq.GetProfilesResult;
+
+/**
+ * Measures the construction of each of the Smack stanzas from its builder, and the serialisation of the larger ones.
+ */
+public class SmackStanzaBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class GetProfilesResultState {
+
+        GetProfilesResult result;
+
+        @Setup
+        public void setUp() {
+            result = new SmackStanzaBenchmark().getProfilesResult();
+        }
+    }
+
+    @Benchmark
+    public GetProfilesRequest getProfilesRequest() {
+        return GetProfilesRequest.Builder.start()
+                .setId(CoreFixtures.STANZA_ID)
+                .setTo(BenchmarkCorpus.SMACK_TO_JID)
+                .setFrom(BenchmarkCorpus.SMACK_FROM_JID)
+                .setJID(BenchmarkCorpus.SMACK_USER_JID)
+                .build();
+    }
+
+    @Benchmark
+    public GetProfilesResult getProfilesResult() {
+        return GetProfilesResult.Builder.start()
+                .setId(CoreFixtures.STANZA_ID)
+                .setTo(BenchmarkCorpus.SMACK_TO_JID)
+                .setFrom(BenchmarkCorpus.SMACK_FROM_JID)
+                .addProfile(CoreFixtures.PROFILE)
+                .addProfile(GetProfilesFixtures.PROFILE_2)
+                .build();
+    }
+
+    @Benchmark
+    public CharSequence getProfilesResultToXML(final GetProfilesResultState state) {
+        return state.result.toXML().toString();
+    }
+
+    @Benchmark
+    public GetInterestsRequest getInterestsRequest() {
+        return GetInterestsRequest.Builder.start()
+                .setId(CoreFixtures.STANZA_ID)
+                .setTo(BenchmarkCorpus.SMACK_TO_JID)
+                .setFrom(BenchmarkCorpus.SMACK_FROM_JID)
+                .setProfileId(CoreFixtures.PROFILE_ID)
+                .build();
+    }
+
+    @Benchmark
+    public GetInterestsResult getInterestsResult() {
+        return GetInterestsResult.Builder.start()
+                .setId(CoreFixtures.STANZA_ID)
+                .setTo(BenchmarkCorpus.SMACK_TO_JID)
+                .setFrom(BenchmarkCorpus.SMACK_FROM_JID)
+                .addInterest(CoreFixtures.INTEREST)
+                .build();
+    }
+
+}
@@ -0,0 +1,45 @@
+package com.bt.openlink.benchmarks;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import com.bt.openlink.TimestampCodec;
+
+/**
+ * Measures formatting and parsing the start time of a call, with the {@link DateTimeFormatter} and
+ * {@link Instant#parse(CharSequence)} previously used, and with the {@link TimestampCodec}.
+ */
+@State(Scope.Thread)
+public class TimestampCodecBenchmark {
+
+    private static final DateTimeFormatter ISO_8601_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
+
+    // Held in state rather than as constants so that the work cannot be folded away
+    private Instant startTime = Instant.parse("2017-10-09T08:07:00.123Z");
+    private String startTimeText = "2017-10-09T08:07:00.123Z";
+
+    @Benchmark
+    public String formatWithFormatter() {
+        return ISO_8601_FORMATTER.format(startTime.atZone(ZoneOffset.UTC));
+    }
+
+    @Benchmark
+    public String formatWithCodec() {
+        return TimestampCodec.formatIso8601(startTime);
+    }
+
+    @Benchmark
+    public Instant parseWithInstant() {
+        return Instant.parse(startTimeText);
+    }
+
+    @Benchmark
+    public Instant parseWithCodec() {
+        return TimestampCodec.parseIso8601(startTimeText);
+    }
+}
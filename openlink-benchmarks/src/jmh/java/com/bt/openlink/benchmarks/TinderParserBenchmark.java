@@ -0,0 +1,115 @@
+package com.bt.openlink.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.xmpp.packet.IQ;
+import org.xmpp.packet.Message;
+
+import com.bt.openlink.ParseOptions;
+import com.bt.openlink.PubSubMessageFixtures;
+import com.bt.openlink.tinder.iq.OpenlinkIQParser;
+import com.bt.openlink.tinder.message.OpenlinkMessageParser;
+import com.bt.openlink.type.CallFieldMask;
+
+/**
+ * Measures the conversion of a generic Tinder stanza, as received from the server, in to the Openlink stanza.
+ */
+public class TinderParserBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class IQState {
+
+        @Param({
+                "get-profiles-request", "get-profiles-result",
+                "get-interests-request", "get-interests-result",
+                "get-interest-request", "get-interest-result",
+                "get-features-request", "get-features-result",
+                "get-call-history-request",
+                "make-call-request", "make-call-result",
+                "request-action-request", "request-action-result",
+                "pubsub-subscribe-request", "pubsub-subscribe-result",
+                "pubsub-publish-request" })
+        public String stanza;
+
+        IQ iq;
+
+        @Setup
+        public void setUp() {
+            iq = BenchmarkCorpus.tinderIQ(BenchmarkCorpus.IQ_STANZAS.get(stanza));
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class CallStatusState {
+
+        @Param({ "1", "10", "100" })
+        public int callCount;
+
+        String xml;
+        Message message;
+
+        @Setup
+        public void setUp() {
+            xml = BenchmarkCorpus.callStatusMessage(callCount);
+            message = BenchmarkCorpus.tinderMessage(xml);
+        }
+    }
+
+    private static final ParseOptions SUMMARY_OPTIONS = ParseOptions.Builder.start()
+            .setCallFieldMask(CallFieldMask.summary())
+            .build();
+
+    @State(Scope.Benchmark)
+    public static class DeviceStatusState {
+
+        Message message;
+
+        @Setup
+        public void setUp() {
+            message = BenchmarkCorpus.tinderMessage(PubSubMessageFixtures.DEVICE_STATUS_MESSAGE);
+        }
+    }
+
+    @Benchmark
+    public IQ parseIQ(final IQState state) {
+        return OpenlinkIQParser.parse(state.iq);
+    }
+
+    @Benchmark
+    public Message parseCallStatusMessage(final CallStatusState state) {
+        return OpenlinkMessageParser.parse(state.message);
+    }
+
+    /**
+     * Builds the dom4j tree from the raw XML and then converts it, as when the XML is read by Tinder.
+     */
+    @Benchmark
+    public Message parseCallStatusMessageXmlViaTinder(final CallStatusState state) {
+        return OpenlinkMessageParser.parse(BenchmarkCorpus.tinderMessage(state.xml));
+    }
+
+    /**
+     * Decodes the raw XML directly from the stream.
+     */
+    @Benchmark
+    public Message parseCallStatusMessageXmlViaStream(final CallStatusState state) {
+        return OpenlinkMessageParser.parse(state.xml);
+    }
+
+    /**
+     * Decodes only the summary fields of each call from the stream.
+     */
+    @Benchmark
+    public Message parseCallStatusMessageSummaryXmlViaStream(final CallStatusState state) {
+        return OpenlinkMessageParser.parse(state.xml, SUMMARY_OPTIONS);
+    }
+
+    @Benchmark
+    public Message parseDeviceStatusMessage(final DeviceStatusState state) {
+        return OpenlinkMessageParser.parse(state.message);
+    }
+
+}
@@ -0,0 +1,326 @@
+package com.bt.openlink.benchmarks;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.bt.openlink.CoreFixtures;
+import com.bt.openlink.GetProfilesFixtures;
+import com.bt.openlink.OpenlinkXmlWriter;
+import com.bt.openlink.PubSubMessageFixtures;
+import com.bt.openlink.RequestActionFixtures;
+import com.bt.openlink.tinder.iq.GetCallHistoryRequest;
+import com.bt.openlink.tinder.iq.GetFeaturesRequest;
+import com.bt.openlink.tinder.iq.GetFeaturesResult;
+import com.bt.openlink.tinder.iq.GetInterestRequest;
+import com.bt.openlink.tinder.iq.GetInterestResult;
+import com.bt.openlink.tinder.iq.GetInterestsRequest;
+import com.bt.openlink.tinder.iq.GetInterestsResult;
+import com.bt.openlink.tinder.iq.GetProfilesRequest;
+import com.bt.openlink.tinder.iq.GetProfilesResult;
+import com.bt.openlink.tinder.iq.MakeCallRequest;
+import com.bt.openlink.tinder.iq.MakeCallResult;
+import com.bt.openlink.tinder.iq.PubSubPublishRequest;
+import com.bt.openlink.tinder.iq.PubSubSubscriptionRequest;
+import com.bt.openlink.tinder.iq.PubSubSubscriptionResult;
+import com.bt.openlink.tinder.iq.RequestActionRequest;
+import com.bt.openlink.tinder.iq.RequestActionResult;
+import com.bt.openlink.tinder.message.CallStatusMessage;
+import com.bt.openlink.tinder.message.DeviceStatusMessage;
+import com.bt.openlink.tinder.message.OpenlinkMessageParser;
+import com.bt.openlink.type.Call;
+import com.bt.openlink.type.RequestAction;
+import com.bt.openlink.type.SubscriptionState;
+
+/**
+ * Measures the construction of each of the Tinder stanzas from its builder, and the serialisation of the larger ones.
+ */
+public class TinderStanzaBenchmark {
+
+    private static final List<Call> ONE_CALL = Collections.singletonList(CoreFixtures.CALL_INCOMING_ORIGINATED);
+
+    @State(Scope.Benchmark)
+    public static class CallStatusState {
+
+        @Param({ "1", "10", "100" })
+        public int callCount;
+
+        List<Call> calls;
+        CallStatusMessage message;
+
+        @Setup
+        public void setUp() {
+            message = (CallStatusMessage) OpenlinkMessageParser.parse(BenchmarkCorpus.tinderMessage(BenchmarkCorpus.callStatusMessage(callCount)));
+            calls = message.getCalls();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class GetProfilesResultState {
+
+        GetProfilesResult result;
+
+        @Setup
+        public void setUp() {
+            result = new TinderStanzaBenchmark().getProfilesResult();
+        }
+    }
+
+    @Benchmark
+    public CallStatusMessage callStatusMessage(final CallStatusState state) {
+        return CallStatusMessage.Builder.start()
+                .setId(CoreFixtures.STANZA_ID)
+                .setTo(BenchmarkCorpus.TINDER_TO_JID)
+                .setFrom(BenchmarkCorpus.TINDER_FROM_JID)
+                .setPubSubNodeId(PubSubMessageFixtures.NODE_ID)
+                .setItemId(PubSubMessageFixtures.ITEM_ID)
+                .addCalls(state.calls)
+                .build();
+    }
+
+    @Benchmark
+    public CallStatusMessage callStatusMessageLazily(final CallStatusState state) {
+        return CallStatusMessage.Builder.start()
+                .setId(CoreFixtures.STANZA_ID)
+                .setTo(BenchmarkCorpus.TINDER_TO_JID)
+                .setFrom(BenchmarkCorpus.TINDER_FROM_JID)
+                .setPubSubNodeId(PubSubMessageFixtures.NODE_ID)
+                .setItemId(PubSubMessageFixtures.ITEM_ID)
+                .addCalls(state.calls)
+                .buildLazily();
+    }
+
+    @Benchmark
+    public String callStatusMessageToXML(final CallStatusState state) {
+        return state.message.toXML();
+    }
+
+    @Benchmark
+    public String callStatusMessageLazilyToXML(final CallStatusState state) {
+        return callStatusMessageLazily(state).toXML();
+    }
+
+    @Benchmark
+    public String callStatusXmlWrittenDirectly(final CallStatusState state) {
+        return OpenlinkXmlWriter.toXML(writer -> writer.writeCallStatus(null, state.calls));
+    }
+
+    @Benchmark
+    public DeviceStatusMessage deviceStatusMessage() {
+        return DeviceStatusMessage.Builder.start()
+                .setId(CoreFixtures.STANZA_ID)
+                .setTo(BenchmarkCorpus.TINDER_TO_JID)
+                .setFrom(BenchmarkCorpus.TINDER_FROM_JID)
+                .setPubSubNodeId(PubSubMessageFixtures.NODE_ID)
+                .setItemId(PubSubMessageFixtures.ITEM_ID)
+                .setDeviceStatus(CoreFixtures.DEVICE_STATUS_LOGON)
+                .build();
+    }
+
+    @Benchmark
+    public GetProfilesRequest getProfilesRequest() {
+        return GetProfilesRequest.Builder.start()
+                .setId(CoreFixtures.STANZA_ID)
+                .setTo(BenchmarkCorpus.TINDER_TO_JID)
+                .setFrom(BenchmarkCorpus.TINDER_FROM_JID)
+                .setJID(BenchmarkCorpus.TINDER_USER_JID)
+                .build();
+    }
+
+    @Benchmark
+    public GetProfilesResult getProfilesResult() {
+        return GetProfilesResult.Builder.start()
+                .setId(CoreFixtures.STANZA_ID)
+                .setTo(BenchmarkCorpus.TINDER_TO_JID)
+                .setFrom(BenchmarkCorpus.TINDER_FROM_JID)
+                .addProfile(CoreFixtures.PROFILE)
+                .addProfile(GetProfilesFixtures.PROFILE_2)
+                .build();
+    }
+
+    @Benchmark
+    public GetProfilesResult getProfilesResultLazily() {
+        return GetProfilesResult.Builder.start()
+                .setId(CoreFixtures.STANZA_ID)
+                .setTo(BenchmarkCorpus.TINDER_TO_JID)
+                .setFrom(BenchmarkCorpus.TINDER_FROM_JID)
+                .addProfile(CoreFixtures.PROFILE)
+                .addProfile(GetProfilesFixtures.PROFILE_2)
+                .buildLazily();
+    }
+
+    @Benchmark
+    public String getProfilesResultToXML(final GetProfilesResultState state) {
+        return state.result.toXML();
+    }
+
+    @Benchmark
+    public GetInterestsRequest getInterestsRequest() {
+        return GetInterestsRequest.Builder.start()
+                .setId(CoreFixtures.STANZA_ID)
+                .setTo(BenchmarkCorpus.TINDER_TO_JID)
+                .setFrom(BenchmarkCorpus.TINDER_FROM_JID)
+                .setProfileId(CoreFixtures.PROFILE_ID)
+                .build();
+    }
+
+    @Benchmark
+    public GetInterestsResult getInterestsResult() {
+        return GetInterestsResult.Builder.start()
+                .setId(CoreFixtures.STANZA_ID)
+                .setTo(BenchmarkCorpus.TINDER_TO_JID)
+                .setFrom(BenchmarkCorpus.TINDER_FROM_JID)
+                .addInterest(CoreFixtures.INTEREST)
+                .build();
+    }
+
+    @Benchmark
+    public GetInterestRequest getInterestRequest() {
+        return GetInterestRequest.Builder.start()
+                .setId(CoreFixtures.STANZA_ID)
+                .setTo(BenchmarkCorpus.TINDER_TO_JID)
+                .setFrom(BenchmarkCorpus.TINDER_FROM_JID)
+                .setInterestId(CoreFixtures.INTEREST_ID)
+                .build();
+    }
+
+    @Benchmark
+    public GetInterestResult getInterestResult() {
+        return GetInterestResult.Builder.start()
+                .setId(CoreFixtures.STANZA_ID)
+                .setTo(BenchmarkCorpus.TINDER_TO_JID)
+                .setFrom(BenchmarkCorpus.TINDER_FROM_JID)
+                .setInterest(CoreFixtures.INTEREST)
+                .build();
+    }
+
+    @Benchmark
+    public GetFeaturesRequest getFeaturesRequest() {
+        return GetFeaturesRequest.Builder.start()
+                .setId(CoreFixtures.STANZA_ID)
+                .setTo(BenchmarkCorpus.TINDER_TO_JID)
+                .setFrom(BenchmarkCorpus.TINDER_FROM_JID)
+                .setProfileId(CoreFixtures.PROFILE_ID)
+                .build();
+    }
+
+    @Benchmark
+    public GetFeaturesResult getFeaturesResult() {
+        return GetFeaturesResult.Builder.start()
+                .setId(CoreFixtures.STANZA_ID)
+                .setTo(BenchmarkCorpus.TINDER_TO_JID)
+                .setFrom(BenchmarkCorpus.TINDER_FROM_JID)
+                .setProfileId(CoreFixtures.PROFILE_ID)
+                .addFeature(CoreFixtures.FEATURE)
+                .build();
+    }
+
+    @Benchmark
+    public GetCallHistoryRequest getCallHistoryRequest() {
+        return GetCallHistoryRequest.Builder.start()
+                .setId(CoreFixtures.STANZA_ID)
+                .setTo(BenchmarkCorpus.TINDER_TO_JID)
+                .setFrom(BenchmarkCorpus.TINDER_FROM_JID)
+                .setJID(BenchmarkCorpus.TINDER_USER_JID)
+                .build();
+    }
+
+    @Benchmark
+    public MakeCallRequest makeCallRequest() {
+        return MakeCallRequest.Builder.start()
+                .setId(CoreFixtures.STANZA_ID)
+                .setTo(BenchmarkCorpus.TINDER_TO_JID)
+                .setFrom(BenchmarkCorpus.TINDER_FROM_JID)
+                .setJID(BenchmarkCorpus.TINDER_USER_JID)
+                .setInterestId(CoreFixtures.INTEREST_ID)
+                .setDestination(CoreFixtures.CALLED_DESTINATION)
+                .addFeatureId(CoreFixtures.FEATURE_ID)
+                .build();
+    }
+
+    @Benchmark
+    public MakeCallResult makeCallResult() {
+        return MakeCallResult.Builder.start()
+                .setId(CoreFixtures.STANZA_ID)
+                .setTo(BenchmarkCorpus.TINDER_TO_JID)
+                .setFrom(BenchmarkCorpus.TINDER_FROM_JID)
+                .addCalls(ONE_CALL)
+                .build();
+    }
+
+    @Benchmark
+    public RequestActionRequest requestActionRequest() {
+        return RequestActionRequest.Builder.start()
+                .setId(CoreFixtures.STANZA_ID)
+                .setTo(BenchmarkCorpus.TINDER_TO_JID)
+                .setFrom(BenchmarkCorpus.TINDER_FROM_JID)
+                .setInterestId(CoreFixtures.INTEREST_ID)
+                .setAction(RequestAction.START_VOICE_DROP)
+                .setCallId(CoreFixtures.CALL_ID)
+                .setValue1(RequestActionFixtures.REQUEST_ACTION_VALUE_1)
+                .setValue2(RequestActionFixtures.REQUEST_ACTION_VALUE_2)
+                .build();
+    }
+
+    @Benchmark
+    public RequestActionResult requestActionResult() {
+        return RequestActionResult.Builder.start()
+                .setId(CoreFixtures.STANZA_ID)
+                .setTo(BenchmarkCorpus.TINDER_TO_JID)
+                .setFrom(BenchmarkCorpus.TINDER_FROM_JID)
+                .addCalls(ONE_CALL)
+                .build();
+    }
+
+    @Benchmark
+    public PubSubSubscriptionRequest pubSubSubscriptionRequest() {
+        return PubSubSubscriptionRequest.Builder.start()
+                .setId(CoreFixtures.STANZA_ID)
+                .setTo(BenchmarkCorpus.TINDER_TO_JID)
+                .setFrom(BenchmarkCorpus.TINDER_FROM_JID)
+                .setJID(BenchmarkCorpus.TINDER_USER_JID)
+                .setPubSubNodeId(PubSubMessageFixtures.NODE_ID)
+                .setSubscriptionState(SubscriptionState.SUBSCRIBED)
+                .build();
+    }
+
+    @Benchmark
+    public PubSubSubscriptionResult pubSubSubscriptionResult() {
+        return PubSubSubscriptionResult.Builder.start()
+                .setId(CoreFixtures.STANZA_ID)
+                .setTo(BenchmarkCorpus.TINDER_TO_JID)
+                .setFrom(BenchmarkCorpus.TINDER_FROM_JID)
+                .setJID(BenchmarkCorpus.TINDER_USER_JID)
+                .setPubSubNodeId(PubSubMessageFixtures.NODE_ID)
+                .setSubscriptionState(SubscriptionState.SUBSCRIBED)
+                .build();
+    }
+
+    @Benchmark
+    public PubSubPublishRequest pubSubPublishRequest(final CallStatusState state) {
+        return PubSubPublishRequest.Builder.start()
+                .setId(CoreFixtures.STANZA_ID)
+                .setTo(BenchmarkCorpus.TINDER_TO_JID)
+                .setFrom(BenchmarkCorpus.TINDER_FROM_JID)
+                .setPubSubNodeId(PubSubMessageFixtures.NODE_ID)
+                .addCalls(state.calls)
+                .build();
+    }
+
+    @Benchmark
+    public PubSubPublishRequest pubSubPublishRequestLazily(final CallStatusState state) {
+        return PubSubPublishRequest.Builder.start()
+                .setId(CoreFixtures.STANZA_ID)
+                .setTo(BenchmarkCorpus.TINDER_TO_JID)
+                .setFrom(BenchmarkCorpus.TINDER_FROM_JID)
+                .setPubSubNodeId(PubSubMessageFixtures.NODE_ID)
+                .addCalls(state.calls)
+                .buildLazily();
+    }
+
+}
@@ -0,0 +1,241 @@
+package com.bt.openlink;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Sends Openlink requests - for example get-profiles, make-call or request-action - and completes a future with the
+ * matching result when it is received, so that many requests can be outstanding without a thread blocked on each.
+ * <p>
+ * The client is independent of the XMPP library; an {@link Adapter} sends the requests and reads the received IQs - see,
+ * for example, the Tinder {@code TinderIQAdapter} or the Smack {@code SmackIQAdapter}. Each result or error IQ received
+ * should be passed to {@link #handleResponse(Object)}, which correlates it with its request by stanza id. A response is
+ * only accepted from the entity the request was sent to, so that no other entity can complete or fail a request by
+ * guessing its stanza id; a request that is not addressed only accepts a response that does not say who it is from.
+ * <p>
+ * A request fails with a {@link StanzaErrorException} if an error is received, a {@link TimeoutException} if nothing is
+ * received in time, or a {@link RejectedExecutionException} if too many requests are already outstanding. Cancelling the
+ * future stops waiting for the result. Instances are thread-safe.
+ *
+ * @param <I> the type of IQ used by the XMPP library
+ */
+public final class AsyncIQClient<I> {
+
+    /**
+     * Adapts the client to an XMPP library.
+     *
+     * @param <I> the type of IQ used by the XMPP library
+     */
+    public interface Adapter<I> {
+
+        /**
+         * @param iq the IQ
+         * @return the stanza id of the IQ, or {@code null} if it does not have one
+         */
+        @Nullable
+        String getId(@Nonnull I iq);
+
+        /**
+         * @param iq the IQ
+         * @return the JID the IQ is addressed to, or {@code null} if it is not addressed
+         */
+        @Nullable
+        String getTo(@Nonnull I iq);
+
+        /**
+         * @param iq the IQ
+         * @return the JID of the sender of the IQ, or {@code null} if it does not say
+         */
+        @Nullable
+        String getFrom(@Nonnull I iq);
+
+        /**
+         * @param iq the IQ
+         * @return {@code true} if the IQ is a result or an error, otherwise {@code false}
+         */
+        boolean isResponse(@Nonnull I iq);
+
+        /**
+         * @param iq a result or error IQ
+         * @return the error the IQ carries, or {@code null} if it is a result
+         */
+        @Nullable
+        StanzaErrorException getError(@Nonnull I iq);
+
+        /**
+         * @param iq a result IQ, as received
+         * @return the equivalent Openlink IQ, or the IQ itself if it has already been parsed
+         */
+        @Nonnull
+        I parse(@Nonnull I iq);
+
+        /**
+         * @param iq the request to send
+         * @throws Exception if the request could not be sent
+         */
+        void send(@Nonnull I iq) throws Exception;
+    }
+
+    @Nonnull private final Adapter<I> adapter;
+    @Nonnull private final HashedWheelTimer timer;
+    @Nonnull private final Duration defaultTimeout;
+    @Nonnull private final Semaphore permits;
+    @Nonnull private final ConcurrentMap<String, PendingRequest<?>> pendingRequests = new ConcurrentHashMap<>();
+    private volatile boolean closed;
+
+    /**
+     * @param adapter            adapts the client to the XMPP library
+     * @param timer              the timer used to time out requests; may be shared with other clients
+     * @param defaultTimeout     how long to wait for a result, unless a request says otherwise
+     * @param maximumOutstanding the maximum number of requests awaiting a result at any one time
+     */
+    public AsyncIQClient(@Nonnull final Adapter<I> adapter, @Nonnull final HashedWheelTimer timer, @Nonnull final Duration defaultTimeout, final int maximumOutstanding) {
+        if (maximumOutstanding < 1) {
+            throw new IllegalArgumentException("At least one request must be allowed to be outstanding");
+        }
+        if (defaultTimeout.isNegative() || defaultTimeout.isZero()) {
+            throw new IllegalArgumentException("The timeout must be positive");
+        }
+        this.adapter = adapter;
+        this.timer = timer;
+        this.defaultTimeout = defaultTimeout;
+        this.permits = new Semaphore(maximumOutstanding);
+    }
+
+    /**
+     * Sends a request, waiting for the default timeout for the result.
+     *
+     * @param request    the request to send; it must have a stanza id
+     * @param resultType the type of result expected, for example {@code MakeCallResult.class}
+     * @param <R>        the type of result expected
+     * @return a future that completes with the result of the request
+     * @see #sendRequest(Object, Class, Duration)
+     */
+    @Nonnull
+    public <R> CompletableFuture<R> sendRequest(@Nonnull final I request, @Nonnull final Class<R> resultType) {
+        return sendRequest(request, resultType, defaultTimeout);
+    }
+
+    /**
+     * Sends a request.
+     *
+     * @param request    the request to send; it must have a stanza id
+     * @param resultType the type of result expected, for example {@code MakeCallResult.class}
+     * @param timeout    how long to wait for the result
+     * @param <R>        the type of result expected
+     * @return a future that completes with the result of the request, or exceptionally if it fails
+     */
+    @Nonnull
+    public <R> CompletableFuture<R> sendRequest(@Nonnull final I request, @Nonnull final Class<R> resultType, @Nonnull final Duration timeout) {
+        final CompletableFuture<R> future = new CompletableFuture<>();
+        final String id = adapter.getId(request);
+        if (id == null) {
+            future.completeExceptionally(new IllegalArgumentException("The request must have a stanza id"));
+            return future;
+        }
+        if (closed) {
+            future.completeExceptionally(new IllegalStateException("The client has been closed"));
+            return future;
+        }
+        if (!permits.tryAcquire()) {
+            future.completeExceptionally(new RejectedExecutionException("Too many requests are outstanding"));
+            return future;
+        }
+        final PendingRequest<R> pendingRequest = new PendingRequest<>(future, resultType, adapter.getTo(request));
+        if (pendingRequests.putIfAbsent(id, pendingRequest) != null) {
+            permits.release();
+            future.completeExceptionally(new IllegalArgumentException("A request with the stanza id '" + id + "' is already outstanding"));
+            return future;
+        }
+        final HashedWheelTimer.Timeout requestTimeout = timer.newTimeout(
+                () -> future.completeExceptionally(new TimeoutException("No result was received for the request with the stanza id '" + id + "' within " + timeout)),
+                timeout.toNanos(), TimeUnit.NANOSECONDS);
+        // However the future completes - with a result, an error, a timeout or cancellation - the request is finished with
+        future.whenComplete((result, throwable) -> {
+            pendingRequests.remove(id, pendingRequest);
+            requestTimeout.cancel();
+            permits.release();
+        });
+        try {
+            adapter.send(request);
+        } catch (final Exception e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Completes the request that a result or error IQ answers. An IQ with the stanza id of a request, but that is not from
+     * the entity the request was sent to, is ignored.
+     *
+     * @param iq the IQ received
+     * @return {@code true} if the IQ answered an outstanding request, otherwise {@code false}
+     */
+    public boolean handleResponse(@Nonnull final I iq) {
+        if (!adapter.isResponse(iq)) {
+            return false;
+        }
+        final String id = adapter.getId(iq);
+        final PendingRequest<?> pendingRequest = id == null ? null : pendingRequests.get(id);
+        if (pendingRequest == null || !Objects.equals(pendingRequest.to, adapter.getFrom(iq)) || !pendingRequests.remove(id, pendingRequest)) {
+            return false;
+        }
+        final StanzaErrorException error = adapter.getError(iq);
+        if (error != null) {
+            pendingRequest.future.completeExceptionally(error);
+        } else {
+            try {
+                pendingRequest.complete(adapter.parse(iq));
+            } catch (final RuntimeException e) {
+                pendingRequest.future.completeExceptionally(e);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the number of requests awaiting a result
+     */
+    public int getOutstandingCount() {
+        return pendingRequests.size();
+    }
+
+    /**
+     * Closes the client; any request awaiting a result fails, as does any later request. The timer is not stopped.
+     */
+    public void close() {
+        closed = true;
+        pendingRequests.values().forEach(pendingRequest -> pendingRequest.future.completeExceptionally(new IllegalStateException("The client has been closed")));
+    }
+
+    private static final class PendingRequest<R> {
+
+        @Nonnull private final CompletableFuture<R> future;
+        @Nonnull private final Class<R> resultType;
+        @Nullable private final String to;
+
+        private PendingRequest(@Nonnull final CompletableFuture<R> future, @Nonnull final Class<R> resultType, @Nullable final String to) {
+            this.future = future;
+            this.resultType = resultType;
+            this.to = to;
+        }
+
+        private void complete(@Nonnull final Object result) {
+            if (resultType.isInstance(result)) {
+                future.complete(resultType.cast(result));
+            } else {
+                future.completeExceptionally(new IllegalStateException("Expected a " + resultType.getSimpleName() + " but received a " + result.getClass().getSimpleName()));
+            }
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.bt.openlink;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.bt.openlink.type.Call;
+import com.bt.openlink.type.CallId;
+import com.bt.openlink.type.InterestId;
+import com.bt.openlink.type.Participant;
+
+/**
+ * Restores each full call from the calls published by a {@link CallDeltaEncoder}, by merging each delta with the last
+ * known version of the call. A full call simply replaces the last known version; a call that has ended is forgotten
+ * once it is decoded.
+ * <p>
+ * If a delta arrives for a call that is not known - for example, if the subscription started part way through the
+ * call, or the decoder was restarted or cleared - the decoded call only holds the fields known so far. Such a call is
+ * still a delta, as reported by {@link #isDelta(Call)}, listing the groups of fields it holds, so that the consumer can
+ * tell it from a full call that simply has no actions, features or participants and ask for the call to be resent in
+ * full. Later deltas fill in the rest of the call, which is full once every group has been received. Merged
+ * participants retain the order in which they first joined the call.
+ * <p>
+ * A call is remembered until it ends. A call that never reaches an ended state - for example, because the message that
+ * ended it was lost, or the interest was unsubscribed - is remembered until it is removed with
+ * {@link #forget(CallId, InterestId)} or {@link #clear()}, so a long-lived decoder should forget the calls of an
+ * interest when it stops watching the interest.
+ * <p>
+ * A decoder is thread-safe; versions of the same call are decoded in the order they are presented.
+ */
+public final class CallDeltaDecoder {
+
+    @Nonnull private final ConcurrentMap<CallKey, Call> knownCalls = new ConcurrentHashMap<>();
+
+    /**
+     * @param call the call to check
+     * @return {@code true} if the call is a delta, {@code false} if it is a full call
+     */
+    public static boolean isDelta(@Nonnull final Call call) {
+        return CallDeltaGroup.getCarriedGroups(call).isPresent();
+    }
+
+    /**
+     * Decodes the latest version of a call, and records it as the last known version.
+     *
+     * @param call the call as published, either in full or as a delta
+     * @return the full call, or, if the call was not fully known, a delta holding the fields known so far
+     */
+    @Nonnull
+    public Call decode(@Nonnull final Call call) {
+        final CallKey key = CallKey.of(call);
+        final Optional<Set<CallDeltaGroup>> carriedGroups = CallDeltaGroup.getCarriedGroups(call);
+        if (key == null) {
+            return carriedGroups.isPresent() ? merge(null, call, carriedGroups.get()) : call;
+        }
+        final Call[] decodedCall = new Call[1];
+        knownCalls.compute(key, (callKey, previousCall) -> {
+            decodedCall[0] = carriedGroups.isPresent() ? merge(previousCall, call, carriedGroups.get()) : call;
+            return CallStateStore.hasEnded(decodedCall[0]) ? null : decodedCall[0];
+        });
+        return decodedCall[0];
+    }
+
+    /**
+     * Decodes each of the calls, in order, as per {@link #decode(Call)}
+     *
+     * @param calls the calls as published, for example from a call status message
+     * @return the full calls
+     */
+    @Nonnull
+    public List<Call> decode(@Nonnull final Collection<Call> calls) {
+        final List<Call> decodedCalls = new ArrayList<>(calls.size());
+        calls.forEach(call -> decodedCalls.add(decode(call)));
+        return decodedCalls;
+    }
+
+    /**
+     * @param callId     the id of the call
+     * @param interestId the interest the call was reported to, or {@code null} if none
+     * @return the last known version of the call, if it is live
+     */
+    @Nonnull
+    public Optional<Call> getCall(@Nonnull final CallId callId, @Nullable final InterestId interestId) {
+        return Optional.ofNullable(knownCalls.get(new CallKey(callId, interestId)));
+    }
+
+    /**
+     * Forgets a call, for example one that will not be reported again; a later delta for it only holds the fields it
+     * carries.
+     *
+     * @param callId     the id of the call
+     * @param interestId the interest the call was reported to, or {@code null} if none
+     * @return the last known version of the call, if it was live
+     */
+    @Nonnull
+    public Optional<Call> forget(@Nonnull final CallId callId, @Nullable final InterestId interestId) {
+        return Optional.ofNullable(knownCalls.remove(new CallKey(callId, interestId)));
+    }
+
+    /**
+     * @return the number of live calls remembered
+     */
+    public int getCallCount() {
+        return knownCalls.size();
+    }
+
+    /**
+     * Forgets every call decoded.
+     */
+    public void clear() {
+        knownCalls.clear();
+    }
+
+    @Nonnull
+    private static Call merge(@Nullable final Call previousCall, @Nonnull final Call delta, @Nonnull final Set<CallDeltaGroup> carriedGroups) {
+        final Call.Builder builder = CallDeltaGroup.copyMandatoryFields(delta);
+        for (final CallDeltaGroup group : CallDeltaGroup.values()) {
+            if (group == CallDeltaGroup.PARTICIPANTS || group == CallDeltaGroup.CHANGED_PARTICIPANTS) {
+                continue;
+            }
+            if (carriedGroups.contains(group)) {
+                group.copy(delta, builder);
+            } else if (previousCall != null) {
+                group.copy(previousCall, builder);
+            }
+        }
+        if (carriedGroups.contains(CallDeltaGroup.PARTICIPANTS)) {
+            CallDeltaGroup.PARTICIPANTS.copy(delta, builder);
+        } else if (carriedGroups.contains(CallDeltaGroup.CHANGED_PARTICIPANTS)) {
+            final Map<String, Participant> participants = new LinkedHashMap<>();
+            final List<Participant> unidentifiedParticipants = new ArrayList<>();
+            if (previousCall != null) {
+                addParticipants(previousCall.getParticipants(), participants, unidentifiedParticipants);
+            }
+            addParticipants(delta.getParticipants(), participants, unidentifiedParticipants);
+            participants.values().forEach(builder::addParticipant);
+            unidentifiedParticipants.forEach(builder::addParticipant);
+        } else if (previousCall != null) {
+            CallDeltaGroup.PARTICIPANTS.copy(previousCall, builder);
+        }
+        final Set<CallDeltaGroup> knownGroups = getKnownGroups(previousCall, carriedGroups);
+        if (knownGroups != null) {
+            builder.addOriginatorReference(CallDeltaGroup.DELTA_REFERENCE_KEY, CallDeltaGroup.toReferenceValue(knownGroups));
+        }
+        return CallDeltaGroup.build(builder);
+    }
+
+    /**
+     * @return the groups known once the delta is merged with the previous version of the call, or {@code null} if every
+     * group is known
+     */
+    @Nullable
+    private static Set<CallDeltaGroup> getKnownGroups(@Nullable final Call previousCall, @Nonnull final Set<CallDeltaGroup> carriedGroups) {
+        final Set<CallDeltaGroup> knownGroups;
+        if (previousCall == null) {
+            knownGroups = EnumSet.noneOf(CallDeltaGroup.class);
+        } else {
+            final Optional<Set<CallDeltaGroup>> previousGroups = CallDeltaGroup.getCarriedGroups(previousCall);
+            if (!previousGroups.isPresent()) {
+                return null;
+            }
+            knownGroups = EnumSet.noneOf(CallDeltaGroup.class);
+            knownGroups.addAll(previousGroups.get());
+        }
+        knownGroups.addAll(carriedGroups);
+        // The changed participants only complete the participants once every participant has been received
+        if (knownGroups.contains(CallDeltaGroup.PARTICIPANTS)) {
+            knownGroups.remove(CallDeltaGroup.CHANGED_PARTICIPANTS);
+        }
+        return knownGroups.containsAll(EnumSet.complementOf(EnumSet.of(CallDeltaGroup.CHANGED_PARTICIPANTS))) ? null : knownGroups;
+    }
+
+    private static void addParticipants(@Nonnull final List<Participant> participantsToAdd, @Nonnull final Map<String, Participant> participants, @Nonnull final List<Participant> unidentifiedParticipants) {
+        for (final Participant participant : participantsToAdd) {
+            final Optional<String> jid = participant.getJID();
+            if (jid.isPresent()) {
+                participants.put(jid.get(), participant);
+            } else {
+                unidentifiedParticipants.add(participant);
+            }
+        }
+    }
+}
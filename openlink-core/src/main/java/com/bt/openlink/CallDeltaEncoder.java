@@ -0,0 +1,151 @@
+package com.bt.openlink;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.bt.openlink.type.Call;
+import com.bt.openlink.type.CallId;
+import com.bt.openlink.type.Changed;
+import com.bt.openlink.type.InterestId;
+import com.bt.openlink.type.Participant;
+
+/**
+ * Reduces each call to be published to a delta against the version of the call last published, so that a call status
+ * message need only carry the fields that have changed. For example, when one participant joins a conference call only
+ * that participant is carried, rather than every participant, action and feature of the call.
+ * <p>
+ * The first version of a call is published in full. Each later version carries the mandatory fields of a call, plus
+ * only the groups of optional fields that have changed; if the call does not indicate what has changed, the highest
+ * priority {@link Changed} value that applies is set. A subscriber must use a {@link CallDeltaDecoder} to restore each
+ * full call. A call that has ended is forgotten once it is published.
+ * <p>
+ * An encoder is thread-safe; versions of the same call are encoded in the order they are presented.
+ */
+public final class CallDeltaEncoder {
+
+    @Nonnull private final ConcurrentMap<CallKey, Call> publishedCalls = new ConcurrentHashMap<>();
+
+    /**
+     * Encodes the latest version of a call, and records it as the version last published.
+     *
+     * @param call the latest version of the call
+     * @return the call to publish, either in full or as a delta against the version last published
+     */
+    @Nonnull
+    public Call encode(@Nonnull final Call call) {
+        final CallKey key = CallKey.of(call);
+        if (key == null) {
+            return call;
+        }
+        final Call[] encodedCall = new Call[1];
+        publishedCalls.compute(key, (callKey, previousCall) -> {
+            encodedCall[0] = previousCall == null ? call : delta(previousCall, call);
+            return CallStateStore.hasEnded(call) ? null : call;
+        });
+        return encodedCall[0];
+    }
+
+    /**
+     * Encodes each of the calls, in order, as per {@link #encode(Call)}
+     *
+     * @param calls the latest versions of the calls
+     * @return the calls to publish
+     */
+    @Nonnull
+    public List<Call> encode(@Nonnull final Collection<Call> calls) {
+        final List<Call> encodedCalls = new ArrayList<>(calls.size());
+        calls.forEach(call -> encodedCalls.add(encode(call)));
+        return encodedCalls;
+    }
+
+    /**
+     * Forgets the version of a call last published, so that the next version is published in full - for example, when
+     * a new subscriber needs the full state of the call.
+     *
+     * @param callId     the id of the call
+     * @param interestId the interest the call was reported to, or {@code null} if none
+     */
+    public void forget(@Nonnull final CallId callId, @Nullable final InterestId interestId) {
+        publishedCalls.remove(new CallKey(callId, interestId));
+    }
+
+    /**
+     * Forgets every call published, so that the next version of each is published in full.
+     */
+    public void clear() {
+        publishedCalls.clear();
+    }
+
+    @Nonnull
+    private static Call delta(@Nonnull final Call previousCall, @Nonnull final Call call) {
+        final Call.Builder builder = CallDeltaGroup.copyMandatoryFields(call);
+        final Set<CallDeltaGroup> carriedGroups = EnumSet.noneOf(CallDeltaGroup.class);
+        Changed changed = previousCall.getState().equals(call.getState()) ? null : Changed.STATE;
+        for (final CallDeltaGroup group : CallDeltaGroup.values()) {
+            if (group == CallDeltaGroup.CHANGED_PARTICIPANTS || group.isUnchanged(previousCall, call)) {
+                continue;
+            }
+            if (group == CallDeltaGroup.PARTICIPANTS && addChangedParticipants(previousCall, call, builder)) {
+                carriedGroups.add(CallDeltaGroup.CHANGED_PARTICIPANTS);
+            } else {
+                group.copy(call, builder);
+                carriedGroups.add(group);
+            }
+            final Optional<Changed> groupChanged = group.getChanged();
+            if (groupChanged.isPresent()) {
+                changed = groupChanged.get().or(changed);
+            }
+        }
+        if (!previousCall.isPrivate().equals(call.isPrivate())) {
+            changed = Changed.PRIVACY.or(changed);
+        }
+        if (!call.getChanged().isPresent() && changed != null) {
+            builder.setChanged(changed);
+        }
+        builder.addOriginatorReference(CallDeltaGroup.DELTA_REFERENCE_KEY, CallDeltaGroup.toReferenceValue(carriedGroups));
+        return CallDeltaGroup.build(builder);
+    }
+
+    /**
+     * Adds only the participants that have joined or changed, provided every participant can be identified by a unique
+     * JID and none has left the call.
+     *
+     * @return {@code true} if the changed participants were added, {@code false} if every participant must be sent
+     */
+    private static boolean addChangedParticipants(@Nonnull final Call previousCall, @Nonnull final Call call, @Nonnull final Call.Builder builder) {
+        final Map<String, Participant> previousParticipants = indexByJid(previousCall.getParticipants());
+        final Map<String, Participant> participants = indexByJid(call.getParticipants());
+        if (previousParticipants == null || participants == null || !participants.keySet().containsAll(previousParticipants.keySet())) {
+            return false;
+        }
+        for (final Participant participant : call.getParticipants()) {
+            if (!participant.equals(previousParticipants.get(participant.getJID().orElse(null)))) {
+                builder.addParticipant(participant);
+            }
+        }
+        return true;
+    }
+
+    @Nullable
+    private static Map<String, Participant> indexByJid(@Nonnull final List<Participant> participants) {
+        final Map<String, Participant> participantsByJid = new HashMap<>();
+        for (final Participant participant : participants) {
+            final Optional<String> jid = participant.getJID();
+            if (!jid.isPresent() || participantsByJid.put(jid.get(), participant) != null) {
+                return null;
+            }
+        }
+        return participantsByJid;
+    }
+}
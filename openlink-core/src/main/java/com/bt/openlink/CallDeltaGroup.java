@@ -0,0 +1,226 @@
+package com.bt.openlink;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.StringJoiner;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.bt.openlink.type.Call;
+import com.bt.openlink.type.Changed;
+import com.bt.openlink.type.OriginatorReference;
+
+/**
+ * The groups of optional fields that a call delta either carries or omits. The fields that are mandatory in a call - its
+ * id, site, profile, interest, state, direction, start time and duration - are always carried. The groups carried by a
+ * delta are listed in an originator reference with the key {@value #DELTA_REFERENCE_KEY}; a call without that reference
+ * is a full call.
+ */
+enum CallDeltaGroup {
+
+    CONFERENCE("conference", null) {
+        @Override
+        boolean isUnchanged(@Nonnull final Call previousCall, @Nonnull final Call call) {
+            return previousCall.getConferenceId().equals(call.getConferenceId());
+        }
+
+        @Override
+        void copy(@Nonnull final Call from, @Nonnull final Call.Builder to) {
+            from.getConferenceId().ifPresent(to::setConferenceId);
+        }
+    },
+    USER("user", null) {
+        @Override
+        boolean isUnchanged(@Nonnull final Call previousCall, @Nonnull final Call call) {
+            return previousCall.getUserId().equals(call.getUserId());
+        }
+
+        @Override
+        void copy(@Nonnull final Call from, @Nonnull final Call.Builder to) {
+            from.getUserId().ifPresent(to::setUserId);
+        }
+    },
+    CALLER("caller", Changed.CALLER) {
+        @Override
+        boolean isUnchanged(@Nonnull final Call previousCall, @Nonnull final Call call) {
+            return previousCall.getCallerNumber().equals(call.getCallerNumber())
+                    && previousCall.getCallerName().equals(call.getCallerName())
+                    && previousCall.getCallerE164Numbers().equals(call.getCallerE164Numbers());
+        }
+
+        @Override
+        void copy(@Nonnull final Call from, @Nonnull final Call.Builder to) {
+            from.getCallerNumber().ifPresent(to::setCallerNumber);
+            from.getCallerName().ifPresent(to::setCallerName);
+            to.addCallerE164Numbers(from.getCallerE164Numbers());
+        }
+    },
+    CALLED("called", Changed.CALLED) {
+        @Override
+        boolean isUnchanged(@Nonnull final Call previousCall, @Nonnull final Call call) {
+            return previousCall.getCalledNumber().equals(call.getCalledNumber())
+                    && previousCall.getCalledName().equals(call.getCalledName())
+                    && previousCall.getCalledDestination().equals(call.getCalledDestination())
+                    && previousCall.getCalledE164Numbers().equals(call.getCalledE164Numbers());
+        }
+
+        @Override
+        void copy(@Nonnull final Call from, @Nonnull final Call.Builder to) {
+            from.getCalledNumber().ifPresent(to::setCalledNumber);
+            from.getCalledName().ifPresent(to::setCalledName);
+            from.getCalledDestination().ifPresent(to::setCalledDestination);
+            to.addCalledE164Numbers(from.getCalledE164Numbers());
+        }
+    },
+    ORIGINATOR_REFERENCES("originator-refs", null) {
+        @Override
+        boolean isUnchanged(@Nonnull final Call previousCall, @Nonnull final Call call) {
+            return previousCall.getOriginatorReferences().equals(call.getOriginatorReferences());
+        }
+
+        @Override
+        void copy(@Nonnull final Call from, @Nonnull final Call.Builder to) {
+            for (final OriginatorReference originatorReference : from.getOriginatorReferences()) {
+                if (!DELTA_REFERENCE_KEY.equals(originatorReference.getKey())) {
+                    to.addOriginatorReference(originatorReference.getKey(), originatorReference.getValue());
+                }
+            }
+        }
+    },
+    ACTIONS("actions", Changed.ACTIONS) {
+        @Override
+        boolean isUnchanged(@Nonnull final Call previousCall, @Nonnull final Call call) {
+            return previousCall.getActions().equals(call.getActions());
+        }
+
+        @Override
+        void copy(@Nonnull final Call from, @Nonnull final Call.Builder to) {
+            to.setActions(from.getActions());
+        }
+    },
+    FEATURES("features", null) {
+        @Override
+        boolean isUnchanged(@Nonnull final Call previousCall, @Nonnull final Call call) {
+            return previousCall.getFeatures().equals(call.getFeatures());
+        }
+
+        @Override
+        void copy(@Nonnull final Call from, @Nonnull final Call.Builder to) {
+            from.getFeatures().forEach(to::addFeature);
+        }
+    },
+    /**
+     * Every participant in the call, replacing any previous participants.
+     */
+    PARTICIPANTS("participants", Changed.PARTICIPANT) {
+        @Override
+        boolean isUnchanged(@Nonnull final Call previousCall, @Nonnull final Call call) {
+            return previousCall.getParticipants().equals(call.getParticipants());
+        }
+
+        @Override
+        void copy(@Nonnull final Call from, @Nonnull final Call.Builder to) {
+            from.getParticipants().forEach(to::addParticipant);
+        }
+    },
+    /**
+     * Only the participants that have joined or changed, to be merged, by JID, with the previous participants.
+     */
+    CHANGED_PARTICIPANTS("changed-participants", Changed.PARTICIPANT) {
+        @Override
+        boolean isUnchanged(@Nonnull final Call previousCall, @Nonnull final Call call) {
+            return PARTICIPANTS.isUnchanged(previousCall, call);
+        }
+
+        @Override
+        void copy(@Nonnull final Call from, @Nonnull final Call.Builder to) {
+            PARTICIPANTS.copy(from, to);
+        }
+    };
+
+    static final String DELTA_REFERENCE_KEY = "callstatus-delta";
+    private static final String TOKEN_SEPARATOR = " ";
+
+    @Nonnull private final String token;
+    @Nullable private final Changed changed;
+
+    CallDeltaGroup(@Nonnull final String token, @Nullable final Changed changed) {
+        this.token = token;
+        this.changed = changed;
+    }
+
+    /**
+     * @return the value of {@link Changed} that best describes a change to the group, if any
+     */
+    @Nonnull
+    Optional<Changed> getChanged() {
+        return Optional.ofNullable(changed);
+    }
+
+    abstract boolean isUnchanged(@Nonnull Call previousCall, @Nonnull Call call);
+
+    abstract void copy(@Nonnull Call from, @Nonnull Call.Builder to);
+
+    /**
+     * @param call the call to copy
+     * @return a builder holding the mandatory fields of the call, and its changed indicator
+     */
+    @Nonnull
+    static Call.Builder copyMandatoryFields(@Nonnull final Call call) {
+        final Call.Builder builder = Call.Builder.start();
+        call.getId().ifPresent(builder::setId);
+        call.getSite().ifPresent(builder::setSite);
+        call.getProfileId().ifPresent(builder::setProfileId);
+        call.getInterestId().ifPresent(builder::setInterestId);
+        call.getChanged().ifPresent(builder::setChanged);
+        call.getState().ifPresent(builder::setState);
+        call.getDirection().ifPresent(builder::setDirection);
+        call.getStartTime().ifPresent(builder::setStartTime);
+        call.getDuration().ifPresent(builder::setDuration);
+        return builder;
+    }
+
+    /**
+     * Builds a call without validating it; the calls it is built from have already been validated.
+     *
+     * @param builder the builder
+     * @return the call
+     */
+    @Nonnull
+    static Call build(@Nonnull final Call.Builder builder) {
+        return builder.build(new ArrayList<>());
+    }
+
+    @Nonnull
+    static String toReferenceValue(@Nonnull final Set<CallDeltaGroup> groups) {
+        final StringJoiner value = new StringJoiner(TOKEN_SEPARATOR);
+        groups.forEach(group -> value.add(group.token));
+        return value.toString();
+    }
+
+    /**
+     * @param call the call to check
+     * @return the groups carried by the call if it is a delta, or empty if it is a full call
+     */
+    @Nonnull
+    static Optional<Set<CallDeltaGroup>> getCarriedGroups(@Nonnull final Call call) {
+        for (final OriginatorReference originatorReference : call.getOriginatorReferences()) {
+            if (DELTA_REFERENCE_KEY.equals(originatorReference.getKey())) {
+                final Set<CallDeltaGroup> groups = EnumSet.noneOf(CallDeltaGroup.class);
+                for (final String token : originatorReference.getValue().split(TOKEN_SEPARATOR)) {
+                    for (final CallDeltaGroup group : values()) {
+                        if (group.token.equals(token)) {
+                            groups.add(group);
+                        }
+                    }
+                }
+                return Optional.of(Collections.unmodifiableSet(groups));
+            }
+        }
+        return Optional.empty();
+    }
+}
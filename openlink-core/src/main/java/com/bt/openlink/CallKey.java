@@ -0,0 +1,54 @@
+package com.bt.openlink;
+
+import java.util.Objects;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.bt.openlink.type.Call;
+import com.bt.openlink.type.CallId;
+import com.bt.openlink.type.InterestId;
+
+/**
+ * Identifies a call as reported to an interest; the same call is reported separately to each interest that can see it.
+ */
+final class CallKey {
+
+    @Nonnull final CallId callId;
+    @Nullable final InterestId interestId;
+    private final int hashCode;
+
+    CallKey(@Nonnull final CallId callId, @Nullable final InterestId interestId) {
+        this.callId = callId;
+        this.interestId = interestId;
+        this.hashCode = 31 * callId.hashCode() + Objects.hashCode(interestId);
+    }
+
+    /**
+     * @param call the call to identify
+     * @return the key of the call, or {@code null} if it does not have a call id
+     */
+    @Nullable
+    static CallKey of(@Nonnull final Call call) {
+        return call.getId()
+                .map(callId -> new CallKey(callId, call.getInterestId().orElse(null)))
+                .orElse(null);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final CallKey that = (CallKey) o;
+        return callId.equals(that.callId) && Objects.equals(interestId, that.interestId);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+}
@@ -0,0 +1,256 @@
+package com.bt.openlink;
+
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.bt.openlink.type.Call;
+import com.bt.openlink.type.CallId;
+import com.bt.openlink.type.CallState;
+import com.bt.openlink.type.InterestId;
+import com.bt.openlink.type.ProfileId;
+import com.bt.openlink.type.UserId;
+
+/**
+ * A thread-safe, in-memory registry of the live calls reported by a stream of call status messages. Each call is keyed
+ * by its call id and interest id - the same call is reported separately to each interest that can see it - and can also
+ * be looked up by call id, interest, profile or user.
+ * <p>
+ * Applying a call replaces any previous version of it; a call that has cleared, failed or been missed is removed. Updates
+ * to different calls rarely contend, as each only locks the hash bins of the entries it changes. The collections returned
+ * are live, unmodifiable views, so they are never copied; iterating over one is weakly consistent - it never throws a
+ * {@link java.util.ConcurrentModificationException}, and reflects some, all or none of the updates made since the
+ * iteration started. A view returned by one of the lookups may be held on to; it reflects the calls matching it at the
+ * time it is used, even after every such call has been removed and others have been added.
+ */
+public final class CallStateStore {
+
+    private static final Set<CallState> ENDED_STATES = Collections.unmodifiableSet(EnumSet.of(CallState.CONNECTION_CLEARED, CallState.CALL_FAILED, CallState.CALL_MISSED));
+
+    @Nonnull private final ConcurrentMap<CallKey, Call> calls = new ConcurrentHashMap<>();
+    @Nonnull private final Collection<Call> allCalls = Collections.unmodifiableCollection(calls.values());
+    @Nonnull private final Index<CallId> callsById = new Index<>(call -> call.getId().orElse(null));
+    @Nonnull private final Index<InterestId> callsByInterest = new Index<>(call -> call.getInterestId().orElse(null));
+    @Nonnull private final Index<ProfileId> callsByProfile = new Index<>(call -> call.getProfileId().orElse(null));
+    @Nonnull private final Index<UserId> callsByUser = new Index<>(call -> call.getUserId().orElse(null));
+
+    /**
+     * @param call the call to check
+     * @return {@code true} if the call has ended - i.e. it has cleared, failed or was missed - otherwise {@code false}
+     */
+    public static boolean hasEnded(@Nonnull final Call call) {
+        return call.getState().map(ENDED_STATES::contains).orElse(false);
+    }
+
+    /**
+     * Applies the latest version of a call to the store. A call that has ended is removed from the store, any other call
+     * replaces the previous version of it. A call without a call id is ignored.
+     *
+     * @param call the latest version of the call
+     * @return the previous version of the call, if there was one
+     */
+    @Nonnull
+    public Optional<Call> apply(@Nonnull final Call call) {
+        final CallKey key = CallKey.of(call);
+        if (key == null) {
+            return Optional.empty();
+        }
+        final Call[] previousCall = new Call[1];
+        // The indexes are updated while the entry is locked, so concurrent updates to the same call are applied in order
+        calls.compute(key, (callKey, existingCall) -> {
+            previousCall[0] = existingCall;
+            final Call newCall = hasEnded(call) ? null : call;
+            reindex(callKey, existingCall, newCall);
+            return newCall;
+        });
+        return Optional.ofNullable(previousCall[0]);
+    }
+
+    /**
+     * Applies each of the calls, in order, as per {@link #apply(Call)}
+     *
+     * @param callsToApply the latest versions of the calls, for example from a call status message
+     */
+    public void apply(@Nonnull final Collection<Call> callsToApply) {
+        callsToApply.forEach(this::apply);
+    }
+
+    /**
+     * Removes a call from the store, regardless of its state.
+     *
+     * @param callId     the id of the call
+     * @param interestId the interest the call was reported to, or {@code null} if none
+     * @return the call that was removed, if there was one
+     */
+    @Nonnull
+    public Optional<Call> remove(@Nonnull final CallId callId, @Nullable final InterestId interestId) {
+        final Call[] removedCall = new Call[1];
+        calls.computeIfPresent(new CallKey(callId, interestId), (callKey, existingCall) -> {
+            removedCall[0] = existingCall;
+            reindex(callKey, existingCall, null);
+            return null;
+        });
+        return Optional.ofNullable(removedCall[0]);
+    }
+
+    /**
+     * Removes every call from the store. Calls applied concurrently may or may not be retained.
+     */
+    public void clear() {
+        calls.keySet().forEach(callKey -> remove(callKey.callId, callKey.interestId));
+    }
+
+    /**
+     * @param callId     the id of the call
+     * @param interestId the interest the call was reported to, or {@code null} if none
+     * @return the latest version of the call, if it is live
+     */
+    @Nonnull
+    public Optional<Call> getCall(@Nonnull final CallId callId, @Nullable final InterestId interestId) {
+        return Optional.ofNullable(calls.get(new CallKey(callId, interestId)));
+    }
+
+    /**
+     * @return a view of every live call
+     */
+    @Nonnull
+    public Collection<Call> getCalls() {
+        return allCalls;
+    }
+
+    /**
+     * @param callId the id of the call
+     * @return a view of every live version of the call, one for each interest it has been reported to
+     */
+    @Nonnull
+    public Collection<Call> getCalls(@Nonnull final CallId callId) {
+        return callsById.get(callId);
+    }
+
+    /**
+     * @param interestId the interest
+     * @return a view of the live calls reported to the interest
+     */
+    @Nonnull
+    public Collection<Call> getCallsForInterest(@Nonnull final InterestId interestId) {
+        return callsByInterest.get(interestId);
+    }
+
+    /**
+     * @param profileId the profile
+     * @return a view of the live calls on the profile
+     */
+    @Nonnull
+    public Collection<Call> getCallsForProfile(@Nonnull final ProfileId profileId) {
+        return callsByProfile.get(profileId);
+    }
+
+    /**
+     * @param userId the user
+     * @return a view of the live calls of the user
+     */
+    @Nonnull
+    public Collection<Call> getCallsForUser(@Nonnull final UserId userId) {
+        return callsByUser.get(userId);
+    }
+
+    /**
+     * @return the number of live calls
+     */
+    public int size() {
+        return calls.size();
+    }
+
+    public boolean isEmpty() {
+        return calls.isEmpty();
+    }
+
+    private void reindex(@Nonnull final CallKey callKey, @Nullable final Call oldCall, @Nullable final Call newCall) {
+        callsById.reindex(callKey, oldCall, newCall);
+        callsByInterest.reindex(callKey, oldCall, newCall);
+        callsByProfile.reindex(callKey, oldCall, newCall);
+        callsByUser.reindex(callKey, oldCall, newCall);
+    }
+
+    /**
+     * A secondary index of the calls in the store. Each bucket is itself a concurrent map, so a bucket can be returned as
+     * a view without copying; an empty bucket is removed from the index, so each view looks its bucket up again whenever
+     * it is used.
+     */
+    private static final class Index<K> {
+
+        @Nonnull private final ConcurrentMap<K, ConcurrentMap<CallKey, Call>> buckets = new ConcurrentHashMap<>();
+        @Nonnull private final Function<Call, K> keyExtractor;
+
+        private Index(@Nonnull final Function<Call, K> keyExtractor) {
+            this.keyExtractor = keyExtractor;
+        }
+
+        @Nonnull
+        private Collection<Call> get(@Nonnull final K key) {
+            return new BucketView(key);
+        }
+
+        private void reindex(@Nonnull final CallKey callKey, @Nullable final Call oldCall, @Nullable final Call newCall) {
+            final K oldKey = oldCall == null ? null : keyExtractor.apply(oldCall);
+            final K newKey = newCall == null ? null : keyExtractor.apply(newCall);
+            if (oldKey != null && !oldKey.equals(newKey)) {
+                buckets.computeIfPresent(oldKey, (key, bucket) -> {
+                    bucket.remove(callKey);
+                    return bucket.isEmpty() ? null : bucket;
+                });
+            }
+            if (newKey != null) {
+                buckets.compute(newKey, (key, bucket) -> {
+                    final ConcurrentMap<CallKey, Call> newBucket = bucket == null ? new ConcurrentHashMap<>() : bucket;
+                    newBucket.put(callKey, newCall);
+                    return newBucket;
+                });
+            }
+        }
+
+        private final class BucketView extends AbstractCollection<Call> {
+
+            @Nonnull private final K key;
+
+            private BucketView(@Nonnull final K key) {
+                this.key = key;
+            }
+
+            @Nonnull
+            @Override
+            public Iterator<Call> iterator() {
+                final ConcurrentMap<CallKey, Call> bucket = buckets.get(key);
+                return bucket == null ? Collections.emptyIterator() : Collections.unmodifiableCollection(bucket.values()).iterator();
+            }
+
+            @Override
+            public int size() {
+                final ConcurrentMap<CallKey, Call> bucket = buckets.get(key);
+                return bucket == null ? 0 : bucket.size();
+            }
+
+            @Override
+            public boolean isEmpty() {
+                final ConcurrentMap<CallKey, Call> bucket = buckets.get(key);
+                return bucket == null || bucket.isEmpty();
+            }
+
+            @Override
+            public boolean contains(final Object o) {
+                final ConcurrentMap<CallKey, Call> bucket = buckets.get(key);
+                return bucket != null && bucket.containsValue(o);
+            }
+        }
+    }
+}
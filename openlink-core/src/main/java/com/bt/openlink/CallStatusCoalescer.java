@@ -0,0 +1,204 @@
+package com.bt.openlink;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.bt.openlink.type.Call;
+import com.bt.openlink.type.CallId;
+import com.bt.openlink.type.Changed;
+import com.bt.openlink.type.InterestId;
+
+/**
+ * Buffers the calls to be published to each interest over a short window, so that a burst of updates to a call - for
+ * example, CallOriginated, CallDelivered and CallEstablished in quick succession - is published as a single call status.
+ * <p>
+ * The first call offered for an interest opens a window; when it closes, the latest version of each call offered for
+ * the interest is passed to the publisher, which would typically add them to a
+ * {@link com.bt.openlink.message.CallStatusMessageBuilder} or {@link com.bt.openlink.iq.PubSubPublishRequestBuilder}
+ * and send the single stanza. As the latest version of each call is always published, a call that ends within the
+ * window is still published with its terminal state. When versions of a call are merged the highest priority
+ * {@link Changed} reason of any of them is retained.
+ * <p>
+ * A call without a call id or interest id is passed to the publisher immediately. The publisher is called on a thread of
+ * the scheduler; a single threaded scheduler ensures that the call statuses for an interest are published in order.
+ */
+public final class CallStatusCoalescer {
+
+    @Nonnull private final ConcurrentMap<InterestId, Batch> batches = new ConcurrentHashMap<>();
+    @Nonnull private final ScheduledExecutorService scheduler;
+    @Nonnull private final BiConsumer<InterestId, List<Call>> publisher;
+    private final long windowNanos;
+    @Nonnull private final LongAdder offeredCount = new LongAdder();
+    @Nonnull private final LongAdder publishedCount = new LongAdder();
+    @Nonnull private final LongAdder publicationCount = new LongAdder();
+    @Nonnull private final LongAdder totalLatencyNanos = new LongAdder();
+    @Nonnull private final LongAccumulator maximumLatencyNanos = new LongAccumulator(Long::max, 0);
+
+    /**
+     * @param window    how long to buffer the calls for an interest, from the first call offered
+     * @param scheduler the scheduler used to close each window
+     * @param publisher publishes the calls for an interest; called with the interest id, or {@code null} if the call did
+     *                  not have one, and the calls to publish
+     */
+    public CallStatusCoalescer(@Nonnull final Duration window, @Nonnull final ScheduledExecutorService scheduler, @Nonnull final BiConsumer<InterestId, List<Call>> publisher) {
+        if (window.isNegative()) {
+            throw new IllegalArgumentException("The coalescing window cannot be negative");
+        }
+        this.windowNanos = window.toNanos();
+        this.scheduler = scheduler;
+        this.publisher = publisher;
+    }
+
+    /**
+     * Buffers the latest version of a call, until the window for its interest closes.
+     *
+     * @param call the latest version of the call
+     */
+    public void offer(@Nonnull final Call call) {
+        offeredCount.increment();
+        final Optional<CallId> callId = call.getId();
+        final Optional<InterestId> interestId = call.getInterestId();
+        if (!callId.isPresent() || !interestId.isPresent()) {
+            publish(interestId.orElse(null), Collections.singletonList(call), 0);
+            return;
+        }
+        final long now = System.nanoTime();
+        batches.compute(interestId.get(), (key, batch) -> {
+            final Batch currentBatch;
+            if (batch == null) {
+                currentBatch = new Batch(now);
+                scheduler.schedule(() -> flush(key, currentBatch), windowNanos, TimeUnit.NANOSECONDS);
+            } else {
+                currentBatch = batch;
+            }
+            currentBatch.add(callId.get(), call);
+            return currentBatch;
+        });
+    }
+
+    /**
+     * Buffers each of the calls, in order, as per {@link #offer(Call)}
+     *
+     * @param calls the latest versions of the calls
+     */
+    public void offer(@Nonnull final Collection<Call> calls) {
+        calls.forEach(this::offer);
+    }
+
+    /**
+     * Publishes every call currently buffered without waiting for its window to close, for example before shutting down.
+     * The calls are published on the calling thread.
+     */
+    public void flush() {
+        batches.forEach(this::flush);
+    }
+
+    private void flush(@Nonnull final InterestId interestId, @Nonnull final Batch batch) {
+        // Calls are only added to a batch while it is in the map, so once removed the batch can safely be read
+        if (batches.remove(interestId, batch)) {
+            publish(interestId, new ArrayList<>(batch.calls.values()), System.nanoTime() - batch.openedNanos);
+        }
+    }
+
+    private void publish(@Nullable final InterestId interestId, @Nonnull final List<Call> calls, final long latencyNanos) {
+        publishedCount.add(calls.size());
+        publicationCount.increment();
+        totalLatencyNanos.add(latencyNanos);
+        maximumLatencyNanos.accumulate(latencyNanos);
+        publisher.accept(interestId, calls);
+    }
+
+    /**
+     * @return the number of calls offered
+     */
+    public long getOfferedCount() {
+        return offeredCount.sum();
+    }
+
+    /**
+     * @return the number of calls published, after merging
+     */
+    public long getPublishedCount() {
+        return publishedCount.sum();
+    }
+
+    /**
+     * @return the number of times the publisher has been called, i.e. the number of stanzas published
+     */
+    public long getPublicationCount() {
+        return publicationCount.sum();
+    }
+
+    /**
+     * @return the average number of calls offered for each call published; 1.0 indicates no calls were merged
+     */
+    public double getMergeRatio() {
+        final long published = publishedCount.sum();
+        return published == 0 ? 1.0 : (double) offeredCount.sum() / published;
+    }
+
+    /**
+     * @return the average time the calls in each publication were buffered for, measured from the first call offered
+     */
+    @Nonnull
+    public Duration getAverageAddedLatency() {
+        final long publications = publicationCount.sum();
+        return publications == 0 ? Duration.ZERO : Duration.ofNanos(totalLatencyNanos.sum() / publications);
+    }
+
+    /**
+     * @return the longest time the calls in any publication were buffered for
+     */
+    @Nonnull
+    public Duration getMaximumAddedLatency() {
+        return Duration.ofNanos(maximumLatencyNanos.get());
+    }
+
+    public void resetCounts() {
+        offeredCount.reset();
+        publishedCount.reset();
+        publicationCount.reset();
+        totalLatencyNanos.reset();
+        maximumLatencyNanos.reset();
+    }
+
+    private static final class Batch {
+
+        private final long openedNanos;
+        @Nonnull private final Map<CallId, Call> calls = new LinkedHashMap<>();
+
+        private Batch(final long openedNanos) {
+            this.openedNanos = openedNanos;
+        }
+
+        private void add(@Nonnull final CallId callId, @Nonnull final Call call) {
+            calls.merge(callId, call, Batch::merge);
+        }
+
+        @Nonnull
+        private static Call merge(@Nonnull final Call previousCall, @Nonnull final Call call) {
+            final Optional<Changed> previousChanged = previousCall.getChanged();
+            if (!previousChanged.isPresent()) {
+                return call;
+            }
+            final Changed changed = previousChanged.get().or(call.getChanged().orElse(null));
+            return call.getChanged().orElse(null) == changed ? call : call.withChanged(changed);
+        }
+    }
+}
@@ -0,0 +1,362 @@
+package com.bt.openlink;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.bt.openlink.type.Call;
+import com.bt.openlink.type.CallState;
+import com.bt.openlink.type.Changed;
+import com.bt.openlink.type.InterestId;
+import com.bt.openlink.type.ProfileId;
+
+/**
+ * Routes the calls reported by a stream of call status messages to the listeners interested in them, so that a consumer
+ * does not have to test the type of each message and dispatch its calls by hand. Each listener registers with a
+ * {@link Filter} of the interest, profile, call states and/or changed reasons of the calls it wants.
+ * <p>
+ * A listener is indexed by the most selective criterion of its filter - its interest, else its profile, else its call
+ * states, else its changed reasons - so routing a call only considers the listeners indexed under the call's interest,
+ * profile, state and changed reason, plus any listeners without a filter. Routing therefore costs in proportion to the
+ * number of matching listeners rather than the number registered; thousands of listeners each watching a single interest
+ * cost no more per call than one.
+ * <p>
+ * Each listener is called on its own executor, or on the routing thread if it has none. A single threaded executor
+ * ensures that the listener receives the calls in the order they were routed. Listeners may be added and removed at any
+ * time, from any thread; a listener that has been removed is not called again, even with a call already handed to its
+ * executor. An exception thrown by a listener called on the routing thread is propagated to the caller of
+ * {@link #route(Call)}, and the call is not routed to any remaining listeners.
+ */
+public final class CallStatusRouter {
+
+    @Nonnull private final Index<InterestId> listenersByInterest = new Index<>();
+    @Nonnull private final Index<ProfileId> listenersByProfile = new Index<>();
+    @Nonnull private final Index<CallState> listenersByState = new Index<>();
+    @Nonnull private final Index<Changed> listenersByChanged = new Index<>();
+    @Nonnull private final List<Registration> unfilteredListeners = new CopyOnWriteArrayList<>();
+    @Nonnull private final AtomicInteger listenerCount = new AtomicInteger();
+
+    /**
+     * Adds a listener that is called on the routing thread.
+     *
+     * @param filter   the calls the listener is interested in
+     * @param listener the listener
+     * @return the registration of the listener, with which it can be removed
+     */
+    @Nonnull
+    public Registration addListener(@Nonnull final Filter filter, @Nonnull final Consumer<? super Call> listener) {
+        return addListener(filter, null, listener);
+    }
+
+    /**
+     * Adds a listener that is called on the given executor; for example, the UI thread of a widget, a single threaded
+     * executor dedicated to the listener, or, on Java 21 or later, an executor that starts a virtual thread for each call.
+     *
+     * @param filter   the calls the listener is interested in
+     * @param executor the executor the listener is called on, or {@code null} to call it on the routing thread
+     * @param listener the listener
+     * @return the registration of the listener, with which it can be removed
+     */
+    @Nonnull
+    public Registration addListener(@Nonnull final Filter filter, @Nullable final Executor executor, @Nonnull final Consumer<? super Call> listener) {
+        final Registration registration = new Registration(this, filter, executor, listener);
+        if (filter.interestId != null) {
+            listenersByInterest.add(filter.interestId, registration);
+        } else if (filter.profileId != null) {
+            listenersByProfile.add(filter.profileId, registration);
+        } else if (!filter.states.isEmpty()) {
+            filter.states.forEach(state -> listenersByState.add(state, registration));
+        } else if (!filter.changes.isEmpty()) {
+            filter.changes.forEach(changed -> listenersByChanged.add(changed, registration));
+        } else {
+            unfilteredListeners.add(registration);
+        }
+        listenerCount.incrementAndGet();
+        return registration;
+    }
+
+    private void removeListener(@Nonnull final Registration registration) {
+        final Filter filter = registration.filter;
+        if (filter.interestId != null) {
+            listenersByInterest.remove(filter.interestId, registration);
+        } else if (filter.profileId != null) {
+            listenersByProfile.remove(filter.profileId, registration);
+        } else if (!filter.states.isEmpty()) {
+            filter.states.forEach(state -> listenersByState.remove(state, registration));
+        } else if (!filter.changes.isEmpty()) {
+            filter.changes.forEach(changed -> listenersByChanged.remove(changed, registration));
+        } else {
+            unfilteredListeners.remove(registration);
+        }
+        listenerCount.decrementAndGet();
+    }
+
+    /**
+     * Routes a call to each listener whose filter it matches.
+     *
+     * @param call the latest version of the call, for example from a call status message
+     */
+    public void route(@Nonnull final Call call) {
+        // A listener is only indexed under one of its criteria, and a call has at most one value of each, so no listener
+        // can be found twice
+        route(listenersByInterest.get(call.getInterestId().orElse(null)), call);
+        route(listenersByProfile.get(call.getProfileId().orElse(null)), call);
+        route(listenersByState.get(call.getState().orElse(null)), call);
+        route(listenersByChanged.get(call.getChanged().orElse(null)), call);
+        route(unfilteredListeners, call);
+    }
+
+    /**
+     * Routes each of the calls, in order, as per {@link #route(Call)}
+     *
+     * @param calls the latest versions of the calls, for example from a call status message
+     */
+    public void route(@Nonnull final Collection<Call> calls) {
+        calls.forEach(this::route);
+    }
+
+    private static void route(@Nonnull final List<Registration> registrations, @Nonnull final Call call) {
+        for (final Registration registration : registrations) {
+            if (registration.filter.matches(call)) {
+                registration.deliver(call);
+            }
+        }
+    }
+
+    /**
+     * @return the number of listeners currently registered
+     */
+    public int getListenerCount() {
+        return listenerCount.get();
+    }
+
+    /**
+     * The calls a listener is interested in. A call matches the filter if it matches every criterion that has been set; a
+     * filter without any criteria matches every call. A criterion is only matched by a call that has the field, so a
+     * filter of call states, for example, does not match a call without a state.
+     */
+    public static final class Filter {
+
+        private static final Filter ALL = Builder.start().build();
+
+        @Nullable private final InterestId interestId;
+        @Nullable private final ProfileId profileId;
+        @Nonnull private final Set<CallState> states;
+        @Nonnull private final Set<Changed> changes;
+
+        private Filter(@Nonnull final Builder builder) {
+            this.interestId = builder.interestId;
+            this.profileId = builder.profileId;
+            this.states = builder.states.isEmpty() ? Collections.emptySet() : Collections.unmodifiableSet(EnumSet.copyOf(builder.states));
+            this.changes = builder.changes.isEmpty() ? Collections.emptySet() : Collections.unmodifiableSet(EnumSet.copyOf(builder.changes));
+        }
+
+        /**
+         * @return a filter that matches every call
+         */
+        @Nonnull
+        public static Filter all() {
+            return ALL;
+        }
+
+        /**
+         * @param interestId the interest
+         * @return a filter that matches every call reported to the interest
+         */
+        @Nonnull
+        public static Filter forInterest(@Nonnull final InterestId interestId) {
+            return Builder.start().setInterestId(interestId).build();
+        }
+
+        /**
+         * @param profileId the profile
+         * @return a filter that matches every call on the profile
+         */
+        @Nonnull
+        public static Filter forProfile(@Nonnull final ProfileId profileId) {
+            return Builder.start().setProfileId(profileId).build();
+        }
+
+        @Nonnull
+        public Optional<InterestId> getInterestId() {
+            return Optional.ofNullable(interestId);
+        }
+
+        @Nonnull
+        public Optional<ProfileId> getProfileId() {
+            return Optional.ofNullable(profileId);
+        }
+
+        @Nonnull
+        public Set<CallState> getStates() {
+            return states;
+        }
+
+        @Nonnull
+        public Set<Changed> getChanges() {
+            return changes;
+        }
+
+        /**
+         * @param call the call to check
+         * @return {@code true} if the call matches every criterion of this filter
+         */
+        public boolean matches(@Nonnull final Call call) {
+            return (interestId == null || interestId.equals(call.getInterestId().orElse(null)))
+                    && (profileId == null || profileId.equals(call.getProfileId().orElse(null)))
+                    && (states.isEmpty() || call.getState().map(states::contains).orElse(false))
+                    && (changes.isEmpty() || call.getChanged().map(changes::contains).orElse(false));
+        }
+
+        public static final class Builder {
+
+            @Nullable private InterestId interestId;
+            @Nullable private ProfileId profileId;
+            @Nonnull private final Set<CallState> states = EnumSet.noneOf(CallState.class);
+            @Nonnull private final Set<Changed> changes = EnumSet.noneOf(Changed.class);
+
+            private Builder() {
+            }
+
+            @Nonnull
+            public static Builder start() {
+                return new Builder();
+            }
+
+            @Nonnull
+            public Filter build() {
+                return new Filter(this);
+            }
+
+            @Nonnull
+            public Builder setInterestId(@Nonnull final InterestId interestId) {
+                this.interestId = interestId;
+                return this;
+            }
+
+            @Nonnull
+            public Builder setProfileId(@Nonnull final ProfileId profileId) {
+                this.profileId = profileId;
+                return this;
+            }
+
+            /**
+             * @param state a state of the calls to match; a call in any of the states added matches
+             * @return this builder
+             */
+            @Nonnull
+            public Builder addState(@Nonnull final CallState state) {
+                this.states.add(state);
+                return this;
+            }
+
+            /**
+             * @param changed a changed reason of the calls to match; a call with any of the reasons added matches
+             * @return this builder
+             */
+            @Nonnull
+            public Builder addChanged(@Nonnull final Changed changed) {
+                this.changes.add(changed);
+                return this;
+            }
+        }
+    }
+
+    /**
+     * The registration of a listener with a router.
+     */
+    public static final class Registration {
+
+        @Nonnull private final CallStatusRouter router;
+        @Nonnull private final Filter filter;
+        @Nullable private final Executor executor;
+        @Nonnull private final Consumer<? super Call> listener;
+        @Nonnull private final AtomicBoolean registered = new AtomicBoolean(true);
+
+        private Registration(@Nonnull final CallStatusRouter router, @Nonnull final Filter filter, @Nullable final Executor executor, @Nonnull final Consumer<? super Call> listener) {
+            this.router = router;
+            this.filter = filter;
+            this.executor = executor;
+            this.listener = listener;
+        }
+
+        @Nonnull
+        public Filter getFilter() {
+            return filter;
+        }
+
+        public boolean isRegistered() {
+            return registered.get();
+        }
+
+        /**
+         * Removes the listener from the router; it is not called again. Removing a listener more than once has no effect.
+         */
+        public void remove() {
+            if (registered.compareAndSet(true, false)) {
+                router.removeListener(this);
+            }
+        }
+
+        private void deliver(@Nonnull final Call call) {
+            // The buckets are iterated as snapshots, so a listener may have been removed since the route started
+            if (executor == null) {
+                if (registered.get()) {
+                    listener.accept(call);
+                }
+            } else {
+                executor.execute(() -> {
+                    if (registered.get()) {
+                        listener.accept(call);
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * An index of listeners by one of the criteria of their filters. Each bucket is copied when a listener is added or
+     * removed, so the calls are routed without locking; an empty bucket is removed from the index.
+     */
+    private static final class Index<K> {
+
+        @Nonnull private final ConcurrentMap<K, List<Registration>> buckets = new ConcurrentHashMap<>();
+
+        @Nonnull
+        private List<Registration> get(@Nullable final K key) {
+            if (key == null) {
+                return Collections.emptyList();
+            }
+            final List<Registration> bucket = buckets.get(key);
+            return bucket == null ? Collections.emptyList() : bucket;
+        }
+
+        private void add(@Nonnull final K key, @Nonnull final Registration registration) {
+            buckets.compute(key, (bucketKey, bucket) -> {
+                final List<Registration> newBucket = bucket == null ? new CopyOnWriteArrayList<>() : bucket;
+                newBucket.add(registration);
+                return newBucket;
+            });
+        }
+
+        private void remove(@Nonnull final K key, @Nonnull final Registration registration) {
+            buckets.computeIfPresent(key, (bucketKey, bucket) -> {
+                bucket.remove(registration);
+                return bucket.isEmpty() ? null : bucket;
+            });
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.bt.openlink;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nonnull;
+
+/**
+ * A timer for very many short timeouts, nearly all of which are cancelled before they expire - for example, one for each
+ * outstanding request. Scheduling and cancelling a timeout are both O(1), and neither takes a lock.
+ * <p>
+ * Timeouts are held in a wheel of buckets, each covering one tick. A single thread advances the wheel every tick and runs
+ * the timeouts that have expired, so a timeout fires up to one tick late; the tasks should therefore be short. The thread
+ * is started when the first timeout is scheduled, and ends when the timer is stopped.
+ */
+public final class HashedWheelTimer {
+
+    private static final int STATE_CREATED = 0;
+    private static final int STATE_STARTED = 1;
+    private static final int STATE_STOPPED = 2;
+    private static final AtomicInteger TIMER_COUNT = new AtomicInteger();
+
+    private final long tickNanos;
+    @Nonnull private final Queue<Timeout>[] wheel;
+    private final int mask;
+    @Nonnull private final Queue<Timeout> newTimeouts = new ConcurrentLinkedQueue<>();
+    @Nonnull private final Thread workerThread;
+    @Nonnull private final AtomicInteger state = new AtomicInteger(STATE_CREATED);
+    private volatile long startNanos;
+
+    /**
+     * Creates a timer that ticks every 100 milliseconds, with 512 buckets.
+     */
+    public HashedWheelTimer() {
+        this(100, TimeUnit.MILLISECONDS, 512, runnable -> {
+            final Thread thread = new Thread(runnable, "openlink-timer-" + TIMER_COUNT.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @param tickDuration  the duration of each tick
+     * @param unit          the unit of the tick duration
+     * @param ticksPerWheel the number of buckets in the wheel; rounded up to a power of two
+     * @param threadFactory creates the thread that advances the wheel
+     */
+    @SuppressWarnings("unchecked")
+    public HashedWheelTimer(final long tickDuration, @Nonnull final TimeUnit unit, final int ticksPerWheel, @Nonnull final ThreadFactory threadFactory) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("The tick duration must be positive");
+        }
+        if (ticksPerWheel <= 0 || ticksPerWheel > 1 << 30) {
+            throw new IllegalArgumentException("The number of ticks per wheel must be between 1 and 2^30");
+        }
+        this.tickNanos = unit.toNanos(tickDuration);
+        int wheelSize = 1;
+        while (wheelSize < ticksPerWheel) {
+            wheelSize <<= 1;
+        }
+        this.wheel = new Queue[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            wheel[i] = new ArrayDeque<>();
+        }
+        this.mask = wheelSize - 1;
+        this.workerThread = threadFactory.newThread(this::run);
+    }
+
+    /**
+     * Schedules a task to run once a delay has passed.
+     *
+     * @param task  the task to run
+     * @param delay the delay before the task runs
+     * @param unit  the unit of the delay
+     * @return a handle with which the timeout can be cancelled
+     * @throws IllegalStateException if the timer has been stopped
+     */
+    @Nonnull
+    public Timeout newTimeout(@Nonnull final Runnable task, final long delay, @Nonnull final TimeUnit unit) {
+        start();
+        final Timeout timeout = new Timeout(task, System.nanoTime() - startNanos + unit.toNanos(delay));
+        newTimeouts.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Stops the timer; any timeout that has not yet expired will never run.
+     */
+    public void stop() {
+        if (state.getAndSet(STATE_STOPPED) == STATE_STARTED) {
+            workerThread.interrupt();
+        }
+    }
+
+    private void start() {
+        final int currentState = state.get();
+        if (currentState == STATE_CREATED) {
+            if (state.compareAndSet(STATE_CREATED, STATE_STARTED)) {
+                startNanos = System.nanoTime();
+                workerThread.start();
+            }
+        } else if (currentState == STATE_STOPPED) {
+            throw new IllegalStateException("The timer has been stopped");
+        }
+        // The worker thread may not have recorded the start time yet
+        while (startNanos == 0) {
+            Thread.yield();
+        }
+    }
+
+    private void run() {
+        long tick = 0;
+        while (state.get() == STATE_STARTED) {
+            final long tickEndNanos = tickNanos * (tick + 1);
+            final long sleepNanos = tickEndNanos - (System.nanoTime() - startNanos);
+            if (sleepNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                } catch (final InterruptedException e) {
+                    // Stopped
+                    return;
+                }
+            }
+            transferNewTimeouts(tick);
+            expireTimeouts(wheel[(int) (tick & mask)], tickEndNanos);
+            tick++;
+        }
+    }
+
+    private void transferNewTimeouts(final long currentTick) {
+        Timeout timeout;
+        while ((timeout = newTimeouts.poll()) != null) {
+            if (!timeout.isCancelled()) {
+                // A timeout already due is placed in the current bucket, so it expires this tick
+                final long dueTick = Math.max(timeout.deadlineNanos / tickNanos, currentTick);
+                timeout.remainingRounds = (dueTick - currentTick) / wheel.length;
+                wheel[(int) (dueTick & mask)].add(timeout);
+            }
+        }
+    }
+
+    private static void expireTimeouts(@Nonnull final Queue<Timeout> bucket, final long tickEndNanos) {
+        final Iterator<Timeout> timeouts = bucket.iterator();
+        while (timeouts.hasNext()) {
+            final Timeout timeout = timeouts.next();
+            if (timeout.isCancelled()) {
+                timeouts.remove();
+            } else if (timeout.remainingRounds <= 0 && timeout.deadlineNanos <= tickEndNanos) {
+                timeouts.remove();
+                timeout.expire();
+            } else {
+                timeout.remainingRounds--;
+            }
+        }
+    }
+
+    /**
+     * A handle to a task scheduled by a {@link HashedWheelTimer}.
+     */
+    public static final class Timeout {
+
+        private static final int TIMEOUT_PENDING = 0;
+        private static final int TIMEOUT_CANCELLED = 1;
+        private static final int TIMEOUT_EXPIRED = 2;
+
+        @Nonnull private final Runnable task;
+        private final long deadlineNanos;
+        @Nonnull private final AtomicInteger timeoutState = new AtomicInteger(TIMEOUT_PENDING);
+        // Only accessed by the worker thread
+        private long remainingRounds;
+
+        private Timeout(@Nonnull final Runnable task, final long deadlineNanos) {
+            this.task = task;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        /**
+         * Cancels the timeout, so that its task does not run.
+         *
+         * @return {@code true} if the timeout was cancelled, {@code false} if it had already expired or been cancelled
+         */
+        public boolean cancel() {
+            return timeoutState.compareAndSet(TIMEOUT_PENDING, TIMEOUT_CANCELLED);
+        }
+
+        public boolean isCancelled() {
+            return timeoutState.get() == TIMEOUT_CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return timeoutState.get() == TIMEOUT_EXPIRED;
+        }
+
+        private void expire() {
+            if (timeoutState.compareAndSet(TIMEOUT_PENDING, TIMEOUT_EXPIRED)) {
+                try {
+                    task.run();
+                } catch (final RuntimeException ignored) {
+                    // A failing task must not stop the timer
+                }
+            }
+        }
+    }
+}
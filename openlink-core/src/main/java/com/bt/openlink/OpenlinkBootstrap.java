@@ -0,0 +1,208 @@
+package com.bt.openlink;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.annotation.Nonnull;
+
+import com.bt.openlink.type.Feature;
+import com.bt.openlink.type.Interest;
+import com.bt.openlink.type.InterestId;
+import com.bt.openlink.type.Profile;
+import com.bt.openlink.type.ProfileId;
+
+/**
+ * Fetches everything a client needs when it starts up - the user's profiles, the interests and features of each profile -
+ * and subscribes to every interest, producing an {@link OpenlinkSnapshot}.
+ * <p>
+ * Each request is sent as soon as the result it depends on arrives, rather than one after another; the get-interests and
+ * get-features requests for every profile are sent once the profiles are received, and the subscriptions to the
+ * interests of a profile once its interests are received. The time taken is therefore bounded by the round trip time
+ * multiplied by the depth of the tree (three), rather than by the number of requests. At most a fixed number of
+ * requests are in flight at once.
+ * <p>
+ * The bootstrap is independent of the XMPP library; the requests are made by a {@link Requests} - see, for example, the
+ * Tinder {@code TinderBootstrapRequests}.
+ */
+public final class OpenlinkBootstrap {
+
+    /**
+     * Makes the requests needed to bootstrap a client.
+     */
+    public interface Requests {
+
+        /**
+         * @return a stage that completes with the profiles available to the user
+         */
+        @Nonnull
+        CompletionStage<List<Profile>> getProfiles();
+
+        /**
+         * @param profileId the profile
+         * @return a stage that completes with the interests of the profile
+         */
+        @Nonnull
+        CompletionStage<List<Interest>> getInterests(@Nonnull ProfileId profileId);
+
+        /**
+         * @param profileId the profile
+         * @return a stage that completes with the features of the profile
+         */
+        @Nonnull
+        CompletionStage<List<Feature>> getFeatures(@Nonnull ProfileId profileId);
+
+        /**
+         * @param interestId the interest
+         * @return a stage that completes once the interest has been subscribed to
+         */
+        @Nonnull
+        CompletionStage<?> subscribe(@Nonnull InterestId interestId);
+    }
+
+    @Nonnull private final Requests requests;
+    private final int maximumInFlight;
+
+    /**
+     * @param requests        makes the requests
+     * @param maximumInFlight the maximum number of requests awaiting a result at any one time
+     */
+    public OpenlinkBootstrap(@Nonnull final Requests requests, final int maximumInFlight) {
+        if (maximumInFlight < 1) {
+            throw new IllegalArgumentException("At least one request must be allowed in flight");
+        }
+        this.requests = requests;
+        this.maximumInFlight = maximumInFlight;
+    }
+
+    /**
+     * Starts fetching the snapshot. The future completes exceptionally only if the profiles cannot be fetched; the failure
+     * to fetch the interests or features of a profile, or to subscribe to an interest, is recorded in the snapshot.
+     *
+     * @return a future that completes with the snapshot once every request has completed
+     */
+    @Nonnull
+    public CompletableFuture<OpenlinkSnapshot> start() {
+        return new Run(new RequestLimiter(maximumInFlight)).start();
+    }
+
+    @Nonnull
+    private static Throwable unwrap(@Nonnull final Throwable throwable) {
+        return throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+    }
+
+    private final class Run {
+
+        @Nonnull private final RequestLimiter limiter;
+        @Nonnull private final ConcurrentMap<ProfileId, List<Interest>> interests = new ConcurrentHashMap<>();
+        @Nonnull private final ConcurrentMap<ProfileId, List<Feature>> features = new ConcurrentHashMap<>();
+        @Nonnull private final Set<InterestId> requestedSubscriptions = ConcurrentHashMap.newKeySet();
+        @Nonnull private final Set<InterestId> subscribedInterests = ConcurrentHashMap.newKeySet();
+        @Nonnull private final ConcurrentMap<ProfileId, Throwable> profileFailures = new ConcurrentHashMap<>();
+        @Nonnull private final ConcurrentMap<InterestId, Throwable> subscriptionFailures = new ConcurrentHashMap<>();
+
+        private Run(@Nonnull final RequestLimiter limiter) {
+            this.limiter = limiter;
+        }
+
+        @Nonnull
+        private CompletableFuture<OpenlinkSnapshot> start() {
+            return limiter.submit(requests::getProfiles).thenCompose(profiles -> {
+                final List<CompletableFuture<?>> stages = new ArrayList<>();
+                for (final Profile profile : profiles) {
+                    profile.getId().ifPresent(profileId -> {
+                        stages.add(fetchInterestsAndSubscribe(profileId));
+                        stages.add(fetchFeatures(profileId));
+                    });
+                }
+                return CompletableFuture.allOf(stages.toArray(new CompletableFuture<?>[0]))
+                        .thenApply(ignored -> toSnapshot(profiles));
+            });
+        }
+
+        @Nonnull
+        private CompletableFuture<?> fetchInterestsAndSubscribe(@Nonnull final ProfileId profileId) {
+            return limiter.submit(() -> requests.getInterests(profileId)).handle((profileInterests, throwable) -> {
+                if (throwable != null) {
+                    profileFailures.putIfAbsent(profileId, unwrap(throwable));
+                    return CompletableFuture.completedFuture(null);
+                }
+                interests.put(profileId, profileInterests);
+                final List<CompletableFuture<?>> subscriptions = new ArrayList<>();
+                for (final Interest interest : profileInterests) {
+                    interest.getId().filter(requestedSubscriptions::add).ifPresent(interestId -> subscriptions.add(subscribe(interestId)));
+                }
+                return CompletableFuture.allOf(subscriptions.toArray(new CompletableFuture<?>[0]));
+            }).thenCompose(subscriptions -> subscriptions);
+        }
+
+        @Nonnull
+        private CompletableFuture<?> subscribe(@Nonnull final InterestId interestId) {
+            return limiter.submit(() -> requests.subscribe(interestId).thenAccept(result -> {
+            })).handle((ignored, throwable) -> {
+                if (throwable == null) {
+                    subscribedInterests.add(interestId);
+                } else {
+                    subscriptionFailures.put(interestId, unwrap(throwable));
+                }
+                return null;
+            });
+        }
+
+        @Nonnull
+        private CompletableFuture<?> fetchFeatures(@Nonnull final ProfileId profileId) {
+            return limiter.submit(() -> requests.getFeatures(profileId)).handle((profileFeatures, throwable) -> {
+                if (throwable == null) {
+                    features.put(profileId, profileFeatures);
+                } else {
+                    profileFailures.putIfAbsent(profileId, unwrap(throwable));
+                }
+                return null;
+            });
+        }
+
+        @Nonnull
+        private OpenlinkSnapshot toSnapshot(@Nonnull final List<Profile> profiles) {
+            // Present everything in the order the server returned it, rather than the order the results arrived
+            final Map<ProfileId, List<Interest>> orderedInterests = new LinkedHashMap<>();
+            final Map<ProfileId, List<Feature>> orderedFeatures = new LinkedHashMap<>();
+            final Map<ProfileId, Throwable> orderedProfileFailures = new LinkedHashMap<>();
+            final Set<InterestId> orderedSubscribedInterests = new LinkedHashSet<>();
+            final Map<InterestId, Throwable> orderedSubscriptionFailures = new LinkedHashMap<>();
+            for (final Profile profile : profiles) {
+                profile.getId().ifPresent(profileId -> {
+                    final List<Interest> profileInterests = interests.get(profileId);
+                    if (profileInterests != null) {
+                        orderedInterests.put(profileId, profileInterests);
+                        for (final Interest interest : profileInterests) {
+                            interest.getId().ifPresent(interestId -> {
+                                if (subscribedInterests.contains(interestId)) {
+                                    orderedSubscribedInterests.add(interestId);
+                                } else if (subscriptionFailures.containsKey(interestId)) {
+                                    orderedSubscriptionFailures.put(interestId, subscriptionFailures.get(interestId));
+                                }
+                            });
+                        }
+                    }
+                    final List<Feature> profileFeatures = features.get(profileId);
+                    if (profileFeatures != null) {
+                        orderedFeatures.put(profileId, profileFeatures);
+                    }
+                    final Throwable failure = profileFailures.get(profileId);
+                    if (failure != null) {
+                        orderedProfileFailures.put(profileId, failure);
+                    }
+                });
+            }
+            return new OpenlinkSnapshot(new ArrayList<>(profiles), orderedInterests, orderedFeatures, orderedSubscribedInterests, orderedProfileFailures, orderedSubscriptionFailures);
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package com.bt.openlink;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.bt.openlink.type.DeviceStatus;
+import com.bt.openlink.type.Feature;
+import com.bt.openlink.type.Interest;
+import com.bt.openlink.type.Profile;
+import com.bt.openlink.type.ProfileId;
+
+/**
+ * A bounded cache of the profiles of each user, and of the interests and features of each profile, that can be shared by
+ * every component of a client that needs them. Each is fetched by a loader - typically a request sent with an
+ * {@link AsyncIQClient} - the first time it is needed, and held until its time-to-live expires or it is invalidated.
+ * Concurrent requests for the same entry share a single load. A load that fails is not cached.
+ * <p>
+ * The cache should be told of every device status received with {@link #handleDeviceStatus(DeviceStatus)}; a profile
+ * going online or offline invalidates its interests and features, and every list of profiles that includes it. A device
+ * status that does not change whether the profile is online - for example, one repeating the current status - does not
+ * invalidate anything; to do so, the last online status of each profile is remembered. Entries, and the online statuses
+ * remembered, are each evicted least-recently-used first once the cache is full; a profile whose online status has been
+ * evicted is invalidated by the next device status received for it.
+ *
+ * @param <J> the type of JID used by the XMPP library
+ */
+public final class OpenlinkResultCache<J> {
+
+    private enum Kind {
+        PROFILES, INTERESTS, FEATURES
+    }
+
+    @Nonnull private final LongSupplier nanoClock;
+    private final long timeToLiveNanos;
+    @Nonnull private final Map<Key<J>, Entry> entries;
+    @Nonnull private final Map<ProfileId, Boolean> onlineStatuses;
+    @Nonnull private final LongAdder hitCount = new LongAdder();
+    @Nonnull private final LongAdder missCount = new LongAdder();
+
+    /**
+     * @param timeToLive  how long to hold each entry, from when it was loaded
+     * @param maximumSize the maximum number of entries to hold
+     */
+    public OpenlinkResultCache(@Nonnull final Duration timeToLive, final int maximumSize) {
+        this(timeToLive, maximumSize, System::nanoTime);
+    }
+
+    OpenlinkResultCache(@Nonnull final Duration timeToLive, final int maximumSize, @Nonnull final LongSupplier nanoClock) {
+        if (timeToLive.isNegative() || timeToLive.isZero()) {
+            throw new IllegalArgumentException("The time to live must be positive");
+        }
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("The maximum size of the cache must be positive");
+        }
+        this.timeToLiveNanos = timeToLive.toNanos();
+        this.nanoClock = nanoClock;
+        this.entries = new LinkedHashMap<Key<J>, Entry>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Key<J>, Entry> eldest) {
+                return size() > maximumSize;
+            }
+        };
+        this.onlineStatuses = new LinkedHashMap<ProfileId, Boolean>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<ProfileId, Boolean> eldest) {
+                return size() > maximumSize;
+            }
+        };
+    }
+
+    /**
+     * @param jid    the user
+     * @param loader fetches the profiles of the user, if they are not cached
+     * @return a future that completes with the profiles of the user
+     */
+    @Nonnull
+    public CompletableFuture<List<Profile>> getProfiles(@Nonnull final J jid, @Nonnull final Supplier<? extends CompletionStage<List<Profile>>> loader) {
+        return get(new Key<>(Kind.PROFILES, jid, null), loader);
+    }
+
+    /**
+     * @param jid       the user
+     * @param profileId the profile
+     * @param loader    fetches the interests of the profile, if they are not cached
+     * @return a future that completes with the interests of the profile
+     */
+    @Nonnull
+    public CompletableFuture<List<Interest>> getInterests(@Nonnull final J jid, @Nonnull final ProfileId profileId, @Nonnull final Supplier<? extends CompletionStage<List<Interest>>> loader) {
+        return get(new Key<>(Kind.INTERESTS, jid, profileId), loader);
+    }
+
+    /**
+     * @param jid       the user
+     * @param profileId the profile
+     * @param loader    fetches the features of the profile, if they are not cached
+     * @return a future that completes with the features of the profile
+     */
+    @Nonnull
+    public CompletableFuture<List<Feature>> getFeatures(@Nonnull final J jid, @Nonnull final ProfileId profileId, @Nonnull final Supplier<? extends CompletionStage<List<Feature>>> loader) {
+        return get(new Key<>(Kind.FEATURES, jid, profileId), loader);
+    }
+
+    /**
+     * Invalidates the entries that a change to the status of a device may have made stale. The profile of the device is
+     * invalidated if it has gone online or offline, or if this is the first status received for it; a status that does not
+     * say whether the profile is online, or repeats its last known status, is ignored.
+     *
+     * @param deviceStatus the device status received
+     */
+    public void handleDeviceStatus(@Nonnull final DeviceStatus deviceStatus) {
+        final Optional<ProfileId> profileId = deviceStatus.getProfileId();
+        final Optional<Boolean> online = deviceStatus.isOnline();
+        if (!profileId.isPresent() || !online.isPresent()) {
+            return;
+        }
+        final Boolean previouslyOnline;
+        synchronized (onlineStatuses) {
+            previouslyOnline = onlineStatuses.put(profileId.get(), online.get());
+        }
+        if (!online.get().equals(previouslyOnline)) {
+            invalidateProfile(profileId.get());
+        }
+    }
+
+    /**
+     * Invalidates the interests and features of a profile, and every list of profiles that includes it.
+     *
+     * @param profileId the profile
+     */
+    public void invalidateProfile(@Nonnull final ProfileId profileId) {
+        synchronized (entries) {
+            final Iterator<Map.Entry<Key<J>, Entry>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                final Map.Entry<Key<J>, Entry> mapEntry = iterator.next();
+                final Key<J> key = mapEntry.getKey();
+                if (profileId.equals(key.profileId) || key.kind == Kind.PROFILES && mapEntry.getValue().mayIncludeProfile(profileId)) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Invalidates every entry for a user.
+     *
+     * @param jid the user
+     */
+    public void invalidateUser(@Nonnull final J jid) {
+        synchronized (entries) {
+            entries.keySet().removeIf(key -> key.jid.equals(jid));
+        }
+    }
+
+    /**
+     * Invalidates every entry, and forgets the online status of every profile.
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+        synchronized (onlineStatuses) {
+            onlineStatuses.clear();
+        }
+    }
+
+    /**
+     * @return the number of entries currently held, including those still loading
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * @return the number of requests answered by an entry already held or loading
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * @return the number of requests that caused an entry to be loaded
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    public void resetCounts() {
+        hitCount.reset();
+        missCount.reset();
+    }
+
+    @Nonnull
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<List<T>> get(@Nonnull final Key<J> key, @Nonnull final Supplier<? extends CompletionStage<List<T>>> loader) {
+        final long now = nanoClock.getAsLong();
+        final Entry entry;
+        final boolean load;
+        synchronized (entries) {
+            final Entry existingEntry = entries.get(key);
+            load = existingEntry == null || existingEntry.hasExpired(now, timeToLiveNanos);
+            if (load) {
+                entry = new Entry();
+                entries.put(key, entry);
+            } else {
+                entry = existingEntry;
+            }
+        }
+        if (load) {
+            missCount.increment();
+            load(key, entry, loader);
+        } else {
+            hitCount.increment();
+        }
+        // A dependent future, so that a caller cancelling it cannot affect any other caller
+        return ((CompletableFuture<List<T>>) (CompletableFuture<?>) entry.future).thenApply(value -> value);
+    }
+
+    private <T> void load(@Nonnull final Key<J> key, @Nonnull final Entry entry, @Nonnull final Supplier<? extends CompletionStage<List<T>>> loader) {
+        CompletionStage<List<T>> stage;
+        try {
+            stage = loader.get();
+        } catch (final RuntimeException e) {
+            final CompletableFuture<List<T>> failure = new CompletableFuture<>();
+            failure.completeExceptionally(e);
+            stage = failure;
+        }
+        stage.whenComplete((value, throwable) -> {
+            if (throwable == null) {
+                entry.loadedNanos = nanoClock.getAsLong();
+                entry.loaded = true;
+                entry.future.complete(Collections.unmodifiableList(new ArrayList<>(value)));
+            } else {
+                synchronized (entries) {
+                    entries.remove(key, entry);
+                }
+                entry.future.completeExceptionally(throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable);
+            }
+        });
+    }
+
+    private static final class Entry {
+
+        @Nonnull private final CompletableFuture<List<?>> future = new CompletableFuture<>();
+        private volatile boolean loaded;
+        private volatile long loadedNanos;
+
+        private boolean hasExpired(final long now, final long timeToLiveNanos) {
+            return loaded && now - loadedNanos >= timeToLiveNanos;
+        }
+
+        private boolean mayIncludeProfile(@Nonnull final ProfileId profileId) {
+            final List<?> profiles = future.getNow(null);
+            // A list of profiles that is still loading may already be stale
+            return profiles == null || profiles.stream().anyMatch(profile -> ((Profile) profile).getId().filter(profileId::equals).isPresent());
+        }
+    }
+
+    private static final class Key<J> {
+
+        @Nonnull private final Kind kind;
+        @Nonnull private final J jid;
+        @Nullable private final ProfileId profileId;
+        private final int hashCode;
+
+        private Key(@Nonnull final Kind kind, @Nonnull final J jid, @Nullable final ProfileId profileId) {
+            this.kind = kind;
+            this.jid = jid;
+            this.profileId = profileId;
+            this.hashCode = Objects.hash(kind, jid, profileId);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final Key<?> that = (Key<?>) o;
+            return kind == that.kind && jid.equals(that.jid) && Objects.equals(profileId, that.profileId);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.bt.openlink;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.Nonnull;
+
+import com.bt.openlink.type.Feature;
+import com.bt.openlink.type.Interest;
+import com.bt.openlink.type.InterestId;
+import com.bt.openlink.type.Profile;
+import com.bt.openlink.type.ProfileId;
+
+/**
+ * The profiles available to a user, with the interests and features of each and the interests subscribed to, as fetched
+ * by an {@link OpenlinkBootstrap}.
+ */
+public final class OpenlinkSnapshot {
+
+    @Nonnull private final List<Profile> profiles;
+    @Nonnull private final Map<ProfileId, List<Interest>> interests;
+    @Nonnull private final Map<ProfileId, List<Feature>> features;
+    @Nonnull private final Set<InterestId> subscribedInterests;
+    @Nonnull private final Map<ProfileId, Throwable> profileFailures;
+    @Nonnull private final Map<InterestId, Throwable> subscriptionFailures;
+
+    OpenlinkSnapshot(
+            @Nonnull final List<Profile> profiles,
+            @Nonnull final Map<ProfileId, List<Interest>> interests,
+            @Nonnull final Map<ProfileId, List<Feature>> features,
+            @Nonnull final Set<InterestId> subscribedInterests,
+            @Nonnull final Map<ProfileId, Throwable> profileFailures,
+            @Nonnull final Map<InterestId, Throwable> subscriptionFailures) {
+        this.profiles = Collections.unmodifiableList(profiles);
+        this.interests = Collections.unmodifiableMap(interests);
+        this.features = Collections.unmodifiableMap(features);
+        this.subscribedInterests = Collections.unmodifiableSet(subscribedInterests);
+        this.profileFailures = Collections.unmodifiableMap(profileFailures);
+        this.subscriptionFailures = Collections.unmodifiableMap(subscriptionFailures);
+    }
+
+    /**
+     * @return {@code true} if the interests and features of every profile were fetched and every interest was subscribed
+     * to, otherwise {@code false}
+     */
+    public boolean isComplete() {
+        return profileFailures.isEmpty() && subscriptionFailures.isEmpty();
+    }
+
+    /**
+     * @return the profiles available to the user, in the order the server returned them
+     */
+    @Nonnull
+    public List<Profile> getProfiles() {
+        return profiles;
+    }
+
+    /**
+     * @param profileId the profile
+     * @return the interests of the profile, or an empty list if they could not be fetched
+     */
+    @Nonnull
+    public List<Interest> getInterests(@Nonnull final ProfileId profileId) {
+        return interests.getOrDefault(profileId, Collections.emptyList());
+    }
+
+    /**
+     * @return the interests of every profile, in profile order
+     */
+    @Nonnull
+    public List<Interest> getInterests() {
+        final List<Interest> allInterests = new ArrayList<>();
+        interests.values().forEach(allInterests::addAll);
+        return allInterests;
+    }
+
+    /**
+     * @param profileId the profile
+     * @return the features of the profile, or an empty list if they could not be fetched
+     */
+    @Nonnull
+    public List<Feature> getFeatures(@Nonnull final ProfileId profileId) {
+        return features.getOrDefault(profileId, Collections.emptyList());
+    }
+
+    /**
+     * @return the interests that were subscribed to
+     */
+    @Nonnull
+    public Set<InterestId> getSubscribedInterests() {
+        return subscribedInterests;
+    }
+
+    /**
+     * @return the reason the interests or features of each profile could not be fetched
+     */
+    @Nonnull
+    public Map<ProfileId, Throwable> getProfileFailures() {
+        return profileFailures;
+    }
+
+    /**
+     * @return the reason each interest could not be subscribed to
+     */
+    @Nonnull
+    public Map<InterestId, Throwable> getSubscriptionFailures() {
+        return subscriptionFailures;
+    }
+
+    @Nonnull
+    @Override
+    public String toString() {
+        return "OpenlinkSnapshot[profiles=" + profiles.size()
+                + ", interests=" + getInterests().size()
+                + ", subscribed=" + subscribedInterests.size()
+                + ", profileFailures=" + profileFailures.keySet()
+                + ", subscriptionFailures=" + subscriptionFailures.keySet() + ']';
+    }
+}
@@ -0,0 +1,546 @@
+package com.bt.openlink;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.bt.openlink.type.AbstractType;
+import com.bt.openlink.type.Call;
+import com.bt.openlink.type.CallDirection;
+import com.bt.openlink.type.CallFeature;
+import com.bt.openlink.type.CallState;
+import com.bt.openlink.type.Changed;
+import com.bt.openlink.type.DeviceKey;
+import com.bt.openlink.type.DeviceStatus;
+import com.bt.openlink.type.Feature;
+import com.bt.openlink.type.FeatureId;
+import com.bt.openlink.type.FeatureType;
+import com.bt.openlink.type.Interest;
+import com.bt.openlink.type.OriginatorReference;
+import com.bt.openlink.type.Participant;
+import com.bt.openlink.type.ParticipantType;
+import com.bt.openlink.type.PhoneNumber;
+import com.bt.openlink.type.Profile;
+import com.bt.openlink.type.RequestAction;
+import com.bt.openlink.type.Site;
+
+/**
+ * Writes Openlink XML directly to an {@link Appendable} - for example a {@link StringBuilder}, a {@link java.io.Writer}
+ * or Smack's {@code XmlStringBuilder} - without first building a DOM. The elements written are the same as those of the
+ * equivalent Tinder and Smack stanzas, and all text and attribute values are escaped.
+ * <p>
+ * A writer is not thread-safe, but is cheap to create; {@link #toXML(Content)} and {@link #toByteBuffer(Content)} write
+ * to a scratch buffer that is re-used by each thread.
+ */
+public final class OpenlinkXmlWriter {
+
+    /**
+     * Some content to write.
+     */
+    @FunctionalInterface
+    public interface Content {
+        void writeTo(@Nonnull OpenlinkXmlWriter writer) throws IOException;
+    }
+
+    private static final String DEVICE_KEYS_NAMESPACE = "http://xmpp.org/protocol/openlink:01:00:00/features#device-keys";
+    private static final int INITIAL_SCRATCH_CAPACITY = 1024;
+    // Larger scratch buffers are discarded after use, so that one large stanza does not pin memory to the thread
+    private static final int MAXIMUM_SCRATCH_CAPACITY = 64 * 1024;
+    private static final ThreadLocal<StringBuilder> SCRATCH = new ThreadLocal<>();
+    private static final ThreadLocal<CharsetEncoder> UTF8_ENCODER = ThreadLocal.withInitial(() -> StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE));
+
+    @Nonnull private final Appendable out;
+    private boolean startTagOpen;
+
+    public OpenlinkXmlWriter(@Nonnull final Appendable out) {
+        this.out = out;
+    }
+
+    /**
+     * Writes some content to a re-used, per-thread scratch buffer.
+     *
+     * @param content the content to write
+     * @return the XML written
+     */
+    @Nonnull
+    public static String toXML(@Nonnull final Content content) {
+        final StringBuilder scratch = acquireScratch();
+        try {
+            write(scratch, content);
+            return scratch.toString();
+        } finally {
+            releaseScratch(scratch);
+        }
+    }
+
+    /**
+     * Writes some content to a re-used, per-thread scratch buffer, and encodes it as UTF-8.
+     *
+     * @param content the content to write
+     * @return a buffer, positioned at zero, containing the XML written
+     */
+    @Nonnull
+    public static ByteBuffer toByteBuffer(@Nonnull final Content content) {
+        final StringBuilder scratch = acquireScratch();
+        try {
+            write(scratch, content);
+            final CharsetEncoder encoder = UTF8_ENCODER.get();
+            encoder.reset();
+            return encoder.encode(CharBuffer.wrap(scratch));
+        } catch (final CharacterCodingException e) {
+            // Cannot happen; malformed and unmappable characters are replaced
+            throw new IllegalStateException(e);
+        } finally {
+            releaseScratch(scratch);
+        }
+    }
+
+    private static void write(@Nonnull final StringBuilder scratch, @Nonnull final Content content) {
+        try {
+            content.writeTo(new OpenlinkXmlWriter(scratch));
+        } catch (final IOException e) {
+            // Cannot happen; a StringBuilder does not throw
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Nonnull
+    private static StringBuilder acquireScratch() {
+        final StringBuilder scratch = SCRATCH.get();
+        if (scratch == null) {
+            // Either the first use on this thread, or a nested call while the scratch buffer is in use
+            return new StringBuilder(INITIAL_SCRATCH_CAPACITY);
+        }
+        SCRATCH.set(null);
+        scratch.setLength(0);
+        return scratch;
+    }
+
+    private static void releaseScratch(@Nonnull final StringBuilder scratch) {
+        if (scratch.capacity() <= MAXIMUM_SCRATCH_CAPACITY) {
+            SCRATCH.set(scratch);
+        }
+    }
+
+    /**
+     * Starts an element; attributes may be written until any content or another element is written.
+     *
+     * @param name the name of the element
+     * @return this writer
+     * @throws IOException if the underlying {@link Appendable} cannot be written to
+     */
+    @Nonnull
+    public OpenlinkXmlWriter startElement(@Nonnull final String name) throws IOException {
+        closeStartTag();
+        out.append('<').append(name);
+        startTagOpen = true;
+        return this;
+    }
+
+    @Nonnull
+    public OpenlinkXmlWriter startElement(@Nonnull final String name, @Nonnull final String namespace) throws IOException {
+        return startElement(name).attribute("xmlns", namespace);
+    }
+
+    /**
+     * Writes an attribute of the element just started. A {@code null} value is not written.
+     *
+     * @param name  the name of the attribute
+     * @param value the value of the attribute
+     * @return this writer
+     * @throws IOException if the underlying {@link Appendable} cannot be written to
+     */
+    @Nonnull
+    public OpenlinkXmlWriter attribute(@Nonnull final String name, @Nullable final String value) throws IOException {
+        if (!startTagOpen) {
+            throw new IllegalStateException("An attribute can only be written immediately after the start of an element");
+        }
+        if (value != null) {
+            out.append(' ').append(name).append("=\"");
+            escape(value, true);
+            out.append('"');
+        }
+        return this;
+    }
+
+    /**
+     * Writes the text content of the current element. {@code null} or empty text is not written.
+     *
+     * @param text the text to write
+     * @return this writer
+     * @throws IOException if the underlying {@link Appendable} cannot be written to
+     */
+    @Nonnull
+    public OpenlinkXmlWriter text(@Nullable final String text) throws IOException {
+        if (text != null && !text.isEmpty()) {
+            closeStartTag();
+            escape(text, false);
+        }
+        return this;
+    }
+
+    /**
+     * Writes some XML that has already been encoded, as-is, as content of the current element. The element is then
+     * considered to have content, even if the XML is empty, so will not be written as an empty element.
+     *
+     * @param encodedXml the XML to write
+     * @return this writer
+     * @throws IOException if the underlying {@link Appendable} cannot be written to
+     */
+    @Nonnull
+    public OpenlinkXmlWriter encodedXml(@Nonnull final CharSequence encodedXml) throws IOException {
+        closeStartTag();
+        out.append(encodedXml);
+        return this;
+    }
+
+    /**
+     * Ends an element; an element with no content is written as an empty element.
+     *
+     * @param name the name of the element
+     * @return this writer
+     * @throws IOException if the underlying {@link Appendable} cannot be written to
+     */
+    @Nonnull
+    public OpenlinkXmlWriter endElement(@Nonnull final String name) throws IOException {
+        if (startTagOpen) {
+            out.append("/>");
+            startTagOpen = false;
+        } else {
+            out.append("</").append(name).append('>');
+        }
+        return this;
+    }
+
+    /**
+     * Writes an element containing only text.
+     *
+     * @param name the name of the element
+     * @param text the text of the element
+     * @return this writer
+     * @throws IOException if the underlying {@link Appendable} cannot be written to
+     */
+    @Nonnull
+    public OpenlinkXmlWriter textElement(@Nonnull final String name, @Nullable final String text) throws IOException {
+        return startElement(name).text(text).endElement(name);
+    }
+
+    private void closeStartTag() throws IOException {
+        if (startTagOpen) {
+            out.append('>');
+            startTagOpen = false;
+        }
+    }
+
+    private void escape(@Nonnull final String value, final boolean isAttribute) throws IOException {
+        final int length = value.length();
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            final String replacement = getReplacement(value.charAt(i), isAttribute);
+            if (replacement != null) {
+                out.append(value, start, i).append(replacement);
+                start = i + 1;
+            }
+        }
+        out.append(value, start, length);
+    }
+
+    @Nullable
+    private static String getReplacement(final char c, final boolean isAttribute) {
+        switch (c) {
+        case '&':
+            return "&amp;";
+        case '<':
+            return "&lt;";
+        case '>':
+            return "&gt;";
+        case '"':
+            return isAttribute ? "&quot;" : null;
+        case '\t':
+            return isAttribute ? "&#9;" : null;
+        case '\n':
+            return isAttribute ? "&#10;" : null;
+        case '\r':
+            return "&#13;";
+        default:
+            return null;
+        }
+    }
+
+    /**
+     * Writes a callstatus element, including its namespace.
+     *
+     * @param callStatusBusy the busy attribute, if any
+     * @param calls          the calls
+     * @return this writer
+     * @throws IOException if the underlying {@link Appendable} cannot be written to
+     */
+    @Nonnull
+    public OpenlinkXmlWriter writeCallStatus(@Nullable final Boolean callStatusBusy, @Nonnull final Collection<Call> calls) throws IOException {
+        startElement("callstatus", OpenlinkXmppNamespace.OPENLINK_CALL_STATUS.uri());
+        attribute("busy", toString(callStatusBusy));
+        for (final Call call : calls) {
+            writeCall(call);
+        }
+        return endElement("callstatus");
+    }
+
+    @Nonnull
+    public OpenlinkXmlWriter writeCall(@Nonnull final Call call) throws IOException {
+        startElement("call");
+        textElementIfPresent("id", call.getId().map(AbstractType::value).orElse(null));
+        textElementIfPresent("conference", call.getConferenceId().map(AbstractType::value).orElse(null));
+        final Site site = call.getSite().orElse(null);
+        if (site != null) {
+            writeSite(site);
+        }
+        textElementIfPresent(OpenlinkXmppNamespace.TAG_PROFILE, call.getProfileId().map(AbstractType::value).orElse(null));
+        textElementIfPresent("user", call.getUserId().map(AbstractType::value).orElse(null));
+        textElementIfPresent(OpenlinkXmppNamespace.TAG_INTEREST, call.getInterestId().map(AbstractType::value).orElse(null));
+        textElementIfPresent("changed", call.getChanged().map(Changed::getId).orElse(null));
+        textElementIfPresent("state", call.getState().map(CallState::getLabel).orElse(null));
+        textElementIfPresent("direction", call.getDirection().map(CallDirection::getLabel).orElse(null));
+        startElement("caller");
+        startElement("number");
+        attribute("e164", joinNumbers(call.getCallerE164Numbers()));
+        text(call.getCallerNumber().map(PhoneNumber::value).orElse(null));
+        endElement("number");
+        textElement("name", call.getCallerName().orElse(null));
+        endElement("caller");
+        startElement("called");
+        startElement("number");
+        attribute("destination", call.getCalledDestination().map(PhoneNumber::value).orElse(null));
+        attribute("e164", joinNumbers(call.getCalledE164Numbers()));
+        text(call.getCalledNumber().map(PhoneNumber::value).orElse(null));
+        endElement("number");
+        textElement("name", call.getCalledName().orElse(null));
+        endElement("called");
+        final List<OriginatorReference> originatorReferences = call.getOriginatorReferences();
+        if (!originatorReferences.isEmpty()) {
+            startElement("originator-ref");
+            for (final OriginatorReference originatorReference : originatorReferences) {
+                startElement("property").attribute("id", originatorReference.getKey());
+                textElement("value", originatorReference.getValue());
+                endElement("property");
+            }
+            endElement("originator-ref");
+        }
+        textElementIfPresent("start", call.getStartTime().map(TimestampCodec::formatIso8601).orElse(null));
+        textElementIfPresent("duration", call.getDuration().map(duration -> String.valueOf(duration.toMillis())).orElse(null));
+        final List<RequestAction> actions = call.getActions();
+        if (!actions.isEmpty()) {
+            startElement(OpenlinkXmppNamespace.TAG_ACTIONS);
+            for (final RequestAction action : actions) {
+                startElement(action.getId()).endElement(action.getId());
+            }
+            endElement(OpenlinkXmppNamespace.TAG_ACTIONS);
+        }
+        writeCallFeatures(call.getFeatures());
+        writeParticipants(call.getParticipants());
+        return endElement("call");
+    }
+
+    private void writeCallFeatures(@Nonnull final List<CallFeature> features) throws IOException {
+        if (features.isEmpty()) {
+            return;
+        }
+        startElement("features");
+        for (final CallFeature feature : features) {
+            startElement("feature");
+            attribute("id", feature.getId().map(FeatureId::value).orElse(null));
+            attribute(OpenlinkXmppNamespace.TAG_LABEL, feature.getLabel().orElse(null));
+            attribute("type", feature.getType().map(FeatureType::getId).orElse(null));
+            text(toString(feature.isEnabled().orElse(null)));
+            final DeviceKey deviceKey = feature.getDeviceKey().orElse(null);
+            if (deviceKey != null) {
+                startElement("devicekeys", DEVICE_KEYS_NAMESPACE);
+                textElement("key", deviceKey.value());
+                endElement("devicekeys");
+            }
+            endElement("feature");
+        }
+        endElement("features");
+    }
+
+    private void writeParticipants(@Nonnull final List<Participant> participants) throws IOException {
+        if (participants.isEmpty()) {
+            return;
+        }
+        startElement("participants");
+        for (final Participant participant : participants) {
+            startElement("participant");
+            attribute("jid", participant.getJID().orElse(null));
+            attribute("type", participant.getType().map(ParticipantType::getId).orElse(null));
+            attribute("direction", participant.getDirection().map(CallDirection::getLabel).orElse(null));
+            final Instant startTime = participant.getStartTime().orElse(null);
+            if (startTime != null) {
+                attribute("start", TimestampCodec.formatIso8601(startTime));
+                // Include the legacy timestamp attribute too
+                attribute("timestamp", TimestampCodec.formatJavaUtilDate(startTime));
+            }
+            attribute("duration", participant.getDuration().map(Duration::toMillis).map(String::valueOf).orElse(null));
+            endElement("participant");
+        }
+        endElement("participants");
+    }
+
+    /**
+     * Writes a devicestatus element, including its namespace.
+     *
+     * @param deviceStatus the device status
+     * @return this writer
+     * @throws IOException if the underlying {@link Appendable} cannot be written to
+     */
+    @Nonnull
+    public OpenlinkXmlWriter writeDeviceStatus(@Nonnull final DeviceStatus deviceStatus) throws IOException {
+        startElement("devicestatus", OpenlinkXmppNamespace.OPENLINK_DEVICE_STATUS.uri());
+        startElement(OpenlinkXmppNamespace.TAG_PROFILE);
+        attribute("online", toString(deviceStatus.isOnline().orElse(null)));
+        text(deviceStatus.getProfileId().map(AbstractType::value).orElse(null));
+        endElement(OpenlinkXmppNamespace.TAG_PROFILE);
+        return endElement("devicestatus");
+    }
+
+    @Nonnull
+    public OpenlinkXmlWriter writeSite(@Nonnull final Site site) throws IOException {
+        startElement("site");
+        attribute("id", site.getId().map(String::valueOf).orElse(null));
+        attribute(OpenlinkXmppNamespace.TAG_DEFAULT, toString(site.isDefault().orElse(null)));
+        attribute("type", site.getType().map(Enum::name).orElse(null));
+        text(site.getName().orElse(null));
+        return endElement("site");
+    }
+
+    /**
+     * Writes a profiles element, including its namespace.
+     *
+     * @param profiles the profiles
+     * @return this writer
+     * @throws IOException if the underlying {@link Appendable} cannot be written to
+     */
+    @Nonnull
+    public OpenlinkXmlWriter writeProfiles(@Nonnull final Collection<Profile> profiles) throws IOException {
+        startElement(OpenlinkXmppNamespace.TAG_PROFILES, OpenlinkXmppNamespace.OPENLINK_PROFILES.uri());
+        for (final Profile profile : profiles) {
+            writeProfile(profile);
+        }
+        return endElement(OpenlinkXmppNamespace.TAG_PROFILES);
+    }
+
+    @Nonnull
+    public OpenlinkXmlWriter writeProfile(@Nonnull final Profile profile) throws IOException {
+        startElement(OpenlinkXmppNamespace.TAG_PROFILE);
+        attribute("id", profile.getId().map(AbstractType::value).orElse(null));
+        attribute(OpenlinkXmppNamespace.TAG_DEFAULT, toString(profile.isDefaultProfile().orElse(null)));
+        attribute("device", profile.getDevice().orElse(null));
+        attribute(OpenlinkXmppNamespace.TAG_LABEL, profile.getLabel().orElse(null));
+        attribute("online", toString(profile.isOnline().orElse(null)));
+        final Site site = profile.getSite().orElse(null);
+        if (site != null) {
+            writeSite(site);
+        }
+        final List<RequestAction> actions = profile.getActions();
+        if (!actions.isEmpty()) {
+            startElement(OpenlinkXmppNamespace.TAG_ACTIONS);
+            for (final RequestAction action : actions) {
+                startElement(OpenlinkXmppNamespace.TAG_ACTION)
+                        .attribute("id", action.getId())
+                        .attribute(OpenlinkXmppNamespace.TAG_LABEL, action.getLabel())
+                        .endElement(OpenlinkXmppNamespace.TAG_ACTION);
+            }
+            endElement(OpenlinkXmppNamespace.TAG_ACTIONS);
+        }
+        return endElement(OpenlinkXmppNamespace.TAG_PROFILE);
+    }
+
+    /**
+     * Writes an interests element, including its namespace.
+     *
+     * @param interests the interests
+     * @return this writer
+     * @throws IOException if the underlying {@link Appendable} cannot be written to
+     */
+    @Nonnull
+    public OpenlinkXmlWriter writeInterests(@Nonnull final Collection<Interest> interests) throws IOException {
+        startElement(OpenlinkXmppNamespace.TAG_INTERESTS, OpenlinkXmppNamespace.OPENLINK_INTERESTS.uri());
+        for (final Interest interest : interests) {
+            writeInterest(interest);
+        }
+        return endElement(OpenlinkXmppNamespace.TAG_INTERESTS);
+    }
+
+    @Nonnull
+    public OpenlinkXmlWriter writeInterest(@Nonnull final Interest interest) throws IOException {
+        startElement(OpenlinkXmppNamespace.TAG_INTEREST);
+        attribute("id", interest.getId().map(AbstractType::value).orElse(null));
+        attribute("type", interest.getType().map(AbstractType::value).orElse(null));
+        attribute(OpenlinkXmppNamespace.TAG_LABEL, interest.getLabel().orElse(null));
+        attribute(OpenlinkXmppNamespace.TAG_DEFAULT, toString(interest.isDefaultInterest().orElse(null)));
+        return endElement(OpenlinkXmppNamespace.TAG_INTEREST);
+    }
+
+    /**
+     * Writes a features element, including its namespace.
+     *
+     * @param features the features
+     * @return this writer
+     * @throws IOException if the underlying {@link Appendable} cannot be written to
+     */
+    @Nonnull
+    public OpenlinkXmlWriter writeFeatures(@Nonnull final Collection<Feature> features) throws IOException {
+        startElement("features", OpenlinkXmppNamespace.OPENLINK_FEATURES.uri());
+        for (final Feature feature : features) {
+            writeFeature(feature);
+        }
+        return endElement("features");
+    }
+
+    @Nonnull
+    public OpenlinkXmlWriter writeFeature(@Nonnull final Feature feature) throws IOException {
+        startElement("feature");
+        attribute("id", feature.getId().map(FeatureId::value).orElse(null));
+        attribute("type", feature.getType().map(FeatureType::getId).orElse(null));
+        attribute(OpenlinkXmppNamespace.TAG_LABEL, feature.getLabel().orElse(null));
+        return endElement("feature");
+    }
+
+    private void textElementIfPresent(@Nonnull final String name, @Nullable final String text) throws IOException {
+        if (text != null) {
+            textElement(name, text);
+        }
+    }
+
+    @Nullable
+    private static String toString(@Nullable final Boolean value) {
+        return value == null ? null : String.valueOf(value);
+    }
+
+    @Nullable
+    private static String joinNumbers(@Nonnull final List<PhoneNumber> numbers) {
+        if (numbers.isEmpty()) {
+            return null;
+        }
+        final StringBuilder joined = new StringBuilder();
+        for (final PhoneNumber number : numbers) {
+            if (joined.length() > 0) {
+                joined.append(',');
+            }
+            joined.append(number.value());
+        }
+        return joined.toString();
+    }
+}
@@ -0,0 +1,268 @@
+package com.bt.openlink;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * The errors found parsing a stanza. Each error is recorded as a message format and its arguments, and is only formatted
+ * when it is read, so an error that is never read costs little more than a reference to its arguments. It is presented
+ * as a list of the formatted messages, so may be passed anywhere that a list of parse errors is expected.
+ * <p>
+ * Each parse in {@link Mode#COLLECT} or {@link Mode#FAIL_FAST} mode allocates one small diagnostics object, even for a
+ * valid stanza; the storage for the errors themselves is only allocated when the first error is found, and a valid
+ * stanza is left holding the shared {@link #none()} rather than its own diagnostics. A parse in {@link Mode#SKIP} mode
+ * allocates nothing, as every such parse shares a single diagnostics object that discards its errors.
+ * <p>
+ * Parsers create their diagnostics with {@link #create()}, in the mode set for the current thread by
+ * {@link #withMode(Mode, Parser)}. A stanza from a trusted source - for example, another server in the same cluster -
+ * may be parsed with {@link Mode#FAIL_FAST}, to stop at the first error, or with {@link Mode#SKIP}, to ignore errors
+ * entirely; {@link ParseOptions} chooses the mode from the sender of the stanza.
+ */
+public final class ParseDiagnostics extends AbstractList<String> {
+
+    /**
+     * How errors are handled when they are found.
+     */
+    public enum Mode {
+        /**
+         * Errors are recorded, and may be read once parsing is complete.
+         */
+        COLLECT,
+        /**
+         * The first error found throws an {@link IllegalArgumentException}.
+         */
+        FAIL_FAST,
+        /**
+         * Errors are discarded, and the semantic checks of the stanza - for example, that each call id is unique - are
+         * not made; the stanza is treated as valid.
+         */
+        SKIP
+    }
+
+    /**
+     * Parses a stanza.
+     *
+     * @param <T> the type of the result
+     * @param <E> the type of exception thrown if the stanza cannot be parsed
+     */
+    @FunctionalInterface
+    public interface Parser<T, E extends Exception> {
+        T parse() throws E;
+    }
+
+    private static final ParseDiagnostics NONE = new ParseDiagnostics(Mode.SKIP).freeze();
+    // Never holds an error, so may be shared by every parse in SKIP mode
+    private static final ParseDiagnostics SKIPPED = new ParseDiagnostics(Mode.SKIP);
+    private static final ThreadLocal<Mode> CURRENT_MODE = ThreadLocal.withInitial(() -> Mode.COLLECT);
+
+    @Nonnull private final Mode mode;
+    private boolean frozen;
+    // Each error occupies two slots; the format, or formatted message, and its arguments, or null once formatted
+    @Nullable private Object[] entries;
+    private int size;
+
+    private ParseDiagnostics(@Nonnull final Mode mode) {
+        this.mode = mode;
+    }
+
+    /**
+     * @return new diagnostics, in the mode set for the current thread, as per {@link #create(Mode)}
+     */
+    @Nonnull
+    public static ParseDiagnostics create() {
+        return create(CURRENT_MODE.get());
+    }
+
+    /**
+     * @param mode the mode of the diagnostics
+     * @return new diagnostics, in the given mode; in {@link Mode#SKIP} mode, the shared diagnostics that discard every
+     * error
+     */
+    @Nonnull
+    public static ParseDiagnostics create(@Nonnull final Mode mode) {
+        return mode == Mode.SKIP ? SKIPPED : new ParseDiagnostics(mode);
+    }
+
+    /**
+     * @return the shared, empty and unmodifiable, diagnostics of a valid stanza
+     */
+    @Nonnull
+    public static ParseDiagnostics none() {
+        return NONE;
+    }
+
+    /**
+     * Parses stanzas with diagnostics in the given mode.
+     *
+     * @param mode   the mode of any diagnostics created by the current thread while parsing
+     * @param parser the code that parses the stanzas
+     * @param <T>    the type of the result of the parser
+     * @param <E>    the type of exception thrown by the parser
+     * @return the result of the parser
+     * @throws E if the parser fails
+     */
+    public static <T, E extends Exception> T withMode(@Nonnull final Mode mode, @Nonnull final Parser<T, E> parser) throws E {
+        final Mode previousMode = CURRENT_MODE.get();
+        if (previousMode == mode) {
+            return parser.parse();
+        }
+        CURRENT_MODE.set(mode);
+        try {
+            return parser.parse();
+        } finally {
+            CURRENT_MODE.set(previousMode);
+        }
+    }
+
+    /**
+     * @return the mode set for the current thread
+     */
+    @Nonnull
+    public static Mode getCurrentMode() {
+        return CURRENT_MODE.get();
+    }
+
+    /**
+     * @param errors the errors found parsing a stanza
+     * @return {@code false} if the errors are discarded, so there is no need to check the stanza for them
+     */
+    public static boolean isValidating(@Nonnull final List<String> errors) {
+        return modeOf(errors) != Mode.SKIP;
+    }
+
+    /**
+     * @param errors the errors found parsing a stanza
+     * @return the mode of the errors if they are a {@code ParseDiagnostics}, else {@link Mode#COLLECT}
+     */
+    @Nonnull
+    public static Mode modeOf(@Nonnull final List<String> errors) {
+        return errors instanceof ParseDiagnostics ? ((ParseDiagnostics) errors).mode : Mode.COLLECT;
+    }
+
+    /**
+     * Records an error in a list of parse errors, formatting the message only when it is read if the list is a
+     * {@code ParseDiagnostics}.
+     *
+     * @param errors    the errors to add to
+     * @param format    the format of the message, as per {@link String#format(String, Object...)}
+     * @param arguments the arguments of the message
+     */
+    public static void report(@Nonnull final List<String> errors, @Nonnull final String format, @Nonnull final Object... arguments) {
+        if (errors instanceof ParseDiagnostics) {
+            ((ParseDiagnostics) errors).report(format, arguments);
+        } else {
+            errors.add(String.format(format, arguments));
+        }
+    }
+
+    /**
+     * @param errors the errors found parsing a stanza, or {@code null} if the stanza was not parsed
+     * @return unmodifiable errors, which are the given diagnostics if possible; the shared empty diagnostics if there are
+     * no errors
+     */
+    @Nonnull
+    public static List<String> copyOf(@Nullable final List<String> errors) {
+        if (errors == null || errors.isEmpty()) {
+            return NONE;
+        }
+        if (errors instanceof ParseDiagnostics) {
+            return ((ParseDiagnostics) errors).freeze();
+        }
+        return Collections.unmodifiableList(Arrays.asList(errors.toArray(new String[0])));
+    }
+
+    /**
+     * Records an error, formatting the message only when it is read.
+     *
+     * @param format    the format of the message, as per {@link String#format(String, Object...)}
+     * @param arguments the arguments of the message
+     */
+    public void report(@Nonnull final String format, @Nonnull final Object... arguments) {
+        record(format, arguments);
+    }
+
+    @Override
+    public boolean add(@Nonnull final String message) {
+        return record(message, null);
+    }
+
+    @Override
+    public boolean addAll(@Nonnull final Collection<? extends String> messages) {
+        if (!(messages instanceof ParseDiagnostics)) {
+            return super.addAll(messages);
+        }
+        // Copy the unformatted errors, so that they are still only formatted if read
+        final ParseDiagnostics other = (ParseDiagnostics) messages;
+        final Object[] otherEntries = other.entries;
+        boolean changed = false;
+        for (int i = 0; i < other.size; i++) {
+            changed |= record((String) otherEntries[2 * i], (Object[]) otherEntries[2 * i + 1]);
+        }
+        return changed;
+    }
+
+    /**
+     * @return the mode of these diagnostics
+     */
+    @Nonnull
+    public Mode getMode() {
+        return mode;
+    }
+
+    // Synchronized as the diagnostics of a stanza may be read by many threads, each of which may format the message
+    @Override
+    public synchronized String get(final int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        final Object[] currentEntries = entries;
+        final Object[] arguments = (Object[]) currentEntries[2 * index + 1];
+        if (arguments == null) {
+            return (String) currentEntries[2 * index];
+        }
+        final String message = String.format((String) currentEntries[2 * index], arguments);
+        currentEntries[2 * index] = message;
+        currentEntries[2 * index + 1] = null;
+        return message;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Nonnull
+    private ParseDiagnostics freeze() {
+        frozen = true;
+        return this;
+    }
+
+    private boolean record(@Nonnull final String formatOrMessage, @Nullable final Object[] arguments) {
+        if (frozen) {
+            throw new UnsupportedOperationException("The diagnostics of a stanza cannot be modified");
+        }
+        switch (mode) {
+            case SKIP:
+                return false;
+            case FAIL_FAST:
+                throw new IllegalArgumentException(arguments == null ? formatOrMessage : String.format(formatOrMessage, arguments));
+            default:
+                if (entries == null) {
+                    entries = new Object[4];
+                } else if (2 * size == entries.length) {
+                    entries = Arrays.copyOf(entries, entries.length * 2);
+                }
+                entries[2 * size] = formatOrMessage;
+                entries[2 * size + 1] = arguments == null || arguments.length == 0 && formatOrMessage.indexOf('%') < 0 ? null : arguments;
+                size++;
+                modCount++;
+                return true;
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.bt.openlink;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.bt.openlink.type.CallFieldMask;
+
+/**
+ * How stanzas are parsed, depending on who sent them. A stanza from a trusted source - typically the Openlink server
+ * component itself, whose stanzas are already guaranteed to be valid - is parsed at the trust level of the options, which
+ * by default skips validating it; a stanza from any other source is always fully validated.
+ * <p>
+ * The options also say which fields of each call to decode; by default, every field. A consumer that needs only a few
+ * fields of each call parses a callstatus much faster with a narrower {@link CallFieldMask}.
+ */
+public final class ParseOptions {
+
+    /**
+     * How a stanza from a trusted source is validated.
+     */
+    public enum TrustLevel {
+        /**
+         * The stanza is fully validated, as is a stanza from any other source.
+         */
+        VALIDATE(ParseDiagnostics.Mode.COLLECT),
+        /**
+         * The stanza is validated, but the first error found throws an {@link IllegalArgumentException}.
+         */
+        FAIL_FAST(ParseDiagnostics.Mode.FAIL_FAST),
+        /**
+         * The stanza is not validated. Any error found while parsing it, including a missing mandatory field, is
+         * discarded, and the semantic checks of the stanza - for example, that each call id is unique - are not made.
+         */
+        TRUSTED(ParseDiagnostics.Mode.SKIP);
+
+        @Nonnull private final ParseDiagnostics.Mode mode;
+
+        TrustLevel(@Nonnull final ParseDiagnostics.Mode mode) {
+            this.mode = mode;
+        }
+
+        /**
+         * @return how errors are handled when parsing a stanza at this trust level
+         */
+        @Nonnull
+        public ParseDiagnostics.Mode getMode() {
+            return mode;
+        }
+    }
+
+    private static final ParseOptions DEFAULTS = Builder.start().build();
+
+    @Nonnull private final TrustLevel trustLevel;
+    @Nonnull private final Set<String> trustedSources;
+    private final boolean allSourcesTrusted;
+    @Nonnull private final CallFieldMask callFieldMask;
+
+    private ParseOptions(@Nonnull final Builder builder) {
+        this.trustLevel = builder.trustLevel;
+        this.trustedSources = Collections.unmodifiableSet(new HashSet<>(builder.trustedSources));
+        this.allSourcesTrusted = builder.allSourcesTrusted;
+        this.callFieldMask = builder.callFieldMask;
+    }
+
+    /**
+     * @return options that fully validate every stanza
+     */
+    @Nonnull
+    public static ParseOptions defaults() {
+        return DEFAULTS;
+    }
+
+    @Nonnull
+    public TrustLevel getTrustLevel() {
+        return trustLevel;
+    }
+
+    @Nonnull
+    public Set<String> getTrustedSources() {
+        return trustedSources;
+    }
+
+    public boolean isAllSourcesTrusted() {
+        return allSourcesTrusted;
+    }
+
+    @Nonnull
+    public CallFieldMask getCallFieldMask() {
+        return callFieldMask;
+    }
+
+    /**
+     * @param from the JID of the sender of a stanza, if known
+     * @return {@code true} if the sender, or its bare JID, is trusted
+     */
+    public boolean isTrusted(@Nullable final String from) {
+        if (allSourcesTrusted) {
+            return true;
+        }
+        if (from == null || trustedSources.isEmpty()) {
+            return false;
+        }
+        if (trustedSources.contains(from)) {
+            return true;
+        }
+        final int resourceIndex = from.indexOf('/');
+        return resourceIndex >= 0 && trustedSources.contains(from.substring(0, resourceIndex));
+    }
+
+    /**
+     * @param from the JID of the sender of a stanza, if known
+     * @return how errors are handled when parsing a stanza from the sender
+     */
+    @Nonnull
+    public ParseDiagnostics.Mode getMode(@Nullable final String from) {
+        return isTrusted(from) ? trustLevel.getMode() : ParseDiagnostics.Mode.COLLECT;
+    }
+
+    /**
+     * Parses a stanza from the given sender as per these options.
+     *
+     * @param from   the JID of the sender of the stanza, if known
+     * @param parser the code that parses the stanza
+     * @param <T>    the type of the result of the parser
+     * @param <E>    the type of exception thrown by the parser
+     * @return the result of the parser
+     * @throws E if the parser fails
+     */
+    public <T, E extends Exception> T parse(@Nullable final String from, @Nonnull final ParseDiagnostics.Parser<T, E> parser) throws E {
+        return ParseDiagnostics.withMode(getMode(from), parser);
+    }
+
+    public static final class Builder {
+
+        @Nullable private TrustLevel trustLevel = TrustLevel.TRUSTED;
+        @Nonnull private final Set<String> trustedSources = new HashSet<>();
+        private boolean allSourcesTrusted;
+        @Nullable private CallFieldMask callFieldMask = CallFieldMask.all();
+
+        private Builder() {
+        }
+
+        @Nonnull
+        public static Builder start() {
+            return new Builder();
+        }
+
+        @Nonnull
+        public ParseOptions build() {
+            if (trustLevel == null) {
+                throw new IllegalStateException("The trust level has not been set");
+            }
+            if (callFieldMask == null) {
+                throw new IllegalStateException("The call field mask has not been set");
+            }
+            return new ParseOptions(this);
+        }
+
+        /**
+         * @param trustLevel how stanzas from a trusted source are validated; by default, they are not validated
+         * @return this builder
+         */
+        @Nonnull
+        public Builder setTrustLevel(@Nonnull final TrustLevel trustLevel) {
+            this.trustLevel = trustLevel;
+            return this;
+        }
+
+        /**
+         * @param jid the JID of a trusted source, for example the Openlink server component; a bare JID also trusts each
+         *            of its resources
+         * @return this builder
+         */
+        @Nonnull
+        public Builder addTrustedSource(@Nonnull final String jid) {
+            this.trustedSources.add(jid);
+            return this;
+        }
+
+        /**
+         * Trusts every source. This is intended for a client, such as a Smack client, that only receives Openlink stanzas
+         * from its own server, and whose parser is not told the sender of each stanza.
+         *
+         * @param allSourcesTrusted {@code true} to trust every source
+         * @return this builder
+         */
+        @Nonnull
+        public Builder setAllSourcesTrusted(final boolean allSourcesTrusted) {
+            this.allSourcesTrusted = allSourcesTrusted;
+            return this;
+        }
+
+        /**
+         * @param callFieldMask the fields of each call to decode; by default, every field
+         * @return this builder
+         */
+        @Nonnull
+        public Builder setCallFieldMask(@Nonnull final CallFieldMask callFieldMask) {
+            this.callFieldMask = callFieldMask;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.bt.openlink;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.bt.openlink.type.PubSubNodeId;
+
+/**
+ * Publishes batches of items to many pub-sub nodes - for example, the calls on every interest after a switch reconnects -
+ * pipelining the publish requests rather than waiting for the result of each before sending the next. At most a fixed
+ * number of requests are in flight at once, across every batch being published.
+ * <p>
+ * The publisher is independent of the XMPP library. Each item is handed to a function that sends the publish request and
+ * returns a stage that completes when the matching result is received, or completes exceptionally with the reason the
+ * item could not be published - see, for example, the Tinder {@code TinderPubSubPublisher}. The stage must always
+ * complete, so a request whose result is never received must time out; until it completes, it holds one of the places in
+ * flight.
+ */
+public final class PubSubBatchPublisher {
+
+    @Nonnull private final RequestLimiter limiter;
+    @Nonnull private final Function<PubSubPublication, ? extends CompletionStage<?>> publisher;
+
+    /**
+     * @param maximumInFlight the maximum number of publish requests awaiting a result at any one time
+     * @param publisher       sends the request to publish an item, and returns a stage that completes with its result
+     */
+    public PubSubBatchPublisher(final int maximumInFlight, @Nonnull final Function<PubSubPublication, ? extends CompletionStage<?>> publisher) {
+        this.limiter = new RequestLimiter(maximumInFlight);
+        this.publisher = publisher;
+    }
+
+    /**
+     * Publishes a batch of items. Items are sent in the order given, interleaved with those of any other batch being
+     * published. Cancelling the returned future stops any item not yet sent from being sent.
+     *
+     * @param publications the items to publish
+     * @return a future that completes, once every item has been published or has failed, with the outcome for each node
+     */
+    @Nonnull
+    public CompletableFuture<PubSubBatchResult> publish(@Nonnull final Collection<PubSubPublication> publications) {
+        final Batch batch = new Batch(publications);
+        if (publications.isEmpty()) {
+            batch.future.complete(batch.toResult());
+            return batch.future;
+        }
+        for (int i = 0; i < batch.publications.size(); i++) {
+            final int index = i;
+            limiter.submit(() -> send(batch, index))
+                    .whenComplete((ignored, throwable) -> batch.complete(index, throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable));
+        }
+        return batch.future;
+    }
+
+    /**
+     * @return the number of publish requests currently awaiting a result
+     */
+    public int getInFlightCount() {
+        return limiter.getInFlightCount();
+    }
+
+    /**
+     * @return the number of items waiting to be sent
+     */
+    public int getQueuedCount() {
+        return limiter.getQueuedCount();
+    }
+
+    @Nonnull
+    private CompletionStage<?> send(@Nonnull final Batch batch, final int index) {
+        if (batch.future.isDone()) {
+            final CompletableFuture<?> cancelled = new CompletableFuture<>();
+            cancelled.completeExceptionally(new CancellationException("The batch was cancelled before the item was published"));
+            return cancelled;
+        }
+        return publisher.apply(batch.publications.get(index));
+    }
+
+    private static final class Batch {
+
+        private static final Throwable PUBLISHED = new Throwable("Published");
+
+        @Nonnull private final List<PubSubPublication> publications;
+        @Nonnull private final AtomicReferenceArray<Throwable> outcomes;
+        @Nonnull private final AtomicInteger remaining;
+        @Nonnull private final CompletableFuture<PubSubBatchResult> future = new CompletableFuture<>();
+
+        private Batch(@Nonnull final Collection<PubSubPublication> publications) {
+            this.publications = new ArrayList<>(publications);
+            this.outcomes = new AtomicReferenceArray<>(this.publications.size());
+            this.remaining = new AtomicInteger(this.publications.size());
+        }
+
+        private void complete(final int index, @Nullable final Throwable failure) {
+            outcomes.set(index, failure == null ? PUBLISHED : failure);
+            if (remaining.decrementAndGet() == 0) {
+                future.complete(toResult());
+            }
+        }
+
+        @Nonnull
+        private PubSubBatchResult toResult() {
+            final List<PubSubNodeId> publishedNodes = new ArrayList<>();
+            final Map<PubSubNodeId, Throwable> failures = new LinkedHashMap<>();
+            for (int i = 0; i < publications.size(); i++) {
+                final PubSubNodeId pubSubNodeId = publications.get(i).getPubSubNodeId();
+                final Throwable outcome = outcomes.get(i);
+                if (outcome == PUBLISHED) {
+                    publishedNodes.add(pubSubNodeId);
+                } else {
+                    failures.put(pubSubNodeId, outcome);
+                }
+            }
+            return new PubSubBatchResult(publishedNodes, failures);
+        }
+    }
+}
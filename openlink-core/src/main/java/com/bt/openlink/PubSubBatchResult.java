@@ -0,0 +1,52 @@
+package com.bt.openlink;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+
+import com.bt.openlink.type.PubSubNodeId;
+
+/**
+ * The outcome of publishing a batch of items with a {@link PubSubBatchPublisher}.
+ */
+public final class PubSubBatchResult {
+
+    @Nonnull private final List<PubSubNodeId> publishedNodes;
+    @Nonnull private final Map<PubSubNodeId, Throwable> failures;
+
+    PubSubBatchResult(@Nonnull final List<PubSubNodeId> publishedNodes, @Nonnull final Map<PubSubNodeId, Throwable> failures) {
+        this.publishedNodes = Collections.unmodifiableList(publishedNodes);
+        this.failures = Collections.unmodifiableMap(failures);
+    }
+
+    /**
+     * @return {@code true} if every item in the batch was published, otherwise {@code false}
+     */
+    public boolean isSuccessful() {
+        return failures.isEmpty();
+    }
+
+    /**
+     * @return the nodes that were published to successfully, in the order they appeared in the batch
+     */
+    @Nonnull
+    public List<PubSubNodeId> getPublishedNodes() {
+        return publishedNodes;
+    }
+
+    /**
+     * @return the reason each node could not be published to, in the order they appeared in the batch
+     */
+    @Nonnull
+    public Map<PubSubNodeId, Throwable> getFailures() {
+        return failures;
+    }
+
+    @Nonnull
+    @Override
+    public String toString() {
+        return "PubSubBatchResult[published=" + publishedNodes.size() + ", failed=" + failures.keySet() + ']';
+    }
+}
@@ -0,0 +1,76 @@
+package com.bt.openlink;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.bt.openlink.type.Call;
+import com.bt.openlink.type.DeviceStatus;
+import com.bt.openlink.type.InterestId;
+import com.bt.openlink.type.PubSubNodeId;
+
+/**
+ * A single item to publish to a pub-sub node - either the calls on an interest, or a device status - as one of a batch
+ * published by a {@link PubSubBatchPublisher}.
+ */
+public final class PubSubPublication {
+
+    @Nonnull private final PubSubNodeId pubSubNodeId;
+    @Nonnull private final List<Call> calls;
+    @Nullable private final DeviceStatus deviceStatus;
+
+    private PubSubPublication(@Nonnull final PubSubNodeId pubSubNodeId, @Nonnull final List<Call> calls, @Nullable final DeviceStatus deviceStatus) {
+        this.pubSubNodeId = pubSubNodeId;
+        this.calls = calls;
+        this.deviceStatus = deviceStatus;
+    }
+
+    /**
+     * @param interestId the interest to publish the calls to
+     * @param calls      the calls to publish
+     * @return a publication of a call status
+     */
+    @Nonnull
+    public static PubSubPublication ofCalls(@Nonnull final InterestId interestId, @Nonnull final Collection<Call> calls) {
+        if (calls.isEmpty()) {
+            throw new IllegalArgumentException("At least one call must be published");
+        }
+        return new PubSubPublication(interestId.toPubSubNodeId(), Collections.unmodifiableList(new ArrayList<>(calls)), null);
+    }
+
+    /**
+     * @param pubSubNodeId the node to publish the device status to
+     * @param deviceStatus the device status to publish
+     * @return a publication of a device status
+     */
+    @Nonnull
+    public static PubSubPublication ofDeviceStatus(@Nonnull final PubSubNodeId pubSubNodeId, @Nonnull final DeviceStatus deviceStatus) {
+        return new PubSubPublication(pubSubNodeId, Collections.emptyList(), deviceStatus);
+    }
+
+    @Nonnull
+    public PubSubNodeId getPubSubNodeId() {
+        return pubSubNodeId;
+    }
+
+    @Nonnull
+    public List<Call> getCalls() {
+        return calls;
+    }
+
+    @Nonnull
+    public Optional<DeviceStatus> getDeviceStatus() {
+        return Optional.ofNullable(deviceStatus);
+    }
+
+    @Nonnull
+    @Override
+    public String toString() {
+        return deviceStatus == null ? "callstatus for " + pubSubNodeId : "devicestatus for " + pubSubNodeId;
+    }
+}
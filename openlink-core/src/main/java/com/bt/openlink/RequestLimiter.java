@@ -0,0 +1,83 @@
+package com.bt.openlink;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Limits the number of asynchronous requests in flight; requests submitted beyond the limit are queued, and sent in the
+ * order they were submitted as earlier requests complete. Shared by every component that pipelines requests, such as
+ * {@link OpenlinkBootstrap} and {@link PubSubBatchPublisher}.
+ */
+final class RequestLimiter {
+
+    private final int maximumInFlight;
+    @Nonnull private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+    @Nonnull private final AtomicInteger inFlight = new AtomicInteger();
+    @Nonnull private final AtomicInteger drainRequests = new AtomicInteger();
+
+    RequestLimiter(final int maximumInFlight) {
+        if (maximumInFlight < 1) {
+            throw new IllegalArgumentException("At least one request must be allowed in flight");
+        }
+        this.maximumInFlight = maximumInFlight;
+    }
+
+    /**
+     * @param request sends the request, returning a stage that completes with its result
+     * @param <T>     the type of result
+     * @return a future that completes with the result of the request once it has been sent and answered
+     */
+    @Nonnull
+    <T> CompletableFuture<T> submit(@Nonnull final Supplier<? extends CompletionStage<T>> request) {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        queue.add(() -> {
+            CompletionStage<T> result;
+            try {
+                result = request.get();
+            } catch (final RuntimeException e) {
+                final CompletableFuture<T> failure = new CompletableFuture<>();
+                failure.completeExceptionally(e);
+                result = failure;
+            }
+            result.whenComplete((value, throwable) -> {
+                inFlight.decrementAndGet();
+                if (throwable == null) {
+                    future.complete(value);
+                } else {
+                    future.completeExceptionally(throwable);
+                }
+                drain();
+            });
+        });
+        drain();
+        return future;
+    }
+
+    int getInFlightCount() {
+        return inFlight.get();
+    }
+
+    int getQueuedCount() {
+        return queue.size();
+    }
+
+    private void drain() {
+        // Only one thread sends at a time; a request to drain made while another thread is sending is picked up by it
+        if (drainRequests.getAndIncrement() != 0) {
+            return;
+        }
+        do {
+            Runnable task;
+            while (inFlight.get() < maximumInFlight && (task = queue.poll()) != null) {
+                inFlight.incrementAndGet();
+                task.run();
+            }
+        } while (drainRequests.decrementAndGet() != 0);
+    }
+}
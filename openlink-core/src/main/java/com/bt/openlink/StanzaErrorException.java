@@ -0,0 +1,45 @@
+package com.bt.openlink;
+
+import java.util.Optional;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Indicates that a request was answered with an error stanza.
+ */
+public class StanzaErrorException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    @Nullable private final String stanzaId;
+    @Nonnull private final String condition;
+    @Nullable private final String text;
+
+    /**
+     * @param stanzaId  the id of the request
+     * @param condition the defined condition of the error, e.g. {@code item-not-found}
+     * @param text      the descriptive text of the error, if any
+     */
+    public StanzaErrorException(@Nullable final String stanzaId, @Nonnull final String condition, @Nullable final String text) {
+        super("The request with id " + stanzaId + " failed; " + condition + (text == null ? "" : " - " + text));
+        this.stanzaId = stanzaId;
+        this.condition = condition;
+        this.text = text;
+    }
+
+    @Nonnull
+    public Optional<String> getStanzaId() {
+        return Optional.ofNullable(stanzaId);
+    }
+
+    @Nonnull
+    public String getCondition() {
+        return condition;
+    }
+
+    @Nonnull
+    public Optional<String> getText() {
+        return Optional.ofNullable(text);
+    }
+}
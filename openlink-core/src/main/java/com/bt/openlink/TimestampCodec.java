@@ -0,0 +1,197 @@
+package com.bt.openlink;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Formats and parses the timestamps used by Openlink - call and participant start times, and the stamps of delayed
+ * messages - shared by the Tinder and Smack libraries.
+ * <p>
+ * Timestamps are written in the XEP-0082 layout {@code yyyy-MM-dd'T'HH:mm:ss.SSS'Z'}, in UTC with millisecond
+ * precision. That layout, with any number of fractional digits or none, is formatted and parsed by hand rather than by
+ * a {@link DateTimeFormatter}; any other layout is handed to {@link Instant#parse(CharSequence)}, so the
+ * timestamps accepted are exactly those that were accepted before. The legacy {@code timestamp} attribute of a
+ * participant, in the layout of {@link java.util.Date#toString()}, is still handled by a {@link DateTimeFormatter}.
+ */
+public final class TimestampCodec {
+
+    private static final DateTimeFormatter ISO_8601_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
+    private static final DateTimeFormatter JAVA_UTIL_DATE_FORMATTER = DateTimeFormatter.ofPattern("EEE MMM dd HH:mm:ss zzz yyyy");
+    // The legacy layout includes the zone name, so the zone must be the named UTC region rather than ZoneOffset.UTC
+    private static final ZoneId UTC = ZoneId.of("UTC");
+    private static final int ISO_8601_LENGTH = "yyyy-MM-ddTHH:mm:ss.SSSZ".length();
+    private static final long SECONDS_PER_DAY = 86_400;
+    // The days from 0000-03-01 to 1970-01-01, in the proleptic Gregorian calendar
+    private static final long DAYS_0000_TO_1970 = 719_468;
+    // The formatter writes the year of the era, so year 0 - 1 BC - is left to the formatter
+    private static final long MINIMUM_FAST_EPOCH_SECOND = -62_135_596_800L; // 0001-01-01T00:00:00Z
+    private static final long MAXIMUM_FAST_EPOCH_SECOND = 253_402_300_799L; // 9999-12-31T23:59:59Z
+    private static final int[] NANOS_SCALE = {0, 100_000_000, 10_000_000, 1_000_000, 100_000, 10_000, 1_000, 100, 10, 1};
+
+    private TimestampCodec() {
+    }
+
+    /**
+     * @param instant the instant to format
+     * @return the instant in the XEP-0082 layout {@code yyyy-MM-dd'T'HH:mm:ss.SSS'Z'}
+     */
+    @Nonnull
+    public static String formatIso8601(@Nonnull final Instant instant) {
+        final long epochSecond = instant.getEpochSecond();
+        if (epochSecond < MINIMUM_FAST_EPOCH_SECOND || epochSecond > MAXIMUM_FAST_EPOCH_SECOND) {
+            return ISO_8601_FORMATTER.format(instant.atZone(UTC));
+        }
+        final long epochDay = Math.floorDiv(epochSecond, SECONDS_PER_DAY);
+        final int secondOfDay = (int) Math.floorMod(epochSecond, SECONDS_PER_DAY);
+
+        // Converts the day to a year, month and day; see http://howardhinnant.github.io/date_algorithms.html#civil_from_days
+        final long days = epochDay + DAYS_0000_TO_1970;
+        final long era = Math.floorDiv(days, 146_097);
+        final int dayOfEra = (int) (days - era * 146_097);
+        final int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146_096) / 365;
+        final int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        final int shiftedMonth = (5 * dayOfYear + 2) / 153;
+        final int day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+        final int month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        final int year = (int) (yearOfEra + era * 400 + (month <= 2 ? 1 : 0));
+
+        final char[] chars = new char[ISO_8601_LENGTH];
+        writeDigits(chars, 0, year, 4);
+        chars[4] = '-';
+        writeDigits(chars, 5, month, 2);
+        chars[7] = '-';
+        writeDigits(chars, 8, day, 2);
+        chars[10] = 'T';
+        writeDigits(chars, 11, secondOfDay / 3600, 2);
+        chars[13] = ':';
+        writeDigits(chars, 14, secondOfDay / 60 % 60, 2);
+        chars[16] = ':';
+        writeDigits(chars, 17, secondOfDay % 60, 2);
+        chars[19] = '.';
+        writeDigits(chars, 20, instant.getNano() / 1_000_000, 3);
+        chars[23] = 'Z';
+        return new String(chars);
+    }
+
+    /**
+     * @param text the timestamp to parse, which must be in UTC
+     * @return the instant
+     * @throws DateTimeParseException if the text is not a valid XEP-0082 timestamp
+     */
+    @Nonnull
+    public static Instant parseIso8601(@Nonnull final CharSequence text) {
+        final Instant instant = parseIso8601Quickly(text);
+        return instant == null ? Instant.parse(text) : instant;
+    }
+
+    /**
+     * @param instant the instant to format
+     * @return the instant in the legacy layout of {@link java.util.Date#toString()}, in UTC
+     */
+    @Nonnull
+    public static String formatJavaUtilDate(@Nonnull final Instant instant) {
+        return JAVA_UTIL_DATE_FORMATTER.format(instant.atZone(UTC));
+    }
+
+    /**
+     * @param text the timestamp to parse
+     * @return the instant
+     * @throws DateTimeParseException if the text is not in the legacy layout of {@link java.util.Date#toString()}
+     */
+    @Nonnull
+    public static Instant parseJavaUtilDate(@Nonnull final CharSequence text) {
+        try {
+            return Instant.from(JAVA_UTIL_DATE_FORMATTER.parse(text));
+        } catch (final DateTimeParseException e) {
+            throw e;
+        } catch (final DateTimeException e) {
+            throw new DateTimeParseException(e.getMessage(), text, 0, e);
+        }
+    }
+
+    private static void writeDigits(@Nonnull final char[] chars, final int offset, final int value, final int width) {
+        int remaining = value;
+        for (int i = offset + width - 1; i >= offset; i--) {
+            chars[i] = (char) ('0' + remaining % 10);
+            remaining /= 10;
+        }
+    }
+
+    /**
+     * @return the instant, or {@code null} if the text is not a simple, valid, timestamp and so must be parsed in full
+     */
+    private static Instant parseIso8601Quickly(@Nonnull final CharSequence text) {
+        final int length = text.length();
+        if (length < 20 || text.charAt(4) != '-' || text.charAt(7) != '-' || text.charAt(10) != 'T'
+                || text.charAt(13) != ':' || text.charAt(16) != ':' || text.charAt(length - 1) != 'Z') {
+            return null;
+        }
+        final int year = readDigits(text, 0, 4);
+        final int month = readDigits(text, 5, 2);
+        final int day = readDigits(text, 8, 2);
+        final int hour = readDigits(text, 11, 2);
+        final int minute = readDigits(text, 14, 2);
+        final int second = readDigits(text, 17, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)
+                || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return null;
+        }
+        int nanos = 0;
+        if (length > 20) {
+            final int fractionDigits = length - 21;
+            if (text.charAt(19) != '.' || fractionDigits < 1 || fractionDigits > 9) {
+                return null;
+            }
+            final int fraction = readDigits(text, 20, fractionDigits);
+            if (fraction < 0) {
+                return null;
+            }
+            nanos = fraction * NANOS_SCALE[fractionDigits];
+        }
+        return Instant.ofEpochSecond(toEpochDay(year, month, day) * SECONDS_PER_DAY + hour * 3600 + minute * 60 + second, nanos);
+    }
+
+    /**
+     * @return the value of the digits, or {@code -1} if any character is not a digit
+     */
+    private static int readDigits(@Nonnull final CharSequence text, final int offset, final int width) {
+        int value = 0;
+        for (int i = offset; i < offset + width; i++) {
+            final int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static int lengthOfMonth(final int year, final int month) {
+        switch (month) {
+            case 2:
+                return year % 4 == 0 && (year % 100 != 0 || year % 400 == 0) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    // See http://howardhinnant.github.io/date_algorithms.html#days_from_civil
+    private static long toEpochDay(final int year, final int month, final int day) {
+        final int shiftedYear = month <= 2 ? year - 1 : year;
+        final int era = Math.floorDiv(shiftedYear, 400);
+        final int yearOfEra = shiftedYear - era * 400;
+        final int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        final int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return (long) era * 146_097 + dayOfEra - DAYS_0000_TO_1970;
+    }
+}
@@ -8,6 +8,7 @@ import java.util.function.Consumer;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
+import com.bt.openlink.ParseDiagnostics;
 import com.bt.openlink.type.Feature;
 import com.bt.openlink.type.FeatureId;
 import com.bt.openlink.type.ProfileId;
@@ -86,7 +87,9 @@ public abstract class GetFeaturesResultBuilder<B extends GetFeaturesResultBuilde
         if(profileId==null) {
             errors.add("Invalid get-features result stanza; missing profile");
         }
-        validateUniqueness(profile -> errors.add("Invalid get-features result stanza; each feature id must be unique - " + profile + " appears more than once"));
+        if (ParseDiagnostics.isValidating(errors)) {
+            validateUniqueness(profile -> errors.add("Invalid get-features result stanza; each feature id must be unique - " + profile + " appears more than once"));
+        }
     }
 
 }
@@ -7,6 +7,7 @@ import java.util.function.Consumer;
 
 import javax.annotation.Nonnull;
 
+import com.bt.openlink.ParseDiagnostics;
 import com.bt.openlink.type.Interest;
 import com.bt.openlink.type.InterestId;
 
@@ -64,6 +65,8 @@ public abstract class GetInterestsResultBuilder<B extends GetInterestsResultBuil
         if (checkIQFields) {
             super.validate(errors);
         }
-        validateUniqueness(interestId -> errors.add("Invalid get-interests result stanza; each interest id must be unique - " + interestId + " appears more than once"));
+        if (ParseDiagnostics.isValidating(errors)) {
+            validateUniqueness(interestId -> errors.add("Invalid get-interests result stanza; each interest id must be unique - " + interestId + " appears more than once"));
+        }
     }
 }
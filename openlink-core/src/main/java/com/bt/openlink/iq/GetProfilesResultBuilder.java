@@ -7,6 +7,7 @@ import java.util.function.Consumer;
 
 import javax.annotation.Nonnull;
 
+import com.bt.openlink.ParseDiagnostics;
 import com.bt.openlink.type.Profile;
 import com.bt.openlink.type.ProfileId;
 
@@ -66,6 +67,8 @@ public abstract class GetProfilesResultBuilder<B extends GetProfilesResultBuilde
         if (checkIQFields) {
             super.validate(errors);
         }
-        validateUniqueness(profileId -> errors.add("Invalid get-profiles result stanza; each profile id must be unique - " + profileId + " appears more than once"));
+        if (ParseDiagnostics.isValidating(errors)) {
+            validateUniqueness(profileId -> errors.add("Invalid get-profiles result stanza; each profile id must be unique - " + profileId + " appears more than once"));
+        }
     }
 }
\ No newline at end of file
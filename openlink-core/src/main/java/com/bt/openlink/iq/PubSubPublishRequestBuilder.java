@@ -9,15 +9,20 @@ import java.util.function.Consumer;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
+import com.bt.openlink.ParseDiagnostics;
 import com.bt.openlink.type.Call;
 import com.bt.openlink.type.CallId;
 import com.bt.openlink.type.DeviceStatus;
 import com.bt.openlink.type.InterestId;
+import com.bt.openlink.type.ItemId;
+import com.bt.openlink.type.ItemIdGenerator;
 import com.bt.openlink.type.PubSubNodeId;
 
 public abstract class PubSubPublishRequestBuilder<B extends PubSubPublishRequestBuilder, J, T extends Enum<T>> extends IQBuilder<B, J, T> {
 
     @Nullable private PubSubNodeId pubSubNodeId;
+    @Nullable private ItemId itemId;
+    @Nullable private ItemIdGenerator itemIdGenerator;
     @Nullable private Boolean callStatusBusy = null;
     @Nonnull private final List<Call> calls = new ArrayList<>();
     @Nullable private DeviceStatus deviceStatus;
@@ -55,6 +60,30 @@ public abstract class PubSubPublishRequestBuilder<B extends PubSubPublishRequest
         return Optional.ofNullable(pubSubNodeId == null ? null : pubSubNodeId.toInterestId());
     }
 
+    @Nonnull
+    @SuppressWarnings("unchecked")
+    public B setItemId(@Nonnull final ItemId itemId) {
+        this.itemId = itemId;
+        return (B) this;
+    }
+
+    @Nonnull
+    public Optional<ItemId> getItemId() {
+        return Optional.ofNullable(itemId);
+    }
+
+    /**
+     * @param itemIdGenerator generates the item id if none is set; by default, the item is published without an id, and
+     *                        the pub-sub service assigns one
+     * @return this builder
+     */
+    @Nonnull
+    @SuppressWarnings("unchecked")
+    public B setItemIdGenerator(@Nonnull final ItemIdGenerator itemIdGenerator) {
+        this.itemIdGenerator = itemIdGenerator;
+        return (B) this;
+    }
+
     @Nonnull
     @SuppressWarnings("unchecked")
     public B addCall(@Nonnull Call call) {
@@ -105,6 +134,9 @@ public abstract class PubSubPublishRequestBuilder<B extends PubSubPublishRequest
         if (pubSubNodeId == null) {
             throw new IllegalStateException("The stanza 'pubSubNodeId'/'interestId' has not been set");
         }
+        if (itemId == null && itemIdGenerator != null) {
+            itemId = itemIdGenerator.next();
+        }
         validateUniqueness(callId -> {
             throw new IllegalStateException("Each call id must be unique - " + callId + " appears more than once");
         });
@@ -156,9 +188,11 @@ public abstract class PubSubPublishRequestBuilder<B extends PubSubPublishRequest
         if (pubSubNodeId == null) {
             errors.add("Invalid pub-sub publish request stanza; missing node id/interest id");
         }
-        validateUniqueness(callId -> errors.add("Invalid pub-sub publish request stanza; each call id must be unique - " + callId + " appears more than once"));
-        validateCallsAreOnTheCorrectInterest(call -> errors.add("Invalid pub-sub publish request stanza; the call with id " + call.getId().orElse(null) + " is on interest " + call.getInterestId().orElse(null)
-                + " which differs from the pub-sub node id " + pubSubNodeId));
+        if (ParseDiagnostics.isValidating(errors)) {
+            validateUniqueness(callId -> errors.add("Invalid pub-sub publish request stanza; each call id must be unique - " + callId + " appears more than once"));
+            validateCallsAreOnTheCorrectInterest(call -> errors.add("Invalid pub-sub publish request stanza; the call with id " + call.getId().orElse(null) + " is on interest " + call.getInterestId().orElse(null)
+                    + " which differs from the pub-sub node id " + pubSubNodeId));
+        }
     }
 
 }
@@ -8,6 +8,7 @@ import java.util.function.Consumer;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
+import com.bt.openlink.ParseDiagnostics;
 import com.bt.openlink.type.Call;
 import com.bt.openlink.type.CallId;
 import com.bt.openlink.type.InterestId;
@@ -77,9 +78,11 @@ public abstract class CallStatusMessageBuilder<B extends CallStatusMessageBuilde
         if (calls.isEmpty()) {
             errors.add("Invalid callstatus message stanza; missing or invalid calls");
         }
-        validateUniqueness(callId -> errors.add("Invalid callstatus message stanza; each call id must be unique - " + callId + " appears more than once"));
-        final PubSubNodeId nodeId = getPubSubNodeId().orElse(null);
-        validateCallsAreOnTheCorrectInterest(nodeId, call -> errors.add("Invalid callstatus message stanza; the call with id " + call.getId().orElse(null) + " is on interest " + call.getInterestId().orElse(null) + " which differs from the pub-sub node id " + nodeId));
+        if (ParseDiagnostics.isValidating(errors)) {
+            validateUniqueness(callId -> errors.add("Invalid callstatus message stanza; each call id must be unique - " + callId + " appears more than once"));
+            final PubSubNodeId nodeId = getPubSubNodeId().orElse(null);
+            validateCallsAreOnTheCorrectInterest(nodeId, call -> errors.add("Invalid callstatus message stanza; the call with id " + call.getId().orElse(null) + " is on interest " + call.getInterestId().orElse(null) + " which differs from the pub-sub node id " + nodeId));
+        }
     }
 
     private void validateUniqueness(final Consumer<CallId> errorConsumer) {
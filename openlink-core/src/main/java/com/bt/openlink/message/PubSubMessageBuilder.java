@@ -10,6 +10,7 @@ import javax.annotation.Nullable;
 import com.bt.openlink.StanzaBuilder;
 import com.bt.openlink.type.InterestId;
 import com.bt.openlink.type.ItemId;
+import com.bt.openlink.type.ItemIdGenerator;
 import com.bt.openlink.type.PubSubNodeId;
 
 public abstract class PubSubMessageBuilder<B extends PubSubMessageBuilder, J> extends StanzaBuilder<B, J> {
@@ -17,6 +18,7 @@ public abstract class PubSubMessageBuilder<B extends PubSubMessageBuilder, J> ex
     @Nullable private Instant delay;
     @Nullable private PubSubNodeId pubSubNodeId;
     @Nullable private ItemId itemId;
+    @Nullable private ItemIdGenerator itemIdGenerator;
 
     @SuppressWarnings("unchecked")
     @Nonnull
@@ -59,6 +61,17 @@ public abstract class PubSubMessageBuilder<B extends PubSubMessageBuilder, J> ex
         return Optional.ofNullable(itemId);
     }
 
+    /**
+     * @param itemIdGenerator generates the item id if none is set; by default, a random UUID is used
+     * @return this builder
+     */
+    @SuppressWarnings("unchecked")
+    @Nonnull
+    public B setItemIdGenerator(@Nonnull final ItemIdGenerator itemIdGenerator) {
+        this.itemIdGenerator = itemIdGenerator;
+        return (B) this;
+    }
+
     protected void validate() {
         if (!getTo().isPresent()) {
             throw new IllegalStateException("The stanza 'to' has not been set");
@@ -71,7 +84,7 @@ public abstract class PubSubMessageBuilder<B extends PubSubMessageBuilder, J> ex
             throw new IllegalStateException("The stanza 'pubSubNodeId' has not been set");
         }
         if (itemId == null) {
-            itemId = ItemId.random();
+            itemId = itemIdGenerator == null ? ItemId.random() : itemIdGenerator.next();
         }
     }
 
@@ -52,11 +52,13 @@ public class Call {
     @Nonnull private List<OriginatorReference> originatorReferences;
     @Nullable private final Instant startTime;
     @Nullable private final Duration duration;
-    @Nonnull private final List<RequestAction> actions;
+    @Nonnull private final RequestActionSet actions;
     @Nonnull private final List<CallFeature> features;
     @Nonnull private final List<Participant> participants;
+    @Nonnull private final CallFieldMask fieldMask;
 
     private Call(@Nonnull final Builder builder) {
+        builder.freezeLists();
         this.callId = builder.callId;
         this.conferenceId = builder.conferenceId;
         this.site = builder.site;
@@ -68,17 +70,80 @@ public class Call {
         this.direction = builder.direction;
         this.callerNumber = builder.callerNumber;
         this.callerName = builder.callerName;
-        this.callerE164Numbers = Collections.unmodifiableList(builder.callerE164Numbers);
+        this.callerE164Numbers = builder.callerE164Numbers;
         this.calledNumber = builder.calledNumber;
         this.calledName = builder.calledName;
         this.calledDestination = builder.calledDestination;
-        this.calledE164Numbers = Collections.unmodifiableList(builder.calledE164Numbers);
-        this.originatorReferences = Collections.unmodifiableList(builder.originatorReferences);
+        this.calledE164Numbers = builder.calledE164Numbers;
+        this.originatorReferences = builder.originatorReferences;
         this.startTime = builder.startTime;
         this.duration = builder.duration;
-        this.actions = Collections.unmodifiableList(builder.actions);
-        this.features = Collections.unmodifiableList(builder.features);
-        this.participants = Collections.unmodifiableList(builder.participants);
+        this.actions = builder.actions;
+        this.features = builder.features;
+        this.participants = builder.participants;
+        this.fieldMask = builder.fieldMask;
+    }
+
+    /**
+     * Starts a builder for a copy of this call. The builder shares the lists of this call - which are immutable - until
+     * they are changed, so deriving a call that differs in only a few fields is cheap.
+     *
+     * @return a builder with every field of this call set
+     */
+    @Nonnull
+    public Builder toBuilder() {
+        final Builder builder = new Builder();
+        builder.callId = callId;
+        builder.conferenceId = conferenceId;
+        builder.site = site;
+        builder.profileId = profileId;
+        builder.userId = userId;
+        builder.interestId = interestId;
+        builder.changed = changed;
+        builder.state = state;
+        builder.direction = direction;
+        builder.callerNumber = callerNumber;
+        builder.callerName = callerName;
+        builder.callerE164Numbers = callerE164Numbers;
+        builder.calledNumber = calledNumber;
+        builder.calledName = calledName;
+        builder.calledDestination = calledDestination;
+        builder.calledE164Numbers = calledE164Numbers;
+        builder.originatorReferences = originatorReferences;
+        builder.startTime = startTime;
+        builder.duration = duration;
+        builder.actions = actions;
+        builder.features = features;
+        builder.participants = participants;
+        builder.fieldMask = fieldMask;
+        return builder;
+    }
+
+    /**
+     * @param state the state of the new call
+     * @return a copy of this call in a different state, sharing every other field with this call
+     */
+    @Nonnull
+    public Call withState(@Nonnull final CallState state) {
+        return new Call(toBuilder().setState(state));
+    }
+
+    /**
+     * @param changed the changed indicator of the new call
+     * @return a copy of this call with a different changed indicator, sharing every other field with this call
+     */
+    @Nonnull
+    public Call withChanged(@Nonnull final Changed changed) {
+        return new Call(toBuilder().setChanged(changed));
+    }
+
+    /**
+     * @param actions the actions of the new call
+     * @return a copy of this call with different actions, sharing every other field with this call
+     */
+    @Nonnull
+    public Call withActions(@Nonnull final Collection<RequestAction> actions) {
+        return new Call(toBuilder().setActions(RequestActionSet.copyOf(actions)));
     }
 
     @Nonnull
@@ -177,10 +242,18 @@ public class Call {
     }
 
     @Nonnull
-    public List<RequestAction> getActions() {
+    public RequestActionSet getActions() {
         return actions;
     }
 
+    /**
+     * @param action the action to check
+     * @return {@code true} if the action may be performed on the call, otherwise {@code false}
+     */
+    public boolean hasAction(@Nonnull final RequestAction action) {
+        return actions.contains(action);
+    }
+
     @Nonnull
     public List<CallFeature> getFeatures() {
         return features;
@@ -191,6 +264,21 @@ public class Call {
         return participants;
     }
 
+    /**
+     * @return the fields that were decoded when the call was parsed; any other field is empty, whatever the stanza held
+     */
+    @Nonnull
+    public CallFieldMask getFieldMask() {
+        return fieldMask;
+    }
+
+    /**
+     * @return {@code true} if some fields were not decoded when the call was parsed - see {@link #getFieldMask()}
+     */
+    public boolean isProjected() {
+        return !fieldMask.isAll();
+    }
+
     /**
      * Determines the id, if any, of the active handset. Note, if two or more handsets are active, one of them is
      * selected in a nondeterministic manner.
@@ -262,6 +350,7 @@ public class Call {
     }
 
     public static final class Builder {
+        // Lists are shared with the last call built, or the call the builder was started from, until they are changed
         @Nullable private CallId callId;
         @Nullable private ConferenceId conferenceId;
         @Nullable private Site site;
@@ -273,17 +362,18 @@ public class Call {
         @Nullable private CallDirection direction;
         @Nullable private PhoneNumber callerNumber;
         @Nullable private String callerName;
-        @Nonnull private final List<PhoneNumber> callerE164Numbers = new ArrayList<>();
+        @Nonnull private List<PhoneNumber> callerE164Numbers = Collections.emptyList();
         @Nullable private PhoneNumber calledNumber;
         @Nullable private String calledName;
         @Nullable private PhoneNumber calledDestination;
-        @Nonnull private final List<PhoneNumber> calledE164Numbers = new ArrayList<>();
-        @Nonnull private final List<OriginatorReference> originatorReferences = new ArrayList<>();
+        @Nonnull private List<PhoneNumber> calledE164Numbers = Collections.emptyList();
+        @Nonnull private List<OriginatorReference> originatorReferences = Collections.emptyList();
         @Nullable private Instant startTime;
         @Nullable private Duration duration;
-        @Nonnull private final List<RequestAction> actions = new ArrayList<>();
-        @Nonnull private final List<CallFeature> features = new ArrayList<>();
-        @Nonnull private final List<Participant> participants = new ArrayList<>();
+        @Nonnull private RequestActionSet actions = RequestActionSet.empty();
+        @Nonnull private List<CallFeature> features = Collections.emptyList();
+        @Nonnull private List<Participant> participants = Collections.emptyList();
+        @Nonnull private CallFieldMask fieldMask = CallFieldMask.all();
 
         private Builder() {
         }
@@ -293,30 +383,82 @@ public class Call {
             return new Builder();
         }
 
+        /**
+         * Clears every field, so that the builder can be reused to build an unrelated call. A builder may be reused
+         * without being reset, in which case the next call built is a copy of the last with any changes made since.
+         *
+         * @return this builder
+         */
+        @Nonnull
+        public Builder reset() {
+            callId = null;
+            conferenceId = null;
+            site = null;
+            profileId = null;
+            userId = null;
+            interestId = null;
+            changed = null;
+            state = null;
+            direction = null;
+            callerNumber = null;
+            callerName = null;
+            callerE164Numbers = Collections.emptyList();
+            calledNumber = null;
+            calledName = null;
+            calledDestination = null;
+            calledE164Numbers = Collections.emptyList();
+            originatorReferences = Collections.emptyList();
+            startTime = null;
+            duration = null;
+            actions = RequestActionSet.empty();
+            features = Collections.emptyList();
+            participants = Collections.emptyList();
+            fieldMask = CallFieldMask.all();
+            return this;
+        }
+
+        @Nonnull
+        private static <T> List<T> writable(@Nonnull final List<T> list) {
+            return list instanceof ArrayList ? list : new ArrayList<>(list);
+        }
+
+        @Nonnull
+        private static <T> List<T> frozen(@Nonnull final List<T> list) {
+            return list instanceof ArrayList ? Collections.unmodifiableList(list) : list;
+        }
+
+        private void freezeLists() {
+            callerE164Numbers = frozen(callerE164Numbers);
+            calledE164Numbers = frozen(calledE164Numbers);
+            originatorReferences = frozen(originatorReferences);
+            features = frozen(features);
+            participants = frozen(participants);
+        }
+
         @Nonnull
         public Call build() {
             if (callId == null) {
                 throw new IllegalStateException("The call id has not been set");
             }
-            if (site == null) {
+            if (site == null && fieldMask.contains(CallFieldMask.Field.SITE)) {
                 throw new IllegalStateException("The call site has not been set");
             }
-            if (profileId == null) {
+            if (profileId == null && fieldMask.contains(CallFieldMask.Field.PROFILE)) {
                 throw new IllegalStateException("The profile id has not been set");
             }
-            if (interestId == null) {
+            if (interestId == null && fieldMask.contains(CallFieldMask.Field.INTEREST)) {
                 throw new IllegalStateException("The interest id has not been set");
             }
-            if (state == null) {
+            if (state == null && fieldMask.contains(CallFieldMask.Field.STATE)) {
                 throw new IllegalStateException("The call state has not been set");
             }
-            if (direction == null) {
+            if (direction == null && fieldMask.contains(CallFieldMask.Field.DIRECTION)) {
                 throw new IllegalStateException("The call direction has not been set");
             }
-            if (startTime == null) {
+            if (startTime == null && fieldMask.contains(CallFieldMask.Field.START_TIME)) {
                 throw new IllegalStateException("The call start time has not been set");
             }
-            if (duration == null) {
+            if (duration == null && fieldMask.contains(CallFieldMask.Field.DURATION)) {
                 throw new IllegalStateException("The call duration has not been set");
             }
 
@@ -328,25 +470,25 @@ public class Call {
             if (callId == null) {
                 errors.add("Invalid call status; missing call id is mandatory");
             }
-            if (site == null) {
+            if (site == null && fieldMask.contains(CallFieldMask.Field.SITE)) {
                 errors.add("Invalid call status; missing call site is mandatory");
             }
-            if (profileId == null) {
+            if (profileId == null && fieldMask.contains(CallFieldMask.Field.PROFILE)) {
                 errors.add("Invalid call status; missing profile id is mandatory");
             }
-            if (interestId == null) {
+            if (interestId == null && fieldMask.contains(CallFieldMask.Field.INTEREST)) {
                 errors.add("Invalid call status; missing interest id is mandatory");
             }
-            if (state == null) {
+            if (state == null && fieldMask.contains(CallFieldMask.Field.STATE)) {
                 errors.add("Invalid call status; missing call state is mandatory");
             }
-            if (direction == null) {
+            if (direction == null && fieldMask.contains(CallFieldMask.Field.DIRECTION)) {
                 errors.add("Invalid call status; missing call direction is mandatory");
             }
-            if (startTime == null) {
+            if (startTime == null && fieldMask.contains(CallFieldMask.Field.START_TIME)) {
                 errors.add("Invalid call status; missing call start time is mandatory");
             }
-            if (duration == null) {
+            if (duration == null && fieldMask.contains(CallFieldMask.Field.DURATION)) {
                 errors.add("Invalid call status; missing call duration is mandatory");
             }
             return new Call(this);
@@ -426,12 +568,14 @@ public class Call {
 
         @Nonnull
         public Builder addCallerE164Number(@Nonnull final PhoneNumber callerE164Number) {
-            this.callerE164Numbers.add(callerE164Number);
+            callerE164Numbers = writable(callerE164Numbers);
+            callerE164Numbers.add(callerE164Number);
             return this;
         }
 
         @Nonnull
         public Builder addCallerE164Numbers(@Nonnull final List<PhoneNumber> callerE164Numbers) {
+            this.callerE164Numbers = writable(this.callerE164Numbers);
             this.callerE164Numbers.addAll(callerE164Numbers);
             return this;
         }
@@ -456,12 +600,14 @@ public class Call {
 
         @Nonnull
         public Builder addCalledE164Number(@Nonnull final PhoneNumber calledE164Number) {
-            this.calledE164Numbers.add(calledE164Number);
+            calledE164Numbers = writable(calledE164Numbers);
+            calledE164Numbers.add(calledE164Number);
             return this;
         }
 
         @Nonnull
         public Builder addCalledE164Numbers(@Nonnull final List<PhoneNumber> calledE164Numbers) {
+            this.calledE164Numbers = writable(this.calledE164Numbers);
             this.calledE164Numbers.addAll(calledE164Numbers);
             return this;
         }
@@ -469,7 +615,8 @@ public class Call {
 
         @Nonnull
         public Builder addOriginatorReference(@Nonnull final String key, @Nonnull final String value) {
-            this.originatorReferences.add(new OriginatorReference(key, value));
+            originatorReferences = writable(originatorReferences);
+            originatorReferences.add(new OriginatorReference(key, value));
             return this;
         }
 
@@ -481,21 +628,64 @@ public class Call {
 
         @Nonnull
         public Builder addAction(@Nonnull final RequestAction action) {
-            actions.add(action);
+            actions = actions.with(action);
+            return this;
+        }
+
+        @Nonnull
+        public Builder addActions(@Nonnull final Collection<RequestAction> actions) {
+            this.actions = RequestActionSet.Builder.start().addAll(this.actions).addAll(actions).build();
+            return this;
+        }
+
+        @Nonnull
+        public Builder setActions(@Nonnull final RequestActionSet actions) {
+            this.actions = actions;
+            return this;
+        }
+
+        @Nonnull
+        public Builder clearActions() {
+            actions = RequestActionSet.empty();
             return this;
         }
 
         @Nonnull
         public Builder addFeature(@Nonnull final CallFeature feature) {
+            features = writable(features);
             features.add(feature);
             return this;
         }
 
         @Nonnull
         public Builder addParticipant(@Nonnull final Participant participant) {
+            participants = writable(participants);
             participants.add(participant);
             return this;
         }
 
+        @Nonnull
+        public Builder clearFeatures() {
+            features = Collections.emptyList();
+            return this;
+        }
+
+        @Nonnull
+        public Builder clearParticipants() {
+            participants = Collections.emptyList();
+            return this;
+        }
+
+        /**
+         * @param fieldMask the fields that were decoded when the call was parsed; mandatory fields that were not decoded
+         *                  are not required. By default, every field.
+         * @return this builder
+         */
+        @Nonnull
+        public Builder setFieldMask(@Nonnull final CallFieldMask fieldMask) {
+            this.fieldMask = fieldMask;
+            return this;
+        }
+
     }
 }
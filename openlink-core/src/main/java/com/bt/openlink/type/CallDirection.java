@@ -9,6 +9,8 @@ public enum CallDirection {
     OUTGOING("Outgoing"),
     INCOMING("Incoming");
 
+    private static final EnumLookup<CallDirection> LOOKUP = new EnumLookup<>(CallDirection.class, CallDirection::getLabel);
+
     @Nonnull private final String label;
 
     CallDirection(@Nonnull final String label) {
@@ -21,12 +23,7 @@ public enum CallDirection {
     }
 
     public static Optional<CallDirection> from(final String value) {
-        for (CallDirection callDirection : CallDirection.values()) {
-            if (callDirection.label.equalsIgnoreCase(value)) {
-                return Optional.of(callDirection);
-            }
-        }
-        return Optional.empty();
+        return LOOKUP.from(value);
     }
 
 }
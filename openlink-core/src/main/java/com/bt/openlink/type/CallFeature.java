@@ -1,6 +1,7 @@
 package com.bt.openlink.type;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 import javax.annotation.Nonnull;
@@ -26,6 +27,29 @@ public final class CallFeature extends Feature {
         return Optional.ofNullable(deviceKey);
     }
 
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (o == null || this.getClass() != o.getClass()) {
+            return false;
+        }
+
+        final CallFeature that = (CallFeature) o;
+        return this.getId().equals(that.getId())
+                && this.getType().equals(that.getType())
+                && this.getLabel().equals(that.getLabel())
+                && Objects.equals(this.enabled, that.enabled)
+                && Objects.equals(this.deviceKey, that.deviceKey);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(getId(), getType(), getLabel(), enabled, deviceKey);
+    }
+
     public static final class Builder extends Feature.AbstractFeatureBuilder<Builder> {
 
         @Nullable private Boolean enabled = null;
@@ -0,0 +1,170 @@
+package com.bt.openlink.type;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.StringJoiner;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * The fields of a call to decode when parsing it. A consumer that only needs, say, the state of each call and who is on
+ * it - for example, a wallboard - can parse a callstatus much faster by skipping the rest, in particular the features,
+ * participants, actions and originator references. The id of a call is always decoded.
+ * <p>
+ * A call parsed with a mask records it - see {@link Call#getFieldMask()} - so a field that was not decoded can be told
+ * apart from one that was absent from the stanza. A field that was not decoded is not reported as missing, even if it is
+ * mandatory.
+ */
+public final class CallFieldMask {
+
+    /**
+     * A field, or group of related fields, of a call, with the name of the element it is decoded from.
+     */
+    public enum Field {
+        CONFERENCE("conference"),
+        SITE("site"),
+        PROFILE("profile"),
+        USER("user"),
+        INTEREST("interest"),
+        CHANGED("changed"),
+        STATE("state"),
+        DIRECTION("direction"),
+        /**
+         * The caller's number, name and E.164 numbers.
+         */
+        CALLER("caller"),
+        /**
+         * The called number, name, destination and E.164 numbers.
+         */
+        CALLED("called"),
+        ORIGINATOR_REFERENCES("originator-ref"),
+        START_TIME("start"),
+        DURATION("duration"),
+        ACTIONS("actions"),
+        FEATURES("features"),
+        PARTICIPANTS("participants");
+
+        private static final Map<String, Field> FIELDS_BY_ELEMENT_NAME = new HashMap<>();
+
+        static {
+            for (final Field field : values()) {
+                FIELDS_BY_ELEMENT_NAME.put(field.elementName, field);
+            }
+        }
+
+        @Nonnull private final String elementName;
+
+        Field(@Nonnull final String elementName) {
+            this.elementName = elementName;
+        }
+
+        @Nonnull
+        public String getElementName() {
+            return elementName;
+        }
+
+        /**
+         * @param elementName the name of a child element of a call element
+         * @return the field decoded from the element, if any
+         */
+        @Nonnull
+        public static Optional<Field> fromElementName(@Nullable final String elementName) {
+            return Optional.ofNullable(FIELDS_BY_ELEMENT_NAME.get(elementName));
+        }
+    }
+
+    private static final Field[] FIELDS = Field.values();
+    private static final int ALL_BITS = (1 << FIELDS.length) - 1;
+    private static final CallFieldMask ALL = new CallFieldMask(ALL_BITS);
+    private static final CallFieldMask SUMMARY = of(Field.INTEREST, Field.STATE, Field.CALLER, Field.CALLED);
+
+    private final int bits;
+
+    private CallFieldMask(final int bits) {
+        this.bits = bits;
+    }
+
+    private static int bit(@Nonnull final Field field) {
+        return 1 << field.ordinal();
+    }
+
+    /**
+     * @return the mask of every field, with which a call is fully decoded
+     */
+    @Nonnull
+    public static CallFieldMask all() {
+        return ALL;
+    }
+
+    /**
+     * @return the mask of the interest, state, caller and called fields - enough to show who is on each call
+     */
+    @Nonnull
+    public static CallFieldMask summary() {
+        return SUMMARY;
+    }
+
+    /**
+     * @param fields the fields to decode, in addition to the call id
+     * @return the mask of the fields
+     */
+    @Nonnull
+    public static CallFieldMask of(@Nonnull final Field... fields) {
+        int bits = 0;
+        for (final Field field : fields) {
+            bits |= bit(field);
+        }
+        return bits == ALL_BITS ? ALL : new CallFieldMask(bits);
+    }
+
+    /**
+     * @param field the field to add
+     * @return a mask of the fields of this mask and the given field
+     */
+    @Nonnull
+    public CallFieldMask with(@Nonnull final Field field) {
+        final int newBits = bits | bit(field);
+        if (newBits == bits) {
+            return this;
+        }
+        return newBits == ALL_BITS ? ALL : new CallFieldMask(newBits);
+    }
+
+    /**
+     * @param field the field to check
+     * @return {@code true} if the field is decoded
+     */
+    public boolean contains(@Nonnull final Field field) {
+        return (bits & bit(field)) != 0;
+    }
+
+    /**
+     * @return {@code true} if every field is decoded
+     */
+    public boolean isAll() {
+        return bits == ALL_BITS;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        return this == o || o instanceof CallFieldMask && bits == ((CallFieldMask) o).bits;
+    }
+
+    @Override
+    public int hashCode() {
+        return bits;
+    }
+
+    @Override
+    public String toString() {
+        final StringJoiner joiner = new StringJoiner(", ", "CallFieldMask[", "]");
+        for (final Field field : FIELDS) {
+            if (contains(field)) {
+                joiner.add(field.name());
+            }
+        }
+        return joiner.toString();
+    }
+}
@@ -7,13 +7,23 @@ import javax.annotation.Nullable;
 
 public final class CallId extends AbstractType<String> {
 
+    private static final TypeCache<CallId> CACHE = new TypeCache<>(CallId::new);
+
     private CallId(final String value) {
         super(value);
     }
 
     @Nonnull
     public static Optional<CallId> from(@Nullable final String value) {
-        return value == null || value.isEmpty() ? Optional.empty() : Optional.of(new CallId(value));
+        return value == null || value.isEmpty() ? Optional.empty() : CACHE.get(value);
+    }
+
+    /**
+     * @return the cache of CallId instances, shared by every parser; it is disabled by default
+     */
+    @Nonnull
+    public static TypeCache<CallId> cache() {
+        return CACHE;
     }
 
 }
@@ -30,6 +30,8 @@ public enum CallState {
     CONNECTION_CLEARED("ConnectionCleared", false, false),
     CALL_MISSED("CallMissed", false, false);
 
+    private static final EnumLookup<CallState> LOOKUP = new EnumLookup<>(CallState.class, CallState::getLabel);
+
     @Nonnull private final String label;
     private final boolean inboundCallParticipant;
     private final boolean outboundCallParticipant;
@@ -47,12 +49,7 @@ public enum CallState {
 
     @Nonnull
     public static Optional<CallState> from(@Nullable final String value) {
-        for (final CallState callState : CallState.values()) {
-            if (callState.label.equalsIgnoreCase(value)) {
-                return Optional.of(callState);
-            }
-        }
-        return Optional.empty();
+        return LOOKUP.from(value);
     }
 
     /**
@@ -15,6 +15,8 @@ public enum CallType {
     OUTBOUND("out"),
     MISSED("missed");
 
+    private static final EnumLookup<CallType> LOOKUP = new EnumLookup<>(CallType.class, CallType::getLabel);
+
     @Nonnull private final String label;
 
     CallType(@Nonnull final String label) {
@@ -28,12 +30,7 @@ public enum CallType {
 
     @Nonnull
     public static Optional<CallType> from(@Nullable final String value) {
-        for (final CallType featureType : CallType.values()) {
-            if (featureType.label.equalsIgnoreCase(value)) {
-                return Optional.of(featureType);
-            }
-        }
-        return Optional.empty();
+        return LOOKUP.from(value);
     }
 
 }
@@ -25,6 +25,8 @@ public enum Changed {
     VOICE_MESSAGE("VoiceMessage", 7),
     MICROPHONE("Microphone", 8);
 
+    private static final EnumLookup<Changed> LOOKUP = new EnumLookup<>(Changed.class, Changed::getId);
+
     @Nonnull private final String id;
     private final int priority;
 
@@ -40,12 +42,7 @@ public enum Changed {
 
     @Nonnull
     public static Optional<Changed> from(@Nullable final String value) {
-        for (final Changed featureType : Changed.values()) {
-            if (featureType.id.equalsIgnoreCase(value)) {
-                return Optional.of(featureType);
-            }
-        }
-        return Optional.empty();
+        return LOOKUP.from(value);
     }
 
     /**
@@ -0,0 +1,59 @@
+package com.bt.openlink.type;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A precomputed, case-insensitive lookup of an enum constant from its XML value. The result for each constant is cached,
+ * so that a successful lookup does not allocate; values that match exactly are found with a single hash lookup, other
+ * cases fall back to a case-insensitive comparison against each constant.
+ *
+ * @param <E> the type of the enum
+ */
+final class EnumLookup<E extends Enum<E>> {
+
+    @Nonnull private final Map<String, Optional<E>> exactMatches;
+    @Nonnull private final String[] values;
+    @Nonnull private final Optional<E>[] constants;
+
+    @SuppressWarnings("unchecked")
+    EnumLookup(@Nonnull final Class<E> enumClass, @Nonnull final Function<E, String> valueFunction) {
+        final E[] enumConstants = enumClass.getEnumConstants();
+        this.exactMatches = new HashMap<>(enumConstants.length * 2);
+        this.values = new String[enumConstants.length];
+        this.constants = new Optional[enumConstants.length];
+        for (int i = 0; i < enumConstants.length; i++) {
+            final E enumConstant = enumConstants[i];
+            values[i] = valueFunction.apply(enumConstant);
+            constants[i] = Optional.of(enumConstant);
+            // As with a search in declaration order, the first constant with a given value wins
+            exactMatches.putIfAbsent(values[i], constants[i]);
+        }
+    }
+
+    /**
+     * @param value the value to look up, ignoring case
+     * @return the first constant, in declaration order, whose value matches
+     */
+    @Nonnull
+    Optional<E> from(@Nullable final String value) {
+        if (value == null) {
+            return Optional.empty();
+        }
+        final Optional<E> exactMatch = exactMatches.get(value);
+        if (exactMatch != null) {
+            return exactMatch;
+        }
+        for (int i = 0; i < values.length; i++) {
+            if (values[i].equalsIgnoreCase(value)) {
+                return constants[i];
+            }
+        }
+        return Optional.empty();
+    }
+}
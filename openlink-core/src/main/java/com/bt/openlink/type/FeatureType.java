@@ -34,6 +34,8 @@ public enum FeatureType {
     MEDIA_STREAM("MediaStream"),
     DEVICE_KEYS("DeviceKeys");
 
+    private static final EnumLookup<FeatureType> LOOKUP = new EnumLookup<>(FeatureType.class, FeatureType::getId);
+
     @Nonnull private final String id;
 
     FeatureType(@Nonnull final String id) {
@@ -47,12 +49,7 @@ public enum FeatureType {
 
     @Nonnull
     public static Optional<FeatureType> from(@Nullable final String value) {
-        for (final FeatureType featureType : FeatureType.values()) {
-            if (featureType.id.equalsIgnoreCase(value)) {
-                return Optional.of(featureType);
-            }
-        }
-        return Optional.empty();
+        return LOOKUP.from(value);
     }
 
 }
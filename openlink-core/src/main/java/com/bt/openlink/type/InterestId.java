@@ -6,13 +6,23 @@ import javax.annotation.Nonnull;
 
 public final class InterestId extends AbstractType<String> {
 
+    private static final TypeCache<InterestId> CACHE = new TypeCache<>(InterestId::new);
+
     private InterestId(final String value) {
         super(value);
     }
 
     @Nonnull
     public static Optional<InterestId> from(final String value) {
-        return value == null || value.isEmpty() ? Optional.empty() : Optional.of(new InterestId(value));
+        return value == null || value.isEmpty() ? Optional.empty() : CACHE.get(value);
+    }
+
+    /**
+     * @return the cache of InterestId instances, shared by every parser; it is disabled by default
+     */
+    @Nonnull
+    public static TypeCache<InterestId> cache() {
+        return CACHE;
     }
 
     @Nonnull
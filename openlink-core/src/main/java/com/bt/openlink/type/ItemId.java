@@ -1,20 +1,25 @@
 package com.bt.openlink.type;
 
 import java.util.Optional;
-import java.util.UUID;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 public final class ItemId extends AbstractType<String> {
 
-    private ItemId(final String value) {
+    private static final ItemIdGenerator RANDOM = ItemIdGenerator.fastRandom();
+
+    ItemId(final String value) {
         super(value);
     }
 
+    /**
+     * @return a random UUID item id
+     * @see ItemIdGenerator#fastRandom()
+     */
     @Nonnull
     public static ItemId random() {
-        return new ItemId(UUID.randomUUID().toString());
+        return RANDOM.next();
     }
 
 
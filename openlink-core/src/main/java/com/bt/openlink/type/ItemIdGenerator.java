@@ -0,0 +1,69 @@
+package com.bt.openlink.type;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Generates the ids of pub-sub items that are published without one. Item ids need only be unique, not unpredictable,
+ * so none of the generators here other than {@link #secureRandom()} share a {@link SecureRandom} - which serialises
+ * publishing threads on its lock - and all are safe to share between threads.
+ */
+@FunctionalInterface
+public interface ItemIdGenerator {
+
+    /**
+     * @return a new item id
+     */
+    @Nonnull
+    ItemId next();
+
+    /**
+     * @return a generator of random (version 4) UUIDs, using a random number generator per thread
+     */
+    @Nonnull
+    static ItemIdGenerator fastRandom() {
+        return () -> {
+            final ThreadLocalRandom random = ThreadLocalRandom.current();
+            final long mostSignificantBits = random.nextLong() & ~0xf000L | 0x4000L;
+            final long leastSignificantBits = random.nextLong() & ~(3L << 62) | 1L << 63;
+            return new ItemId(new UUID(mostSignificantBits, leastSignificantBits).toString());
+        };
+    }
+
+    /**
+     * @return a generator of random UUIDs using the shared {@link SecureRandom}, as {@link UUID#randomUUID()} does
+     */
+    @Nonnull
+    static ItemIdGenerator secureRandom() {
+        return () -> new ItemId(UUID.randomUUID().toString());
+    }
+
+    /**
+     * Ids from this generator sort, as strings, in the order they were generated - so items sort by the time they were
+     * published - and each is suffixed with a random id for the generator, so that ids from different generators, for
+     * example on different servers, do not collide. Keeping the ids in order means every thread updates a single shared
+     * sequence, so threads generating ids at a high rate contend with each other; the node counter generator does not.
+     *
+     * @return a generator of time-ordered ids
+     */
+    @Nonnull
+    static ItemIdGenerator timeOrdered() {
+        return new TimeOrderedItemIdGenerator();
+    }
+
+    /**
+     * Ids from this generator are the node id, the time the generator was created, and a counter, for example
+     * {@code node-1-jd5cq1f2-3f}. Each thread reserves a block of the counter at a time, so threads do not contend with
+     * each other.
+     *
+     * @param nodeId an id for this node, unique within the cluster
+     * @return a generator of node-prefixed ids, unique within the cluster
+     */
+    @Nonnull
+    static ItemIdGenerator nodeCounter(@Nonnull final String nodeId) {
+        return new NodeCounterItemIdGenerator(nodeId);
+    }
+}
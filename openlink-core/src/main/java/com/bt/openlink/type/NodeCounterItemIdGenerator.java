@@ -0,0 +1,37 @@
+package com.bt.openlink.type;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nonnull;
+
+/**
+ * @see ItemIdGenerator#nodeCounter(String)
+ */
+final class NodeCounterItemIdGenerator implements ItemIdGenerator {
+
+    private static final int BLOCK_SIZE = 1024;
+
+    @Nonnull private final String prefix;
+    @Nonnull private final AtomicLong nextBlock = new AtomicLong();
+    // The next and the last-plus-one counter values of the block reserved by each thread
+    @Nonnull private final ThreadLocal<long[]> block = ThreadLocal.withInitial(() -> new long[2]);
+
+    NodeCounterItemIdGenerator(@Nonnull final String nodeId) {
+        if (nodeId.isEmpty()) {
+            throw new IllegalArgumentException("The node id must not be empty");
+        }
+        // The start time distinguishes ids from each run of the node
+        this.prefix = nodeId + '-' + Long.toString(System.currentTimeMillis(), Character.MAX_RADIX) + '-';
+    }
+
+    @Nonnull
+    @Override
+    public ItemId next() {
+        final long[] threadBlock = block.get();
+        if (threadBlock[0] == threadBlock[1]) {
+            threadBlock[0] = nextBlock.getAndAdd(BLOCK_SIZE);
+            threadBlock[1] = threadBlock[0] + BLOCK_SIZE;
+        }
+        return new ItemId(prefix + Long.toString(threadBlock[0]++, Character.MAX_RADIX));
+    }
+}
@@ -3,6 +3,7 @@ package com.bt.openlink.type;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 import javax.annotation.Nonnull;
@@ -48,6 +49,29 @@ public final class Participant {
         return Optional.ofNullable(duration);
     }
 
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (o == null || this.getClass() != o.getClass()) {
+            return false;
+        }
+
+        final Participant that = (Participant) o;
+        return Objects.equals(this.jid, that.jid)
+                && this.participantType == that.participantType
+                && this.direction == that.direction
+                && Objects.equals(this.startTime, that.startTime)
+                && Objects.equals(this.duration, that.duration);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(jid, participantType, direction, startTime, duration);
+    }
+
     public static final class Builder {
 
         @Nullable private String jid;
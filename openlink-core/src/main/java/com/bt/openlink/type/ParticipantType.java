@@ -10,6 +10,8 @@ public enum ParticipantType {
     ACTIVE("Active"),
     INACTIVE("Inactive");
 
+    private static final EnumLookup<ParticipantType> LOOKUP = new EnumLookup<>(ParticipantType.class, ParticipantType::getId);
+
     @Nonnull private final String id;
 
     ParticipantType(@Nonnull final String id) {
@@ -23,12 +25,7 @@ public enum ParticipantType {
 
     @Nonnull
     public static Optional<ParticipantType> from(@Nullable final String value) {
-        for (final ParticipantType featureType : ParticipantType.values()) {
-            if (featureType.id.equalsIgnoreCase(value)) {
-                return Optional.of(featureType);
-            }
-        }
-        return Optional.empty();
+        return LOOKUP.from(value);
     }
 
 }
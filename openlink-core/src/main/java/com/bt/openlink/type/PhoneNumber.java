@@ -7,13 +7,23 @@ import javax.annotation.Nullable;
 
 public final class PhoneNumber extends AbstractType<String> {
 
+    private static final TypeCache<PhoneNumber> CACHE = new TypeCache<>(PhoneNumber::new);
+
     private PhoneNumber(final String value) {
         super(value);
     }
 
     @Nonnull
     public static Optional<PhoneNumber> from(@Nullable final String value) {
-        return value == null || value.isEmpty() ? Optional.empty() : Optional.of(new PhoneNumber(value));
+        return value == null || value.isEmpty() ? Optional.empty() : CACHE.get(value);
+    }
+
+    /**
+     * @return the cache of PhoneNumber instances, shared by every parser; it is disabled by default
+     */
+    @Nonnull
+    public static TypeCache<PhoneNumber> cache() {
+        return CACHE;
     }
 
 }
@@ -1,6 +1,5 @@
 package com.bt.openlink.type;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,7 +13,7 @@ public final class Profile {
     @Nullable private final String label;
     @Nullable private final Boolean online;
     @Nullable private final Site site;
-    @Nonnull private final List<RequestAction> actions;
+    @Nonnull private final RequestActionSet actions;
 
     private Profile(@Nonnull final Builder builder) {
         this.profileId = builder.profileId;
@@ -57,10 +56,18 @@ public final class Profile {
     }
 
     @Nonnull
-    public List<RequestAction> getActions() {
+    public RequestActionSet getActions() {
         return actions;
     }
 
+    /**
+     * @param action the action to check
+     * @return {@code true} if the action may be performed with the profile, otherwise {@code false}
+     */
+    public boolean hasAction(@Nonnull final RequestAction action) {
+        return actions.contains(action);
+    }
+
     @Override
     public String toString() {
         return "Profile[" +
@@ -81,7 +88,7 @@ public final class Profile {
         @Nullable private String device;
         @Nullable private String label;
         @Nullable private Boolean online;
-        @Nonnull private final List<RequestAction> actions = new ArrayList<>();
+        @Nonnull private RequestActionSet actions = RequestActionSet.empty();
 
         private Builder() {
         }
@@ -162,7 +169,12 @@ public final class Profile {
         }
 
         public Builder addAction(@Nonnull RequestAction action) {
-            actions.add(action);
+            actions = actions.with(action);
+            return this;
+        }
+
+        public Builder setActions(@Nonnull final RequestActionSet actions) {
+            this.actions = actions;
             return this;
         }
     }
@@ -6,13 +6,23 @@ import java.util.Optional;
 
 public final class ProfileId extends AbstractType<String> {
 
+    private static final TypeCache<ProfileId> CACHE = new TypeCache<>(ProfileId::new);
+
     private ProfileId(final String value) {
         super(value);
     }
 
     @Nonnull
     public static Optional<ProfileId> from(@Nullable final String value) {
-        return value == null || value.isEmpty() ? Optional.empty() : Optional.of(new ProfileId(value));
+        return value == null || value.isEmpty() ? Optional.empty() : CACHE.get(value);
+    }
+
+    /**
+     * @return the cache of ProfileId instances, shared by every parser; it is disabled by default
+     */
+    @Nonnull
+    public static TypeCache<ProfileId> cache() {
+        return CACHE;
     }
 
 }
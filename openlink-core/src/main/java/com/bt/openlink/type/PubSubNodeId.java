@@ -7,13 +7,23 @@ import javax.annotation.Nullable;
 
 public final class PubSubNodeId extends AbstractType<String> {
 
+    private static final TypeCache<PubSubNodeId> CACHE = new TypeCache<>(PubSubNodeId::new);
+
     private PubSubNodeId(final String value) {
         super(value);
     }
 
     @Nonnull
     public static Optional<PubSubNodeId> from(@Nullable final String value) {
-        return value == null || value.isEmpty() ? Optional.empty() : Optional.of(new PubSubNodeId(value));
+        return value == null || value.isEmpty() ? Optional.empty() : CACHE.get(value);
+    }
+
+    /**
+     * @return the cache of PubSubNodeId instances, shared by every parser; it is disabled by default
+     */
+    @Nonnull
+    public static TypeCache<PubSubNodeId> cache() {
+        return CACHE;
     }
 
     @Nonnull
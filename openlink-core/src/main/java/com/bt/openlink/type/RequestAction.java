@@ -28,6 +28,8 @@ public enum RequestAction {
     CONNECT_SPEAKER("ConnectSpeaker", "Put a call on a speaker channel", 1),
     DISCONNECT_SPEAKER("DisconnectSpeaker", "Remove a call from a speaker channel", 1);
 
+    private static final EnumLookup<RequestAction> LOOKUP = new EnumLookup<>(RequestAction.class, RequestAction::getId);
+
     @Nonnull private final String id;
     @Nonnull private final String label;
     private final int minValueCount;
@@ -63,12 +65,7 @@ public enum RequestAction {
     }
 
     public static Optional<RequestAction> from(final String value) {
-        for (final RequestAction requestAction : RequestAction.values()) {
-            if (requestAction.id.equalsIgnoreCase(value)) {
-                return Optional.of(requestAction);
-            }
-        }
-        return Optional.empty();
+        return LOOKUP.from(value);
     }
 
 }
@@ -0,0 +1,239 @@
+package com.bt.openlink.type;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.RandomAccess;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * An immutable set of request actions, held as a single bitmask - for example, the actions that may be performed on a
+ * call, or by a profile. Checking whether an action is present takes constant time. The set is presented as a list, in
+ * the order the actions are declared in {@link RequestAction}, with no duplicates.
+ * <p>
+ * The bitmask, from {@link #toBits()}, is a compact form of the set that may be stored or sent and restored with
+ * {@link #fromBits(long)}; it depends on the order of the {@link RequestAction} constants, so should not outlive the
+ * version of the library that created it.
+ */
+public final class RequestActionSet extends AbstractList<RequestAction> implements RandomAccess {
+
+    private static final RequestAction[] ACTIONS = RequestAction.values();
+    private static final long ALL_BITS;
+    private static final RequestActionSet EMPTY = new RequestActionSet(0);
+    private static final RequestActionSet[] SINGLETONS = new RequestActionSet[ACTIONS.length];
+
+    static {
+        if (ACTIONS.length > Long.SIZE) {
+            throw new IllegalStateException("There are too many request actions to hold in a bitmask");
+        }
+        ALL_BITS = ACTIONS.length == Long.SIZE ? -1L : (1L << ACTIONS.length) - 1;
+        for (final RequestAction action : ACTIONS) {
+            SINGLETONS[action.ordinal()] = new RequestActionSet(bit(action));
+        }
+    }
+
+    private final long bits;
+
+    private RequestActionSet(final long bits) {
+        this.bits = bits;
+    }
+
+    private static long bit(@Nonnull final RequestAction action) {
+        return 1L << action.ordinal();
+    }
+
+    /**
+     * @return the set of no actions
+     */
+    @Nonnull
+    public static RequestActionSet empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @param actions the actions
+     * @return the set of the actions
+     */
+    @Nonnull
+    public static RequestActionSet of(@Nonnull final RequestAction... actions) {
+        long bits = 0;
+        for (final RequestAction action : actions) {
+            bits |= bit(action);
+        }
+        return fromBits(bits);
+    }
+
+    /**
+     * @param actions the actions
+     * @return the set of the actions; the collection itself if it is already a {@code RequestActionSet}
+     */
+    @Nonnull
+    public static RequestActionSet copyOf(@Nonnull final Collection<RequestAction> actions) {
+        if (actions instanceof RequestActionSet) {
+            return (RequestActionSet) actions;
+        }
+        long bits = 0;
+        for (final RequestAction action : actions) {
+            bits |= bit(action);
+        }
+        return fromBits(bits);
+    }
+
+    /**
+     * @param bits a bitmask from {@link #toBits()}
+     * @return the set of actions the bitmask represents
+     * @throws IllegalArgumentException if the bitmask includes an action that does not exist
+     */
+    @Nonnull
+    public static RequestActionSet fromBits(final long bits) {
+        if ((bits & ~ALL_BITS) != 0) {
+            throw new IllegalArgumentException("The bitmask " + Long.toHexString(bits) + " includes an unknown request action");
+        }
+        if (bits == 0) {
+            return EMPTY;
+        }
+        if (Long.bitCount(bits) == 1) {
+            return SINGLETONS[Long.numberOfTrailingZeros(bits)];
+        }
+        return new RequestActionSet(bits);
+    }
+
+    /**
+     * @return the set as a bitmask, in which bit {@code n} represents the action with ordinal {@code n}
+     */
+    public long toBits() {
+        return bits;
+    }
+
+    /**
+     * @param action the action to check
+     * @return {@code true} if the set includes the action, otherwise {@code false}
+     */
+    public boolean contains(@Nonnull final RequestAction action) {
+        return (bits & bit(action)) != 0;
+    }
+
+    @Override
+    public boolean contains(@Nullable final Object o) {
+        return o instanceof RequestAction && contains((RequestAction) o);
+    }
+
+    @Override
+    public boolean containsAll(@Nonnull final Collection<?> c) {
+        if (c instanceof RequestActionSet) {
+            final long otherBits = ((RequestActionSet) c).bits;
+            return (bits & otherBits) == otherBits;
+        }
+        return super.containsAll(c);
+    }
+
+    /**
+     * @param action the action to add
+     * @return a set of these actions and the action
+     */
+    @Nonnull
+    public RequestActionSet with(@Nonnull final RequestAction action) {
+        return contains(action) ? this : fromBits(bits | bit(action));
+    }
+
+    /**
+     * @param action the action to remove
+     * @return a set of these actions other than the action
+     */
+    @Nonnull
+    public RequestActionSet without(@Nonnull final RequestAction action) {
+        return contains(action) ? fromBits(bits & ~bit(action)) : this;
+    }
+
+    /**
+     * @return a new, mutable, {@link EnumSet} of the actions
+     */
+    @Nonnull
+    public EnumSet<RequestAction> toEnumSet() {
+        final EnumSet<RequestAction> actions = EnumSet.noneOf(RequestAction.class);
+        actions.addAll(this);
+        return actions;
+    }
+
+    @Override
+    public RequestAction get(final int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        long remainingBits = bits;
+        for (int i = 0; i < index; i++) {
+            remainingBits &= remainingBits - 1;
+        }
+        return ACTIONS[Long.numberOfTrailingZeros(remainingBits)];
+    }
+
+    @Override
+    public int size() {
+        return Long.bitCount(bits);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return bits == 0;
+    }
+
+    @Override
+    public int indexOf(@Nullable final Object o) {
+        return contains(o) ? Long.bitCount(bits & (bit((RequestAction) o) - 1)) : -1;
+    }
+
+    @Override
+    public int lastIndexOf(@Nullable final Object o) {
+        return indexOf(o);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (o instanceof RequestActionSet) {
+            return bits == ((RequestActionSet) o).bits;
+        }
+        // Any other list of the same actions, in the same order, is also equal
+        return o instanceof List && super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode();
+    }
+
+    /**
+     * Builds a set of actions without creating an intermediate set for each action added.
+     */
+    public static final class Builder {
+
+        private long bits;
+
+        private Builder() {
+        }
+
+        @Nonnull
+        public static Builder start() {
+            return new Builder();
+        }
+
+        @Nonnull
+        public Builder add(@Nonnull final RequestAction action) {
+            bits |= bit(action);
+            return this;
+        }
+
+        @Nonnull
+        public Builder addAll(@Nonnull final Collection<RequestAction> actions) {
+            bits |= copyOf(actions).bits;
+            return this;
+        }
+
+        @Nonnull
+        public RequestActionSet build() {
+            return fromBits(bits);
+        }
+    }
+}
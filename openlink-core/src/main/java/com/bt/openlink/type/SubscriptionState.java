@@ -16,6 +16,8 @@ public enum SubscriptionState {
     UNCONFIGURED("unconfigured"),
     SUBSCRIBED("subscribed");
 
+    private static final EnumLookup<SubscriptionState> LOOKUP = new EnumLookup<>(SubscriptionState.class, SubscriptionState::getId);
+
     @Nonnull private final String id;
 
     SubscriptionState(@Nonnull final String id) {
@@ -29,12 +31,7 @@ public enum SubscriptionState {
 
     @Nonnull
     public static Optional<SubscriptionState> from(@Nullable final String value) {
-        for (final SubscriptionState featureType : SubscriptionState.values()) {
-            if (featureType.id.equalsIgnoreCase(value)) {
-                return Optional.of(featureType);
-            }
-        }
-        return Optional.empty();
+        return LOOKUP.from(value);
     }
 
 }
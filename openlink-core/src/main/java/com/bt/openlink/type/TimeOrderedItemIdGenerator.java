@@ -0,0 +1,35 @@
+package com.bt.openlink.type;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nonnull;
+
+/**
+ * @see ItemIdGenerator#timeOrdered()
+ */
+final class TimeOrderedItemIdGenerator implements ItemIdGenerator {
+
+    // The low bits of each id are a sequence within the millisecond
+    private static final int SEQUENCE_BITS = 20;
+
+    @Nonnull private final String suffix = String.format("-%08x", new SecureRandom().nextInt());
+    @Nonnull private final AtomicLong lastId = new AtomicLong();
+
+    TimeOrderedItemIdGenerator() {
+    }
+
+    @Nonnull
+    @Override
+    public ItemId next() {
+        final long earliestId = System.currentTimeMillis() << SEQUENCE_BITS;
+        // If the sequence overflows it carries into the time, which keeps the ids unique and in order
+        final long id = lastId.updateAndGet(last -> Math.max(last + 1, earliestId));
+        final String hex = Long.toHexString(id);
+        final StringBuilder value = new StringBuilder(16 + suffix.length());
+        for (int i = hex.length(); i < 16; i++) {
+            value.append('0');
+        }
+        return new ItemId(value.append(hex).append(suffix).toString());
+    }
+}
@@ -0,0 +1,168 @@
+package com.bt.openlink.type;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * An optional, bounded cache of identifiers, so that a value that recurs in many stanzas - such as an interest or profile
+ * id - is usually represented by a single instance, saving memory. The cache is disabled by default; once enabled with
+ * {@link #setMaximumSize(int)} every stanza parsed by the Tinder or Smack libraries shares the cached instances. Entries
+ * are evicted least-recently-used first. An identifier created before the cache was enabled, or re-created after being
+ * evicted, is a different instance, so identifiers must still be compared with {@code equals}.
+ * <p>
+ * There is a single cache for each type of identifier, reached through, for example, {@link InterestId#cache()}. It is
+ * shared by every parser and every component loaded by the same class loader, so enabling, resizing or clearing it
+ * affects all of them; it is intended to be configured once, by the application.
+ * <p>
+ * The cache is split in to a number of stripes, each with its own lock, so that concurrent parsers rarely contend. The
+ * maximum size is shared between the stripes, so the cache never holds more than the maximum; as each stripe evicts its
+ * own least-recently-used entries, eviction across the whole cache is only approximately least-recently-used.
+ *
+ * @param <T> the type of identifier cached
+ */
+public final class TypeCache<T extends AbstractType<String>> {
+
+    private static final int MAXIMUM_STRIPE_COUNT = 16;
+
+    @Nonnull private final Function<String, T> factory;
+    @Nonnull private final LongAdder hitCount = new LongAdder();
+    @Nonnull private final LongAdder missCount = new LongAdder();
+    @Nullable private volatile Stripe<T>[] stripes;
+    private volatile int maximumSize;
+
+    TypeCache(@Nonnull final Function<String, T> factory) {
+        this.factory = factory;
+    }
+
+    @Nonnull
+    Optional<T> get(@Nonnull final String value) {
+        final Stripe<T>[] currentStripes = stripes;
+        if (currentStripes == null) {
+            return Optional.of(factory.apply(value));
+        }
+        final int hash = value.hashCode();
+        final Stripe<T> stripe = currentStripes[(hash ^ (hash >>> 16)) & (currentStripes.length - 1)];
+        Optional<T> identifier;
+        final boolean hit;
+        synchronized (stripe) {
+            identifier = stripe.get(value);
+            hit = identifier != null;
+            if (!hit) {
+                identifier = Optional.of(factory.apply(value));
+                stripe.put(value, identifier);
+            }
+        }
+        if (hit) {
+            hitCount.increment();
+        } else {
+            missCount.increment();
+        }
+        return identifier;
+    }
+
+    /**
+     * Enables, resizes or disables the cache. Any existing entries are discarded.
+     *
+     * @param maximumSize the maximum number of identifiers to hold, or zero to disable the cache
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized void setMaximumSize(final int maximumSize) {
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException("The maximum size of the cache cannot be negative");
+        }
+        if (maximumSize == 0) {
+            this.stripes = null;
+        } else {
+            // A power of two number of stripes, each able to hold at least one entry, whose sizes add up to the maximum
+            final int stripeCount = Math.min(MAXIMUM_STRIPE_COUNT, Integer.highestOneBit(maximumSize));
+            final Stripe<T>[] newStripes = new Stripe[stripeCount];
+            for (int i = 0; i < stripeCount; i++) {
+                newStripes[i] = new Stripe<>(maximumSize / stripeCount + (i < maximumSize % stripeCount ? 1 : 0));
+            }
+            this.stripes = newStripes;
+        }
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * @return the maximum number of identifiers the cache will hold, or zero if the cache is disabled
+     */
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    public boolean isEnabled() {
+        return stripes != null;
+    }
+
+    /**
+     * @return the number of identifiers currently held
+     */
+    public int size() {
+        final Stripe<T>[] currentStripes = stripes;
+        int size = 0;
+        if (currentStripes != null) {
+            for (final Stripe<T> stripe : currentStripes) {
+                synchronized (stripe) {
+                    size += stripe.size();
+                }
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Discards all the identifiers currently held; the cache remains enabled.
+     */
+    public void clear() {
+        final Stripe<T>[] currentStripes = stripes;
+        if (currentStripes != null) {
+            for (final Stripe<T> stripe : currentStripes) {
+                synchronized (stripe) {
+                    stripe.clear();
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the number of lookups, while enabled, that returned a cached identifier
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * @return the number of lookups, while enabled, that created a new identifier
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    public void resetCounts() {
+        hitCount.reset();
+        missCount.reset();
+    }
+
+    private static final class Stripe<T> extends LinkedHashMap<String, Optional<T>> {
+
+        private static final long serialVersionUID = 1L;
+        private final int maximumSize;
+
+        private Stripe(final int maximumSize) {
+            super(16, 0.75f, true);
+            this.maximumSize = maximumSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, Optional<T>> eldest) {
+            return size() > maximumSize;
+        }
+    }
+}
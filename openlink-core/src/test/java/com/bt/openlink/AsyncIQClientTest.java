@@ -0,0 +1,252 @@
+package com.bt.openlink;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class AsyncIQClientTest {
+
+    private static class TestIQ {
+
+        private final String id;
+        private final String type;
+        private final String to;
+        private final String from;
+
+        private TestIQ(final String id, final String type) {
+            this(id, type, null, null);
+        }
+
+        private TestIQ(final String id, final String type, final String to, final String from) {
+            this.id = id;
+            this.type = type;
+            this.to = to;
+            this.from = from;
+        }
+    }
+
+    private static final class TestResult extends TestIQ {
+
+        private TestResult(final String id) {
+            super(id, "result");
+        }
+    }
+
+    private static final class TestAdapter implements AsyncIQClient.Adapter<TestIQ> {
+
+        private final List<TestIQ> sentRequests = new ArrayList<>();
+
+        @Nullable
+        @Override
+        public String getId(@Nonnull final TestIQ iq) {
+            return iq.id;
+        }
+
+        @Nullable
+        @Override
+        public String getTo(@Nonnull final TestIQ iq) {
+            return iq.to;
+        }
+
+        @Nullable
+        @Override
+        public String getFrom(@Nonnull final TestIQ iq) {
+            return iq.from;
+        }
+
+        @Override
+        public boolean isResponse(@Nonnull final TestIQ iq) {
+            return iq.type.equals("result") || iq.type.equals("error");
+        }
+
+        @Nullable
+        @Override
+        public StanzaErrorException getError(@Nonnull final TestIQ iq) {
+            return iq.type.equals("error") ? new StanzaErrorException(iq.id, "item-not-found", null) : null;
+        }
+
+        @Nonnull
+        @Override
+        public TestIQ parse(@Nonnull final TestIQ iq) {
+            return iq.getClass() == TestIQ.class ? new TestResult(iq.id) : iq;
+        }
+
+        @Override
+        public void send(@Nonnull final TestIQ iq) throws Exception {
+            if (iq.id.equals("unsendable")) {
+                throw new Exception("Not connected");
+            }
+            sentRequests.add(iq);
+        }
+    }
+
+    @Rule public final ExpectedException expectedException = ExpectedException.none();
+
+    private final TestAdapter adapter = new TestAdapter();
+    private final HashedWheelTimer timer = new HashedWheelTimer(5, TimeUnit.MILLISECONDS, 16, Thread::new);
+    private final AsyncIQClient<TestIQ> client = new AsyncIQClient<>(adapter, timer, Duration.ofSeconds(30), 2);
+
+    @After
+    public void tearDown() {
+        timer.stop();
+    }
+
+    @Test
+    public void willCompleteWhenTheResultIsReceived() {
+
+        final CompletableFuture<TestResult> future = client.sendRequest(new TestIQ("request-1", "set"), TestResult.class);
+
+        assertThat(adapter.sentRequests.size(), is(1));
+        assertThat(client.getOutstandingCount(), is(1));
+        assertThat(client.handleResponse(new TestIQ("request-1", "result")), is(true));
+
+        assertThat(future.join().id, is("request-1"));
+        assertThat(client.getOutstandingCount(), is(0));
+    }
+
+    @Test
+    public void willFailWhenAnErrorIsReceived() throws Exception {
+
+        final CompletableFuture<TestResult> future = client.sendRequest(new TestIQ("request-1", "set"), TestResult.class);
+        client.handleResponse(new TestIQ("request-1", "error"));
+
+        expectedException.expect(ExecutionException.class);
+        expectedException.expectCause(instanceOf(StanzaErrorException.class));
+        future.get();
+    }
+
+    @Test
+    public void willFailWhenAnUnexpectedResultIsReceived() throws Exception {
+
+        final CompletableFuture<String> future = client.sendRequest(new TestIQ("request-1", "set"), String.class);
+        client.handleResponse(new TestIQ("request-1", "result"));
+
+        expectedException.expect(ExecutionException.class);
+        expectedException.expectCause(instanceOf(IllegalStateException.class));
+        future.get();
+    }
+
+    @Test
+    public void willIgnoreAnUnknownResult() {
+
+        client.sendRequest(new TestIQ("request-1", "set"), TestResult.class);
+
+        assertThat(client.handleResponse(new TestIQ("unknown-id", "result")), is(false));
+        assertThat(client.handleResponse(new TestIQ("request-1", "set")), is(false));
+        assertThat(client.getOutstandingCount(), is(1));
+    }
+
+    @Test
+    public void willIgnoreAResultFromAnotherEntity() {
+
+        final CompletableFuture<TestResult> future = client.sendRequest(new TestIQ("request-1", "set", "openlink.example.com", null), TestResult.class);
+
+        assertThat(client.handleResponse(new TestIQ("request-1", "result", null, "another.example.com")), is(false));
+        assertThat(client.handleResponse(new TestIQ("request-1", "error", null, null)), is(false));
+        assertThat(future.isDone(), is(false));
+        assertThat(client.getOutstandingCount(), is(1));
+
+        assertThat(client.handleResponse(new TestIQ("request-1", "result", null, "openlink.example.com")), is(true));
+        assertThat(future.join().id, is("request-1"));
+    }
+
+    @Test
+    public void willTimeOutARequest() throws Exception {
+
+        final CompletableFuture<TestResult> future = client.sendRequest(new TestIQ("request-1", "set"), TestResult.class, Duration.ofMillis(20));
+
+        expectedException.expect(ExecutionException.class);
+        expectedException.expectCause(instanceOf(TimeoutException.class));
+        try {
+            future.get(5, TimeUnit.SECONDS);
+        } finally {
+            assertThat(client.getOutstandingCount(), is(0));
+        }
+    }
+
+    @Test
+    public void willRejectARequestWhenTooManyAreOutstanding() throws Exception {
+
+        client.sendRequest(new TestIQ("request-1", "set"), TestResult.class);
+        client.sendRequest(new TestIQ("request-2", "set"), TestResult.class);
+        final CompletableFuture<TestResult> future = client.sendRequest(new TestIQ("request-3", "set"), TestResult.class);
+
+        assertThat(adapter.sentRequests.size(), is(2));
+        expectedException.expect(ExecutionException.class);
+        expectedException.expectCause(instanceOf(RejectedExecutionException.class));
+        future.get();
+    }
+
+    @Test
+    public void willFreeTheSlotOfACancelledRequest() {
+
+        client.sendRequest(new TestIQ("request-1", "set"), TestResult.class);
+        client.sendRequest(new TestIQ("request-2", "set"), TestResult.class).cancel(false);
+        final CompletableFuture<TestResult> future = client.sendRequest(new TestIQ("request-3", "set"), TestResult.class);
+
+        assertThat(client.handleResponse(new TestIQ("request-2", "result")), is(false));
+        assertThat(client.handleResponse(new TestIQ("request-3", "result")), is(true));
+        assertThat(future.join().id, is("request-3"));
+    }
+
+    @Test
+    public void willFailARequestThatCannotBeSent() throws Exception {
+
+        final CompletableFuture<TestResult> future = client.sendRequest(new TestIQ("unsendable", "set"), TestResult.class);
+
+        assertThat(client.getOutstandingCount(), is(0));
+        expectedException.expect(ExecutionException.class);
+        expectedException.expectMessage("Not connected");
+        future.get();
+    }
+
+    @Test
+    public void willFailARequestWithADuplicateId() throws Exception {
+
+        client.sendRequest(new TestIQ("request-1", "set"), TestResult.class);
+        final CompletableFuture<TestResult> future = client.sendRequest(new TestIQ("request-1", "set"), TestResult.class);
+
+        expectedException.expect(ExecutionException.class);
+        expectedException.expectCause(instanceOf(IllegalArgumentException.class));
+        future.get();
+    }
+
+    @Test
+    public void willFailOutstandingRequestsWhenClosed() throws Exception {
+
+        final CompletableFuture<TestResult> future = client.sendRequest(new TestIQ("request-1", "set"), TestResult.class);
+
+        client.close();
+
+        assertThat(client.getOutstandingCount(), is(0));
+        expectedException.expect(ExecutionException.class);
+        expectedException.expectCause(instanceOf(IllegalStateException.class));
+        future.get();
+    }
+
+    @Test
+    public void cannotAllowNoOutstandingRequests() {
+
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("At least one request must be allowed to be outstanding");
+
+        new AsyncIQClient<>(adapter, timer, Duration.ofSeconds(30), 0);
+    }
+}
@@ -0,0 +1,119 @@
+package com.bt.openlink;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.bt.openlink.type.Call;
+import com.bt.openlink.type.CallState;
+import com.bt.openlink.type.RequestAction;
+
+@SuppressWarnings("ConstantConditions")
+public class CallDeltaDecoderTest {
+
+    private final CallDeltaEncoder encoder = new CallDeltaEncoder();
+    private final CallDeltaDecoder decoder = new CallDeltaDecoder();
+
+    private static void assertSameCall(final Call decodedCall, final Call call) {
+        assertThat(decodedCall.getId(), is(call.getId()));
+        assertThat(decodedCall.getState(), is(call.getState()));
+        assertThat(decodedCall.getUserId(), is(call.getUserId()));
+        assertThat(decodedCall.getCallerNumber(), is(call.getCallerNumber()));
+        assertThat(decodedCall.getActions(), is(call.getActions()));
+        assertThat(decodedCall.getFeatures(), is(call.getFeatures()));
+        assertThat(decodedCall.getParticipants(), is(call.getParticipants()));
+        assertThat(decodedCall.getOriginatorReferences(), is(call.getOriginatorReferences()));
+    }
+
+    @Test
+    public void willRestoreEachFullCall() {
+
+        final List<Call> calls = Arrays.asList(
+                CallDeltaEncoderTest.call(CallState.CALL_ESTABLISHED, CoreFixtures.CALLER_NUMBER, CallDeltaEncoderTest.PARTICIPANT_1, CallDeltaEncoderTest.PARTICIPANT_2),
+                CallDeltaEncoderTest.call(CallState.CALL_CONFERENCED, CoreFixtures.CALLER_NUMBER, CallDeltaEncoderTest.PARTICIPANT_1, CallDeltaEncoderTest.PARTICIPANT_2, CallDeltaEncoderTest.PARTICIPANT_3),
+                CallDeltaEncoderTest.call(CallState.CALL_CONFERENCED, CoreFixtures.CALLED_NUMBER, CallDeltaEncoderTest.PARTICIPANT_1, CallDeltaEncoderTest.PARTICIPANT_2_INACTIVE, CallDeltaEncoderTest.PARTICIPANT_3),
+                CallDeltaEncoderTest.call(CallState.CALL_CONFERENCED, CoreFixtures.CALLED_NUMBER, CallDeltaEncoderTest.PARTICIPANT_1, CallDeltaEncoderTest.PARTICIPANT_3),
+                CoreFixtures.CALL_INCOMING_ORIGINATED);
+
+        for (final Call call : calls) {
+            assertSameCall(decoder.decode(encoder.encode(call)), call);
+        }
+        assertSameCall(decoder.getCall(CoreFixtures.CALL_ID, CoreFixtures.INTEREST_ID).get(), CoreFixtures.CALL_INCOMING_ORIGINATED);
+    }
+
+    @Test
+    public void willIdentifyADelta() {
+
+        final Call fullCall = encoder.encode(CoreFixtures.CALL_INCOMING_ORIGINATED);
+        final Call delta = encoder.encode(CoreFixtures.CALL_INCOMING_ORIGINATED);
+
+        assertThat(CallDeltaDecoder.isDelta(fullCall), is(false));
+        assertThat(CallDeltaDecoder.isDelta(delta), is(true));
+    }
+
+    @Test
+    public void willOnlyDecodeTheCarriedFieldsOfAnUnknownCall() {
+
+        encoder.encode(CallDeltaEncoderTest.call(CallState.CALL_ESTABLISHED, CoreFixtures.CALLER_NUMBER, CallDeltaEncoderTest.PARTICIPANT_1));
+        final Call delta = encoder.encode(CallDeltaEncoderTest.call(CallState.CALL_CONFERENCED, CoreFixtures.CALLER_NUMBER, CallDeltaEncoderTest.PARTICIPANT_1, CallDeltaEncoderTest.PARTICIPANT_2));
+
+        final Call decodedCall = decoder.decode(delta);
+
+        assertThat(decodedCall.getState().get(), is(CallState.CALL_CONFERENCED));
+        assertThat(decodedCall.getParticipants(), contains(CallDeltaEncoderTest.PARTICIPANT_2));
+        assertThat(decodedCall.getCallerNumber().isPresent(), is(false));
+    }
+
+    @Test
+    public void willMarkADecodedCallAsADeltaUntilEveryFieldIsKnown() {
+
+        encoder.encode(CallDeltaEncoderTest.call(CallState.CALL_ESTABLISHED, CoreFixtures.CALLER_NUMBER, CallDeltaEncoderTest.PARTICIPANT_1));
+        final Call delta = encoder.encode(CallDeltaEncoderTest.call(CallState.CALL_CONFERENCED, CoreFixtures.CALLER_NUMBER, CallDeltaEncoderTest.PARTICIPANT_1, CallDeltaEncoderTest.PARTICIPANT_2));
+        final Call fullCall = CallDeltaEncoderTest.call(CallState.CALL_CONFERENCED, CoreFixtures.CALLED_NUMBER, CallDeltaEncoderTest.PARTICIPANT_1, CallDeltaEncoderTest.PARTICIPANT_2);
+
+        assertThat(CallDeltaDecoder.isDelta(decoder.decode(delta)), is(true));
+        assertThat(CallDeltaDecoder.isDelta(decoder.getCall(CoreFixtures.CALL_ID, CoreFixtures.INTEREST_ID).get()), is(true));
+
+        final Call decodedCall = decoder.decode(fullCall);
+
+        assertThat(CallDeltaDecoder.isDelta(decodedCall), is(false));
+        assertSameCall(decodedCall, fullCall);
+    }
+
+    @Test
+    public void willNotMarkADeltaOfAKnownCallAsADelta() {
+
+        decoder.decode(encoder.encode(CallDeltaEncoderTest.call(CallState.CALL_ESTABLISHED, CoreFixtures.CALLER_NUMBER, CallDeltaEncoderTest.PARTICIPANT_1)));
+        final Call decodedCall = decoder.decode(encoder.encode(CallDeltaEncoderTest.call(CallState.CALL_CONFERENCED, CoreFixtures.CALLER_NUMBER, CallDeltaEncoderTest.PARTICIPANT_1, CallDeltaEncoderTest.PARTICIPANT_2)));
+
+        assertThat(CallDeltaDecoder.isDelta(decodedCall), is(false));
+        assertThat(decodedCall.getOriginatorReferences(), is(empty()));
+    }
+
+    @Test
+    public void willForgetACall() {
+
+        decoder.decode(encoder.encode(CallDeltaEncoderTest.call(CallState.CALL_ESTABLISHED, CoreFixtures.CALLER_NUMBER, CallDeltaEncoderTest.PARTICIPANT_1)));
+
+        assertThat(decoder.getCallCount(), is(1));
+        assertThat(decoder.forget(CoreFixtures.CALL_ID, CoreFixtures.INTEREST_ID).isPresent(), is(true));
+        assertThat(decoder.getCallCount(), is(0));
+        assertThat(decoder.forget(CoreFixtures.CALL_ID, CoreFixtures.INTEREST_ID).isPresent(), is(false));
+    }
+
+    @Test
+    public void willForgetACallThatHasEnded() {
+
+        decoder.decode(encoder.encode(CallDeltaEncoderTest.call(CallState.CALL_ESTABLISHED, CoreFixtures.CALLER_NUMBER, CallDeltaEncoderTest.PARTICIPANT_1)));
+        final Call clearedCall = decoder.decode(encoder.encode(CallDeltaEncoderTest.call(CallState.CONNECTION_CLEARED, CoreFixtures.CALLER_NUMBER, CallDeltaEncoderTest.PARTICIPANT_1)));
+
+        assertThat(clearedCall.getActions(), contains(RequestAction.CLEAR_CALL));
+        assertThat(decoder.getCall(CoreFixtures.CALL_ID, CoreFixtures.INTEREST_ID).isPresent(), is(false));
+    }
+}
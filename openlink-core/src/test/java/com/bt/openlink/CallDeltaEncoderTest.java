@@ -0,0 +1,155 @@
+package com.bt.openlink;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.Assert.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.bt.openlink.type.Call;
+import com.bt.openlink.type.CallDirection;
+import com.bt.openlink.type.CallState;
+import com.bt.openlink.type.Changed;
+import com.bt.openlink.type.OriginatorReference;
+import com.bt.openlink.type.Participant;
+import com.bt.openlink.type.ParticipantType;
+import com.bt.openlink.type.PhoneNumber;
+import com.bt.openlink.type.RequestAction;
+
+@SuppressWarnings("ConstantConditions")
+public class CallDeltaEncoderTest {
+
+    static final Participant PARTICIPANT_1 = participant("participant-1@test-domain", ParticipantType.ACTIVE);
+    static final Participant PARTICIPANT_2 = participant("participant-2@test-domain", ParticipantType.ACTIVE);
+    static final Participant PARTICIPANT_3 = participant("participant-3@test-domain", ParticipantType.ACTIVE);
+    static final Participant PARTICIPANT_2_INACTIVE = participant("participant-2@test-domain", ParticipantType.INACTIVE);
+
+    private final CallDeltaEncoder encoder = new CallDeltaEncoder();
+
+    static Participant participant(final String jid, final ParticipantType type) {
+        return Participant.Builder.start()
+                .setJID(jid)
+                .setType(type)
+                .setDirection(CallDirection.INCOMING)
+                .setStartTime(CoreFixtures.START_TIME)
+                .setDuration(CoreFixtures.DURATION)
+                .build();
+    }
+
+    static Call call(final CallState state, final PhoneNumber callerNumber, final Participant... participants) {
+        final Call.Builder builder = Call.Builder.start()
+                .setId(CoreFixtures.CALL_ID)
+                .setSite(CoreFixtures.SITE)
+                .setProfileId(CoreFixtures.PROFILE_ID)
+                .setUserId(CoreFixtures.USER_ID)
+                .setInterestId(CoreFixtures.INTEREST_ID)
+                .setState(state)
+                .setDirection(CallDirection.INCOMING)
+                .setCallerNumber(callerNumber)
+                .setStartTime(Instant.EPOCH)
+                .setDuration(Duration.ZERO)
+                .addAction(RequestAction.CLEAR_CALL)
+                .addFeature(CoreFixtures.CALL_FEATURE);
+        Arrays.stream(participants).forEach(builder::addParticipant);
+        return builder.build();
+    }
+
+    private static String getDeltaReference(final Call call) {
+        final List<OriginatorReference> originatorReferences = call.getOriginatorReferences();
+        assertThat(originatorReferences.size(), is(1));
+        assertThat(originatorReferences.get(0).getKey(), is(CallDeltaGroup.DELTA_REFERENCE_KEY));
+        return originatorReferences.get(0).getValue();
+    }
+
+    @Test
+    public void willPublishTheFirstVersionOfACallInFull() {
+
+        final Call call = call(CallState.CALL_ESTABLISHED, CoreFixtures.CALLER_NUMBER, PARTICIPANT_1);
+
+        assertThat(encoder.encode(call), is(call));
+    }
+
+    @Test
+    public void willOnlyPublishANewParticipant() {
+
+        encoder.encode(call(CallState.CALL_ESTABLISHED, CoreFixtures.CALLER_NUMBER, PARTICIPANT_1, PARTICIPANT_2));
+
+        final Call delta = encoder.encode(call(CallState.CALL_CONFERENCED, CoreFixtures.CALLER_NUMBER, PARTICIPANT_1, PARTICIPANT_2, PARTICIPANT_3));
+
+        assertThat(getDeltaReference(delta), is("changed-participants"));
+        assertThat(delta.getId().get(), is(CoreFixtures.CALL_ID));
+        assertThat(delta.getState().get(), is(CallState.CALL_CONFERENCED));
+        assertThat(delta.getChanged().get(), is(Changed.STATE));
+        assertThat(delta.getParticipants(), contains(PARTICIPANT_3));
+        assertThat(delta.getCallerNumber().isPresent(), is(false));
+        assertThat(delta.getActions(), is(empty()));
+        assertThat(delta.getFeatures(), is(empty()));
+    }
+
+    @Test
+    public void willOnlyPublishAChangedParticipant() {
+
+        encoder.encode(call(CallState.CALL_CONFERENCED, CoreFixtures.CALLER_NUMBER, PARTICIPANT_1, PARTICIPANT_2, PARTICIPANT_3));
+
+        final Call delta = encoder.encode(call(CallState.CALL_CONFERENCED, CoreFixtures.CALLER_NUMBER, PARTICIPANT_1, PARTICIPANT_2_INACTIVE, PARTICIPANT_3));
+
+        assertThat(getDeltaReference(delta), is("changed-participants"));
+        assertThat(delta.getChanged().get(), is(Changed.PARTICIPANT));
+        assertThat(delta.getParticipants(), contains(PARTICIPANT_2_INACTIVE));
+    }
+
+    @Test
+    public void willPublishEveryParticipantWhenOneHasLeft() {
+
+        encoder.encode(call(CallState.CALL_CONFERENCED, CoreFixtures.CALLER_NUMBER, PARTICIPANT_1, PARTICIPANT_2, PARTICIPANT_3));
+
+        final Call delta = encoder.encode(call(CallState.CALL_CONFERENCED, CoreFixtures.CALLER_NUMBER, PARTICIPANT_1, PARTICIPANT_3));
+
+        assertThat(getDeltaReference(delta), is("participants"));
+        assertThat(delta.getParticipants(), contains(PARTICIPANT_1, PARTICIPANT_3));
+    }
+
+    @Test
+    public void willSetTheHighestPriorityChange() {
+
+        encoder.encode(call(CallState.CALL_CONFERENCED, CoreFixtures.CALLER_NUMBER, PARTICIPANT_1, PARTICIPANT_2));
+
+        final Call delta = encoder.encode(call(CallState.CALL_CONFERENCED, CoreFixtures.CALLED_NUMBER, PARTICIPANT_1, PARTICIPANT_2, PARTICIPANT_3));
+
+        assertThat(getDeltaReference(delta), is("caller changed-participants"));
+        assertThat(delta.getChanged().get(), is(Changed.CALLER));
+        assertThat(delta.getCallerNumber().get(), is(CoreFixtures.CALLED_NUMBER));
+    }
+
+    @Test
+    public void willNotOverrideTheChangeIndicatedByTheCall() {
+
+        encoder.encode(CoreFixtures.CALL_INCOMING_ORIGINATED);
+
+        final Call delta = encoder.encode(CoreFixtures.CALL_INCOMING_ORIGINATED);
+
+        assertThat(getDeltaReference(delta), is(""));
+        assertThat(delta.getChanged().get(), is(Changed.STATE));
+        assertThat(delta.getCallerNumber().isPresent(), is(false));
+    }
+
+    @Test
+    public void willPublishACallInFullOnceItHasEndedOrBeenForgotten() {
+
+        final Call call = call(CallState.CALL_ESTABLISHED, CoreFixtures.CALLER_NUMBER, PARTICIPANT_1);
+        encoder.encode(call);
+        encoder.encode(call(CallState.CONNECTION_CLEARED, CoreFixtures.CALLER_NUMBER, PARTICIPANT_1));
+
+        assertThat(encoder.encode(call), is(call));
+
+        encoder.forget(CoreFixtures.CALL_ID, CoreFixtures.INTEREST_ID);
+
+        assertThat(encoder.encode(call), is(call));
+    }
+}
@@ -0,0 +1,218 @@
+package com.bt.openlink;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.Assert.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.bt.openlink.type.Call;
+import com.bt.openlink.type.CallDirection;
+import com.bt.openlink.type.CallId;
+import com.bt.openlink.type.CallState;
+import com.bt.openlink.type.InterestId;
+import com.bt.openlink.type.ProfileId;
+
+@SuppressWarnings("ConstantConditions")
+public class CallStateStoreTest {
+
+    private static final InterestId ANOTHER_INTEREST_ID = InterestId.from("another-interest-id").get();
+    private static final ProfileId ANOTHER_PROFILE_ID = ProfileId.from("another-profile-id").get();
+
+    private final CallStateStore store = new CallStateStore();
+
+    private static Call call(final CallId callId, final InterestId interestId, final ProfileId profileId, final CallState state) {
+        return Call.Builder.start()
+                .setId(callId)
+                .setSite(CoreFixtures.SITE)
+                .setProfileId(profileId)
+                .setUserId(CoreFixtures.USER_ID)
+                .setInterestId(interestId)
+                .setState(state)
+                .setDirection(CallDirection.INCOMING)
+                .setStartTime(Instant.now())
+                .setDuration(Duration.ZERO)
+                .build();
+    }
+
+    private static Call call(final CallState state) {
+        return call(CoreFixtures.CALL_ID, CoreFixtures.INTEREST_ID, CoreFixtures.PROFILE_ID, state);
+    }
+
+    @Test
+    public void willAddACall() {
+
+        final Optional<Call> previousCall = store.apply(CoreFixtures.CALL_INCOMING_ORIGINATED);
+
+        assertThat(previousCall.isPresent(), is(false));
+        assertThat(store.size(), is(1));
+        assertThat(store.getCall(CoreFixtures.CALL_ID, CoreFixtures.INTEREST_ID).get(), is(CoreFixtures.CALL_INCOMING_ORIGINATED));
+        assertThat(store.getCalls(), contains(CoreFixtures.CALL_INCOMING_ORIGINATED));
+        assertThat(store.getCalls(CoreFixtures.CALL_ID), contains(CoreFixtures.CALL_INCOMING_ORIGINATED));
+        assertThat(store.getCallsForInterest(CoreFixtures.INTEREST_ID), contains(CoreFixtures.CALL_INCOMING_ORIGINATED));
+        assertThat(store.getCallsForProfile(CoreFixtures.PROFILE_ID), contains(CoreFixtures.CALL_INCOMING_ORIGINATED));
+        assertThat(store.getCallsForUser(CoreFixtures.USER_ID), contains(CoreFixtures.CALL_INCOMING_ORIGINATED));
+    }
+
+    @Test
+    public void willReplaceAnExistingCall() {
+
+        final Call originatedCall = call(CallState.CALL_ORIGINATED);
+        final Call establishedCall = call(CallState.CALL_ESTABLISHED);
+
+        store.apply(originatedCall);
+        final Optional<Call> previousCall = store.apply(establishedCall);
+
+        assertThat(previousCall.get(), is(originatedCall));
+        assertThat(store.size(), is(1));
+        assertThat(store.getCall(CoreFixtures.CALL_ID, CoreFixtures.INTEREST_ID).get(), is(establishedCall));
+        assertThat(store.getCallsForInterest(CoreFixtures.INTEREST_ID), contains(establishedCall));
+    }
+
+    @Test
+    public void willKeepACallReportedToEachInterestSeparately() {
+
+        final Call call = call(CallState.CALL_ORIGINATED);
+        final Call anotherCall = call(CoreFixtures.CALL_ID, ANOTHER_INTEREST_ID, CoreFixtures.PROFILE_ID, CallState.CALL_ORIGINATED);
+
+        store.apply(Arrays.asList(call, anotherCall));
+
+        assertThat(store.size(), is(2));
+        assertThat(store.getCalls(CoreFixtures.CALL_ID), containsInAnyOrder(call, anotherCall));
+        assertThat(store.getCallsForInterest(CoreFixtures.INTEREST_ID), contains(call));
+        assertThat(store.getCallsForInterest(ANOTHER_INTEREST_ID), contains(anotherCall));
+    }
+
+    @Test
+    public void willRemoveCallsThatHaveEnded() {
+
+        for (final CallState endedState : Arrays.asList(CallState.CONNECTION_CLEARED, CallState.CALL_FAILED, CallState.CALL_MISSED)) {
+            final Call originatedCall = call(CallState.CALL_ORIGINATED);
+            store.apply(originatedCall);
+
+            final Optional<Call> previousCall = store.apply(call(endedState));
+
+            assertThat(previousCall.get(), is(originatedCall));
+            assertThat(store.isEmpty(), is(true));
+            assertThat(store.getCalls(CoreFixtures.CALL_ID), is(empty()));
+            assertThat(store.getCallsForInterest(CoreFixtures.INTEREST_ID), is(empty()));
+            assertThat(store.getCallsForProfile(CoreFixtures.PROFILE_ID), is(empty()));
+            assertThat(store.getCallsForUser(CoreFixtures.USER_ID), is(empty()));
+        }
+    }
+
+    @Test
+    public void willNotAddACallThatHasEnded() {
+
+        final Optional<Call> previousCall = store.apply(call(CallState.CONNECTION_CLEARED));
+
+        assertThat(previousCall.isPresent(), is(false));
+        assertThat(store.isEmpty(), is(true));
+    }
+
+    @Test
+    public void willMoveACallToANewProfile() {
+
+        store.apply(call(CallState.CALL_ORIGINATED));
+        final Call movedCall = call(CoreFixtures.CALL_ID, CoreFixtures.INTEREST_ID, ANOTHER_PROFILE_ID, CallState.CALL_ESTABLISHED);
+        store.apply(movedCall);
+
+        assertThat(store.getCallsForProfile(CoreFixtures.PROFILE_ID), is(empty()));
+        assertThat(store.getCallsForProfile(ANOTHER_PROFILE_ID), contains(movedCall));
+    }
+
+    @Test
+    public void willReflectCallsAddedAfterAViewHasEmptied() {
+
+        final Collection<Call> callsForInterest = store.getCallsForInterest(CoreFixtures.INTEREST_ID);
+        store.apply(call(CallState.CALL_ORIGINATED));
+        store.apply(call(CallState.CONNECTION_CLEARED));
+
+        assertThat(callsForInterest, is(empty()));
+
+        final Call establishedCall = call(CallState.CALL_ESTABLISHED);
+        store.apply(establishedCall);
+
+        assertThat(callsForInterest, contains(establishedCall));
+        assertThat(callsForInterest.contains(establishedCall), is(true));
+    }
+
+    @Test
+    public void willRemoveACall() {
+
+        store.apply(CoreFixtures.CALL_INCOMING_ORIGINATED);
+
+        final Optional<Call> removedCall = store.remove(CoreFixtures.CALL_ID, CoreFixtures.INTEREST_ID);
+
+        assertThat(removedCall.get(), is(CoreFixtures.CALL_INCOMING_ORIGINATED));
+        assertThat(store.isEmpty(), is(true));
+        assertThat(store.getCallsForUser(CoreFixtures.USER_ID), is(empty()));
+        assertThat(store.remove(CoreFixtures.CALL_ID, CoreFixtures.INTEREST_ID).isPresent(), is(false));
+    }
+
+    @Test
+    public void willClearTheStore() {
+
+        store.apply(Arrays.asList(call(CallState.CALL_ORIGINATED), call(CoreFixtures.CALL_ID, ANOTHER_INTEREST_ID, ANOTHER_PROFILE_ID, CallState.CALL_ORIGINATED)));
+
+        store.clear();
+
+        assertThat(store.isEmpty(), is(true));
+        assertThat(store.getCalls(CoreFixtures.CALL_ID), is(empty()));
+        assertThat(store.getCallsForProfile(ANOTHER_PROFILE_ID), is(empty()));
+    }
+
+    @Test
+    public void willApplyCallsFromManyThreads() throws Exception {
+
+        final int threadCount = 8;
+        final int callsPerThread = 1000;
+        final ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        final List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int thread = 0; thread < threadCount; thread++) {
+                final int threadNumber = thread;
+                futures.add(executor.submit(() -> {
+                    startLatch.await();
+                    for (int i = 0; i < callsPerThread; i++) {
+                        final CallId callId = CallId.from("call-" + threadNumber + "-" + i).get();
+                        store.apply(call(callId, CoreFixtures.INTEREST_ID, CoreFixtures.PROFILE_ID, CallState.CALL_ORIGINATED));
+                        store.apply(call(callId, CoreFixtures.INTEREST_ID, CoreFixtures.PROFILE_ID, CallState.CALL_ESTABLISHED));
+                        // Clear every other call
+                        if (i % 2 == 0) {
+                            store.apply(call(callId, CoreFixtures.INTEREST_ID, CoreFixtures.PROFILE_ID, CallState.CONNECTION_CLEARED));
+                        }
+                    }
+                    return null;
+                }));
+            }
+            startLatch.countDown();
+            for (final Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        final int expectedCallCount = threadCount * callsPerThread / 2;
+        assertThat(store.size(), is(expectedCallCount));
+        assertThat(store.getCallsForInterest(CoreFixtures.INTEREST_ID).size(), is(expectedCallCount));
+        assertThat(store.getCallsForProfile(CoreFixtures.PROFILE_ID).size(), is(expectedCallCount));
+    }
+}
@@ -0,0 +1,178 @@
+package com.bt.openlink;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.mockito.ArgumentCaptor;
+
+import com.bt.openlink.type.Call;
+import com.bt.openlink.type.CallDirection;
+import com.bt.openlink.type.CallId;
+import com.bt.openlink.type.CallState;
+import com.bt.openlink.type.Changed;
+import com.bt.openlink.type.InterestId;
+
+@SuppressWarnings("ConstantConditions")
+public class CallStatusCoalescerTest {
+
+    private static final CallId ANOTHER_CALL_ID = CallId.from("another-call-id").get();
+    private static final InterestId ANOTHER_INTEREST_ID = InterestId.from("another-interest-id").get();
+
+    @Rule public final ExpectedException expectedException = ExpectedException.none();
+
+    private final List<InterestId> publishedInterests = new ArrayList<>();
+    private final List<List<Call>> publishedCalls = new ArrayList<>();
+    private ScheduledExecutorService scheduler;
+    private CallStatusCoalescer coalescer;
+
+    private static Call call(final CallId callId, final InterestId interestId, final CallState state, final Changed changed) {
+        return Call.Builder.start()
+                .setId(callId)
+                .setSite(CoreFixtures.SITE)
+                .setProfileId(CoreFixtures.PROFILE_ID)
+                .setInterestId(interestId)
+                .setChanged(changed)
+                .setState(state)
+                .setDirection(CallDirection.OUTGOING)
+                .setCallerNumber(CoreFixtures.CALLER_NUMBER)
+                .setStartTime(CoreFixtures.START_TIME)
+                .setDuration(CoreFixtures.DURATION)
+                .build();
+    }
+
+    private static Call call(final CallState state, final Changed changed) {
+        return call(CoreFixtures.CALL_ID, CoreFixtures.INTEREST_ID, state, changed);
+    }
+
+    @Before
+    public void setUp() {
+        scheduler = mock(ScheduledExecutorService.class);
+        coalescer = new CallStatusCoalescer(Duration.ofMillis(20), scheduler, (interestId, calls) -> {
+            publishedInterests.add(interestId);
+            publishedCalls.add(calls);
+        });
+    }
+
+    private List<Runnable> getScheduledFlushes(final int count) {
+        final ArgumentCaptor<Runnable> flushCaptor = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler, times(count)).schedule(flushCaptor.capture(), eq(Duration.ofMillis(20).toNanos()), eq(TimeUnit.NANOSECONDS));
+        return flushCaptor.getAllValues();
+    }
+
+    @Test
+    public void willPublishTheFinalStateOfACallWhenTheWindowCloses() {
+
+        final Call establishedCall = call(CallState.CALL_ESTABLISHED, Changed.STATE);
+        coalescer.offer(Arrays.asList(call(CallState.CALL_ORIGINATED, Changed.STATE), call(CallState.CALL_DELIVERED, Changed.STATE), establishedCall));
+
+        assertThat(publishedCalls, is(empty()));
+
+        getScheduledFlushes(1).get(0).run();
+
+        assertThat(publishedInterests, contains(CoreFixtures.INTEREST_ID));
+        assertThat(publishedCalls.size(), is(1));
+        assertThat(publishedCalls.get(0), contains(establishedCall));
+        assertThat(coalescer.getOfferedCount(), is(3L));
+        assertThat(coalescer.getPublishedCount(), is(1L));
+        assertThat(coalescer.getPublicationCount(), is(1L));
+        assertThat(coalescer.getMergeRatio(), is(3.0));
+    }
+
+    @Test
+    public void willKeepTheHighestPriorityChange() {
+
+        coalescer.offer(call(CallState.CALL_DELIVERED, Changed.STATE));
+        coalescer.offer(call(CallState.CALL_DELIVERED, Changed.ACTIONS));
+
+        getScheduledFlushes(1).get(0).run();
+
+        final Call publishedCall = publishedCalls.get(0).get(0);
+        assertThat(publishedCall.getChanged().get(), is(Changed.STATE));
+        assertThat(publishedCall.getState().get(), is(CallState.CALL_DELIVERED));
+        assertThat(publishedCall.getCallerNumber().get(), is(CoreFixtures.CALLER_NUMBER));
+    }
+
+    @Test
+    public void willPublishEachCallForAnInterestTogether() {
+
+        final Call call = call(CallState.CALL_ESTABLISHED, Changed.STATE);
+        final Call anotherCall = call(ANOTHER_CALL_ID, CoreFixtures.INTEREST_ID, CallState.CALL_ORIGINATED, Changed.STATE);
+        final Call callForAnotherInterest = call(CoreFixtures.CALL_ID, ANOTHER_INTEREST_ID, CallState.CALL_ESTABLISHED, Changed.STATE);
+        coalescer.offer(Arrays.asList(call, anotherCall, callForAnotherInterest));
+
+        getScheduledFlushes(2).forEach(Runnable::run);
+
+        assertThat(publishedInterests, contains(CoreFixtures.INTEREST_ID, ANOTHER_INTEREST_ID));
+        assertThat(publishedCalls.get(0), contains(call, anotherCall));
+        assertThat(publishedCalls.get(1), contains(callForAnotherInterest));
+    }
+
+    @Test
+    public void willOpenANewWindowOnceTheLastHasClosed() {
+
+        coalescer.offer(call(CallState.CALL_ORIGINATED, Changed.STATE));
+        getScheduledFlushes(1).get(0).run();
+        final Call clearedCall = call(CallState.CONNECTION_CLEARED, Changed.STATE);
+        coalescer.offer(clearedCall);
+
+        getScheduledFlushes(2).get(1).run();
+
+        assertThat(publishedCalls.size(), is(2));
+        assertThat(publishedCalls.get(1), contains(clearedCall));
+    }
+
+    @Test
+    public void willFlushOnDemand() {
+
+        final Call call = call(CallState.CALL_ORIGINATED, Changed.STATE);
+        coalescer.offer(call);
+
+        coalescer.flush();
+        getScheduledFlushes(1).get(0).run();
+
+        assertThat(publishedCalls.size(), is(1));
+        assertThat(publishedCalls.get(0), contains(call));
+    }
+
+    @Test
+    public void willPublishACallWithoutAnInterestImmediately() {
+
+        final Call call = Call.Builder.start()
+                .setId(CoreFixtures.CALL_ID)
+                .build(new ArrayList<>());
+
+        coalescer.offer(call);
+
+        verifyZeroInteractions(scheduler);
+        assertThat(publishedInterests.size(), is(1));
+        assertThat(publishedCalls.get(0), contains(call));
+    }
+
+    @Test
+    public void cannotHaveANegativeWindow() {
+
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("The coalescing window cannot be negative");
+
+        new CallStatusCoalescer(Duration.ofMillis(-1), scheduler, (interestId, calls) -> {
+        });
+    }
+}
@@ -0,0 +1,169 @@
+package com.bt.openlink;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.bt.openlink.type.Call;
+import com.bt.openlink.type.CallState;
+import com.bt.openlink.type.Changed;
+import com.bt.openlink.type.InterestId;
+import com.bt.openlink.type.ProfileId;
+
+@SuppressWarnings("ConstantConditions")
+public class CallStatusRouterTest {
+
+    private static final InterestId ANOTHER_INTEREST_ID = InterestId.from("another-interest-id").get();
+    private static final ProfileId ANOTHER_PROFILE_ID = ProfileId.from("another-profile-id").get();
+    private static final Call CALL_ON_ANOTHER_INTEREST = CoreFixtures.CALL_INCOMING_ORIGINATED.toBuilder()
+            .setInterestId(ANOTHER_INTEREST_ID)
+            .setProfileId(ANOTHER_PROFILE_ID)
+            .build();
+
+    private final CallStatusRouter router = new CallStatusRouter();
+
+    @Test
+    public void willRouteACallToTheListenersOfItsInterest() {
+
+        final List<Call> routedCalls = new ArrayList<>();
+        final List<Call> otherRoutedCalls = new ArrayList<>();
+        router.addListener(CallStatusRouter.Filter.forInterest(CoreFixtures.INTEREST_ID), routedCalls::add);
+        router.addListener(CallStatusRouter.Filter.forInterest(ANOTHER_INTEREST_ID), otherRoutedCalls::add);
+
+        router.route(CoreFixtures.CALL_INCOMING_ORIGINATED);
+
+        assertThat(routedCalls, contains(CoreFixtures.CALL_INCOMING_ORIGINATED));
+        assertThat(otherRoutedCalls, is(empty()));
+    }
+
+    @Test
+    public void willRouteACallToTheListenersOfItsProfile() {
+
+        final List<Call> routedCalls = new ArrayList<>();
+        router.addListener(CallStatusRouter.Filter.forProfile(CoreFixtures.PROFILE_ID), routedCalls::add);
+
+        router.route(Arrays.asList(CoreFixtures.CALL_INCOMING_ORIGINATED, CALL_ON_ANOTHER_INTEREST));
+
+        assertThat(routedCalls, contains(CoreFixtures.CALL_INCOMING_ORIGINATED));
+    }
+
+    @Test
+    public void willRouteACallToTheListenersOfItsStateOrChangedReason() {
+
+        final Call establishedCall = CoreFixtures.CALL_INCOMING_ORIGINATED.withState(CallState.CALL_ESTABLISHED).withChanged(Changed.PARTICIPANT);
+        final List<Call> stateRoutedCalls = new ArrayList<>();
+        final List<Call> changedRoutedCalls = new ArrayList<>();
+        router.addListener(CallStatusRouter.Filter.Builder.start().addState(CallState.CALL_ESTABLISHED).addState(CallState.CALL_CONFERENCED).build(), stateRoutedCalls::add);
+        router.addListener(CallStatusRouter.Filter.Builder.start().addChanged(Changed.STATE).build(), changedRoutedCalls::add);
+
+        router.route(Arrays.asList(CoreFixtures.CALL_INCOMING_ORIGINATED, establishedCall));
+
+        assertThat(stateRoutedCalls, contains(establishedCall));
+        assertThat(changedRoutedCalls, contains(CoreFixtures.CALL_INCOMING_ORIGINATED));
+    }
+
+    @Test
+    public void willOnlyRouteACallThatMatchesEveryCriterion() {
+
+        final Call establishedCall = CoreFixtures.CALL_INCOMING_ORIGINATED.withState(CallState.CALL_ESTABLISHED);
+        final List<Call> routedCalls = new ArrayList<>();
+        router.addListener(CallStatusRouter.Filter.Builder.start()
+                .setInterestId(CoreFixtures.INTEREST_ID)
+                .addState(CallState.CALL_ESTABLISHED)
+                .build(), routedCalls::add);
+
+        router.route(Arrays.asList(CoreFixtures.CALL_INCOMING_ORIGINATED, establishedCall, CALL_ON_ANOTHER_INTEREST.withState(CallState.CALL_ESTABLISHED)));
+
+        assertThat(routedCalls, contains(establishedCall));
+    }
+
+    @Test
+    public void willRouteEveryCallToAListenerWithoutAFilter() {
+
+        final List<Call> routedCalls = new ArrayList<>();
+        router.addListener(CallStatusRouter.Filter.all(), routedCalls::add);
+
+        router.route(Arrays.asList(CoreFixtures.CALL_INCOMING_ORIGINATED, CALL_ON_ANOTHER_INTEREST));
+
+        assertThat(routedCalls, contains(CoreFixtures.CALL_INCOMING_ORIGINATED, CALL_ON_ANOTHER_INTEREST));
+    }
+
+    @Test
+    public void willCallAListenerOnItsExecutor() {
+
+        final List<Runnable> tasks = new ArrayList<>();
+        final List<Call> routedCalls = new ArrayList<>();
+        router.addListener(CallStatusRouter.Filter.forInterest(CoreFixtures.INTEREST_ID), tasks::add, routedCalls::add);
+
+        router.route(CoreFixtures.CALL_INCOMING_ORIGINATED);
+
+        assertThat(routedCalls, is(empty()));
+        assertThat(tasks.size(), is(1));
+
+        tasks.get(0).run();
+
+        assertThat(routedCalls, contains(CoreFixtures.CALL_INCOMING_ORIGINATED));
+    }
+
+    @Test
+    public void willNotRouteACallToARemovedListener() {
+
+        final List<Runnable> tasks = new ArrayList<>();
+        final List<Call> routedCalls = new ArrayList<>();
+        final CallStatusRouter.Registration registration = router.addListener(CallStatusRouter.Filter.Builder.start().addState(CallState.CALL_ORIGINATED).addState(CallState.CALL_DELIVERED).build(), tasks::add, routedCalls::add);
+        router.route(CoreFixtures.CALL_INCOMING_ORIGINATED);
+
+        registration.remove();
+        registration.remove();
+        router.route(CoreFixtures.CALL_INCOMING_ORIGINATED);
+        tasks.forEach(Runnable::run);
+
+        assertThat(tasks.size(), is(1));
+        assertThat(routedCalls, is(empty()));
+        assertThat(registration.isRegistered(), is(false));
+        assertThat(router.getListenerCount(), is(0));
+    }
+
+    @Test
+    public void willNotRouteACallToAListenerRemovedDuringTheRoute() {
+
+        final List<Call> routedCalls = new ArrayList<>();
+        final List<CallStatusRouter.Registration> registrations = new ArrayList<>();
+        // Whichever listener is called first removes the other
+        registrations.add(router.addListener(CallStatusRouter.Filter.all(), call -> {
+            routedCalls.add(call);
+            registrations.get(1).remove();
+        }));
+        registrations.add(router.addListener(CallStatusRouter.Filter.all(), call -> {
+            routedCalls.add(call);
+            registrations.get(0).remove();
+        }));
+
+        router.route(CoreFixtures.CALL_INCOMING_ORIGINATED);
+
+        assertThat(routedCalls, contains(CoreFixtures.CALL_INCOMING_ORIGINATED));
+        assertThat(router.getListenerCount(), is(1));
+    }
+
+    @Test
+    public void willCountTheListeners() {
+
+        router.addListener(CallStatusRouter.Filter.forInterest(CoreFixtures.INTEREST_ID), call -> {
+        });
+        final CallStatusRouter.Registration registration = router.addListener(CallStatusRouter.Filter.Builder.start().addChanged(Changed.STATE).addChanged(Changed.CALLER).build(), call -> {
+        });
+
+        assertThat(router.getListenerCount(), is(2));
+
+        registration.remove();
+
+        assertThat(router.getListenerCount(), is(1));
+    }
+}
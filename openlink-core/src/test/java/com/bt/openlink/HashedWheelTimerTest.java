@@ -0,0 +1,82 @@
+package com.bt.openlink;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class HashedWheelTimerTest {
+
+    @Rule public final ExpectedException expectedException = ExpectedException.none();
+
+    // A small wheel, so that longer timeouts take several rounds
+    private final HashedWheelTimer timer = new HashedWheelTimer(5, TimeUnit.MILLISECONDS, 4, Thread::new);
+
+    @After
+    public void tearDown() {
+        timer.stop();
+    }
+
+    @Test
+    public void willRunATaskOnceItsDelayHasPassed() throws Exception {
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        final long startNanos = System.nanoTime();
+
+        final HashedWheelTimer.Timeout timeout = timer.newTimeout(latch::countDown, 100, TimeUnit.MILLISECONDS);
+
+        assertThat(latch.await(5, TimeUnit.SECONDS), is(true));
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos), is(greaterThanOrEqualTo(100L)));
+        assertThat(timeout.isExpired(), is(true));
+    }
+
+    @Test
+    public void willNotRunACancelledTask() throws Exception {
+
+        final AtomicBoolean ran = new AtomicBoolean();
+        final CountDownLatch latch = new CountDownLatch(1);
+
+        final HashedWheelTimer.Timeout timeout = timer.newTimeout(() -> ran.set(true), 20, TimeUnit.MILLISECONDS);
+        assertThat(timeout.cancel(), is(true));
+        timer.newTimeout(latch::countDown, 50, TimeUnit.MILLISECONDS);
+
+        assertThat(latch.await(5, TimeUnit.SECONDS), is(true));
+        assertThat(ran.get(), is(false));
+        assertThat(timeout.isCancelled(), is(true));
+        assertThat(timeout.cancel(), is(false));
+    }
+
+    @Test
+    public void willRunTasksInOrderOfTheirDelay() throws Exception {
+
+        final StringBuffer order = new StringBuffer();
+        final CountDownLatch latch = new CountDownLatch(3);
+
+        timer.newTimeout(() -> { order.append('c'); latch.countDown(); }, 90, TimeUnit.MILLISECONDS);
+        timer.newTimeout(() -> { order.append('a'); latch.countDown(); }, 0, TimeUnit.MILLISECONDS);
+        timer.newTimeout(() -> { order.append('b'); latch.countDown(); }, 40, TimeUnit.MILLISECONDS);
+
+        assertThat(latch.await(5, TimeUnit.SECONDS), is(true));
+        assertThat(order.toString(), is("abc"));
+    }
+
+    @Test
+    public void cannotScheduleATaskOnceStopped() {
+
+        timer.stop();
+
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage("The timer has been stopped");
+
+        timer.newTimeout(() -> {
+        }, 1, TimeUnit.MILLISECONDS);
+    }
+}
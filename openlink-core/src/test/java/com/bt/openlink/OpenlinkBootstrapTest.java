@@ -0,0 +1,171 @@
+package com.bt.openlink;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import javax.annotation.Nonnull;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.bt.openlink.type.Feature;
+import com.bt.openlink.type.Interest;
+import com.bt.openlink.type.InterestId;
+import com.bt.openlink.type.Profile;
+import com.bt.openlink.type.ProfileId;
+
+@SuppressWarnings("ConstantConditions")
+public class OpenlinkBootstrapTest {
+
+    private static final InterestId INTEREST_ID_2 = InterestId.from("test-interest-id-2").get();
+    private static final Interest INTEREST_2 = Interest.Builder.start()
+            .setType(CoreFixtures.INTEREST_TYPE)
+            .setDefault(true)
+            .setId(INTEREST_ID_2)
+            .setLabel("another test interest label")
+            .build();
+
+    @Rule public final ExpectedException expectedException = ExpectedException.none();
+
+    /**
+     * Records each request made, leaving the test to complete it.
+     */
+    private static final class TestRequests implements OpenlinkBootstrap.Requests {
+
+        private final List<String> requests = new ArrayList<>();
+        private final List<CompletableFuture<?>> results = new ArrayList<>();
+
+        private <T> CompletableFuture<T> request(final String request) {
+            final CompletableFuture<T> result = new CompletableFuture<>();
+            requests.add(request);
+            results.add(result);
+            return result;
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T> void complete(final String request, final T value) {
+            ((CompletableFuture<T>) results.get(requests.indexOf(request))).complete(value);
+        }
+
+        private void fail(final String request, final Throwable throwable) {
+            results.get(requests.indexOf(request)).completeExceptionally(throwable);
+        }
+
+        @Nonnull
+        @Override
+        public CompletableFuture<List<Profile>> getProfiles() {
+            return request("profiles");
+        }
+
+        @Nonnull
+        @Override
+        public CompletableFuture<List<Interest>> getInterests(@Nonnull final ProfileId profileId) {
+            return request("interests " + profileId);
+        }
+
+        @Nonnull
+        @Override
+        public CompletableFuture<List<Feature>> getFeatures(@Nonnull final ProfileId profileId) {
+            return request("features " + profileId);
+        }
+
+        @Nonnull
+        @Override
+        public CompletableFuture<?> subscribe(@Nonnull final InterestId interestId) {
+            return request("subscribe " + interestId);
+        }
+    }
+
+    private final TestRequests requests = new TestRequests();
+
+    @Test
+    public void willFetchEverythingAndSubscribe() {
+
+        final CompletableFuture<OpenlinkSnapshot> future = new OpenlinkBootstrap(requests, 10).start();
+        requests.complete("profiles", Collections.singletonList(CoreFixtures.PROFILE));
+        requests.complete("interests " + CoreFixtures.PROFILE_ID, Arrays.asList(CoreFixtures.INTEREST, INTEREST_2));
+        requests.complete("features " + CoreFixtures.PROFILE_ID, Collections.singletonList(CoreFixtures.FEATURE));
+        requests.complete("subscribe " + CoreFixtures.INTEREST_ID, null);
+        requests.complete("subscribe " + INTEREST_ID_2, null);
+
+        final OpenlinkSnapshot snapshot = future.join();
+        assertThat(snapshot.isComplete(), is(true));
+        assertThat(snapshot.getProfiles(), contains(CoreFixtures.PROFILE));
+        assertThat(snapshot.getInterests(CoreFixtures.PROFILE_ID), contains(CoreFixtures.INTEREST, INTEREST_2));
+        assertThat(snapshot.getFeatures(CoreFixtures.PROFILE_ID), contains(CoreFixtures.FEATURE));
+        assertThat(snapshot.getSubscribedInterests(), contains(CoreFixtures.INTEREST_ID, INTEREST_ID_2));
+    }
+
+    @Test
+    public void willSendEachRequestAsSoonAsTheResultItDependsOnArrives() {
+
+        new OpenlinkBootstrap(requests, 10).start();
+        requests.complete("profiles", Arrays.asList(CoreFixtures.PROFILE, GetProfilesFixtures.PROFILE_2));
+
+        assertThat(requests.requests, contains("profiles",
+                "interests " + CoreFixtures.PROFILE_ID, "features " + CoreFixtures.PROFILE_ID,
+                "interests " + GetProfilesFixtures.PROFILE_ID_2, "features " + GetProfilesFixtures.PROFILE_ID_2));
+
+        requests.complete("interests " + GetProfilesFixtures.PROFILE_ID_2, Collections.singletonList(INTEREST_2));
+
+        assertThat(requests.requests.get(5), is("subscribe " + INTEREST_ID_2));
+    }
+
+    @Test
+    public void willLimitTheNumberOfRequestsInFlight() {
+
+        new OpenlinkBootstrap(requests, 2).start();
+        requests.complete("profiles", Arrays.asList(CoreFixtures.PROFILE, GetProfilesFixtures.PROFILE_2));
+
+        assertThat(requests.requests.size(), is(3));
+
+        requests.complete("features " + CoreFixtures.PROFILE_ID, Collections.singletonList(CoreFixtures.FEATURE));
+
+        assertThat(requests.requests.size(), is(4));
+        assertThat(requests.requests.get(3), is("interests " + GetProfilesFixtures.PROFILE_ID_2));
+    }
+
+    @Test
+    public void willRecordTheRequestsThatFailed() {
+
+        final CompletableFuture<OpenlinkSnapshot> future = new OpenlinkBootstrap(requests, 10).start();
+        requests.complete("profiles", Arrays.asList(CoreFixtures.PROFILE, GetProfilesFixtures.PROFILE_2));
+        requests.complete("interests " + CoreFixtures.PROFILE_ID, Arrays.asList(CoreFixtures.INTEREST, INTEREST_2));
+        requests.complete("features " + CoreFixtures.PROFILE_ID, Collections.singletonList(CoreFixtures.FEATURE));
+        final StanzaErrorException interestsError = new StanzaErrorException(null, "item-not-found", null);
+        requests.fail("interests " + GetProfilesFixtures.PROFILE_ID_2, interestsError);
+        requests.complete("features " + GetProfilesFixtures.PROFILE_ID_2, Collections.emptyList());
+        requests.complete("subscribe " + CoreFixtures.INTEREST_ID, null);
+        final StanzaErrorException subscriptionError = new StanzaErrorException(null, "not-authorized", null);
+        requests.fail("subscribe " + INTEREST_ID_2, subscriptionError);
+
+        final OpenlinkSnapshot snapshot = future.join();
+        assertThat(snapshot.isComplete(), is(false));
+        assertThat(snapshot.getProfileFailures().get(GetProfilesFixtures.PROFILE_ID_2), is(interestsError));
+        assertThat(snapshot.getSubscriptionFailures().get(INTEREST_ID_2), is(subscriptionError));
+        assertThat(snapshot.getSubscribedInterests(), contains(CoreFixtures.INTEREST_ID));
+        assertThat(snapshot.getInterests(), containsInAnyOrder(CoreFixtures.INTEREST, INTEREST_2));
+    }
+
+    @Test
+    public void willFailIfTheProfilesCannotBeFetched() throws Exception {
+
+        final CompletableFuture<OpenlinkSnapshot> future = new OpenlinkBootstrap(requests, 10).start();
+        requests.fail("profiles", new StanzaErrorException(null, "service-unavailable", null));
+
+        expectedException.expect(ExecutionException.class);
+        expectedException.expectCause(instanceOf(StanzaErrorException.class));
+        future.get();
+    }
+}
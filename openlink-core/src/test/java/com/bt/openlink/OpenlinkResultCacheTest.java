@@ -0,0 +1,182 @@
+package com.bt.openlink;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.bt.openlink.type.DeviceStatus;
+import com.bt.openlink.type.Interest;
+import com.bt.openlink.type.Profile;
+
+@SuppressWarnings("ConstantConditions")
+public class OpenlinkResultCacheTest {
+
+    private static final String USER = "user@example.com";
+
+    @Rule public final ExpectedException expectedException = ExpectedException.none();
+
+    private long now = 0;
+    private final OpenlinkResultCache<String> cache = new OpenlinkResultCache<>(Duration.ofMinutes(5), 100, () -> now);
+    private final List<CompletableFuture<List<Interest>>> interestLoads = new ArrayList<>();
+
+    private CompletableFuture<List<Interest>> loadInterests() {
+        final CompletableFuture<List<Interest>> load = new CompletableFuture<>();
+        interestLoads.add(load);
+        return load;
+    }
+
+    private CompletableFuture<List<Interest>> getInterests() {
+        return cache.getInterests(USER, CoreFixtures.PROFILE_ID, this::loadInterests);
+    }
+
+    @Test
+    public void willShareASingleLoadBetweenConcurrentRequests() {
+
+        final CompletableFuture<List<Interest>> first = getInterests();
+        final CompletableFuture<List<Interest>> second = getInterests();
+        interestLoads.get(0).complete(Collections.singletonList(CoreFixtures.INTEREST));
+
+        assertThat(interestLoads.size(), is(1));
+        assertThat(first.join(), contains(CoreFixtures.INTEREST));
+        assertThat(second.join(), contains(CoreFixtures.INTEREST));
+        assertThat(cache.getMissCount(), is(1L));
+        assertThat(cache.getHitCount(), is(1L));
+    }
+
+    @Test
+    public void willAnswerFromTheCacheUntilTheEntryExpires() {
+
+        getInterests();
+        interestLoads.get(0).complete(Collections.singletonList(CoreFixtures.INTEREST));
+
+        now += Duration.ofMinutes(5).toNanos() - 1;
+        assertThat(getInterests().join(), contains(CoreFixtures.INTEREST));
+        assertThat(interestLoads.size(), is(1));
+
+        now += 1;
+        getInterests();
+        assertThat(interestLoads.size(), is(2));
+    }
+
+    @Test
+    public void willNotCacheAFailedLoad() {
+
+        final CompletableFuture<List<Interest>> failed = getInterests();
+        interestLoads.get(0).completeExceptionally(new StanzaErrorException(null, "item-not-found", null));
+
+        getInterests();
+
+        assertThat(failed.isCompletedExceptionally(), is(true));
+        assertThat(interestLoads.size(), is(2));
+    }
+
+    @Test
+    public void willNotLetACallerCancelTheSharedLoad() {
+
+        getInterests().cancel(false);
+        final CompletableFuture<List<Interest>> second = getInterests();
+        interestLoads.get(0).complete(Collections.singletonList(CoreFixtures.INTEREST));
+
+        assertThat(second.join(), contains(CoreFixtures.INTEREST));
+    }
+
+    @Test
+    public void willInvalidateAProfileWhenItsDeviceStatusChanges() {
+
+        getInterests();
+        interestLoads.get(0).complete(Collections.singletonList(CoreFixtures.INTEREST));
+        cache.getProfiles(USER, () -> CompletableFuture.completedFuture(Collections.singletonList(CoreFixtures.PROFILE)));
+        cache.getProfiles("another-user@example.com", () -> CompletableFuture.completedFuture(Collections.singletonList(GetProfilesFixtures.PROFILE_2)));
+        assertThat(cache.size(), is(3));
+
+        cache.handleDeviceStatus(DeviceStatus.Builder.start()
+                .setProfileId(CoreFixtures.PROFILE_ID)
+                .setOnline(false)
+                .build());
+
+        assertThat(cache.size(), is(1));
+        getInterests();
+        assertThat(interestLoads.size(), is(2));
+        final List<Profile> profiles = cache.getProfiles("another-user@example.com", () -> {
+            throw new AssertionError("The profiles should have been cached");
+        }).join();
+        assertThat(profiles, contains(GetProfilesFixtures.PROFILE_2));
+    }
+
+    @Test
+    public void willOnlyInvalidateAProfileWhenItGoesOnlineOrOffline() {
+
+        final DeviceStatus offline = DeviceStatus.Builder.start().setProfileId(CoreFixtures.PROFILE_ID).setOnline(false).build();
+        final DeviceStatus online = DeviceStatus.Builder.start().setProfileId(CoreFixtures.PROFILE_ID).setOnline(true).build();
+        cache.handleDeviceStatus(offline);
+        getInterests();
+        interestLoads.get(0).complete(Collections.singletonList(CoreFixtures.INTEREST));
+
+        cache.handleDeviceStatus(offline);
+        cache.handleDeviceStatus(DeviceStatus.Builder.start().setProfileId(CoreFixtures.PROFILE_ID).build());
+
+        assertThat(cache.size(), is(1));
+
+        cache.handleDeviceStatus(online);
+
+        assertThat(cache.size(), is(0));
+    }
+
+    @Test
+    public void willOnlyRememberTheOnlineStatusesOfTheMostRecentProfiles() {
+
+        final OpenlinkResultCache<String> smallCache = new OpenlinkResultCache<>(Duration.ofMinutes(5), 1, () -> now);
+        final DeviceStatus online = DeviceStatus.Builder.start().setProfileId(CoreFixtures.PROFILE_ID).setOnline(true).build();
+        smallCache.handleDeviceStatus(online);
+        smallCache.handleDeviceStatus(DeviceStatus.Builder.start().setProfileId(GetProfilesFixtures.PROFILE_ID_2).setOnline(true).build());
+        smallCache.getInterests(USER, CoreFixtures.PROFILE_ID, this::loadInterests);
+
+        smallCache.handleDeviceStatus(online);
+
+        assertThat(smallCache.size(), is(0));
+    }
+
+    @Test
+    public void willForgetTheOnlineStatusesWhenCleared() {
+
+        final DeviceStatus online = DeviceStatus.Builder.start().setProfileId(CoreFixtures.PROFILE_ID).setOnline(true).build();
+        cache.handleDeviceStatus(online);
+        cache.clear();
+        getInterests();
+
+        cache.handleDeviceStatus(online);
+
+        assertThat(cache.size(), is(0));
+    }
+
+    @Test
+    public void willEvictTheLeastRecentlyUsedEntry() {
+
+        final OpenlinkResultCache<String> smallCache = new OpenlinkResultCache<>(Duration.ofMinutes(5), 1, () -> now);
+        smallCache.getInterests(USER, CoreFixtures.PROFILE_ID, this::loadInterests);
+        smallCache.getInterests(USER, GetProfilesFixtures.PROFILE_ID_2, this::loadInterests);
+        smallCache.getInterests(USER, CoreFixtures.PROFILE_ID, this::loadInterests);
+
+        assertThat(smallCache.size(), is(1));
+        assertThat(interestLoads.size(), is(3));
+    }
+
+    @Test
+    public void cannotHaveAZeroTimeToLive() {
+
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("The time to live must be positive");
+
+        new OpenlinkResultCache<String>(Duration.ZERO, 100);
+    }
+}
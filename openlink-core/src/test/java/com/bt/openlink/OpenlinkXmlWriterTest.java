@@ -0,0 +1,146 @@
+package com.bt.openlink;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.bt.openlink.type.DeviceStatus;
+import com.bt.openlink.type.Interest;
+import com.bt.openlink.type.InterestId;
+import com.bt.openlink.type.InterestType;
+import com.bt.openlink.type.Site;
+
+public class OpenlinkXmlWriterTest {
+
+    @Rule public final ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void willWriteNestedElements() throws Exception {
+
+        final StringWriter out = new StringWriter();
+        new OpenlinkXmlWriter(out)
+                .startElement("a", "urn:test")
+                .attribute("b", "c")
+                .attribute("d", null)
+                .startElement("e")
+                .endElement("e")
+                .textElement("f", "g")
+                .textElement("h", null)
+                .endElement("a");
+
+        assertThat(out.toString(), is("<a xmlns=\"urn:test\" b=\"c\"><e/><f>g</f><h/></a>"));
+    }
+
+    @Test
+    public void willEscapeTextAndAttributes() {
+
+        final String xml = OpenlinkXmlWriter.toXML(writer -> writer
+                .startElement("a")
+                .attribute("b", "<\"quoted\" & \n>")
+                .text("<'text' & \"more\">")
+                .endElement("a"));
+
+        assertThat(xml, is("<a b=\"&lt;&quot;quoted&quot; &amp; &#10;&gt;\">&lt;'text' &amp; \"more\"&gt;</a>"));
+    }
+
+    @Test
+    public void willWriteEncodedXmlAsIs() {
+
+        final String xml = OpenlinkXmlWriter.toXML(writer -> writer
+                .startElement("a")
+                .encodedXml("<b>&amp;</b>")
+                .endElement("a")
+                .startElement("c")
+                .encodedXml("")
+                .endElement("c"));
+
+        assertThat(xml, is("<a><b>&amp;</b></a><c></c>"));
+    }
+
+    @Test
+    public void cannotWriteAnAttributeAfterContent() throws Exception {
+
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage("An attribute can only be written immediately after the start of an element");
+
+        new OpenlinkXmlWriter(new StringBuilder())
+                .startElement("a")
+                .text("b")
+                .attribute("c", "d");
+    }
+
+    @Test
+    public void willWriteASite() {
+
+        final Site site = Site.Builder.start()
+                .setName("test & site")
+                .setType(Site.Type.BTSM)
+                .setId(42)
+                .setDefault(true)
+                .build();
+
+        assertThat(OpenlinkXmlWriter.toXML(writer -> writer.writeSite(site)), is("<site id=\"42\" default=\"true\" type=\"BTSM\">test &amp; site</site>"));
+    }
+
+    @Test
+    public void willWriteADeviceStatus() {
+
+        final DeviceStatus deviceStatus = DeviceStatus.Builder.start()
+                .setOnline(true)
+                .setProfileId(CoreFixtures.PROFILE_ID)
+                .build();
+
+        assertThat(OpenlinkXmlWriter.toXML(writer -> writer.writeDeviceStatus(deviceStatus)),
+                is("<devicestatus xmlns=\"http://xmpp.org/protocol/openlink:01:00:00#device-status\"><profile online=\"true\">" + CoreFixtures.PROFILE_ID + "</profile></devicestatus>"));
+    }
+
+    @Test
+    public void willWriteInterests() {
+
+        final Interest interest = Interest.Builder.start()
+                .setId(InterestId.from("test-interest-id").get())
+                .setType(InterestType.from("DirectoryNumber").get())
+                .setLabel("test-label")
+                .setDefault(true)
+                .build();
+
+        assertThat(OpenlinkXmlWriter.toXML(writer -> writer.writeInterests(Collections.singletonList(interest))),
+                is("<interests xmlns=\"http://xmpp.org/protocol/openlink:01:00:00/interests\">" +
+                        "<interest id=\"test-interest-id\" type=\"DirectoryNumber\" label=\"test-label\" default=\"true\"/>" +
+                        "</interests>"));
+    }
+
+    @Test
+    public void willWriteAnEmptyCallStatus() {
+
+        assertThat(OpenlinkXmlWriter.toXML(writer -> writer.writeCallStatus(null, Collections.emptyList())),
+                is("<callstatus xmlns=\"http://xmpp.org/protocol/openlink:01:00:00#call-status\"/>"));
+    }
+
+    @Test
+    public void willReuseTheScratchBufferForNestedWrites() {
+
+        final String xml = OpenlinkXmlWriter.toXML(writer -> writer.textElement("a", OpenlinkXmlWriter.toXML(nested -> nested.textElement("b", "c"))));
+
+        assertThat(xml, is("<a>&lt;b&gt;c&lt;/b&gt;</a>"));
+        assertThat(OpenlinkXmlWriter.toXML(writer -> writer.textElement("d", "e")), is("<d>e</d>"));
+    }
+
+    @Test
+    public void willEncodeAsUtf8() {
+
+        final ByteBuffer buffer = OpenlinkXmlWriter.toByteBuffer(writer -> writer.textElement("a", "\u00e9"));
+
+        final byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        assertThat(new String(bytes, StandardCharsets.UTF_8), is("<a>\u00e9</a>"));
+    }
+}
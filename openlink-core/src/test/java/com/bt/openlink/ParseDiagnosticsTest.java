@@ -0,0 +1,119 @@
+package com.bt.openlink;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class ParseDiagnosticsTest {
+
+    @Rule public final ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void willFormatTheErrorsWhenRead() {
+
+        final ParseDiagnostics diagnostics = ParseDiagnostics.create();
+        final StringBuilder value = new StringBuilder("first");
+
+        ParseDiagnostics.report(diagnostics, "Invalid %s; bad value '%s'", "call status", value);
+        diagnostics.add("Invalid stanza; missing 'to' attribute is mandatory");
+        value.append("-read");
+
+        assertThat(diagnostics, contains("Invalid call status; bad value 'first-read'", "Invalid stanza; missing 'to' attribute is mandatory"));
+    }
+
+    @Test
+    public void willFormatTheErrorsImmediatelyForAnyOtherList() {
+
+        final List<String> errors = new ArrayList<>();
+
+        ParseDiagnostics.report(errors, "Invalid %s", "call status");
+
+        assertThat(errors, contains("Invalid call status"));
+    }
+
+    @Test
+    public void willCopyUnformattedErrors() {
+
+        final ParseDiagnostics payloadErrors = ParseDiagnostics.create();
+        payloadErrors.report("Invalid %s", "call status");
+        final ParseDiagnostics errors = ParseDiagnostics.create();
+        errors.add("Invalid stanza");
+
+        errors.addAll(payloadErrors);
+
+        assertThat(errors, contains("Invalid stanza", "Invalid call status"));
+    }
+
+    @Test
+    public void willShareTheDiagnosticsOfAValidStanza() {
+
+        assertThat(ParseDiagnostics.copyOf(null), is(sameInstance(ParseDiagnostics.none())));
+        assertThat(ParseDiagnostics.copyOf(ParseDiagnostics.create()), is(sameInstance(ParseDiagnostics.none())));
+        assertThat(ParseDiagnostics.none(), is(empty()));
+    }
+
+    @Test
+    public void willNotModifyCopiedDiagnostics() {
+
+        final ParseDiagnostics diagnostics = ParseDiagnostics.create();
+        diagnostics.add("Invalid stanza");
+        final List<String> copy = ParseDiagnostics.copyOf(diagnostics);
+
+        expectedException.expect(UnsupportedOperationException.class);
+
+        copy.add("Another error");
+    }
+
+    @Test
+    public void willFailOnTheFirstErrorIfFailingFast() {
+
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Invalid call status");
+
+        ParseDiagnostics.withMode(ParseDiagnostics.Mode.FAIL_FAST, () -> {
+            ParseDiagnostics.report(ParseDiagnostics.create(), "Invalid %s", "call status");
+            return null;
+        });
+    }
+
+    @Test
+    public void willDiscardErrorsIfSkipping() {
+
+        final ParseDiagnostics diagnostics = ParseDiagnostics.withMode(ParseDiagnostics.Mode.SKIP, ParseDiagnostics::create);
+        diagnostics.report("Invalid %s", "call status");
+        diagnostics.add("Invalid stanza");
+
+        assertThat(diagnostics, is(empty()));
+        assertThat(ParseDiagnostics.getCurrentMode(), is(ParseDiagnostics.Mode.COLLECT));
+    }
+
+    @Test
+    public void willShareTheDiagnosticsOfEveryParseThatSkipsErrors() {
+
+        final ParseDiagnostics diagnostics = ParseDiagnostics.create(ParseDiagnostics.Mode.SKIP);
+        diagnostics.report("Invalid %s", "call status");
+
+        assertThat(ParseDiagnostics.create(ParseDiagnostics.Mode.SKIP), is(sameInstance(diagnostics)));
+        assertThat(ParseDiagnostics.copyOf(diagnostics), is(sameInstance(ParseDiagnostics.none())));
+        assertThat(ParseDiagnostics.create(ParseDiagnostics.Mode.COLLECT), is(not(sameInstance(ParseDiagnostics.create(ParseDiagnostics.Mode.COLLECT)))));
+    }
+
+    @Test
+    public void willOnlyValidateIfTheErrorsAreKept() {
+
+        assertThat(ParseDiagnostics.isValidating(new ArrayList<>()), is(true));
+        assertThat(ParseDiagnostics.isValidating(ParseDiagnostics.create(ParseDiagnostics.Mode.COLLECT)), is(true));
+        assertThat(ParseDiagnostics.isValidating(ParseDiagnostics.create(ParseDiagnostics.Mode.FAIL_FAST)), is(true));
+        assertThat(ParseDiagnostics.isValidating(ParseDiagnostics.create(ParseDiagnostics.Mode.SKIP)), is(false));
+    }
+}
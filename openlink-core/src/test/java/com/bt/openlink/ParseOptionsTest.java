@@ -0,0 +1,72 @@
+package com.bt.openlink;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class ParseOptionsTest {
+
+    @Rule public final ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void willValidateEveryStanzaByDefault() {
+
+        final ParseOptions options = ParseOptions.defaults();
+
+        assertThat(options.isTrusted(CoreFixtures.FROM_JID_STRING), is(false));
+        assertThat(options.isTrusted(null), is(false));
+        assertThat(options.getMode(CoreFixtures.FROM_JID_STRING), is(ParseDiagnostics.Mode.COLLECT));
+    }
+
+    @Test
+    public void willTrustAConfiguredSource() {
+
+        final ParseOptions options = ParseOptions.Builder.start()
+                .addTrustedSource(CoreFixtures.USER_BARE_JID_STRING)
+                .build();
+
+        assertThat(options.getTrustLevel(), is(ParseOptions.TrustLevel.TRUSTED));
+        assertThat(options.isTrusted(CoreFixtures.USER_BARE_JID_STRING), is(true));
+        assertThat(options.isTrusted(CoreFixtures.USER_FULL_JID_STRING), is(true));
+        assertThat(options.isTrusted(CoreFixtures.FROM_JID_STRING), is(false));
+        assertThat(options.getMode(CoreFixtures.USER_FULL_JID_STRING), is(ParseDiagnostics.Mode.SKIP));
+        assertThat(options.getMode(CoreFixtures.FROM_JID_STRING), is(ParseDiagnostics.Mode.COLLECT));
+    }
+
+    @Test
+    public void willOnlyTrustTheResourceOfAConfiguredFullJid() {
+
+        final ParseOptions options = ParseOptions.Builder.start()
+                .addTrustedSource(CoreFixtures.USER_FULL_JID_STRING)
+                .build();
+
+        assertThat(options.isTrusted(CoreFixtures.USER_FULL_JID_STRING), is(true));
+        assertThat(options.isTrusted(CoreFixtures.USER_BARE_JID_STRING), is(false));
+    }
+
+    @Test
+    public void willParseATrustedStanzaAtTheTrustLevel() {
+
+        final ParseOptions options = ParseOptions.Builder.start()
+                .setTrustLevel(ParseOptions.TrustLevel.FAIL_FAST)
+                .setAllSourcesTrusted(true)
+                .build();
+
+        final ParseDiagnostics.Mode mode = options.parse(null, ParseDiagnostics::getCurrentMode);
+
+        assertThat(mode, is(ParseDiagnostics.Mode.FAIL_FAST));
+        assertThat(ParseDiagnostics.getCurrentMode(), is(ParseDiagnostics.Mode.COLLECT));
+    }
+
+    @Test
+    public void willNotBuildWithoutATrustLevel() {
+
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage("The trust level has not been set");
+
+        ParseOptions.Builder.start().setTrustLevel(null).build();
+    }
+}
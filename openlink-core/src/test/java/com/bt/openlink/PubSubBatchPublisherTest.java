@@ -0,0 +1,139 @@
+package com.bt.openlink;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.bt.openlink.type.InterestId;
+
+@SuppressWarnings("ConstantConditions")
+public class PubSubBatchPublisherTest {
+
+    private static final InterestId INTEREST_ID_1 = InterestId.from("interest-1").get();
+    private static final InterestId INTEREST_ID_2 = InterestId.from("interest-2").get();
+    private static final InterestId INTEREST_ID_3 = InterestId.from("interest-3").get();
+
+    @Rule public final ExpectedException expectedException = ExpectedException.none();
+
+    private final List<PubSubPublication> sentPublications = new ArrayList<>();
+    private final List<CompletableFuture<String>> pendingResults = new ArrayList<>();
+    private final PubSubBatchPublisher batchPublisher = new PubSubBatchPublisher(2, publication -> {
+        sentPublications.add(publication);
+        final CompletableFuture<String> result = new CompletableFuture<>();
+        pendingResults.add(result);
+        return result;
+    });
+
+    private static PubSubPublication publication(final InterestId interestId) {
+        return PubSubPublication.ofCalls(interestId, Collections.singletonList(CoreFixtures.CALL_INCOMING_ORIGINATED));
+    }
+
+    @Test
+    public void willPipelineUpToTheMaximumInFlight() {
+
+        final CompletableFuture<PubSubBatchResult> future = batchPublisher.publish(Arrays.asList(publication(INTEREST_ID_1), publication(INTEREST_ID_2), publication(INTEREST_ID_3)));
+
+        assertThat(sentPublications.size(), is(2));
+        assertThat(batchPublisher.getInFlightCount(), is(2));
+        assertThat(batchPublisher.getQueuedCount(), is(1));
+
+        pendingResults.get(1).complete("result");
+
+        assertThat(sentPublications.size(), is(3));
+        assertThat(future.isDone(), is(false));
+
+        pendingResults.get(0).complete("result");
+        pendingResults.get(2).complete("result");
+
+        final PubSubBatchResult result = future.join();
+        assertThat(result.isSuccessful(), is(true));
+        assertThat(result.getPublishedNodes(), contains(INTEREST_ID_1.toPubSubNodeId(), INTEREST_ID_2.toPubSubNodeId(), INTEREST_ID_3.toPubSubNodeId()));
+        assertThat(batchPublisher.getInFlightCount(), is(0));
+    }
+
+    @Test
+    public void willReportTheFailureOfEachNode() {
+
+        final CompletableFuture<PubSubBatchResult> future = batchPublisher.publish(Arrays.asList(publication(INTEREST_ID_1), publication(INTEREST_ID_2)));
+        final StanzaErrorException error = new StanzaErrorException("test-id", "item-not-found", null);
+
+        pendingResults.get(0).completeExceptionally(error);
+        pendingResults.get(1).complete("result");
+
+        final PubSubBatchResult result = future.join();
+        assertThat(result.isSuccessful(), is(false));
+        assertThat(result.getPublishedNodes(), contains(INTEREST_ID_2.toPubSubNodeId()));
+        assertThat(result.getFailures().keySet(), contains(INTEREST_ID_1.toPubSubNodeId()));
+        assertThat(result.getFailures().get(INTEREST_ID_1.toPubSubNodeId()), is(error));
+    }
+
+    @Test
+    public void willNotSendTheRemainderOfACancelledBatch() {
+
+        final CompletableFuture<PubSubBatchResult> future = batchPublisher.publish(Arrays.asList(publication(INTEREST_ID_1), publication(INTEREST_ID_2), publication(INTEREST_ID_3)));
+
+        future.cancel(false);
+        pendingResults.get(0).complete("result");
+        pendingResults.get(1).complete("result");
+
+        assertThat(sentPublications.size(), is(2));
+        assertThat(batchPublisher.getQueuedCount(), is(0));
+    }
+
+    @Test
+    public void willShareTheWindowBetweenBatches() {
+
+        batchPublisher.publish(Arrays.asList(publication(INTEREST_ID_1), publication(INTEREST_ID_2)));
+        final CompletableFuture<PubSubBatchResult> future = batchPublisher.publish(Collections.singletonList(publication(INTEREST_ID_3)));
+
+        assertThat(sentPublications.size(), is(2));
+
+        pendingResults.get(0).complete("result");
+        pendingResults.get(2).completeExceptionally(new IllegalStateException("Not connected"));
+
+        assertThat(future.join().getFailures().get(INTEREST_ID_3.toPubSubNodeId()), is(instanceOf(IllegalStateException.class)));
+    }
+
+    @Test
+    public void willCompleteAnEmptyBatchImmediately() {
+
+        final PubSubBatchResult result = batchPublisher.publish(Collections.emptyList()).join();
+
+        assertThat(result.isSuccessful(), is(true));
+        assertThat(result.getPublishedNodes(), is(empty()));
+    }
+
+    @Test
+    public void willReportAFailureToSend() {
+
+        final PubSubBatchPublisher failingPublisher = new PubSubBatchPublisher(1, publication -> {
+            throw new IllegalStateException("Not connected");
+        });
+
+        final PubSubBatchResult result = failingPublisher.publish(Arrays.asList(publication(INTEREST_ID_1), publication(INTEREST_ID_2))).join();
+
+        assertThat(result.getFailures().keySet(), contains(INTEREST_ID_1.toPubSubNodeId(), INTEREST_ID_2.toPubSubNodeId()));
+        assertThat(failingPublisher.getInFlightCount(), is(0));
+    }
+
+    @Test
+    public void cannotHaveNoRequestsInFlight() {
+
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("At least one request must be allowed in flight");
+
+        new PubSubBatchPublisher(0, publication -> new CompletableFuture<>());
+    }
+}
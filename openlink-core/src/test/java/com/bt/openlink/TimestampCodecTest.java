@@ -0,0 +1,82 @@
+package com.bt.openlink;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class TimestampCodecTest {
+
+    @Rule public final ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void willFormatATimestampToTheMillisecond() {
+
+        assertThat(TimestampCodec.formatIso8601(Instant.parse("2017-10-09T08:07:00.123456Z")), is("2017-10-09T08:07:00.123Z"));
+        assertThat(TimestampCodec.formatIso8601(Instant.parse("1969-12-31T23:59:59Z")), is("1969-12-31T23:59:59.000Z"));
+        assertThat(TimestampCodec.formatIso8601(Instant.parse("2016-02-29T00:00:00Z")), is("2016-02-29T00:00:00.000Z"));
+    }
+
+    @Test
+    public void willFormatTheSameAsAFormatter() {
+
+        final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
+        final Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            final Instant instant = Instant.ofEpochSecond(random.nextInt() * 64L, random.nextInt(1_000_000_000));
+
+            assertThat(TimestampCodec.formatIso8601(instant), is(formatter.format(instant.atZone(ZoneOffset.UTC))));
+        }
+    }
+
+    @Test
+    public void willParseATimestamp() {
+
+        assertThat(TimestampCodec.parseIso8601("2017-10-09T08:07:00.123Z"), is(Instant.parse("2017-10-09T08:07:00.123Z")));
+        assertThat(TimestampCodec.parseIso8601("2017-10-09T08:07:00Z"), is(Instant.parse("2017-10-09T08:07:00Z")));
+        assertThat(TimestampCodec.parseIso8601("2017-10-09T08:07:00.123456789Z"), is(Instant.parse("2017-10-09T08:07:00.123456789Z")));
+        assertThat(TimestampCodec.parseIso8601("1960-02-29T23:59:59.9Z"), is(Instant.parse("1960-02-29T23:59:59.9Z")));
+    }
+
+    @Test
+    public void willParseAnyTimestampThatAnInstantCan() {
+
+        assertThat(TimestampCodec.parseIso8601("2017-10-09T23:59:60Z"), is(Instant.parse("2017-10-09T23:59:60Z")));
+        assertThat(TimestampCodec.parseIso8601("2017-10-09T24:00:00Z"), is(Instant.parse("2017-10-09T24:00:00Z")));
+    }
+
+    @Test
+    public void willNotParseAnInvalidDate() {
+
+        expectedException.expect(DateTimeParseException.class);
+
+        TimestampCodec.parseIso8601("2017-02-29T08:07:00.123Z");
+    }
+
+    @Test
+    public void willNotParseATimestampWithoutAZone() {
+
+        expectedException.expect(DateTimeParseException.class);
+
+        TimestampCodec.parseIso8601("2017-10-09T08:07:00.123");
+    }
+
+    @Test
+    public void willFormatAndParseTheLegacyLayout() {
+
+        final Instant instant = Instant.parse("2017-10-09T08:07:00Z");
+
+        final String timestamp = TimestampCodec.formatJavaUtilDate(instant);
+
+        assertThat(timestamp.endsWith(" 08:07:00 UTC 2017"), is(true));
+        assertThat(TimestampCodec.parseJavaUtilDate(timestamp), is(instant));
+    }
+}
@@ -18,6 +18,7 @@ import com.bt.openlink.type.Call;
 import com.bt.openlink.type.CallDirection;
 import com.bt.openlink.type.CallState;
 import com.bt.openlink.type.InterestId;
+import com.bt.openlink.type.ItemId;
 import com.bt.openlink.type.RequestAction;
 
 @SuppressWarnings({"ConstantConditions", "RedundantThrows"})
@@ -56,6 +57,20 @@ public class PubSubPublishRequestBuilderTest {
         assertThat(errors, is(empty()));
         assertThat(builder.getInterestId().get(), is(CoreFixtures.INTEREST_ID));
         assertThat(builder.getCalls(), contains(CoreFixtures.CALL_INCOMING_ORIGINATED));
+        assertThat(builder.getItemId().isPresent(), is(false));
+    }
+
+    @Test
+    public void willGenerateAnItemIdIfAGeneratorIsSet() throws Exception {
+
+        final ItemId itemId = ItemId.from("generated-item-id").get();
+        builder.setInterestId(CoreFixtures.INTEREST_ID)
+                .addCall(CoreFixtures.CALL_INCOMING_ORIGINATED)
+                .setItemIdGenerator(() -> itemId);
+
+        builder.validate();
+
+        assertThat(builder.getItemId().get(), is(itemId));
     }
 
     @Test
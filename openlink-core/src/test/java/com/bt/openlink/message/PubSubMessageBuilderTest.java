@@ -92,4 +92,17 @@ public class PubSubMessageBuilderTest {
 
         assertThat(builder.getItemId().isPresent(), is(true));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void willSetAnItemIdFromTheGenerator() {
+
+        builder = new Builder();
+        builder.setTo(CoreFixtures.TO_JID_STRING)
+                .setFrom(CoreFixtures.FROM_JID_STRING)
+                .setPubSubNodeId(CoreFixtures.INTEREST_ID)
+                .setItemIdGenerator(() -> PubSubMessageFixtures.ITEM_ID)
+                .validate();
+
+        assertThat(builder.getItemId().get(), is(PubSubMessageFixtures.ITEM_ID));
+    }
+}
@@ -0,0 +1,55 @@
+package com.bt.openlink.type;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.util.Optional;
+
+import org.junit.Test;
+
+public class CallFieldMaskTest {
+
+    @Test
+    public void willContainEveryField() {
+
+        final CallFieldMask mask = CallFieldMask.all();
+
+        for (final CallFieldMask.Field field : CallFieldMask.Field.values()) {
+            assertThat(mask.contains(field), is(true));
+        }
+        assertThat(mask.isAll(), is(true));
+        assertThat(CallFieldMask.of(CallFieldMask.Field.values()), is(sameInstance(mask)));
+    }
+
+    @Test
+    public void willContainOnlyTheGivenFields() {
+
+        final CallFieldMask mask = CallFieldMask.of(CallFieldMask.Field.STATE, CallFieldMask.Field.CALLER);
+
+        assertThat(mask.contains(CallFieldMask.Field.STATE), is(true));
+        assertThat(mask.contains(CallFieldMask.Field.CALLER), is(true));
+        assertThat(mask.contains(CallFieldMask.Field.FEATURES), is(false));
+        assertThat(mask.isAll(), is(false));
+        assertThat(mask.toString(), is("CallFieldMask[STATE, CALLER]"));
+    }
+
+    @Test
+    public void willAddAField() {
+
+        final CallFieldMask mask = CallFieldMask.summary().with(CallFieldMask.Field.PARTICIPANTS);
+
+        assertThat(mask, is(CallFieldMask.of(CallFieldMask.Field.INTEREST, CallFieldMask.Field.STATE, CallFieldMask.Field.CALLER, CallFieldMask.Field.CALLED, CallFieldMask.Field.PARTICIPANTS)));
+        assertThat(mask.with(CallFieldMask.Field.STATE), is(sameInstance(mask)));
+        assertThat(CallFieldMask.summary().contains(CallFieldMask.Field.PARTICIPANTS), is(false));
+    }
+
+    @Test
+    public void willFindTheFieldOfAnElement() {
+
+        assertThat(CallFieldMask.Field.fromElementName("originator-ref"), is(Optional.of(CallFieldMask.Field.ORIGINATOR_REFERENCES)));
+        assertThat(CallFieldMask.Field.fromElementName("start"), is(Optional.of(CallFieldMask.Field.START_TIME)));
+        assertThat(CallFieldMask.Field.fromElementName("id"), is(Optional.empty()));
+        assertThat(CallFieldMask.Field.fromElementName(null), is(Optional.empty()));
+    }
+}
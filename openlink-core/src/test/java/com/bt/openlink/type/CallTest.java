@@ -372,4 +372,82 @@ public class CallTest {
         assertThat(call.isPrivate().get(), is(false));
         assertThat(call.isPublic().get(), is(true));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void willDeriveACallSharingItsUnchangedFields() {
+
+        final Call call = CoreFixtures.CALL_INCOMING_ORIGINATED;
+
+        final Call derivedCall = call.withState(CallState.CALL_DELIVERED);
+
+        assertThat(derivedCall.getState().get(), is(CallState.CALL_DELIVERED));
+        assertThat(derivedCall.getId(), is(call.getId()));
+        assertThat(derivedCall.getStartTime(), is(call.getStartTime()));
+        assertThat(derivedCall.getActions() == call.getActions(), is(true));
+        assertThat(derivedCall.getFeatures() == call.getFeatures(), is(true));
+        assertThat(derivedCall.getParticipants() == call.getParticipants(), is(true));
+        assertThat(call.getState().get(), is(CallState.CALL_ORIGINATED));
+    }
+
+    @Test
+    public void willDeriveACallWithDifferentActions() {
+
+        final Call call = CoreFixtures.CALL_INCOMING_ORIGINATED;
+
+        final Call derivedCall = call.withActions(Collections.singletonList(RequestAction.CLEAR_CALL));
+
+        assertThat(derivedCall.getActions(), contains(RequestAction.CLEAR_CALL));
+        assertThat(call.getActions().equals(derivedCall.getActions()), is(false));
+        assertThat(derivedCall.getParticipants() == call.getParticipants(), is(true));
+    }
+
+    @Test
+    public void willNotChangeACallWhenItsBuilderIsReused() {
+
+        final Call.Builder builder = CoreFixtures.CALL_INCOMING_ORIGINATED.toBuilder()
+                .clearActions()
+                .addAction(RequestAction.ANSWER_CALL);
+        final Call firstCall = builder.build();
+
+        final Call secondCall = builder.setState(CallState.CALL_ESTABLISHED)
+                .addAction(RequestAction.CLEAR_CALL)
+                .build();
+
+        assertThat(firstCall.getActions(), contains(RequestAction.ANSWER_CALL));
+        assertThat(firstCall.getState().get(), is(CallState.CALL_ORIGINATED));
+        assertThat(secondCall.getActions(), contains(RequestAction.ANSWER_CALL, RequestAction.CLEAR_CALL));
+        assertThat(secondCall.getState().get(), is(CallState.CALL_ESTABLISHED));
+    }
+
+    @Test
+    public void willResetABuilder() {
+
+        final Call.Builder builder = CoreFixtures.CALL_INCOMING_ORIGINATED.toBuilder();
+
+        final Call call = builder.reset().build(new ArrayList<>());
+
+        assertThat(call.getId(), is(Optional.empty()));
+        assertThat(call.getState(), is(Optional.empty()));
+        assertThat(call.getActions(), is(empty()));
+        assertThat(call.getParticipants(), is(empty()));
+    }
+
+    @Test
+    public void willNotRequireMandatoryFieldsThatWereNotDecoded() {
+        final List<String> errors = new ArrayList<>();
+
+        final Call call = Call.Builder.start()
+                .setId(CoreFixtures.CALL_ID)
+                .setFieldMask(CallFieldMask.summary())
+                .build(errors);
+
+        assertThat(call.isProjected(), is(true));
+        assertThat(call.getFieldMask(), is(CallFieldMask.summary()));
+        assertThat(call.withState(CallState.CALL_DELIVERED).getFieldMask(), is(CallFieldMask.summary()));
+        assertThat(CoreFixtures.CALL_INCOMING_ORIGINATED.isProjected(), is(false));
+        assertThat(errors, contains(
+                "Invalid call status; missing interest id is mandatory",
+                "Invalid call status; missing call state is mandatory"
+                ));
+    }
+}
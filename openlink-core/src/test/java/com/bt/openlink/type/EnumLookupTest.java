@@ -0,0 +1,45 @@
+package com.bt.openlink.type;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.util.Optional;
+
+import org.junit.Test;
+
+@SuppressWarnings("ConstantConditions")
+public class EnumLookupTest {
+
+    private final EnumLookup<RequestAction> lookup = new EnumLookup<>(RequestAction.class, RequestAction::getId);
+
+    @Test
+    public void willFindAnExactMatch() throws Exception {
+
+        assertThat(lookup.from("AnswerCall").get(), is(RequestAction.ANSWER_CALL));
+    }
+
+    @Test
+    public void willIgnoreCase() throws Exception {
+
+        assertThat(lookup.from("answercall").get(), is(RequestAction.ANSWER_CALL));
+        assertThat(lookup.from("ANSWERCALL").get(), is(RequestAction.ANSWER_CALL));
+    }
+
+    @Test
+    public void willNotFindAnUnknownOrNullValue() throws Exception {
+
+        assertThat(lookup.from("not-an-action"), is(Optional.empty()));
+        assertThat(lookup.from(""), is(Optional.empty()));
+        assertThat(lookup.from(null), is(Optional.empty()));
+    }
+
+    @Test
+    public void willReturnTheSameOptionalForEachLookup() throws Exception {
+
+        assertThat(lookup.from("AnswerCall"), is(sameInstance(lookup.from("AnswerCall"))));
+        assertThat(lookup.from("answercall"), is(sameInstance(lookup.from("AnswerCall"))));
+        assertThat(CallState.from("CallBusy"), is(sameInstance(CallState.from("callbusy"))));
+    }
+
+}
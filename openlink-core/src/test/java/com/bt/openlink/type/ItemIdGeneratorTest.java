@@ -0,0 +1,91 @@
+package com.bt.openlink.type;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class ItemIdGeneratorTest {
+
+    private static final int THREADS = 4;
+    private static final int IDS_PER_THREAD = 5000;
+
+    @Rule public final ExpectedException expectedException = ExpectedException.none();
+
+    private static Set<String> generateConcurrently(final ItemIdGenerator generator) throws Exception {
+        final Set<String> ids = ConcurrentHashMap.newKeySet();
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < IDS_PER_THREAD; j++) {
+                        ids.add(generator.next().value());
+                    }
+                }));
+            }
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        return ids;
+    }
+
+    @Test
+    public void willGenerateRandomVersion4UUIDs() throws Exception {
+
+        final UUID uuid = UUID.fromString(ItemIdGenerator.fastRandom().next().value());
+
+        assertThat(uuid.version(), is(4));
+        assertThat(uuid.variant(), is(2));
+        assertThat(generateConcurrently(ItemIdGenerator.fastRandom()).size(), is(THREADS * IDS_PER_THREAD));
+    }
+
+    @Test
+    public void willGenerateTimeOrderedIds() throws Exception {
+
+        final ItemIdGenerator generator = ItemIdGenerator.timeOrdered();
+        final List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(generator.next().value());
+        }
+
+        final List<String> sortedIds = new ArrayList<>(ids);
+        Collections.sort(sortedIds);
+        assertThat(sortedIds, is(ids));
+        assertThat(generateConcurrently(generator).size(), is(THREADS * IDS_PER_THREAD));
+    }
+
+    @Test
+    public void willGenerateUniqueNodePrefixedIds() throws Exception {
+
+        final ItemIdGenerator generator = ItemIdGenerator.nodeCounter("node-1");
+
+        assertThat(generator.next().value(), startsWith("node-1-"));
+        assertThat(generateConcurrently(generator).size(), is(THREADS * IDS_PER_THREAD));
+    }
+
+    @Test
+    public void willNotCreateANodeCounterWithoutANodeId() {
+
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("The node id must not be empty");
+
+        ItemIdGenerator.nodeCounter("");
+    }
+}
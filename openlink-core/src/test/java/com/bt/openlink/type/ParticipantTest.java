@@ -123,4 +123,22 @@ public class ParticipantTest {
                 "Invalid participant; missing participation duration is mandatory"));
     }
 
+    @Test
+    public void willCompareParticipantsByValue() throws Exception {
+
+        final Participant.Builder builder = Participant.Builder.start()
+                .setJID(CoreFixtures.USER_FULL_JID_STRING)
+                .setType(ParticipantType.ACTIVE)
+                .setDirection(CallDirection.INCOMING)
+                .setStartTime(CoreFixtures.START_TIME)
+                .setDuration(CoreFixtures.DURATION);
+        final Participant participant = builder.build();
+        final Participant sameParticipant = builder.build();
+        final Participant inactiveParticipant = builder.setType(ParticipantType.INACTIVE).build();
+
+        assertThat(participant.equals(sameParticipant), is(true));
+        assertThat(participant.hashCode(), is(sameParticipant.hashCode()));
+        assertThat(participant.equals(inactiveParticipant), is(false));
+    }
+
 }
\ No newline at end of file
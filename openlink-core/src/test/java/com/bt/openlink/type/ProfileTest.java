@@ -45,6 +45,8 @@ public class ProfileTest {
         assertThat(profile.isOnline().get(), is(true));
         assertThat(profile.getActions().size(), is(1));
         assertThat(profile.getActions().get(0), is(RequestAction.ANSWER_CALL));
+        assertThat(profile.hasAction(RequestAction.ANSWER_CALL), is(true));
+        assertThat(profile.hasAction(RequestAction.CLEAR_CALL), is(false));
     }
 
     @Test
@@ -0,0 +1,109 @@
+package com.bt.openlink.type;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class RequestActionSetTest {
+
+    @Rule public final ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void willPresentTheActionsInDeclarationOrderWithoutDuplicates() {
+
+        final RequestActionSet actions = RequestActionSet.of(RequestAction.CLEAR_CALL, RequestAction.ANSWER_CALL, RequestAction.CLEAR_CALL);
+
+        assertThat(actions, contains(RequestAction.ANSWER_CALL, RequestAction.CLEAR_CALL));
+        assertThat(actions.size(), is(2));
+        assertThat(actions.get(1), is(RequestAction.CLEAR_CALL));
+        assertThat(actions.indexOf(RequestAction.CLEAR_CALL), is(1));
+        assertThat(actions.indexOf(RequestAction.HOLD_CALL), is(-1));
+    }
+
+    @Test
+    public void willCheckMembership() {
+
+        final RequestActionSet actions = RequestActionSet.of(RequestAction.ANSWER_CALL, RequestAction.DISCONNECT_SPEAKER);
+
+        assertThat(actions.contains(RequestAction.ANSWER_CALL), is(true));
+        assertThat(actions.contains(RequestAction.DISCONNECT_SPEAKER), is(true));
+        assertThat(actions.contains(RequestAction.HOLD_CALL), is(false));
+        assertThat(actions.contains((Object) "AnswerCall"), is(false));
+        assertThat(actions.containsAll(RequestActionSet.of(RequestAction.ANSWER_CALL)), is(true));
+        assertThat(actions.containsAll(RequestActionSet.of(RequestAction.ANSWER_CALL, RequestAction.HOLD_CALL)), is(false));
+    }
+
+    @Test
+    public void willRoundTripTheBitmask() {
+
+        final RequestActionSet actions = RequestActionSet.of(RequestAction.HOLD_CALL, RequestAction.SEND_DIGITS, RequestAction.PUBLIC_CALL);
+
+        final RequestActionSet restoredActions = RequestActionSet.fromBits(actions.toBits());
+
+        assertThat(restoredActions, is(actions));
+        assertThat(restoredActions.hashCode(), is(actions.hashCode()));
+    }
+
+    @Test
+    public void willNotRestoreAnUnknownAction() {
+
+        expectedException.expect(IllegalArgumentException.class);
+
+        RequestActionSet.fromBits(1L << RequestAction.values().length);
+    }
+
+    @Test
+    public void willAddAndRemoveActionsWithoutChangingTheOriginal() {
+
+        final RequestActionSet actions = RequestActionSet.of(RequestAction.ANSWER_CALL);
+
+        final RequestActionSet added = actions.with(RequestAction.CLEAR_CALL);
+        final RequestActionSet removed = added.without(RequestAction.ANSWER_CALL);
+
+        assertThat(actions, contains(RequestAction.ANSWER_CALL));
+        assertThat(added, contains(RequestAction.ANSWER_CALL, RequestAction.CLEAR_CALL));
+        assertThat(removed, contains(RequestAction.CLEAR_CALL));
+        assertThat(actions.with(RequestAction.ANSWER_CALL), is(sameInstance(actions)));
+        assertThat(removed.without(RequestAction.CLEAR_CALL), is(sameInstance(RequestActionSet.empty())));
+    }
+
+    @Test
+    public void willEqualAnyListOfTheSameActions() {
+
+        final RequestActionSet actions = RequestActionSet.of(RequestAction.ANSWER_CALL, RequestAction.CLEAR_CALL);
+
+        assertThat(actions.equals(Arrays.asList(RequestAction.ANSWER_CALL, RequestAction.CLEAR_CALL)), is(true));
+        assertThat(Arrays.asList(RequestAction.ANSWER_CALL, RequestAction.CLEAR_CALL).equals(actions), is(true));
+        assertThat(actions.hashCode(), is(Arrays.asList(RequestAction.ANSWER_CALL, RequestAction.CLEAR_CALL).hashCode()));
+    }
+
+    @Test
+    public void willBuildASetOfActions() {
+
+        final RequestActionSet actions = RequestActionSet.Builder.start()
+                .add(RequestAction.CLEAR_CALL)
+                .addAll(Arrays.asList(RequestAction.ANSWER_CALL, RequestAction.HOLD_CALL))
+                .build();
+
+        assertThat(actions, contains(RequestAction.ANSWER_CALL, RequestAction.HOLD_CALL, RequestAction.CLEAR_CALL));
+        assertThat(actions.toEnumSet(), is(EnumSet.of(RequestAction.ANSWER_CALL, RequestAction.HOLD_CALL, RequestAction.CLEAR_CALL)));
+        assertThat(RequestActionSet.Builder.start().build(), is(empty()));
+    }
+
+    @Test
+    public void willNotModifyTheSet() {
+
+        expectedException.expect(UnsupportedOperationException.class);
+
+        RequestActionSet.of(RequestAction.ANSWER_CALL).add(RequestAction.CLEAR_CALL);
+    }
+}
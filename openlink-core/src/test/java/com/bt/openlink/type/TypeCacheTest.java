@@ -0,0 +1,123 @@
+package com.bt.openlink.type;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+@SuppressWarnings("ConstantConditions")
+public class TypeCacheTest {
+
+    @Rule public final ExpectedException expectedException = ExpectedException.none();
+
+    @After
+    public void tearDown() {
+        InterestId.cache().setMaximumSize(0);
+        InterestId.cache().resetCounts();
+    }
+
+    @Test
+    public void willNotCacheByDefault() throws Exception {
+
+        final InterestId interestId1 = InterestId.from("interest-id").get();
+        final InterestId interestId2 = InterestId.from("interest-id").get();
+
+        assertThat(InterestId.cache().isEnabled(), is(false));
+        assertThat(interestId1, is(interestId2));
+        assertThat(interestId1, is(not(sameInstance(interestId2))));
+        assertThat(InterestId.cache().getHitCount(), is(0L));
+        assertThat(InterestId.cache().getMissCount(), is(0L));
+    }
+
+    @Test
+    public void willReturnTheSameInstanceWhenEnabled() throws Exception {
+
+        InterestId.cache().setMaximumSize(100);
+
+        final InterestId interestId1 = InterestId.from("interest-id").get();
+        final InterestId interestId2 = InterestId.from("interest-id").get();
+
+        assertThat(interestId1, is(sameInstance(interestId2)));
+        assertThat(InterestId.cache().size(), is(1));
+        assertThat(InterestId.cache().getHitCount(), is(1L));
+        assertThat(InterestId.cache().getMissCount(), is(1L));
+    }
+
+    @Test
+    public void willNotCacheEmptyValues() throws Exception {
+
+        InterestId.cache().setMaximumSize(100);
+
+        InterestId.from(null);
+        InterestId.from("");
+
+        assertThat(InterestId.cache().size(), is(0));
+        assertThat(InterestId.cache().getMissCount(), is(0L));
+    }
+
+    @Test
+    public void willEvictTheLeastRecentlyUsedIdentifiers() throws Exception {
+
+        InterestId.cache().setMaximumSize(16);
+
+        for (int i = 0; i < 1000; i++) {
+            InterestId.from("interest-id-" + i);
+        }
+
+        assertThat(InterestId.cache().size() <= 16, is(true));
+        assertThat(InterestId.cache().getMissCount(), is(1000L));
+    }
+
+    @Test
+    public void willNotExceedASmallMaximumSize() throws Exception {
+
+        for (final int maximumSize : new int[] { 1, 2, 3, 5, 15, 17 }) {
+            InterestId.cache().setMaximumSize(maximumSize);
+
+            for (int i = 0; i < 1000; i++) {
+                InterestId.from("interest-id-" + i);
+            }
+
+            assertThat(InterestId.cache().size(), is(maximumSize));
+        }
+    }
+
+    @Test
+    public void willCacheAnIdentifierWithAMaximumSizeOfOne() throws Exception {
+
+        InterestId.cache().setMaximumSize(1);
+
+        final InterestId interestId1 = InterestId.from("interest-id").get();
+        final InterestId interestId2 = InterestId.from("interest-id").get();
+
+        assertThat(interestId1, is(sameInstance(interestId2)));
+        assertThat(InterestId.cache().size(), is(1));
+    }
+
+    @Test
+    public void willDiscardEntriesWhenCleared() throws Exception {
+
+        InterestId.cache().setMaximumSize(100);
+        final InterestId interestId = InterestId.from("interest-id").get();
+
+        InterestId.cache().clear();
+
+        assertThat(InterestId.cache().size(), is(0));
+        assertThat(InterestId.from("interest-id").get(), is(not(sameInstance(interestId))));
+    }
+
+    @Test
+    public void willNotAcceptANegativeSize() throws Exception {
+
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("The maximum size of the cache cannot be negative");
+
+        InterestId.cache().setMaximumSize(-1);
+    }
+
+}
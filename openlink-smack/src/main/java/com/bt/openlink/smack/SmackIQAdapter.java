@@ -0,0 +1,90 @@
+package com.bt.openlink.smack;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.jivesoftware.smack.packet.IQ;
+import org.jivesoftware.smack.packet.XMPPError;
+import org.jxmpp.jid.Jid;
+
+import com.bt.openlink.AsyncIQClient;
+import com.bt.openlink.StanzaErrorException;
+
+/**
+ * Adapts an {@link AsyncIQClient} to Smack. Results are parsed by the registered
+ * {@link com.bt.openlink.smack.iq.OpenlinkIQProvider}, so a request can expect, for example, a
+ * {@link com.bt.openlink.smack.iq.GetProfilesResult}. With a connection:
+ * <pre>
+ * final AsyncIQClient&lt;IQ&gt; client = new AsyncIQClient&lt;&gt;(new SmackIQAdapter(connection::sendStanza), timer, Duration.ofSeconds(30), 100);
+ * connection.addAsyncStanzaListener(stanza -&gt; client.handleResponse((IQ) stanza), StanzaTypeFilter.IQ);
+ * ...
+ * client.sendRequest(getProfilesRequest, GetProfilesResult.class).thenAccept(result -&gt; ...);
+ * </pre>
+ */
+public final class SmackIQAdapter implements AsyncIQClient.Adapter<IQ> {
+
+    /**
+     * Sends a request; for example {@code XMPPConnection::sendStanza}.
+     */
+    @FunctionalInterface
+    public interface Sender {
+        void send(@Nonnull IQ iq) throws Exception;
+    }
+
+    @Nonnull private final Sender sender;
+
+    /**
+     * @param sender sends each request
+     */
+    public SmackIQAdapter(@Nonnull final Sender sender) {
+        this.sender = sender;
+    }
+
+    @Nullable
+    @Override
+    public String getId(@Nonnull final IQ iq) {
+        return iq.getStanzaId();
+    }
+
+    @Nullable
+    @Override
+    public String getTo(@Nonnull final IQ iq) {
+        final Jid to = iq.getTo();
+        return to == null ? null : to.toString();
+    }
+
+    @Nullable
+    @Override
+    public String getFrom(@Nonnull final IQ iq) {
+        final Jid from = iq.getFrom();
+        return from == null ? null : from.toString();
+    }
+
+    @Override
+    public boolean isResponse(@Nonnull final IQ iq) {
+        return iq.getType() == IQ.Type.result || iq.getType() == IQ.Type.error;
+    }
+
+    @Nullable
+    @Override
+    public StanzaErrorException getError(@Nonnull final IQ iq) {
+        if (iq.getType() != IQ.Type.error) {
+            return null;
+        }
+        final XMPPError error = iq.getError();
+        return new StanzaErrorException(iq.getStanzaId(),
+                error == null ? XMPPError.Condition.undefined_condition.toString() : error.getCondition().toString(),
+                error == null ? null : error.getDescriptiveText());
+    }
+
+    @Nonnull
+    @Override
+    public IQ parse(@Nonnull final IQ iq) {
+        return iq;
+    }
+
+    @Override
+    public void send(@Nonnull final IQ iq) throws Exception {
+        sender.send(iq);
+    }
+}
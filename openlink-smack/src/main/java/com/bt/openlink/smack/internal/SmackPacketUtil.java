@@ -1,6 +1,7 @@
 package com.bt.openlink.smack.internal;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Optional;
 
@@ -8,12 +9,14 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 import org.jivesoftware.smack.util.ParserUtils;
+import org.jivesoftware.smack.util.XmlStringBuilder;
 import org.jxmpp.jid.Jid;
 import org.jxmpp.jid.impl.JidCreate;
 import org.jxmpp.stringprep.XmppStringprepException;
 import org.xmlpull.v1.XmlPullParser;
 import org.xmlpull.v1.XmlPullParserException;
 
+import com.bt.openlink.OpenlinkXmlWriter;
 import com.bt.openlink.OpenlinkXmppNamespace;
 import com.bt.openlink.type.Site;
 
@@ -22,6 +25,21 @@ public final class SmackPacketUtil {
     private SmackPacketUtil() {
     }
 
+    /**
+     * Writes some content directly to a Smack XML builder.
+     *
+     * @param xml     the builder to write to
+     * @param content the content to write
+     */
+    public static void write(@Nonnull final XmlStringBuilder xml, @Nonnull final OpenlinkXmlWriter.Content content) {
+        try {
+            content.writeTo(new OpenlinkXmlWriter(xml));
+        } catch (final IOException e) {
+            // Cannot happen; an XmlStringBuilder does not throw
+            throw new UncheckedIOException(e);
+        }
+    }
+
     @Nonnull
     public static Optional<Jid> getSmackJid(@Nullable String jidString) {
         try {
@@ -0,0 +1,208 @@
+package com.bt.openlink.smack.iq;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Optional;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.jivesoftware.smack.packet.IQ;
+import org.jivesoftware.smack.util.ParserUtils;
+import org.jxmpp.jid.Jid;
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.ParseDiagnostics;
+import com.bt.openlink.iq.GetCallHistoryRequestBuilder;
+import com.bt.openlink.smack.internal.SmackPacketUtil;
+import com.bt.openlink.type.CallType;
+
+public class GetCallHistoryRequest extends OpenlinkIQ {
+    private static final String STANZA_DESCRIPTION = "get-call-history request";
+    private static final String DATE_PATTERN = "MM/dd/yyyy";
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern(DATE_PATTERN);
+
+    @Nullable private final Jid jid;
+    @Nullable private final String caller;
+    @Nullable private final String called;
+    @Nullable private final CallType callType;
+    @Nullable private final LocalDate fromDate;
+    @Nullable private final LocalDate upToDate;
+    @Nullable private final Long start;
+    @Nullable private final Long count;
+
+    private GetCallHistoryRequest(@Nonnull Builder builder, @Nullable List<String> parseErrors) {
+        super("command", OpenlinkXmppNamespace.XMPP_COMMANDS.uri(), builder, parseErrors);
+        this.jid = builder.getJID().orElse(null);
+        this.caller = builder.getCaller().orElse(null);
+        this.called = builder.getCalled().orElse(null);
+        this.callType = builder.getCallType().orElse(null);
+        this.fromDate = builder.getFromDate().orElse(null);
+        this.upToDate = builder.getUpToDate().orElse(null);
+        this.start = builder.getStart().orElse(null);
+        this.count = builder.getCount().orElse(null);
+    }
+
+    @Nonnull
+    static IQ from(XmlPullParser parser) throws IOException, XmlPullParserException {
+
+        moveToStartOfTag(parser, OpenlinkXmppNamespace.TAG_IODATA, OpenlinkXmppNamespace.TAG_IN);
+        final Builder builder = Builder.start();
+        final List<String> parseErrors = ParseDiagnostics.create();
+        if (OpenlinkXmppNamespace.TAG_IN.equals(parser.getName())) {
+            while (parser.nextTag() == XmlPullParser.START_TAG) {
+                final String elementName = parser.getName();
+                switch (elementName) {
+                case "jid":
+                    SmackPacketUtil.getSmackJid(parser.nextText()).ifPresent(builder::setJID);
+                    break;
+                case "caller":
+                    builder.setCaller(parser.nextText());
+                    break;
+                case "called":
+                    builder.setCalled(parser.nextText());
+                    break;
+                case "calltype":
+                    final String callTypeString = parser.nextText();
+                    final Optional<CallType> callType = CallType.from(callTypeString);
+                    if (callType.isPresent()) {
+                        builder.setCallType(callType.get());
+                    } else {
+                        ParseDiagnostics.report(parseErrors, "Invalid %s; invalid calltype - '%s' should be 'in', 'out' or 'missed'", STANZA_DESCRIPTION, callTypeString);
+                    }
+                    break;
+                case "fromdate":
+                    getLocalDate(elementName, parser.nextText(), parseErrors).ifPresent(builder::setFromDate);
+                    break;
+                case "uptodate":
+                    getLocalDate(elementName, parser.nextText(), parseErrors).ifPresent(builder::setUpToDate);
+                    break;
+                case "start":
+                    getLong(elementName, parser.nextText(), parseErrors).ifPresent(builder::setStart);
+                    break;
+                case "count":
+                    getLong(elementName, parser.nextText(), parseErrors).ifPresent(builder::setCount);
+                    break;
+                default:
+                    ParserUtils.forwardToEndTagOfDepth(parser, parser.getDepth());
+                    break;
+                }
+            }
+        }
+        return builder.build(parseErrors);
+    }
+
+    @Nonnull
+    private static Optional<LocalDate> getLocalDate(@Nonnull final String elementName, @Nonnull final String dateText, @Nonnull final List<String> parseErrors) {
+        try {
+            return Optional.of(LocalDate.parse(dateText, DATE_FORMATTER));
+        } catch (final DateTimeParseException ignored) {
+            ParseDiagnostics.report(parseErrors, "Invalid %s; invalid %s '%s'; date format is '%s'", STANZA_DESCRIPTION, elementName, dateText, DATE_PATTERN);
+            return Optional.empty();
+        }
+    }
+
+    @Nonnull
+    private static Optional<Long> getLong(@Nonnull final String elementName, @Nonnull final String longText, @Nonnull final List<String> parseErrors) {
+        try {
+            return Optional.of(Long.parseLong(longText));
+        } catch (final NumberFormatException ignored) {
+            ParseDiagnostics.report(parseErrors, "Invalid %s; invalid %s '%s'; please supply an integer", STANZA_DESCRIPTION, elementName, longText);
+            return Optional.empty();
+        }
+    }
+
+    @Nonnull
+    public Optional<Jid> getJID() {
+        return Optional.ofNullable(jid);
+    }
+
+    @Nonnull
+    public Optional<String> getCaller() {
+        return Optional.ofNullable(caller);
+    }
+
+    @Nonnull
+    public Optional<String> getCalled() {
+        return Optional.ofNullable(called);
+    }
+
+    @Nonnull
+    public Optional<CallType> getCallType() {
+        return Optional.ofNullable(callType);
+    }
+
+    @Nonnull
+    public Optional<LocalDate> getFromDate() {
+        return Optional.ofNullable(fromDate);
+    }
+
+    @Nonnull
+    public Optional<LocalDate> getUpToDate() {
+        return Optional.ofNullable(upToDate);
+    }
+
+    @Nonnull
+    public Optional<Long> getStart() {
+        return Optional.ofNullable(start);
+    }
+
+    @Nonnull
+    public Optional<Long> getCount() {
+        return Optional.ofNullable(count);
+    }
+
+    @Override
+    protected IQChildElementXmlStringBuilder getIQChildElementBuilder(IQChildElementXmlStringBuilder xml) {
+        xml.attribute("action", "execute")
+                .attribute("node", OpenlinkXmppNamespace.OPENLINK_GET_CALL_HISTORY.uri())
+                .rightAngleBracket();
+        xml.halfOpenElement(OpenlinkXmppNamespace.TAG_IODATA)
+                .attribute("xmlns", OpenlinkXmppNamespace.XMPP_IO_DATA.uri())
+                .attribute("type", "input")
+                .rightAngleBracket();
+        xml.halfOpenElement(OpenlinkXmppNamespace.TAG_IN).rightAngleBracket();
+        xml.optElement("jid", jid);
+        xml.optElement("caller", caller);
+        xml.optElement("called", called);
+        xml.optElement("calltype", callType == null ? null : callType.getLabel());
+        xml.optElement("fromdate", fromDate == null ? null : DATE_FORMATTER.format(fromDate));
+        xml.optElement("uptodate", upToDate == null ? null : DATE_FORMATTER.format(upToDate));
+        xml.optElement("start", start);
+        xml.optElement("count", count);
+        xml.closeElement(OpenlinkXmppNamespace.TAG_IN);
+        xml.closeElement(OpenlinkXmppNamespace.TAG_IODATA);
+        return xml;
+    }
+
+    public static final class Builder extends GetCallHistoryRequestBuilder<Builder, Jid, IQ.Type> {
+
+        @Nonnull
+        public static Builder start() {
+            return new Builder();
+        }
+
+        private Builder() {
+            super(IQ.Type.class);
+        }
+
+        @Nonnull
+        public GetCallHistoryRequest build() {
+            super.validate();
+            return new GetCallHistoryRequest(this, null);
+        }
+
+        @Nonnull
+        private GetCallHistoryRequest build(@Nonnull final List<String> errors) {
+            super.validate(errors, false);
+            return new GetCallHistoryRequest(this, errors);
+        }
+
+    }
+
+}
@@ -0,0 +1,150 @@
+package com.bt.openlink.smack.iq;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.jivesoftware.smack.packet.IQ;
+import org.jivesoftware.smack.util.ParserUtils;
+import org.jxmpp.jid.Jid;
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.ParseDiagnostics;
+import com.bt.openlink.iq.GetFeaturesResultBuilder;
+import com.bt.openlink.smack.internal.SmackPacketUtil;
+import com.bt.openlink.type.Feature;
+import com.bt.openlink.type.FeatureId;
+import com.bt.openlink.type.FeatureType;
+import com.bt.openlink.type.ProfileId;
+
+public class GetFeaturesResult extends OpenlinkIQ {
+    private static final String DESCRIPTION = "get-features result";
+    private static final String TAG_FEATURES = "features";
+    private static final String TAG_FEATURE = "feature";
+
+    @Nullable private final ProfileId profileId;
+    @Nonnull private final List<Feature> features;
+
+    private GetFeaturesResult(@Nonnull Builder builder, @Nullable List<String> parseErrors) {
+        super("command", OpenlinkXmppNamespace.XMPP_COMMANDS.uri(), builder, parseErrors);
+        this.profileId = builder.getProfileId().orElse(null);
+        this.features = Collections.unmodifiableList(builder.getFeatures());
+    }
+
+    @Nonnull
+    public Optional<ProfileId> getProfileId() {
+        return Optional.ofNullable(profileId);
+    }
+
+    @Nonnull
+    public List<Feature> getFeatures() {
+        return features;
+    }
+
+    @Nonnull
+    static IQ from(XmlPullParser parser) throws IOException, XmlPullParserException {
+
+        moveToStartOfTag(parser, OpenlinkXmppNamespace.TAG_IODATA, OpenlinkXmppNamespace.TAG_OUT, OpenlinkXmppNamespace.TAG_PROFILE);
+
+        final Builder builder = Builder.start();
+        final List<String> parseErrors = ParseDiagnostics.create();
+
+        if (OpenlinkXmppNamespace.TAG_PROFILE.equals(parser.getName())) {
+            ProfileId.from(parser.getAttributeValue("", "id")).ifPresent(builder::setProfileId);
+            ParserUtils.forwardToEndTagOfDepth(parser, parser.getDepth());
+            parser.nextTag();
+        }
+
+        if (parser.getEventType() == XmlPullParser.START_TAG && TAG_FEATURES.equals(parser.getName())) {
+            parser.nextTag();
+            while (TAG_FEATURE.equals(parser.getName())) {
+                final int currentDepth = parser.getDepth();
+                final Feature.Builder featureBuilder = Feature.Builder.start();
+                FeatureId.from(getMandatoryAttribute(parser, "id", parseErrors)).ifPresent(featureBuilder::setId);
+                final String featureTypeString = getMandatoryAttribute(parser, "type", parseErrors);
+                if (featureTypeString != null) {
+                    final Optional<FeatureType> featureType = FeatureType.from(featureTypeString);
+                    if (featureType.isPresent()) {
+                        featureBuilder.setType(featureType.get());
+                    } else {
+                        ParseDiagnostics.report(parseErrors, "Invalid %s; invalid feature type - '%s'", DESCRIPTION, featureTypeString);
+                    }
+                }
+                SmackPacketUtil.getStringAttribute(parser, OpenlinkXmppNamespace.TAG_LABEL).ifPresent(featureBuilder::setLabel);
+                builder.addFeature(featureBuilder.build(parseErrors));
+                ParserUtils.forwardToEndTagOfDepth(parser, currentDepth);
+                parser.nextTag();
+            }
+        } else {
+            parseErrors.add("Invalid get-features result; missing 'features' element is mandatory");
+        }
+        return builder.build(parseErrors);
+    }
+
+    @Nullable
+    private static String getMandatoryAttribute(@Nonnull final XmlPullParser parser, @Nonnull final String attributeName, @Nonnull final List<String> parseErrors) {
+        final String value = parser.getAttributeValue("", attributeName);
+        if (value == null || value.isEmpty()) {
+            ParseDiagnostics.report(parseErrors, "Invalid %s; missing '%s' attribute is mandatory", DESCRIPTION, attributeName);
+        }
+        return value;
+    }
+
+    @Override
+    protected IQChildElementXmlStringBuilder getIQChildElementBuilder(IQChildElementXmlStringBuilder xml) {
+        xml.attribute("status", "completed")
+                .attribute("node", OpenlinkXmppNamespace.OPENLINK_GET_FEATURES.uri())
+                .rightAngleBracket();
+        xml.halfOpenElement(OpenlinkXmppNamespace.TAG_IODATA)
+                .attribute("xmlns", OpenlinkXmppNamespace.XMPP_IO_DATA.uri())
+                .attribute("type", "output")
+                .rightAngleBracket();
+        xml.halfOpenElement(OpenlinkXmppNamespace.TAG_OUT).rightAngleBracket();
+        xml.halfOpenElement(OpenlinkXmppNamespace.TAG_PROFILE);
+        getProfileId().ifPresent(id -> xml.attribute("id", id.value()));
+        xml.closeEmptyElement();
+        SmackPacketUtil.write(xml, writer -> writer.writeFeatures(features));
+        xml.closeElement(OpenlinkXmppNamespace.TAG_OUT);
+        xml.closeElement(OpenlinkXmppNamespace.TAG_IODATA);
+        return xml;
+    }
+
+    public static final class Builder extends GetFeaturesResultBuilder<Builder, Jid, IQ.Type> {
+
+        @Nonnull
+        public static Builder start() {
+            return new Builder();
+        }
+
+        @Nonnull
+        public static Builder start(@Nonnull final GetFeaturesRequest request) {
+            final Builder builder = start().setId(request.getStanzaId())
+                    .setFrom(request.getTo())
+                    .setTo(request.getFrom());
+            request.getProfileId().ifPresent(builder::setProfileId);
+            return builder;
+        }
+
+        private Builder() {
+            super(IQ.Type.class);
+        }
+
+        @Nonnull
+        public GetFeaturesResult build() {
+            super.validate();
+            return new GetFeaturesResult(this, null);
+        }
+
+        @Nonnull
+        private GetFeaturesResult build(@Nonnull final List<String> parseErrors) {
+            super.validate(parseErrors, false);
+            return new GetFeaturesResult(this, parseErrors);
+        }
+    }
+}
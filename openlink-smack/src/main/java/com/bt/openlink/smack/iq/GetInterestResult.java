@@ -0,0 +1,112 @@
+package com.bt.openlink.smack.iq;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.jivesoftware.smack.packet.IQ;
+import org.jxmpp.jid.Jid;
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.ParseDiagnostics;
+import com.bt.openlink.iq.GetInterestResultBuilder;
+import com.bt.openlink.smack.internal.SmackPacketUtil;
+import com.bt.openlink.type.Interest;
+import com.bt.openlink.type.InterestId;
+import com.bt.openlink.type.InterestType;
+
+public class GetInterestResult extends OpenlinkIQ {
+
+    @Nullable private final Interest interest;
+
+    private GetInterestResult(@Nonnull Builder builder, @Nullable List<String> parseErrors) {
+        super("command", OpenlinkXmppNamespace.XMPP_COMMANDS.uri(), builder, parseErrors);
+        this.interest = builder.getInterest().orElse(null);
+    }
+
+    @Nonnull
+    public Optional<Interest> getInterest() {
+        return Optional.ofNullable(interest);
+    }
+
+    @Nonnull
+    static IQ from(XmlPullParser parser) throws IOException, XmlPullParserException {
+
+        moveToStartOfTag(parser, OpenlinkXmppNamespace.TAG_IODATA, OpenlinkXmppNamespace.TAG_OUT, OpenlinkXmppNamespace.TAG_INTERESTS, OpenlinkXmppNamespace.TAG_INTEREST);
+
+        final Builder builder = Builder.start();
+        final List<String> parseErrors = ParseDiagnostics.create();
+
+        if (OpenlinkXmppNamespace.TAG_INTEREST.equals(parser.getName())) {
+            final Interest.Builder interestBuilder = Interest.Builder.start();
+            InterestId.from(parser.getAttributeValue("", "id")).ifPresent(interestBuilder::setId);
+            InterestType.from(parser.getAttributeValue("", "type")).ifPresent(interestBuilder::setType);
+            SmackPacketUtil.getStringAttribute(parser, OpenlinkXmppNamespace.TAG_LABEL).ifPresent(interestBuilder::setLabel);
+            SmackPacketUtil.getBooleanAttribute(parser, OpenlinkXmppNamespace.TAG_DEFAULT).ifPresent(interestBuilder::setDefault);
+            builder.setInterest(interestBuilder.build(parseErrors));
+        }
+        return builder.build(parseErrors);
+    }
+
+    @Override
+    protected IQChildElementXmlStringBuilder getIQChildElementBuilder(IQChildElementXmlStringBuilder xml) {
+        xml.attribute("status", "completed")
+                .attribute("node", OpenlinkXmppNamespace.OPENLINK_GET_INTEREST.uri())
+                .rightAngleBracket();
+        xml.halfOpenElement(OpenlinkXmppNamespace.TAG_IODATA)
+                .attribute("xmlns", OpenlinkXmppNamespace.XMPP_IO_DATA.uri())
+                .attribute("type", "output")
+                .rightAngleBracket();
+        xml.halfOpenElement(OpenlinkXmppNamespace.TAG_OUT).rightAngleBracket();
+        xml.halfOpenElement(OpenlinkXmppNamespace.TAG_INTERESTS).attribute("xmlns", OpenlinkXmppNamespace.OPENLINK_INTERESTS.uri()).rightAngleBracket();
+        xml.halfOpenElement(OpenlinkXmppNamespace.TAG_INTEREST);
+        if (interest != null) {
+            interest.getId().ifPresent(interestId -> xml.attribute("id", interestId.value()));
+            interest.getType().ifPresent(interestType -> xml.attribute("type", interestType.value()));
+            interest.getLabel().ifPresent(label -> xml.attribute(OpenlinkXmppNamespace.TAG_LABEL, label));
+            interest.isDefaultInterest().ifPresent(isDefault -> xml.attribute(OpenlinkXmppNamespace.TAG_DEFAULT, String.valueOf(isDefault)));
+        }
+        xml.closeEmptyElement();
+        xml.closeElement(OpenlinkXmppNamespace.TAG_INTERESTS);
+        xml.closeElement(OpenlinkXmppNamespace.TAG_OUT);
+        xml.closeElement(OpenlinkXmppNamespace.TAG_IODATA);
+        return xml;
+    }
+
+    public static final class Builder extends GetInterestResultBuilder<Builder, Jid, IQ.Type> {
+
+        @Nonnull
+        public static Builder start() {
+            return new Builder();
+        }
+
+        @Nonnull
+        public static Builder start(@Nonnull final GetInterestRequest request) {
+            return start().setId(request.getStanzaId())
+                    .setFrom(request.getTo())
+                    .setTo(request.getFrom());
+        }
+
+        private Builder() {
+            super(IQ.Type.class);
+        }
+
+        @Nonnull
+        public GetInterestResult build() {
+            super.validate();
+            return new GetInterestResult(this, null);
+        }
+
+        @Nonnull
+        private GetInterestResult build(@Nonnull final List<String> parseErrors) {
+            super.validate(parseErrors, false);
+            return new GetInterestResult(this, parseErrors);
+        }
+    }
+
+}
@@ -1,7 +1,6 @@
 package com.bt.openlink.smack.iq;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -16,6 +15,7 @@ import org.xmlpull.v1.XmlPullParser;
 import org.xmlpull.v1.XmlPullParserException;
 
 import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.ParseDiagnostics;
 import com.bt.openlink.iq.GetInterestsResultBuilder;
 import com.bt.openlink.smack.internal.SmackPacketUtil;
 import com.bt.openlink.type.Interest;
@@ -43,7 +43,7 @@ public class GetInterestsResult extends OpenlinkIQ {
 
         final Builder builder = Builder.start();
 
-        final List<String> parseErrors = new ArrayList<>();
+        final List<String> parseErrors = ParseDiagnostics.create();
 
         while (OpenlinkXmppNamespace.TAG_INTEREST.equals(parser.getName())) {
 
@@ -76,18 +76,7 @@ public class GetInterestsResult extends OpenlinkIQ {
                 .attribute("type", "output")
                 .rightAngleBracket();
         xml.halfOpenElement(OpenlinkXmppNamespace.TAG_OUT).rightAngleBracket();
-        xml.halfOpenElement(OpenlinkXmppNamespace.TAG_INTERESTS).attribute("xmlns", "http://xmpp.org/protocol/openlink:01:00:00/interests").rightAngleBracket();
-        for (final Interest interest : interests) {
-            xml.halfOpenElement(OpenlinkXmppNamespace.TAG_INTEREST);
-            interest.getId().ifPresent(interestId -> xml.attribute("id", interestId.value()));
-            interest.getType().ifPresent(interestType -> xml.attribute("type", interestType.value()));
-            interest.getLabel().ifPresent(label -> xml.attribute(OpenlinkXmppNamespace.TAG_LABEL, label));
-            interest.isDefaultInterest().ifPresent(isDefault -> xml.attribute("default", String.valueOf(isDefault)));
-            xml.rightAngleBracket();
-            xml.closeElement(OpenlinkXmppNamespace.TAG_INTEREST);
-            }
-
-        xml.closeElement(OpenlinkXmppNamespace.TAG_INTERESTS);
+        SmackPacketUtil.write(xml, writer -> writer.writeInterests(interests));
         xml.closeElement(OpenlinkXmppNamespace.TAG_OUT);
         xml.closeElement(OpenlinkXmppNamespace.TAG_IODATA);
         return xml;
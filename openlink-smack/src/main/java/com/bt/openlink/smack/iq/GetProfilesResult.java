@@ -1,7 +1,6 @@
 package com.bt.openlink.smack.iq;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -16,6 +15,7 @@ import org.xmlpull.v1.XmlPullParser;
 import org.xmlpull.v1.XmlPullParserException;
 
 import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.ParseDiagnostics;
 import com.bt.openlink.iq.GetProfilesResultBuilder;
 import com.bt.openlink.smack.internal.SmackPacketUtil;
 import com.bt.openlink.type.Profile;
@@ -33,7 +33,7 @@ public class GetProfilesResult extends OpenlinkIQ {
 
         final Builder builder = Builder.start();
 
-        final List<String> parseErrors = new ArrayList<>();
+        final List<String> parseErrors = ParseDiagnostics.create();
         if (parser.getEventType() != XmlPullParser.START_TAG) {
             parseErrors.add("Invalid get-profiles result; no profiles present");
         }
@@ -90,39 +90,7 @@ public class GetProfilesResult extends OpenlinkIQ {
                 .attribute("type", "output")
                 .rightAngleBracket();
         xml.halfOpenElement(OpenlinkXmppNamespace.TAG_OUT).rightAngleBracket();
-        xml.halfOpenElement(OpenlinkXmppNamespace.TAG_PROFILES).attribute("xmlns", "http://xmpp.org/protocol/openlink:01:00:00/profiles").rightAngleBracket();
-        for (final Profile profile : profiles) {
-            xml.halfOpenElement(OpenlinkXmppNamespace.TAG_PROFILE);
-            profile.getId().ifPresent(profileId -> xml.attribute("id", profileId.value()));
-            profile.isDefaultProfile().ifPresent(isDefault -> xml.attribute(OpenlinkXmppNamespace.TAG_DEFAULT, isDefault));
-            profile.getDevice().ifPresent(device -> xml.attribute("device", device));
-            profile.getLabel().ifPresent(label -> xml.attribute(OpenlinkXmppNamespace.TAG_LABEL, label));
-            profile.isOnline().ifPresent(online -> xml.attribute("online", online));
-            xml.rightAngleBracket();
-            profile.getSite().ifPresent(site -> {
-                xml.halfOpenElement("site");
-                site.getId().ifPresent(id -> xml.attribute("id", String.valueOf(id)));
-                site.isDefault().ifPresent(isDefault -> xml.attribute(OpenlinkXmppNamespace.TAG_DEFAULT, String.valueOf(isDefault)));
-                site.getType().ifPresent(type -> xml.attribute("type", type.name()));
-                xml.rightAngleBracket();
-                site.getName().ifPresent(xml::escape);
-                xml.closeElement("site");
-
-            });
-            final List<RequestAction> actions = profile.getActions();
-            if (!actions.isEmpty()) {
-                xml.openElement(OpenlinkXmppNamespace.TAG_ACTIONS);
-                actions.forEach(action -> {
-                    xml.halfOpenElement(OpenlinkXmppNamespace.TAG_ACTION);
-                    xml.attribute("id", action.getId());
-                    xml.attribute(OpenlinkXmppNamespace.TAG_LABEL, action.getLabel());
-                    xml.closeEmptyElement();
-                });
-                xml.closeElement(OpenlinkXmppNamespace.TAG_ACTIONS);
-            }
-            xml.closeElement(OpenlinkXmppNamespace.TAG_PROFILE);
-        }
-        xml.closeElement(OpenlinkXmppNamespace.TAG_PROFILES);
+        SmackPacketUtil.write(xml, writer -> writer.writeProfiles(profiles));
         xml.closeElement(OpenlinkXmppNamespace.TAG_OUT);
         xml.closeElement(OpenlinkXmppNamespace.TAG_IODATA);
         return xml;
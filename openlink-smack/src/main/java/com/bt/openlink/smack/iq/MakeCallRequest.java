@@ -0,0 +1,157 @@
+package com.bt.openlink.smack.iq;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.jivesoftware.smack.packet.IQ;
+import org.jivesoftware.smack.util.ParserUtils;
+import org.jxmpp.jid.Jid;
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.ParseDiagnostics;
+import com.bt.openlink.iq.MakeCallRequestBuilder;
+import com.bt.openlink.smack.internal.SmackPacketUtil;
+import com.bt.openlink.type.FeatureId;
+import com.bt.openlink.type.InterestId;
+import com.bt.openlink.type.PhoneNumber;
+
+public class MakeCallRequest extends OpenlinkIQ {
+    @Nullable private final Jid jid;
+    @Nullable private final InterestId interestId;
+    @Nullable private final PhoneNumber destination;
+    @Nonnull private final List<FeatureId> featureIds;
+
+    private MakeCallRequest(@Nonnull Builder builder, @Nullable List<String> parseErrors) {
+        super("command", OpenlinkXmppNamespace.XMPP_COMMANDS.uri(), builder, parseErrors);
+        this.jid = builder.getJID().orElse(null);
+        this.interestId = builder.getInterestId().orElse(null);
+        this.destination = builder.getDestination().orElse(null);
+        this.featureIds = Collections.unmodifiableList(builder.getFeatureIds());
+    }
+
+    @Nonnull
+    public Optional<Jid> getJID() {
+        return Optional.ofNullable(jid);
+    }
+
+    @Nonnull
+    public Optional<InterestId> getInterestId() {
+        return Optional.ofNullable(interestId);
+    }
+
+    @Nonnull
+    public Optional<PhoneNumber> getDestination() {
+        return Optional.ofNullable(destination);
+    }
+
+    @Nonnull
+    public List<FeatureId> getFeatureIds() {
+        return featureIds;
+    }
+
+    @Nonnull
+    static IQ from(XmlPullParser parser) throws IOException, XmlPullParserException {
+
+        moveToStartOfTag(parser, OpenlinkXmppNamespace.TAG_IODATA, OpenlinkXmppNamespace.TAG_IN);
+        final Builder builder = Builder.start();
+        if (OpenlinkXmppNamespace.TAG_IN.equals(parser.getName())) {
+            while (parser.nextTag() == XmlPullParser.START_TAG) {
+                switch (parser.getName()) {
+                case "jid":
+                    SmackPacketUtil.getSmackJid(parser.nextText()).ifPresent(builder::setJID);
+                    break;
+                case OpenlinkXmppNamespace.TAG_INTEREST:
+                    InterestId.from(parser.nextText()).ifPresent(builder::setInterestId);
+                    break;
+                case "destination":
+                    PhoneNumber.from(parser.nextText()).ifPresent(builder::setDestination);
+                    break;
+                case "features":
+                    getFeatures(builder, parser);
+                    break;
+                default:
+                    ParserUtils.forwardToEndTagOfDepth(parser, parser.getDepth());
+                    break;
+                }
+            }
+        }
+        return builder.build(ParseDiagnostics.create());
+    }
+
+    private static void getFeatures(@Nonnull final Builder builder, @Nonnull final XmlPullParser parser) throws IOException, XmlPullParserException {
+        while (parser.nextTag() == XmlPullParser.START_TAG) {
+            final int featureDepth = parser.getDepth();
+            if ("feature".equals(parser.getName())) {
+                while (parser.nextTag() == XmlPullParser.START_TAG) {
+                    if ("id".equals(parser.getName())) {
+                        FeatureId.from(parser.nextText()).ifPresent(builder::addFeatureId);
+                    } else {
+                        ParserUtils.forwardToEndTagOfDepth(parser, parser.getDepth());
+                    }
+                }
+            } else {
+                ParserUtils.forwardToEndTagOfDepth(parser, featureDepth);
+            }
+        }
+    }
+
+    @Override
+    protected IQChildElementXmlStringBuilder getIQChildElementBuilder(IQChildElementXmlStringBuilder xml) {
+        xml.attribute("action", "execute")
+                .attribute("node", OpenlinkXmppNamespace.OPENLINK_MAKE_CALL.uri())
+                .rightAngleBracket();
+        xml.halfOpenElement(OpenlinkXmppNamespace.TAG_IODATA)
+                .attribute("xmlns", OpenlinkXmppNamespace.XMPP_IO_DATA.uri())
+                .attribute("type", "input")
+                .rightAngleBracket();
+        xml.halfOpenElement(OpenlinkXmppNamespace.TAG_IN).rightAngleBracket();
+        xml.optElement("jid", jid);
+        xml.optElement(OpenlinkXmppNamespace.TAG_INTEREST, interestId);
+        xml.optElement("destination", destination);
+        if (!featureIds.isEmpty()) {
+            xml.openElement("features");
+            for (final FeatureId featureId : featureIds) {
+                xml.openElement("feature");
+                xml.element("id", featureId.value());
+                xml.closeElement("feature");
+            }
+            xml.closeElement("features");
+        }
+        xml.closeElement(OpenlinkXmppNamespace.TAG_IN);
+        xml.closeElement(OpenlinkXmppNamespace.TAG_IODATA);
+        return xml;
+    }
+
+    public static final class Builder extends MakeCallRequestBuilder<Builder, Jid, IQ.Type> {
+
+        @Nonnull
+        public static Builder start() {
+            return new Builder();
+        }
+
+        private Builder() {
+            super(IQ.Type.class);
+        }
+
+        @Nonnull
+        public MakeCallRequest build() {
+            super.validate();
+            return new MakeCallRequest(this, null);
+        }
+
+        @Nonnull
+        private MakeCallRequest build(@Nonnull final List<String> errors) {
+            super.validate(errors, false);
+            return new MakeCallRequest(this, errors);
+        }
+
+    }
+
+}
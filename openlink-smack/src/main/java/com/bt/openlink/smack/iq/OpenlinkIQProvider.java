@@ -1,6 +1,7 @@
 package com.bt.openlink.smack.iq;
 
 import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.ParseOptions;
 import org.jivesoftware.smack.packet.IQ;
 import org.jivesoftware.smack.packet.UnparsedIQ;
 import org.jivesoftware.smack.provider.IQProvider;
@@ -11,49 +12,115 @@ import org.xmlpull.v1.XmlPullParserException;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.io.IOException;
-import java.util.Arrays;
-import java.util.List;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 
+/**
+ * Parses Openlink ad-hoc commands. The node, action and status attributes of the command element are read in a single
+ * pass, and the stanza is then created by a factory looked up by node; a request is identified by an action of
+ * 'execute', a result by a status of 'completed'.
+ * <p>
+ * The requests of every command are parsed, but only the results of get-profiles, get-interests, get-interest and
+ * get-features. The results of make-call and request-action carry calls, which cannot yet be decoded from Smack, and
+ * there is no get-call-history result type; these results, and any command that is not recognised, are returned as an
+ * {@link UnparsedIQ}. Pubsub stanzas are not ad-hoc commands and are not handled by this provider.
+ * <p>
+ * A Smack provider is not told the sender of the stanza it parses, so stanzas are only parsed at the trust level of the
+ * {@link ParseOptions} if the options trust every source.
+ */
 public class OpenlinkIQProvider extends IQProvider<IQ> {
 
     private interface StanzaFactory {
         IQ from(final XmlPullParser parser) throws IOException, XmlPullParserException;
     }
 
-    private static class IQMatcher {
+    private static class CommandFactories {
 
-        @Nonnull private final OpenlinkXmppNamespace namespace;
-        @Nonnull private final String attribute;
-        @Nonnull private final String value;
-        @Nonnull private final StanzaFactory stanzaFactory;
+        @Nonnull private final StanzaFactory requestFactory;
+        @Nullable private final StanzaFactory resultFactory;
 
-        IQMatcher(@Nonnull final OpenlinkXmppNamespace namespace, @Nonnull final String attribute, @Nonnull final String value, @Nonnull final StanzaFactory stanzaFactory) {
-            this.namespace = namespace;
-            this.attribute = attribute;
-            this.value = value;
-            this.stanzaFactory = stanzaFactory;
+        CommandFactories(@Nonnull final StanzaFactory requestFactory, @Nullable final StanzaFactory resultFactory) {
+            this.requestFactory = requestFactory;
+            this.resultFactory = resultFactory;
         }
 
-        boolean matches(@Nullable final String namespace, @Nullable final String value) {
-            return this.value.equals(value) && this.namespace.uri().equals(namespace);
+        @Nullable
+        StanzaFactory getFactory(@Nullable final String action, @Nullable final String status) {
+            if ("execute".equals(action)) {
+                return requestFactory;
+            } else if ("completed".equals(status)) {
+                return resultFactory;
+            } else {
+                return null;
+            }
         }
     }
 
-    private static final List<IQMatcher> STANZA_TYPE_MATCHER_LIST = Arrays.asList(
-            new IQMatcher(OpenlinkXmppNamespace.OPENLINK_GET_PROFILES, "action", "execute", GetProfilesRequest::from),
-            new IQMatcher(OpenlinkXmppNamespace.OPENLINK_GET_PROFILES, "status","completed", GetProfilesResult::from),
-            new IQMatcher(OpenlinkXmppNamespace.OPENLINK_GET_INTERESTS, "action", "execute", GetInterestsRequest::from),
-            new IQMatcher(OpenlinkXmppNamespace.OPENLINK_GET_INTERESTS, "status","completed", GetInterestsResult::from)
-            );
+    private static final Map<String, CommandFactories> COMMAND_FACTORIES;
+    static {
+        final Map<String, CommandFactories> factories = new HashMap<>();
+        addCommandFactories(factories, OpenlinkXmppNamespace.OPENLINK_GET_PROFILES, GetProfilesRequest::from, GetProfilesResult::from);
+        addCommandFactories(factories, OpenlinkXmppNamespace.OPENLINK_GET_INTERESTS, GetInterestsRequest::from, GetInterestsResult::from);
+        addCommandFactories(factories, OpenlinkXmppNamespace.OPENLINK_GET_INTEREST, GetInterestRequest::from, GetInterestResult::from);
+        addCommandFactories(factories, OpenlinkXmppNamespace.OPENLINK_GET_FEATURES, GetFeaturesRequest::from, GetFeaturesResult::from);
+        addCommandFactories(factories, OpenlinkXmppNamespace.OPENLINK_MAKE_CALL, MakeCallRequest::from, null);
+        addCommandFactories(factories, OpenlinkXmppNamespace.OPENLINK_REQUEST_ACTION, RequestActionRequest::from, null);
+        addCommandFactories(factories, OpenlinkXmppNamespace.OPENLINK_GET_CALL_HISTORY, GetCallHistoryRequest::from, null);
+        COMMAND_FACTORIES = Collections.unmodifiableMap(factories);
+    }
+
+    @Nonnull private final ParseOptions options;
+
+    public OpenlinkIQProvider() {
+        this(ParseOptions.defaults());
+    }
+
+    /**
+     * @param options the options with which to parse each stanza
+     */
+    public OpenlinkIQProvider(@Nonnull final ParseOptions options) {
+        this.options = options;
+    }
+
+    private static void addCommandFactories(
+            @Nonnull final Map<String, CommandFactories> factories,
+            @Nonnull final OpenlinkXmppNamespace node,
+            @Nonnull final StanzaFactory requestFactory,
+            @Nullable final StanzaFactory resultFactory) {
+        factories.put(node.uri(), new CommandFactories(requestFactory, resultFactory));
+    }
 
     @Override
     public IQ parse(XmlPullParser xmlPullParser, int initialDepth) throws Exception {
-        final String node = xmlPullParser.getAttributeValue("", "node");
-        for (final IQMatcher iqMatcher : STANZA_TYPE_MATCHER_LIST) {
-            final String value = xmlPullParser.getAttributeValue("", iqMatcher.attribute);
-            if (iqMatcher.matches(node, value)) {
-                return iqMatcher.stanzaFactory.from(xmlPullParser);
+        String node = null;
+        String action = null;
+        String status = null;
+        final int attributeCount = xmlPullParser.getAttributeCount();
+        for (int i = 0; i < attributeCount; i++) {
+            // Only the command's own, unqualified, attributes are read
+            if (!xmlPullParser.getAttributeNamespace(i).isEmpty()) {
+                continue;
             }
+            switch (xmlPullParser.getAttributeName(i)) {
+            case "node":
+                node = xmlPullParser.getAttributeValue(i);
+                break;
+            case "action":
+                action = xmlPullParser.getAttributeValue(i);
+                break;
+            case "status":
+                status = xmlPullParser.getAttributeValue(i);
+                break;
+            default:
+                break;
+            }
+        }
+
+        final CommandFactories commandFactories = node == null ? null : COMMAND_FACTORIES.get(node);
+        final StanzaFactory stanzaFactory = commandFactories == null ? null : commandFactories.getFactory(action, status);
+        if (stanzaFactory != null) {
+            return options.parse(null, () -> stanzaFactory.from(xmlPullParser));
         }
 
         return new UnparsedIQ("command", OpenlinkXmppNamespace.XMPP_COMMANDS.uri(), PacketParserUtils.parseElement(xmlPullParser));
@@ -0,0 +1,142 @@
+package com.bt.openlink.smack.iq;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.jivesoftware.smack.packet.IQ;
+import org.jivesoftware.smack.util.ParserUtils;
+import org.jxmpp.jid.Jid;
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.ParseDiagnostics;
+import com.bt.openlink.iq.RequestActionRequestBuilder;
+import com.bt.openlink.type.CallId;
+import com.bt.openlink.type.InterestId;
+import com.bt.openlink.type.RequestAction;
+import com.bt.openlink.type.RequestActionValue;
+
+public class RequestActionRequest extends OpenlinkIQ {
+    @Nullable private final InterestId interestId;
+    @Nullable private final RequestAction action;
+    @Nullable private final CallId callId;
+    @Nullable private final RequestActionValue value1;
+    @Nullable private final RequestActionValue value2;
+
+    private RequestActionRequest(@Nonnull Builder builder, @Nullable List<String> parseErrors) {
+        super("command", OpenlinkXmppNamespace.XMPP_COMMANDS.uri(), builder, parseErrors);
+        this.interestId = builder.getInterestId().orElse(null);
+        this.action = builder.getAction().orElse(null);
+        this.callId = builder.getCallId().orElse(null);
+        this.value1 = builder.getValue1().orElse(null);
+        this.value2 = builder.getValue2().orElse(null);
+    }
+
+    @Nonnull
+    static IQ from(XmlPullParser parser) throws IOException, XmlPullParserException {
+
+        moveToStartOfTag(parser, OpenlinkXmppNamespace.TAG_IODATA, OpenlinkXmppNamespace.TAG_IN);
+        final Builder builder = Builder.start();
+        if (OpenlinkXmppNamespace.TAG_IN.equals(parser.getName())) {
+            while (parser.nextTag() == XmlPullParser.START_TAG) {
+                switch (parser.getName()) {
+                case OpenlinkXmppNamespace.TAG_INTEREST:
+                    InterestId.from(parser.nextText()).ifPresent(builder::setInterestId);
+                    break;
+                case OpenlinkXmppNamespace.TAG_ACTION:
+                    RequestAction.from(parser.nextText()).ifPresent(builder::setAction);
+                    break;
+                case "call":
+                    CallId.from(parser.nextText()).ifPresent(builder::setCallId);
+                    break;
+                case "value1":
+                    RequestActionValue.from(parser.nextText()).ifPresent(builder::setValue1);
+                    break;
+                case "value2":
+                    RequestActionValue.from(parser.nextText()).ifPresent(builder::setValue2);
+                    break;
+                default:
+                    ParserUtils.forwardToEndTagOfDepth(parser, parser.getDepth());
+                    break;
+                }
+            }
+        }
+        return builder.build(ParseDiagnostics.create());
+    }
+
+    @Nonnull
+    public Optional<InterestId> getInterestId() {
+        return Optional.ofNullable(interestId);
+    }
+
+    @Nonnull
+    public Optional<RequestAction> getAction() {
+        return Optional.ofNullable(action);
+    }
+
+    @Nonnull
+    public Optional<CallId> getCallId() {
+        return Optional.ofNullable(callId);
+    }
+
+    @Nonnull
+    public Optional<RequestActionValue> getValue1() {
+        return Optional.ofNullable(value1);
+    }
+
+    @Nonnull
+    public Optional<RequestActionValue> getValue2() {
+        return Optional.ofNullable(value2);
+    }
+
+    @Override
+    protected IQChildElementXmlStringBuilder getIQChildElementBuilder(IQChildElementXmlStringBuilder xml) {
+        xml.attribute("action", "execute")
+                .attribute("node", OpenlinkXmppNamespace.OPENLINK_REQUEST_ACTION.uri())
+                .rightAngleBracket();
+        xml.halfOpenElement(OpenlinkXmppNamespace.TAG_IODATA)
+                .attribute("xmlns", OpenlinkXmppNamespace.XMPP_IO_DATA.uri())
+                .attribute("type", "input")
+                .rightAngleBracket();
+        xml.halfOpenElement(OpenlinkXmppNamespace.TAG_IN).rightAngleBracket();
+        xml.optElement(OpenlinkXmppNamespace.TAG_INTEREST, interestId);
+        xml.optElement(OpenlinkXmppNamespace.TAG_ACTION, action == null ? null : action.getId());
+        xml.optElement("call", callId);
+        xml.optElement("value1", value1);
+        xml.optElement("value2", value2);
+        xml.closeElement(OpenlinkXmppNamespace.TAG_IN);
+        xml.closeElement(OpenlinkXmppNamespace.TAG_IODATA);
+        return xml;
+    }
+
+    public static final class Builder extends RequestActionRequestBuilder<Builder, Jid, IQ.Type> {
+
+        @Nonnull
+        public static Builder start() {
+            return new Builder();
+        }
+
+        private Builder() {
+            super(IQ.Type.class);
+        }
+
+        @Nonnull
+        public RequestActionRequest build() {
+            super.validate();
+            return new RequestActionRequest(this, null);
+        }
+
+        @Nonnull
+        private RequestActionRequest build(@Nonnull final List<String> errors) {
+            super.validate(errors, false);
+            return new RequestActionRequest(this, errors);
+        }
+
+    }
+
+}
@@ -0,0 +1,126 @@
+package com.bt.openlink.smack;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.jivesoftware.smack.SmackException;
+import org.jivesoftware.smack.packet.IQ;
+import org.jivesoftware.smack.packet.XMPPError;
+import org.jivesoftware.smack.provider.ProviderManager;
+import org.jivesoftware.smack.util.PacketParserUtils;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.bt.openlink.AsyncIQClient;
+import com.bt.openlink.CoreFixtures;
+import com.bt.openlink.GetProfilesFixtures;
+import com.bt.openlink.HashedWheelTimer;
+import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.StanzaErrorException;
+import com.bt.openlink.smack.iq.GetProfilesRequest;
+import com.bt.openlink.smack.iq.GetProfilesResult;
+import com.bt.openlink.smack.iq.OpenlinkIQProvider;
+
+@SuppressWarnings("ConstantConditions")
+public class SmackIQAdapterTest {
+
+    @Rule public final ExpectedException expectedException = ExpectedException.none();
+
+    private final List<IQ> sentRequests = new ArrayList<>();
+    private final HashedWheelTimer timer = new HashedWheelTimer(10, TimeUnit.MILLISECONDS, 16, Thread::new);
+    private final AsyncIQClient<IQ> client = new AsyncIQClient<>(new SmackIQAdapter(sentRequests::add), timer, Duration.ofSeconds(30), 10);
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        ProviderManager.addIQProvider("command", OpenlinkXmppNamespace.XMPP_COMMANDS.uri(), new OpenlinkIQProvider());
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws Exception {
+        ProviderManager.removeIQProvider("command", OpenlinkXmppNamespace.XMPP_COMMANDS.uri());
+    }
+
+    @After
+    public void tearDown() {
+        timer.stop();
+    }
+
+    private static GetProfilesRequest request() {
+        // Addressed to the sender of the result fixtures
+        return GetProfilesRequest.Builder.start()
+                .setId(CoreFixtures.STANZA_ID)
+                .setTo(Fixtures.FROM_JID)
+                .setFrom(Fixtures.TO_JID)
+                .setJID(Fixtures.USER_FULL_JID)
+                .build();
+    }
+
+    @Test
+    public void willCompleteWithTheResultOfARequest() throws Exception {
+
+        final CompletableFuture<GetProfilesResult> future = client.sendRequest(request(), GetProfilesResult.class);
+
+        assertThat(sentRequests.size(), is(1));
+        assertThat(client.handleResponse(PacketParserUtils.parseStanza(GetProfilesFixtures.GET_PROFILES_RESULT_WITH_NO_NOTES)), is(true));
+
+        final GetProfilesResult result = future.join();
+        assertThat(result.getStanzaId(), is(CoreFixtures.STANZA_ID));
+        assertThat(result.getProfiles().size(), is(2));
+    }
+
+    @Test
+    public void willIgnoreAResultFromAnotherEntity() {
+
+        client.sendRequest(request(), GetProfilesResult.class);
+        final IQ result = IQ.createResultIQ(sentRequests.get(0));
+        result.setFrom(Fixtures.USER_FULL_JID);
+
+        assertThat(client.handleResponse(result), is(false));
+        assertThat(client.getOutstandingCount(), is(1));
+    }
+
+    @Test
+    public void willFailWhenAnErrorIsReceived() throws Exception {
+
+        final CompletableFuture<GetProfilesResult> future = client.sendRequest(request(), GetProfilesResult.class);
+
+        client.handleResponse(IQ.createErrorResponse(sentRequests.get(0), XMPPError.getBuilder(XMPPError.Condition.item_not_found)));
+
+        try {
+            future.get();
+        } catch (final ExecutionException e) {
+            assertThat(e.getCause(), is(instanceOf(StanzaErrorException.class)));
+            final StanzaErrorException stanzaError = (StanzaErrorException) e.getCause();
+            assertThat(stanzaError.getStanzaId().get(), is(CoreFixtures.STANZA_ID));
+            assertThat(stanzaError.getCondition(), is("item-not-found"));
+            return;
+        }
+        throw new AssertionError("The request did not fail");
+    }
+
+    @Test
+    public void willFailWhenTheRequestCannotBeSent() throws Exception {
+
+        final AsyncIQClient<IQ> disconnectedClient = new AsyncIQClient<>(new SmackIQAdapter(iq -> {
+            throw new SmackException.NotConnectedException();
+        }), timer, Duration.ofSeconds(30), 10);
+
+        final CompletableFuture<GetProfilesResult> future = disconnectedClient.sendRequest(request(), GetProfilesResult.class);
+
+        expectedException.expect(ExecutionException.class);
+        expectedException.expectCause(instanceOf(SmackException.NotConnectedException.class));
+        future.get();
+    }
+}
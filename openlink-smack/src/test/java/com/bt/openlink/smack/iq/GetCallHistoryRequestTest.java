@@ -0,0 +1,74 @@
+package com.bt.openlink.smack.iq;
+
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.xmlunit.matchers.CompareMatcher.isIdenticalTo;
+
+import java.time.LocalDate;
+
+import org.jivesoftware.smack.packet.IQ;
+import org.jivesoftware.smack.provider.ProviderManager;
+import org.jivesoftware.smack.util.PacketParserUtils;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.bt.openlink.CoreFixtures;
+import com.bt.openlink.GetCallHistoryFixtures;
+import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.smack.Fixtures;
+import com.bt.openlink.type.CallType;
+
+@SuppressWarnings("ConstantConditions")
+public class GetCallHistoryRequestTest {
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        ProviderManager.addIQProvider("command", OpenlinkXmppNamespace.XMPP_COMMANDS.uri(), new OpenlinkIQProvider());
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws Exception {
+        ProviderManager.removeIQProvider("command", OpenlinkXmppNamespace.XMPP_COMMANDS.uri());
+    }
+
+    @Test
+    public void willGenerateAnXmppStanzaWithAllFields() throws Exception {
+
+        final GetCallHistoryRequest request = GetCallHistoryRequest.Builder.start()
+                .setId(CoreFixtures.STANZA_ID)
+                .setTo(Fixtures.TO_JID)
+                .setFrom(Fixtures.FROM_JID)
+                .setJID(Fixtures.USER_BARE_JID)
+                .setCaller("from-caller")
+                .setCalled("to-destination")
+                .setCallType(CallType.MISSED)
+                .setFromDate(LocalDate.of(2016, 6, 1))
+                .setUpToDate(LocalDate.of(2016, 6, 29))
+                .setStart(1L)
+                .setCount(50L)
+                .build();
+
+        assertThat(request.toXML().toString(), isIdenticalTo(GetCallHistoryFixtures.GET_CALL_HISTORY_REQUEST_WITH_ALL_FIELDS).ignoreWhitespace());
+    }
+
+    @Test
+    public void willParseAnXmppStanzaWithAllFields() throws Exception {
+
+        final GetCallHistoryRequest request = PacketParserUtils.parseStanza(GetCallHistoryFixtures.GET_CALL_HISTORY_REQUEST_WITH_ALL_FIELDS);
+
+        assertThat(request.getStanzaId(), is(CoreFixtures.STANZA_ID));
+        assertThat(request.getType(), is(IQ.Type.set));
+        assertThat(request.getJID().get(), is(Fixtures.USER_BARE_JID));
+        assertThat(request.getCaller().get(), is("from-caller"));
+        assertThat(request.getCalled().get(), is("to-destination"));
+        assertThat(request.getCallType().get(), is(CallType.MISSED));
+        assertThat(request.getFromDate().get(), is(LocalDate.of(2016, 6, 1)));
+        assertThat(request.getUpToDate().get(), is(LocalDate.of(2016, 6, 29)));
+        assertThat(request.getStart().get(), is(1L));
+        assertThat(request.getCount().get(), is(50L));
+        assertThat(request.getParseErrors(), is(empty()));
+    }
+
+}
@@ -0,0 +1,59 @@
+package com.bt.openlink.smack.iq;
+
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.xmlunit.matchers.CompareMatcher.isIdenticalTo;
+
+import org.jivesoftware.smack.packet.IQ;
+import org.jivesoftware.smack.provider.ProviderManager;
+import org.jivesoftware.smack.util.PacketParserUtils;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.bt.openlink.CoreFixtures;
+import com.bt.openlink.GetFeaturesFixtures;
+import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.smack.Fixtures;
+
+@SuppressWarnings("ConstantConditions")
+public class GetFeaturesRequestTest {
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        ProviderManager.addIQProvider("command", OpenlinkXmppNamespace.XMPP_COMMANDS.uri(), new OpenlinkIQProvider());
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws Exception {
+        ProviderManager.removeIQProvider("command", OpenlinkXmppNamespace.XMPP_COMMANDS.uri());
+    }
+
+    @Test
+    public void willGenerateAnXmppStanza() throws Exception {
+
+        final GetFeaturesRequest request = GetFeaturesRequest.Builder.start()
+                .setId(CoreFixtures.STANZA_ID)
+                .setTo(Fixtures.TO_JID)
+                .setFrom(Fixtures.FROM_JID)
+                .setProfileId(CoreFixtures.PROFILE_ID)
+                .build();
+
+        assertThat(request.toXML().toString(), isIdenticalTo(GetFeaturesFixtures.GET_FEATURES_REQUEST).ignoreWhitespace());
+    }
+
+    @Test
+    public void willParseAnXmppStanza() throws Exception {
+
+        final GetFeaturesRequest request = PacketParserUtils.parseStanza(GetFeaturesFixtures.GET_FEATURES_REQUEST);
+
+        assertThat(request.getStanzaId(), is(CoreFixtures.STANZA_ID));
+        assertThat(request.getTo(), is(Fixtures.TO_JID));
+        assertThat(request.getFrom(), is(Fixtures.FROM_JID));
+        assertThat(request.getType(), is(IQ.Type.set));
+        assertThat(request.getProfileId().get(), is(CoreFixtures.PROFILE_ID));
+        assertThat(request.getParseErrors(), is(empty()));
+    }
+
+}
@@ -0,0 +1,80 @@
+package com.bt.openlink.smack.iq;
+
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.xmlunit.matchers.CompareMatcher.isIdenticalTo;
+
+import java.util.List;
+
+import org.jivesoftware.smack.packet.IQ;
+import org.jivesoftware.smack.provider.ProviderManager;
+import org.jivesoftware.smack.util.PacketParserUtils;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.bt.openlink.CoreFixtures;
+import com.bt.openlink.GetFeaturesFixtures;
+import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.smack.Fixtures;
+import com.bt.openlink.type.Feature;
+import com.bt.openlink.type.FeatureId;
+import com.bt.openlink.type.FeatureType;
+
+@SuppressWarnings("ConstantConditions")
+public class GetFeaturesResultTest {
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        ProviderManager.addIQProvider("command", OpenlinkXmppNamespace.XMPP_COMMANDS.uri(), new OpenlinkIQProvider());
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws Exception {
+        ProviderManager.removeIQProvider("command", OpenlinkXmppNamespace.XMPP_COMMANDS.uri());
+    }
+
+    private static Feature feature(final String id, final FeatureType type, final String label) {
+        return Feature.Builder.start()
+                .setId(FeatureId.from(id).get())
+                .setType(type)
+                .setLabel(label)
+                .build();
+    }
+
+    @Test
+    public void willGenerateAnXmppStanza() throws Exception {
+
+        final GetFeaturesResult result = GetFeaturesResult.Builder.start()
+                .setId(CoreFixtures.STANZA_ID)
+                .setTo(Fixtures.TO_JID)
+                .setFrom(Fixtures.FROM_JID)
+                .setProfileId(CoreFixtures.PROFILE_ID)
+                .addFeature(feature("hs_1", FeatureType.HANDSET, "Handset 1"))
+                .addFeature(feature("hs_2", FeatureType.HANDSET, "Handset 2"))
+                .addFeature(feature("priv_1", FeatureType.PRIVACY, "Privacy"))
+                .addFeature(feature("fwd_1", FeatureType.CALL_FORWARD, "Call Forward"))
+                .build();
+
+        assertThat(result.toXML().toString(), isIdenticalTo(GetFeaturesFixtures.GET_FEATURES_RESULT).ignoreWhitespace());
+    }
+
+    @Test
+    public void willParseAnXmppStanza() throws Exception {
+
+        final GetFeaturesResult result = PacketParserUtils.parseStanza(GetFeaturesFixtures.GET_FEATURES_RESULT);
+
+        assertThat(result.getStanzaId(), is(CoreFixtures.STANZA_ID));
+        assertThat(result.getType(), is(IQ.Type.result));
+        assertThat(result.getProfileId().get(), is(CoreFixtures.PROFILE_ID));
+        final List<Feature> features = result.getFeatures();
+        assertThat(features.size(), is(4));
+        assertThat(features.get(0).getId().get(), is(FeatureId.from("hs_1").get()));
+        assertThat(features.get(0).getType().get(), is(FeatureType.HANDSET));
+        assertThat(features.get(0).getLabel().get(), is("Handset 1"));
+        assertThat(features.get(3).getType().get(), is(FeatureType.CALL_FORWARD));
+        assertThat(result.getParseErrors(), is(empty()));
+    }
+
+}
@@ -0,0 +1,78 @@
+package com.bt.openlink.smack.iq;
+
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.xmlunit.matchers.CompareMatcher.isIdenticalTo;
+
+import org.jivesoftware.smack.packet.IQ;
+import org.jivesoftware.smack.provider.ProviderManager;
+import org.jivesoftware.smack.util.PacketParserUtils;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.bt.openlink.CoreFixtures;
+import com.bt.openlink.GetInterestFixtures;
+import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.smack.Fixtures;
+
+@SuppressWarnings("ConstantConditions")
+public class GetInterestResultTest {
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        ProviderManager.addIQProvider("command", OpenlinkXmppNamespace.XMPP_COMMANDS.uri(), new OpenlinkIQProvider());
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws Exception {
+        ProviderManager.removeIQProvider("command", OpenlinkXmppNamespace.XMPP_COMMANDS.uri());
+    }
+
+    @Test
+    public void willGenerateAnXmppStanza() throws Exception {
+
+        final GetInterestResult result = GetInterestResult.Builder.start()
+                .setId(CoreFixtures.STANZA_ID)
+                .setTo(Fixtures.TO_JID)
+                .setFrom(Fixtures.FROM_JID)
+                .setInterest(CoreFixtures.INTEREST)
+                .build();
+
+        assertThat(result.toXML().toString(), isIdenticalTo(GetInterestFixtures.GET_INTEREST_RESULT).ignoreWhitespace());
+    }
+
+    @Test
+    public void willParseAnXmppStanza() throws Exception {
+
+        final GetInterestResult result = PacketParserUtils.parseStanza(GetInterestFixtures.GET_INTEREST_RESULT);
+
+        assertThat(result.getStanzaId(), is(CoreFixtures.STANZA_ID));
+        assertThat(result.getTo(), is(Fixtures.TO_JID));
+        assertThat(result.getFrom(), is(Fixtures.FROM_JID));
+        assertThat(result.getType(), is(IQ.Type.result));
+        assertThat(result.getInterest().get(), is(CoreFixtures.INTEREST));
+        assertThat(result.getParseErrors(), is(empty()));
+    }
+
+    @Test
+    public void willBuildAResultFromARequest() throws Exception {
+
+        final GetInterestRequest request = GetInterestRequest.Builder.start()
+                .setTo(Fixtures.TO_JID)
+                .setFrom(Fixtures.FROM_JID)
+                .setId(CoreFixtures.STANZA_ID)
+                .setInterestId(CoreFixtures.INTEREST_ID)
+                .build();
+
+        final GetInterestResult result = GetInterestResult.Builder.start(request)
+                .setInterest(CoreFixtures.INTEREST)
+                .build();
+
+        assertThat(result.getStanzaId(), is(request.getStanzaId()));
+        assertThat(result.getTo(), is(request.getFrom()));
+        assertThat(result.getFrom(), is(request.getTo()));
+    }
+
+}
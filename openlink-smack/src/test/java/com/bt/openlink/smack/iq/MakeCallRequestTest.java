@@ -0,0 +1,64 @@
+package com.bt.openlink.smack.iq;
+
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.xmlunit.matchers.CompareMatcher.isIdenticalTo;
+
+import org.jivesoftware.smack.packet.IQ;
+import org.jivesoftware.smack.provider.ProviderManager;
+import org.jivesoftware.smack.util.PacketParserUtils;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.bt.openlink.CoreFixtures;
+import com.bt.openlink.MakeCallFixtures;
+import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.smack.Fixtures;
+
+@SuppressWarnings("ConstantConditions")
+public class MakeCallRequestTest {
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        ProviderManager.addIQProvider("command", OpenlinkXmppNamespace.XMPP_COMMANDS.uri(), new OpenlinkIQProvider());
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws Exception {
+        ProviderManager.removeIQProvider("command", OpenlinkXmppNamespace.XMPP_COMMANDS.uri());
+    }
+
+    @Test
+    public void willGenerateAnXmppStanza() throws Exception {
+
+        final MakeCallRequest request = MakeCallRequest.Builder.start()
+                .setId(CoreFixtures.STANZA_ID)
+                .setTo(Fixtures.TO_JID)
+                .setFrom(Fixtures.FROM_JID)
+                .setJID(Fixtures.USER_FULL_JID)
+                .setInterestId(CoreFixtures.INTEREST_ID)
+                .setDestination(CoreFixtures.CALLED_DESTINATION)
+                .addFeatureId(CoreFixtures.FEATURE_ID)
+                .build();
+
+        assertThat(request.toXML().toString(), isIdenticalTo(MakeCallFixtures.MAKE_CALL_REQUEST).ignoreWhitespace());
+    }
+
+    @Test
+    public void willParseAnXmppStanza() throws Exception {
+
+        final MakeCallRequest request = PacketParserUtils.parseStanza(MakeCallFixtures.MAKE_CALL_REQUEST);
+
+        assertThat(request.getStanzaId(), is(CoreFixtures.STANZA_ID));
+        assertThat(request.getType(), is(IQ.Type.set));
+        assertThat(request.getJID().get(), is(Fixtures.USER_FULL_JID));
+        assertThat(request.getInterestId().get(), is(CoreFixtures.INTEREST_ID));
+        assertThat(request.getDestination().get(), is(CoreFixtures.CALLED_DESTINATION));
+        assertThat(request.getFeatureIds().get(0), is(CoreFixtures.FEATURE_ID));
+        assertThat(request.getFeatureIds().size(), is(1));
+        assertThat(request.getParseErrors(), is(empty()));
+    }
+
+}
@@ -0,0 +1,66 @@
+package com.bt.openlink.smack.iq;
+
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.xmlunit.matchers.CompareMatcher.isIdenticalTo;
+
+import org.jivesoftware.smack.packet.IQ;
+import org.jivesoftware.smack.provider.ProviderManager;
+import org.jivesoftware.smack.util.PacketParserUtils;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.bt.openlink.CoreFixtures;
+import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.RequestActionFixtures;
+import com.bt.openlink.smack.Fixtures;
+import com.bt.openlink.type.RequestAction;
+
+@SuppressWarnings("ConstantConditions")
+public class RequestActionRequestTest {
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        ProviderManager.addIQProvider("command", OpenlinkXmppNamespace.XMPP_COMMANDS.uri(), new OpenlinkIQProvider());
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws Exception {
+        ProviderManager.removeIQProvider("command", OpenlinkXmppNamespace.XMPP_COMMANDS.uri());
+    }
+
+    @Test
+    public void willGenerateAnXmppStanza() throws Exception {
+
+        final RequestActionRequest request = RequestActionRequest.Builder.start()
+                .setId(CoreFixtures.STANZA_ID)
+                .setTo(Fixtures.TO_JID)
+                .setFrom(Fixtures.FROM_JID)
+                .setInterestId(CoreFixtures.INTEREST_ID)
+                .setAction(RequestAction.START_VOICE_DROP)
+                .setCallId(CoreFixtures.CALL_ID)
+                .setValue1(RequestActionFixtures.REQUEST_ACTION_VALUE_1)
+                .setValue2(RequestActionFixtures.REQUEST_ACTION_VALUE_2)
+                .build();
+
+        assertThat(request.toXML().toString(), isIdenticalTo(RequestActionFixtures.REQUEST_ACTION_REQUEST).ignoreWhitespace());
+    }
+
+    @Test
+    public void willParseAnXmppStanza() throws Exception {
+
+        final RequestActionRequest request = PacketParserUtils.parseStanza(RequestActionFixtures.REQUEST_ACTION_REQUEST);
+
+        assertThat(request.getStanzaId(), is(CoreFixtures.STANZA_ID));
+        assertThat(request.getType(), is(IQ.Type.set));
+        assertThat(request.getInterestId().get(), is(CoreFixtures.INTEREST_ID));
+        assertThat(request.getAction().get(), is(RequestAction.START_VOICE_DROP));
+        assertThat(request.getCallId().get(), is(CoreFixtures.CALL_ID));
+        assertThat(request.getValue1().get(), is(RequestActionFixtures.REQUEST_ACTION_VALUE_1));
+        assertThat(request.getValue2().get(), is(RequestActionFixtures.REQUEST_ACTION_VALUE_2));
+        assertThat(request.getParseErrors(), is(empty()));
+    }
+
+}
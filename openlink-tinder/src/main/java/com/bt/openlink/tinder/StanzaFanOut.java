@@ -0,0 +1,155 @@
+package com.bt.openlink.tinder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.dom4j.Attribute;
+import org.dom4j.Element;
+import org.dom4j.Namespace;
+import org.dom4j.Node;
+import org.xmpp.packet.JID;
+import org.xmpp.packet.Packet;
+
+import com.bt.openlink.OpenlinkXmlWriter;
+
+/**
+ * A stanza whose content has been encoded once, so that it can be sent to many recipients cheaply. Only the addressing
+ * envelope - the root element, with the recipient's {@code to} and optionally a new {@code id} - is encoded for each
+ * recipient; the payload, for example a callstatus, is spliced in as-is.
+ * <p>
+ * Instances are immutable, and so may be shared between threads.
+ */
+public final class StanzaFanOut {
+
+    private static final String ATTRIBUTE_TO = "to";
+    private static final String ATTRIBUTE_ID = "id";
+
+    @Nonnull private final String elementName;
+    @Nonnull private final String[] attributeNames;
+    @Nonnull private final String[] attributeValues;
+    @Nullable private final String id;
+    @Nonnull private final String payload;
+    @Nonnull private final byte[] payloadBytes;
+    @Nonnull private final byte[] endTagBytes;
+
+    /**
+     * @param rootElement the root element of the stanza; only its name and attributes are used, other than {@code to}
+     * @param payload     the encoded content of the stanza
+     */
+    @SuppressWarnings("unchecked")
+    public StanzaFanOut(@Nonnull final Element rootElement, @Nonnull final String payload) {
+        this.elementName = rootElement.getName();
+        this.id = rootElement.attributeValue(ATTRIBUTE_ID);
+        final List<String> names = new ArrayList<>();
+        final List<String> values = new ArrayList<>();
+        if (!rootElement.getNamespaceURI().isEmpty()) {
+            names.add("xmlns");
+            values.add(rootElement.getNamespaceURI());
+        }
+        for (final Attribute attribute : (List<Attribute>) rootElement.attributes()) {
+            final String attributeName = attribute.getQualifiedName();
+            if (!ATTRIBUTE_TO.equals(attributeName) && !ATTRIBUTE_ID.equals(attributeName)) {
+                names.add(attributeName);
+                values.add(attribute.getValue());
+            }
+        }
+        this.attributeNames = names.toArray(new String[0]);
+        this.attributeValues = values.toArray(new String[0]);
+        this.payload = payload;
+        this.payloadBytes = payload.getBytes(StandardCharsets.UTF_8);
+        this.endTagBytes = ("</" + elementName + '>').getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Encodes the content of any stanza once, from its element.
+     *
+     * @param packet the stanza to send to many recipients
+     * @return the encoded stanza
+     */
+    @Nonnull
+    public static StanzaFanOut of(@Nonnull final Packet packet) {
+        final Element element = packet.getElement();
+        final StringBuilder payload = new StringBuilder();
+        for (final Object node : element.content()) {
+            // Any namespace declarations are repeated by the child elements that use them
+            if (!(node instanceof Namespace)) {
+                payload.append(((Node) node).asXML());
+            }
+        }
+        return new StanzaFanOut(element, payload.toString());
+    }
+
+    /**
+     * @return the encoded content of the stanza, shared by every recipient
+     */
+    @Nonnull
+    public String getPayload() {
+        return payload;
+    }
+
+    /**
+     * @param to the recipient of the stanza
+     * @return the XML of the stanza, addressed to the recipient, with the original stanza id
+     */
+    @Nonnull
+    public String toXML(@Nonnull final JID to) {
+        return toXML(to, id);
+    }
+
+    /**
+     * @param to the recipient of the stanza
+     * @param id the id of the stanza, or {@code null} for none
+     * @return the XML of the stanza, addressed to the recipient
+     */
+    @Nonnull
+    public String toXML(@Nonnull final JID to, @Nullable final String id) {
+        final String envelope = getEnvelope(to, id);
+        final StringBuilder xml = new StringBuilder(envelope.length() + payload.length() + elementName.length() + 3);
+        return xml.append(envelope)
+                .append(payload)
+                .append("</").append(elementName).append('>')
+                .toString();
+    }
+
+    /**
+     * @param to the recipient of the stanza
+     * @return the XML of the stanza, encoded as UTF-8, addressed to the recipient, with the original stanza id
+     */
+    @Nonnull
+    public byte[] toBytes(@Nonnull final JID to) {
+        return toBytes(to, id);
+    }
+
+    /**
+     * @param to the recipient of the stanza
+     * @param id the id of the stanza, or {@code null} for none
+     * @return the XML of the stanza, encoded as UTF-8, addressed to the recipient
+     */
+    @Nonnull
+    public byte[] toBytes(@Nonnull final JID to, @Nullable final String id) {
+        final byte[] envelopeBytes = getEnvelope(to, id).getBytes(StandardCharsets.UTF_8);
+        final byte[] bytes = new byte[envelopeBytes.length + payloadBytes.length + endTagBytes.length];
+        System.arraycopy(envelopeBytes, 0, bytes, 0, envelopeBytes.length);
+        System.arraycopy(payloadBytes, 0, bytes, envelopeBytes.length, payloadBytes.length);
+        System.arraycopy(endTagBytes, 0, bytes, envelopeBytes.length + payloadBytes.length, endTagBytes.length);
+        return bytes;
+    }
+
+    @Nonnull
+    private String getEnvelope(@Nonnull final JID to, @Nullable final String id) {
+        return OpenlinkXmlWriter.toXML(writer -> {
+            writer.startElement(elementName)
+                    .attribute(ATTRIBUTE_TO, to.toString())
+                    .attribute(ATTRIBUTE_ID, id);
+            for (int i = 0; i < attributeNames.length; i++) {
+                writer.attribute(attributeNames[i], attributeValues[i]);
+            }
+            // Close the start tag, leaving the element open for the payload
+            writer.encodedXml("");
+        });
+    }
+}
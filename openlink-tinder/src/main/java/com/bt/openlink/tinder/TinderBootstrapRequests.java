@@ -0,0 +1,102 @@
+package com.bt.openlink.tinder;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import javax.annotation.Nonnull;
+
+import org.xmpp.packet.IQ;
+import org.xmpp.packet.JID;
+
+import com.bt.openlink.AsyncIQClient;
+import com.bt.openlink.OpenlinkBootstrap;
+import com.bt.openlink.tinder.iq.GetFeaturesRequest;
+import com.bt.openlink.tinder.iq.GetFeaturesResult;
+import com.bt.openlink.tinder.iq.GetInterestsRequest;
+import com.bt.openlink.tinder.iq.GetInterestsResult;
+import com.bt.openlink.tinder.iq.GetProfilesRequest;
+import com.bt.openlink.tinder.iq.GetProfilesResult;
+import com.bt.openlink.tinder.iq.PubSubSubscriptionRequest;
+import com.bt.openlink.type.Feature;
+import com.bt.openlink.type.Interest;
+import com.bt.openlink.type.InterestId;
+import com.bt.openlink.type.Profile;
+import com.bt.openlink.type.ProfileId;
+import com.bt.openlink.type.SubscriptionState;
+
+/**
+ * Makes the requests needed by an {@link OpenlinkBootstrap} with Tinder, through an {@link AsyncIQClient}. For example:
+ * <pre>
+ * final TinderBootstrapRequests requests = new TinderBootstrapRequests(client, componentJID, openlinkServerJID, pubSubServiceJID, userJID);
+ * new OpenlinkBootstrap(requests, 20).start().thenAccept(snapshot -&gt; ...);
+ * </pre>
+ */
+public final class TinderBootstrapRequests implements OpenlinkBootstrap.Requests {
+
+    @Nonnull private final AsyncIQClient<IQ> client;
+    @Nonnull private final JID from;
+    @Nonnull private final JID openlinkServer;
+    @Nonnull private final JID pubSubService;
+    @Nonnull private final JID user;
+
+    /**
+     * @param client         the client that sends the requests
+     * @param from           the sender of the requests
+     * @param openlinkServer the Openlink server that the profiles, interests and features are requested from
+     * @param pubSubService  the pub-sub service that the interests are subscribed to
+     * @param user           the user whose profiles are requested, and who is subscribed to the interests
+     */
+    public TinderBootstrapRequests(@Nonnull final AsyncIQClient<IQ> client, @Nonnull final JID from, @Nonnull final JID openlinkServer, @Nonnull final JID pubSubService, @Nonnull final JID user) {
+        this.client = client;
+        this.from = from;
+        this.openlinkServer = openlinkServer;
+        this.pubSubService = pubSubService;
+        this.user = user;
+    }
+
+    @Nonnull
+    @Override
+    public CompletableFuture<List<Profile>> getProfiles() {
+        final GetProfilesRequest request = GetProfilesRequest.Builder.start()
+                .setTo(openlinkServer)
+                .setFrom(from)
+                .setJID(user)
+                .build();
+        return client.sendRequest(request, GetProfilesResult.class).thenApply(GetProfilesResult::getProfiles);
+    }
+
+    @Nonnull
+    @Override
+    public CompletableFuture<List<Interest>> getInterests(@Nonnull final ProfileId profileId) {
+        final GetInterestsRequest request = GetInterestsRequest.Builder.start()
+                .setTo(openlinkServer)
+                .setFrom(from)
+                .setProfileId(profileId)
+                .build();
+        return client.sendRequest(request, GetInterestsResult.class).thenApply(GetInterestsResult::getInterests);
+    }
+
+    @Nonnull
+    @Override
+    public CompletableFuture<List<Feature>> getFeatures(@Nonnull final ProfileId profileId) {
+        final GetFeaturesRequest request = GetFeaturesRequest.Builder.start()
+                .setTo(openlinkServer)
+                .setFrom(from)
+                .setProfileId(profileId)
+                .build();
+        return client.sendRequest(request, GetFeaturesResult.class).thenApply(GetFeaturesResult::getFeatures);
+    }
+
+    @Nonnull
+    @Override
+    public CompletableFuture<IQ> subscribe(@Nonnull final InterestId interestId) {
+        final PubSubSubscriptionRequest request = PubSubSubscriptionRequest.Builder.start()
+                .setTo(pubSubService)
+                .setFrom(from)
+                .setJID(user)
+                .setInterestId(interestId)
+                .setSubscriptionState(SubscriptionState.SUBSCRIBED)
+                .build();
+        return client.sendRequest(request, IQ.class);
+    }
+}
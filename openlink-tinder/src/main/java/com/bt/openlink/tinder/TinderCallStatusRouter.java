@@ -0,0 +1,76 @@
+package com.bt.openlink.tinder;
+
+import javax.annotation.Nonnull;
+
+import org.xmpp.packet.Message;
+
+import com.bt.openlink.CallStatusRouter;
+import com.bt.openlink.ParseOptions;
+import com.bt.openlink.tinder.message.CallStatusMessage;
+import com.bt.openlink.tinder.message.OpenlinkMessageParser;
+
+/**
+ * Adapts a {@link CallStatusRouter} to Tinder. Each message is parsed with {@link OpenlinkMessageParser}, and the calls
+ * of a call status message are routed to the listeners interested in them. In a component:
+ * <pre>
+ * final CallStatusRouter router = new CallStatusRouter();
+ * final TinderCallStatusRouter messageRouter = new TinderCallStatusRouter(router);
+ * router.addListener(CallStatusRouter.Filter.forInterest(interestId), widgetExecutor, widget::update);
+ * ...
+ * protected void handleMessage(final Message message) {
+ *     messageRouter.route(message);
+ * }
+ * </pre>
+ */
+public final class TinderCallStatusRouter {
+
+    @Nonnull private final CallStatusRouter router;
+    @Nonnull private final ParseOptions options;
+
+    /**
+     * @param router the router to route the calls of each call status message to
+     */
+    public TinderCallStatusRouter(@Nonnull final CallStatusRouter router) {
+        this(router, ParseOptions.defaults());
+    }
+
+    /**
+     * @param router  the router to route the calls of each call status message to
+     * @param options how each message is parsed; for example, only decoding the fields of each call the listeners need
+     */
+    public TinderCallStatusRouter(@Nonnull final CallStatusRouter router, @Nonnull final ParseOptions options) {
+        this.router = router;
+        this.options = options;
+    }
+
+    /**
+     * Parses a message and, if it is a call status message, routes its calls.
+     *
+     * @param message the message, as received
+     * @return the parsed message, so that any other message can be handled by the caller
+     */
+    @Nonnull
+    public Message route(@Nonnull final Message message) {
+        return routeCalls(OpenlinkMessageParser.parse(message, options));
+    }
+
+    /**
+     * Parses a message directly from its XML and, if it is a call status message, routes its calls.
+     *
+     * @param stanza the XML of the message
+     * @return the parsed message, so that any other message can be handled by the caller
+     * @throws IllegalArgumentException if the stanza is not well-formed XML
+     */
+    @Nonnull
+    public Message route(@Nonnull final String stanza) {
+        return routeCalls(OpenlinkMessageParser.parse(stanza, options));
+    }
+
+    @Nonnull
+    private Message routeCalls(@Nonnull final Message parsedMessage) {
+        if (parsedMessage instanceof CallStatusMessage) {
+            router.route(((CallStatusMessage) parsedMessage).getCalls());
+        }
+        return parsedMessage;
+    }
+}
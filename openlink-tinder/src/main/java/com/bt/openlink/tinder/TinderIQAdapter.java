@@ -0,0 +1,90 @@
+package com.bt.openlink.tinder;
+
+import java.util.function.Consumer;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.xmpp.packet.IQ;
+import org.xmpp.packet.JID;
+import org.xmpp.packet.PacketError;
+
+import com.bt.openlink.AsyncIQClient;
+import com.bt.openlink.StanzaErrorException;
+import com.bt.openlink.tinder.iq.OpenlinkIQParser;
+
+/**
+ * Adapts an {@link AsyncIQClient} to Tinder. Results are parsed with {@link OpenlinkIQParser}, so a request can expect,
+ * for example, a {@link com.bt.openlink.tinder.iq.MakeCallResult}. In a component:
+ * <pre>
+ * final AsyncIQClient&lt;IQ&gt; client = new AsyncIQClient&lt;&gt;(new TinderIQAdapter(this::send), timer, Duration.ofSeconds(30), 100);
+ * ...
+ * client.sendRequest(makeCallRequest, MakeCallResult.class).thenAccept(result -&gt; ...);
+ * ...
+ * protected void handleIQResult(final IQ iq) {
+ *     client.handleResponse(iq);
+ * }
+ * protected void handleIQError(final IQ iq) {
+ *     client.handleResponse(iq);
+ * }
+ * </pre>
+ */
+public final class TinderIQAdapter implements AsyncIQClient.Adapter<IQ> {
+
+    @Nonnull private final Consumer<? super IQ> sender;
+
+    /**
+     * @param sender sends each request
+     */
+    public TinderIQAdapter(@Nonnull final Consumer<? super IQ> sender) {
+        this.sender = sender;
+    }
+
+    @Nullable
+    @Override
+    public String getId(@Nonnull final IQ iq) {
+        return iq.getID();
+    }
+
+    @Nullable
+    @Override
+    public String getTo(@Nonnull final IQ iq) {
+        final JID to = iq.getTo();
+        return to == null ? null : to.toString();
+    }
+
+    @Nullable
+    @Override
+    public String getFrom(@Nonnull final IQ iq) {
+        final JID from = iq.getFrom();
+        return from == null ? null : from.toString();
+    }
+
+    @Override
+    public boolean isResponse(@Nonnull final IQ iq) {
+        return iq.getType() == IQ.Type.result || iq.getType() == IQ.Type.error;
+    }
+
+    @Nullable
+    @Override
+    public StanzaErrorException getError(@Nonnull final IQ iq) {
+        if (iq.getType() != IQ.Type.error) {
+            return null;
+        }
+        final PacketError error = iq.getError();
+        return new StanzaErrorException(iq.getID(),
+                error == null ? PacketError.Condition.undefined_condition.toXMPP() : error.getCondition().toXMPP(),
+                error == null ? null : error.getText());
+    }
+
+    @Nonnull
+    @Override
+    public IQ parse(@Nonnull final IQ iq) {
+        return OpenlinkIQParser.parse(iq);
+    }
+
+    @Override
+    public void send(@Nonnull final IQ iq) {
+        sender.accept(iq);
+    }
+}
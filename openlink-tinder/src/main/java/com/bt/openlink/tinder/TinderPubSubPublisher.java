@@ -0,0 +1,76 @@
+package com.bt.openlink.tinder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import javax.annotation.Nonnull;
+
+import org.xmpp.packet.IQ;
+import org.xmpp.packet.JID;
+
+import com.bt.openlink.AsyncIQClient;
+import com.bt.openlink.PubSubBatchPublisher;
+import com.bt.openlink.PubSubPublication;
+import com.bt.openlink.StanzaErrorException;
+import com.bt.openlink.tinder.iq.PubSubPublishRequest;
+
+/**
+ * Sends pub-sub publish requests with Tinder through an {@link AsyncIQClient}, for use with a
+ * {@link PubSubBatchPublisher}. The client correlates each request with its result, so the publish requests share the
+ * client's table of outstanding requests, and its timeout, with every other request on the connection. A request whose
+ * result is not received within the client's timeout - for example, because the result was lost or the pub-sub service
+ * restarted - fails with a {@link TimeoutException}, so it does not hold its place in the batch publisher forever. For
+ * example, in a component:
+ * <pre>
+ * final AsyncIQClient&lt;IQ&gt; client = new AsyncIQClient&lt;&gt;(new TinderIQAdapter(this::send), timer, Duration.ofSeconds(30), 100);
+ * final PubSubBatchPublisher batchPublisher = new PubSubBatchPublisher(50, new TinderPubSubPublisher(componentJID, pubSubServiceJID, client));
+ * ...
+ * protected void handleIQResult(final IQ iq) {
+ *     client.handleResponse(iq);
+ * }
+ * </pre>
+ * The client should allow at least as many outstanding requests as the batch publisher, else a request beyond the
+ * client's limit fails.
+ */
+public final class TinderPubSubPublisher implements Function<PubSubPublication, CompletableFuture<IQ>> {
+
+    @Nonnull private final JID from;
+    @Nonnull private final JID pubSubService;
+    @Nonnull private final AsyncIQClient<IQ> client;
+    @Nonnull private final String idPrefix = "publish-" + Long.toHexString(ThreadLocalRandom.current().nextLong()) + '-';
+    @Nonnull private final AtomicLong nextId = new AtomicLong();
+
+    /**
+     * @param from          the sender of the publish requests
+     * @param pubSubService the pub-sub service to publish to
+     * @param client        the client that sends each publish request and receives its result
+     */
+    public TinderPubSubPublisher(@Nonnull final JID from, @Nonnull final JID pubSubService, @Nonnull final AsyncIQClient<IQ> client) {
+        this.from = from;
+        this.pubSubService = pubSubService;
+        this.client = client;
+    }
+
+    /**
+     * Sends a request to publish an item.
+     *
+     * @param publication the item to publish
+     * @return a future that completes with the result of the request, or exceptionally with a
+     * {@link StanzaErrorException} if the request fails or a {@link TimeoutException} if no result is received in time
+     */
+    @Nonnull
+    @Override
+    public CompletableFuture<IQ> apply(@Nonnull final PubSubPublication publication) {
+        final PubSubPublishRequest.Builder builder = PubSubPublishRequest.Builder.start()
+                .setId(idPrefix + nextId.incrementAndGet())
+                .setTo(pubSubService)
+                .setFrom(from)
+                .setPubSubNodeId(publication.getPubSubNodeId())
+                .addCalls(publication.getCalls());
+        publication.getDeviceStatus().ifPresent(builder::setDeviceStatus);
+        return client.sendRequest(builder.buildLazily(), IQ.class);
+    }
+}
@@ -0,0 +1,81 @@
+package com.bt.openlink.tinder.internal;
+
+import java.util.List;
+import java.util.Optional;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.dom4j.Attribute;
+import org.dom4j.Element;
+
+import com.bt.openlink.OpenlinkXmlWriter;
+
+/**
+ * Holds the code that adds the child elements to a stanza, so that the dom4j tree need only be built when the stanza's
+ * element is first required. Until then, the stanza can be serialised by writing the child elements directly with an
+ * {@link OpenlinkXmlWriter}.
+ * <p>
+ * This class is for internal use by the library only; users of the API should not access this class directly.
+ */
+public final class DeferredElement {
+
+    @Nullable private Runnable elementBuilder;
+    @Nonnull private final OpenlinkXmlWriter.Content childContent;
+
+    public DeferredElement(@Nonnull final Runnable elementBuilder, @Nonnull final OpenlinkXmlWriter.Content childContent) {
+        this.elementBuilder = elementBuilder;
+        this.childContent = childContent;
+    }
+
+    /**
+     * Builds the child elements, if they have not already been built. Re-entrant calls made while the elements are
+     * being built, for example to {@code getElement()}, return immediately.
+     */
+    public synchronized void materialise() {
+        final Runnable builder = elementBuilder;
+        if (builder != null) {
+            elementBuilder = null;
+            builder.run();
+        }
+    }
+
+    /**
+     * Serialises the stanza without building the child elements.
+     *
+     * @param element the stanza's root element, which should have attributes only
+     * @return the XML of the stanza, or empty if the child elements have already been built or the root element has
+     * any content or namespace of its own
+     */
+    @Nonnull
+    public synchronized Optional<String> toXML(@Nonnull final Element element) {
+        if (!canWriteDirectly(element)) {
+            return Optional.empty();
+        }
+        return Optional.of(OpenlinkXmlWriter.toXML(writer -> {
+            writer.startElement(element.getName());
+            @SuppressWarnings("unchecked") final List<Attribute> attributes = element.attributes();
+            for (final Attribute attribute : attributes) {
+                writer.attribute(attribute.getQualifiedName(), attribute.getValue());
+            }
+            childContent.writeTo(writer);
+            writer.endElement(element.getName());
+        }));
+    }
+
+    /**
+     * Serialises the child elements of the stanza without building them.
+     *
+     * @param element the stanza's root element, which should have attributes only
+     * @return the XML of the child elements, or empty if the child elements have already been built or the root element
+     * has any content or namespace of its own
+     */
+    @Nonnull
+    public synchronized Optional<String> getChildXML(@Nonnull final Element element) {
+        return canWriteDirectly(element) ? Optional.of(OpenlinkXmlWriter.toXML(childContent)) : Optional.empty();
+    }
+
+    private boolean canWriteDirectly(@Nonnull final Element element) {
+        return elementBuilder != null && element.nodeCount() == 0 && element.getNamespaceURI().isEmpty();
+    }
+}
@@ -3,8 +3,6 @@ package com.bt.openlink.tinder.internal;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
-import java.time.ZoneOffset;
-import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
@@ -13,7 +11,6 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
-import java.util.TimeZone;
 import java.util.stream.Collectors;
 
 import javax.annotation.Nonnull;
@@ -25,10 +22,13 @@ import org.xmpp.packet.JID;
 import org.xmpp.packet.Message;
 
 import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.ParseDiagnostics;
+import com.bt.openlink.TimestampCodec;
 import com.bt.openlink.message.PubSubMessageBuilder;
 import com.bt.openlink.type.Call;
 import com.bt.openlink.type.CallDirection;
 import com.bt.openlink.type.CallFeature;
+import com.bt.openlink.type.CallFieldMask;
 import com.bt.openlink.type.CallId;
 import com.bt.openlink.type.CallState;
 import com.bt.openlink.type.Changed;
@@ -46,6 +46,7 @@ import com.bt.openlink.type.PhoneNumber;
 import com.bt.openlink.type.ProfileId;
 import com.bt.openlink.type.PubSubNodeId;
 import com.bt.openlink.type.RequestAction;
+import com.bt.openlink.type.RequestActionSet;
 import com.bt.openlink.type.Site;
 import com.bt.openlink.type.UserId;
 
@@ -54,8 +55,6 @@ import com.bt.openlink.type.UserId;
  */
 public final class TinderPacketUtil {
 
-    private static final DateTimeFormatter ISO_8601_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
-    private static final DateTimeFormatter JAVA_UTIL_DATE_FORMATTER = DateTimeFormatter.ofPattern("EEE MMM dd HH:mm:ss zzz yyyy");
     private static final String ATTRIBUTE_DIRECTION = "direction";
     private static final String ATTRIBUTE_START_TIME = "start";
     private static final String ATTRIBUTE_TIMESTAMP = "timestamp";
@@ -139,7 +138,7 @@ public final class TinderPacketUtil {
             try {
                 return Optional.of(LocalDate.parse(dateText, dateTimeFormatter));
             } catch (final DateTimeParseException e) {
-                parseErrors.add(String.format("Invalid %s; invalid %s '%s'; date format is '%s'", stanzaDescription, childElementName, dateText, dateFormat));
+                ParseDiagnostics.report(parseErrors, "Invalid %s; invalid %s '%s'; date format is '%s'", stanzaDescription, childElementName, dateText, dateFormat);
             }
         }
         return Optional.empty();
@@ -154,9 +153,9 @@ public final class TinderPacketUtil {
         final String childElementText = getNullableChildElementString(parentElement, childElementName);
         if (childElementText != null) {
             try {
-                return Optional.of(Instant.parse(childElementText));
+                return Optional.of(TimestampCodec.parseIso8601(childElementText));
             } catch (final DateTimeParseException ignored) {
-                parseErrors.add(String.format("Invalid %s; invalid %s '%s'; format should be compliant with XEP-0082", stanzaDescription, childElementName, childElementText));
+                ParseDiagnostics.report(parseErrors, "Invalid %s; invalid %s '%s'; format should be compliant with XEP-0082", stanzaDescription, childElementName, childElementText);
             }
         }
         return Optional.empty();
@@ -173,7 +172,7 @@ public final class TinderPacketUtil {
             try {
                 return Optional.of(Long.parseLong(childElementText));
             } catch (final NumberFormatException ignored) {
-                parseErrors.add(String.format("Invalid %s; invalid %s '%s'; please supply an integer", stanzaDescription, childElementName, childElementText));
+                ParseDiagnostics.report(parseErrors, "Invalid %s; invalid %s '%s'; please supply an integer", stanzaDescription, childElementName, childElementText);
             }
         }
         return Optional.empty();
@@ -214,7 +213,7 @@ public final class TinderPacketUtil {
             attributeValue = valueString == null || valueString.isEmpty() ? null : valueString;
         }
         if (attributeValue == null && isRequired) {
-            parseErrors.add(String.format("Invalid %s; missing '%s' attribute is mandatory", stanzaDescription, attributeName));
+            ParseDiagnostics.report(parseErrors, "Invalid %s; missing '%s' attribute is mandatory", stanzaDescription, attributeName);
         }
         return attributeValue;
     }
@@ -225,7 +224,7 @@ public final class TinderPacketUtil {
         try {
             return stringValue.map(Long::valueOf);
         } catch (final NumberFormatException e) {
-            parseErrors.add(String.format("Invalid %s; Unable to parse number attribute %s: '%s'", description, attributeName, stringValue));
+            ParseDiagnostics.report(parseErrors, "Invalid %s; Unable to parse number attribute %s: '%s'", description, attributeName, stringValue);
             return Optional.empty();
         }
     }
@@ -233,9 +232,9 @@ public final class TinderPacketUtil {
     private static Optional<Instant> getISO8601Attribute(final Element parentElement, final String attributeName, final String description, final List<String> parseErrors) {
         final Optional<String> stringValue = getStringAttribute(parentElement, attributeName, false, description, parseErrors);
         try {
-            return stringValue.map(Instant::parse);
+            return stringValue.map(TimestampCodec::parseIso8601);
         } catch (final DateTimeParseException ignored) {
-            parseErrors.add(String.format("Invalid %s; invalid %s '%s'; format should be compliant with XEP-0082", description, attributeName, stringValue));
+            ParseDiagnostics.report(parseErrors, "Invalid %s; invalid %s '%s'; format should be compliant with XEP-0082", description, attributeName, stringValue);
             return Optional.empty();
         }
     }
@@ -243,9 +242,9 @@ public final class TinderPacketUtil {
     private static Optional<Instant> getJavaUtilDateAttribute(final Element parentElement, final String attributeName, final String description, final List<String> parseErrors) {
         final Optional<String> stringValue = getStringAttribute(parentElement, attributeName, false, description, parseErrors);
         try {
-            return stringValue.map(string -> Instant.from(JAVA_UTIL_DATE_FORMATTER.parse(string)));
+            return stringValue.map(TimestampCodec::parseJavaUtilDate);
         } catch (final DateTimeParseException ignored) {
-            parseErrors.add(String.format("Invalid %s; invalid %s '%s'; format should be 'dow mon dd hh:mm:ss zzz yyyy'", description, attributeName, stringValue));
+            ParseDiagnostics.report(parseErrors, "Invalid %s; invalid %s '%s'; format should be 'dow mon dd hh:mm:ss zzz yyyy'", description, attributeName, stringValue);
             return Optional.empty();
         }
     }
@@ -329,7 +328,7 @@ public final class TinderPacketUtil {
             }
             final Element calledNameElement = calledElement.addElement("name");
             call.getCalledName().ifPresent(calledNameElement::setText);
-            call.getStartTime().ifPresent(startTime -> callElement.addElement(ATTRIBUTE_START_TIME).setText(ISO_8601_FORMATTER.format(startTime.atZone(ZoneOffset.UTC))));
+            call.getStartTime().ifPresent(startTime -> callElement.addElement(ATTRIBUTE_START_TIME).setText(TimestampCodec.formatIso8601(startTime)));
             call.getDuration().ifPresent(duration -> callElement.addElement(ATTRIBUTE_DURATION).setText(String.valueOf(duration.toMillis())));
             addActions(call, callElement);
             addFeatures(call, callElement);
@@ -380,10 +379,9 @@ public final class TinderPacketUtil {
                 participant.getType().ifPresent(type -> participantElement.addAttribute("type", type.getId()));
                 participant.getDirection().ifPresent(direction -> participantElement.addAttribute(ATTRIBUTE_DIRECTION, direction.getLabel()));
                 participant.getStartTime().ifPresent(startTime -> {
-                    final ZonedDateTime startTimeInUTC = startTime.atZone(TimeZone.getTimeZone("UTC").toZoneId());
-                    participantElement.addAttribute(ATTRIBUTE_START_TIME, ISO_8601_FORMATTER.format(startTimeInUTC));
+                    participantElement.addAttribute(ATTRIBUTE_START_TIME, TimestampCodec.formatIso8601(startTime));
                     // Include the legacy timestamp attribute too
-                    participantElement.addAttribute(ATTRIBUTE_TIMESTAMP, JAVA_UTIL_DATE_FORMATTER.format(startTimeInUTC));
+                    participantElement.addAttribute(ATTRIBUTE_TIMESTAMP, TimestampCodec.formatJavaUtilDate(startTime));
                 });
                 participant.getDuration().ifPresent(duration -> participantElement.addAttribute(ATTRIBUTE_DURATION, String.valueOf(duration.toMillis())));
             });
@@ -426,43 +424,98 @@ public final class TinderPacketUtil {
         return phoneNumbers;
     }
 
-    @SuppressWarnings("unchecked")
     public static List<Call> getCalls(@Nullable final Element callStatusElement, @Nonnull final String description, @Nonnull final List<String> parseErrors) {
+        return getCalls(callStatusElement, description, parseErrors, CallFieldMask.all());
+    }
+
+    /**
+     * Decodes the calls in a callstatus element, skipping the elements of any field not in the mask.
+     *
+     * @param callStatusElement the callstatus element
+     * @param description       the description of the stanza, used in parse errors
+     * @param parseErrors       the list to which any parse errors are added
+     * @param fieldMask         the fields of each call to decode
+     * @return the calls
+     */
+    @SuppressWarnings("unchecked")
+    public static List<Call> getCalls(@Nullable final Element callStatusElement, @Nonnull final String description, @Nonnull final List<String> parseErrors, @Nonnull final CallFieldMask fieldMask) {
         final List<Call> calls = new ArrayList<>();
         if (callStatusElement != null) {
             final List<Element> callElements = callStatusElement.elements("call");
             for (final Element callElement : callElements) {
-                final Element callerElement = getChildElement(callElement, "caller");
-                final Element calledElement = getChildElement(callElement, "called");
-                final Call.Builder callBuilder = Call.Builder.start();
-                CallId.from(getNullableChildElementString(callElement, "id")).ifPresent(callBuilder::setId);
-                ConferenceId.from(getNullableChildElementString(callElement, "conference")).ifPresent(callBuilder::setConferenceId);
-                getSite(callElement, description, parseErrors).ifPresent(callBuilder::setSite);
-                ProfileId.from(getNullableChildElementString(callElement, ELEMENT_PROFILE)).ifPresent(callBuilder::setProfileId);
-                UserId.from(getNullableChildElementString(callElement, "user")).ifPresent(callBuilder::setUserId);
-                InterestId.from(getNullableChildElementString(callElement, "interest")).ifPresent(callBuilder::setInterestId);
-                Changed.from(getNullableChildElementString(callElement, "changed")).ifPresent(callBuilder::setChanged);
-                CallState.from(getNullableChildElementString(callElement, "state")).ifPresent(callBuilder::setState);
-                CallDirection.from(getNullableChildElementString(callElement, ATTRIBUTE_DIRECTION)).ifPresent(callBuilder::setDirection);
-                PhoneNumber.from(getNullableChildElementString(callerElement, ELEMENT_NUMBER)).ifPresent(callBuilder::setCallerNumber);
-                getOptionalChildElementString(callerElement, "name").ifPresent(callBuilder::setCallerName);
-                callBuilder.addCallerE164Numbers(getPhoneNumbers(getChildElement(callerElement, ELEMENT_NUMBER)));
-                PhoneNumber.from(getNullableChildElementString(calledElement, ELEMENT_NUMBER)).ifPresent(callBuilder::setCalledNumber);
-                getOptionalChildElementString(calledElement, "name").ifPresent(callBuilder::setCalledName);
-                PhoneNumber.from(getNullableStringAttribute(getChildElement(calledElement, ELEMENT_NUMBER), "destination")).ifPresent(callBuilder::setCalledDestination);
-                callBuilder.addCalledE164Numbers(getPhoneNumbers(getChildElement(calledElement, ELEMENT_NUMBER)));
-                getOriginatorReferences(callElement, callBuilder);
-                getChildElementISO8601(callElement, ATTRIBUTE_START_TIME, description, parseErrors).ifPresent(callBuilder::setStartTime);
-                getChildElementLong(callElement, ATTRIBUTE_DURATION, description, parseErrors).map(Duration::ofMillis).ifPresent(callBuilder::setDuration);
-                getActions(callElement, callBuilder, description, parseErrors);
-                getFeatures(callElement, callBuilder, description, parseErrors);
-                getParticipants(callElement, callBuilder, description, parseErrors);
-                calls.add(callBuilder.build(parseErrors));
+                calls.add(getCall(callElement, description, parseErrors, fieldMask));
             }
         }
         return calls;
     }
 
+    @Nonnull
+    public static Call getCall(@Nonnull final Element callElement, @Nonnull final String description, @Nonnull final List<String> parseErrors) {
+        return getCall(callElement, description, parseErrors, CallFieldMask.all());
+    }
+
+    @Nonnull
+    public static Call getCall(@Nonnull final Element callElement, @Nonnull final String description, @Nonnull final List<String> parseErrors, @Nonnull final CallFieldMask fieldMask) {
+        final Call.Builder callBuilder = Call.Builder.start().setFieldMask(fieldMask);
+        CallId.from(getNullableChildElementString(callElement, "id")).ifPresent(callBuilder::setId);
+        if (fieldMask.contains(CallFieldMask.Field.CONFERENCE)) {
+            ConferenceId.from(getNullableChildElementString(callElement, "conference")).ifPresent(callBuilder::setConferenceId);
+        }
+        if (fieldMask.contains(CallFieldMask.Field.SITE)) {
+            getSite(callElement, description, parseErrors).ifPresent(callBuilder::setSite);
+        }
+        if (fieldMask.contains(CallFieldMask.Field.PROFILE)) {
+            ProfileId.from(getNullableChildElementString(callElement, ELEMENT_PROFILE)).ifPresent(callBuilder::setProfileId);
+        }
+        if (fieldMask.contains(CallFieldMask.Field.USER)) {
+            UserId.from(getNullableChildElementString(callElement, "user")).ifPresent(callBuilder::setUserId);
+        }
+        if (fieldMask.contains(CallFieldMask.Field.INTEREST)) {
+            InterestId.from(getNullableChildElementString(callElement, "interest")).ifPresent(callBuilder::setInterestId);
+        }
+        if (fieldMask.contains(CallFieldMask.Field.CHANGED)) {
+            Changed.from(getNullableChildElementString(callElement, "changed")).ifPresent(callBuilder::setChanged);
+        }
+        if (fieldMask.contains(CallFieldMask.Field.STATE)) {
+            CallState.from(getNullableChildElementString(callElement, "state")).ifPresent(callBuilder::setState);
+        }
+        if (fieldMask.contains(CallFieldMask.Field.DIRECTION)) {
+            CallDirection.from(getNullableChildElementString(callElement, ATTRIBUTE_DIRECTION)).ifPresent(callBuilder::setDirection);
+        }
+        if (fieldMask.contains(CallFieldMask.Field.CALLER)) {
+            final Element callerElement = getChildElement(callElement, "caller");
+            PhoneNumber.from(getNullableChildElementString(callerElement, ELEMENT_NUMBER)).ifPresent(callBuilder::setCallerNumber);
+            getOptionalChildElementString(callerElement, "name").ifPresent(callBuilder::setCallerName);
+            callBuilder.addCallerE164Numbers(getPhoneNumbers(getChildElement(callerElement, ELEMENT_NUMBER)));
+        }
+        if (fieldMask.contains(CallFieldMask.Field.CALLED)) {
+            final Element calledElement = getChildElement(callElement, "called");
+            PhoneNumber.from(getNullableChildElementString(calledElement, ELEMENT_NUMBER)).ifPresent(callBuilder::setCalledNumber);
+            getOptionalChildElementString(calledElement, "name").ifPresent(callBuilder::setCalledName);
+            PhoneNumber.from(getNullableStringAttribute(getChildElement(calledElement, ELEMENT_NUMBER), "destination")).ifPresent(callBuilder::setCalledDestination);
+            callBuilder.addCalledE164Numbers(getPhoneNumbers(getChildElement(calledElement, ELEMENT_NUMBER)));
+        }
+        if (fieldMask.contains(CallFieldMask.Field.ORIGINATOR_REFERENCES)) {
+            getOriginatorReferences(callElement, callBuilder);
+        }
+        if (fieldMask.contains(CallFieldMask.Field.START_TIME)) {
+            getChildElementISO8601(callElement, ATTRIBUTE_START_TIME, description, parseErrors).ifPresent(callBuilder::setStartTime);
+        }
+        if (fieldMask.contains(CallFieldMask.Field.DURATION)) {
+            getChildElementLong(callElement, ATTRIBUTE_DURATION, description, parseErrors).map(Duration::ofMillis).ifPresent(callBuilder::setDuration);
+        }
+        if (fieldMask.contains(CallFieldMask.Field.ACTIONS)) {
+            getActions(callElement, callBuilder, description, parseErrors);
+        }
+        if (fieldMask.contains(CallFieldMask.Field.FEATURES)) {
+            getFeatures(callElement, callBuilder, description, parseErrors);
+        }
+        if (fieldMask.contains(CallFieldMask.Field.PARTICIPANTS)) {
+            getParticipants(callElement, callBuilder, description, parseErrors);
+        }
+        return callBuilder.build(parseErrors);
+    }
+
     @SuppressWarnings("unchecked")
     private static void getOriginatorReferences(final Element callElement, final Call.Builder callBuilder) {
 
@@ -522,7 +575,7 @@ public final class TinderPacketUtil {
             return Optional.of(Boolean.FALSE);
         }
         if (value != null) {
-            parseErrors.add(String.format("Invalid %s: %s is neither true or false", description, value));
+            ParseDiagnostics.report(parseErrors, "Invalid %s: %s is neither true or false", description, value);
         }
         return Optional.empty();
     }
@@ -556,30 +609,40 @@ public final class TinderPacketUtil {
         final Element actionsElement = callElement.element("actions");
         if (actionsElement != null) {
             final List<Element> actionElements = actionsElement.elements();
+            final RequestActionSet.Builder actions = RequestActionSet.Builder.start();
             for (final Element actionElement : actionElements) {
                 final String actionString = actionElement.getName();
                 final Optional<RequestAction> action = RequestAction.from(actionString);
                 if (action.isPresent()) {
-                    callBuilder.addAction(action.get());
+                    actions.add(action.get());
                 } else {
-                    parseErrors.add(String.format("Invalid %s: %s is not a valid action", description, actionString));
+                    ParseDiagnostics.report(parseErrors, "Invalid %s: %s is not a valid action", description, actionString);
                 }
             }
+            callBuilder.setActions(actions.build());
         }
     }
 
     @Nonnull
     public static Element addPubSubMetaData(@Nonnull final Element messageElement, @Nonnull final PubSubMessageBuilder<?, ?> builder) {
+        return addPubSubMetaData(messageElement, builder.getPubSubNodeId(), builder.getItemId());
+    }
+
+    public static Element addPubSubMetaData(@Nonnull final Element messageElement, @Nonnull final Optional<PubSubNodeId> pubSubNodeId, @Nonnull final Optional<ItemId> itemId) {
         final Element eventElement = messageElement.addElement("event", OpenlinkXmppNamespace.XMPP_PUBSUB_EVENT.uri());
         final Element itemsElement = eventElement.addElement("items");
-        builder.getPubSubNodeId().ifPresent(nodeId -> itemsElement.addAttribute("node", nodeId.value()));
+        pubSubNodeId.ifPresent(nodeId -> itemsElement.addAttribute("node", nodeId.value()));
         final Element itemElement = itemsElement.addElement("item");
-        builder.getItemId().ifPresent(id -> itemElement.addAttribute("id", id.value()));
+        itemId.ifPresent(id -> itemElement.addAttribute("id", id.value()));
         return itemElement;
     }
 
     public static void addDelay(@Nonnull final Element messageElement, @Nonnull final PubSubMessageBuilder<?, ?> builder) {
-        builder.getDelay().ifPresent(stamp -> messageElement.addElement("delay", "urn:xmpp:delay").addAttribute("stamp", stamp.toString()));
+        addDelay(messageElement, builder.getDelay());
+    }
+
+    public static void addDelay(@Nonnull final Element messageElement, @Nonnull final Optional<Instant> delay) {
+        delay.ifPresent(stamp -> messageElement.addElement("delay", "urn:xmpp:delay").addAttribute("stamp", stamp.toString()));
     }
 
     @Nullable
@@ -600,9 +663,9 @@ public final class TinderPacketUtil {
         if (stampOptional.isPresent()) {
             final String stamp = stampOptional.get();
             try {
-                builder.setDelay(Instant.parse(stamp));
+                builder.setDelay(TimestampCodec.parseIso8601(stamp));
             } catch (final DateTimeParseException e) {
-                parseErrors.add(String.format("Invalid %s; invalid timestamp '%s'; format should be compliant with XEP-0082", description, stamp));
+                ParseDiagnostics.report(parseErrors, "Invalid %s; invalid timestamp '%s'; format should be compliant with XEP-0082", description, stamp);
             }
         }
         return itemElement;
@@ -0,0 +1,908 @@
+package com.bt.openlink.tinder.internal;
+
+import java.io.StringReader;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.dom4j.Document;
+import org.dom4j.DocumentException;
+import org.dom4j.Element;
+import org.dom4j.io.SAXReader;
+import org.xml.sax.SAXException;
+import org.xmpp.packet.JID;
+
+import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.ParseDiagnostics;
+import com.bt.openlink.TimestampCodec;
+import com.bt.openlink.type.Call;
+import com.bt.openlink.type.CallDirection;
+import com.bt.openlink.type.CallFeature;
+import com.bt.openlink.type.CallFieldMask;
+import com.bt.openlink.type.CallId;
+import com.bt.openlink.type.CallState;
+import com.bt.openlink.type.Changed;
+import com.bt.openlink.type.ConferenceId;
+import com.bt.openlink.type.DeviceKey;
+import com.bt.openlink.type.DeviceStatus;
+import com.bt.openlink.type.Feature;
+import com.bt.openlink.type.FeatureId;
+import com.bt.openlink.type.FeatureType;
+import com.bt.openlink.type.Interest;
+import com.bt.openlink.type.InterestId;
+import com.bt.openlink.type.InterestType;
+import com.bt.openlink.type.ParticipantType;
+import com.bt.openlink.type.Participant;
+import com.bt.openlink.type.PhoneNumber;
+import com.bt.openlink.type.Profile;
+import com.bt.openlink.type.ProfileId;
+import com.bt.openlink.type.RequestAction;
+import com.bt.openlink.type.RequestActionSet;
+import com.bt.openlink.type.Site;
+import com.bt.openlink.type.UserId;
+
+/**
+ * Decodes Openlink payloads directly from the XML character stream with a StAX pull parser, rather than walking a dom4j
+ * tree. Each method expects the reader to be positioned on the start of the element it decodes, leaves it on the end of
+ * that element, and reports exactly the same parse errors as the equivalent method in {@link TinderPacketUtil}.
+ * <p>
+ * This class is for internal use by the library only; users of the API should not access this class directly.
+ */
+public final class TinderStreamUtil {
+
+    private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+    private static final String ELEMENT_NUMBER = "number";
+    private static final String ELEMENT_PROFILE = "profile";
+    private static final String ATTRIBUTE_DIRECTION = "direction";
+    private static final String ATTRIBUTE_START_TIME = "start";
+    private static final String ATTRIBUTE_TIMESTAMP = "timestamp";
+    private static final String ATTRIBUTE_DURATION = "duration";
+
+    private TinderStreamUtil() {
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        final XMLInputFactory inputFactory = XMLInputFactory.newInstance();
+        inputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.TRUE);
+        inputFactory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+        inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+        return inputFactory;
+    }
+
+    /**
+     * Creates a reader positioned on the start of the root element of the stanza.
+     *
+     * @param stanza the XML of the stanza
+     * @return a reader positioned on the root element
+     * @throws XMLStreamException if the stanza is not well-formed XML
+     */
+    @Nonnull
+    public static XMLStreamReader createReader(@Nonnull final String stanza) throws XMLStreamException {
+        final XMLStreamReader reader = INPUT_FACTORY.createXMLStreamReader(new StringReader(stanza));
+        reader.nextTag();
+        return reader;
+    }
+
+    /**
+     * Builds a dom4j tree for the stanza; used when the stanza is not one that can be decoded from the stream. As with the
+     * stream reader, a stanza with a DOCTYPE declaration is rejected, so no external entity is ever resolved.
+     *
+     * @param stanza the XML of the stanza
+     * @return the root element of the stanza
+     * @throws IllegalArgumentException if the stanza is not well-formed XML, or has a DOCTYPE declaration
+     */
+    @Nonnull
+    public static Element getRootElement(@Nonnull final String stanza) {
+        try {
+            final Document document = createSaxReader().read(new StringReader(stanza));
+            return document.getRootElement();
+        } catch (final DocumentException e) {
+            throw new IllegalArgumentException("Unable to parse stanza", e);
+        }
+    }
+
+    @Nonnull
+    private static SAXReader createSaxReader() {
+        // A SAXReader is not thread-safe, so one is created for each stanza
+        final SAXReader reader = new SAXReader();
+        try {
+            reader.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            reader.setFeature("http://xml.org/sax/features/external-general-entities", false);
+            reader.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
+        } catch (final SAXException e) {
+            throw new IllegalStateException("Unable to disable DTDs in the XML parser", e);
+        }
+        return reader;
+    }
+
+    /**
+     * Moves to the start of the next child of the current element.
+     *
+     * @param reader a reader positioned on the start of the parent element, or the end of the previous child
+     * @return true if positioned on the start of a child element, false if positioned on the end of the parent element
+     * @throws XMLStreamException if the stream cannot be read
+     */
+    public static boolean nextChildElement(@Nonnull final XMLStreamReader reader) throws XMLStreamException {
+        while (reader.hasNext()) {
+            final int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                return true;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Moves to the first descendant with the given path, in the same way as
+     * {@link TinderPacketUtil#getChildElement(Element, String...)}.
+     *
+     * @param reader       a reader positioned on the start of the parent element
+     * @param elementNames the names of the elements to descend through
+     * @return true if positioned on the start of the descendant, false if there is no such descendant
+     * @throws XMLStreamException if the stream cannot be read
+     */
+    public static boolean moveToChildElement(@Nonnull final XMLStreamReader reader, @Nonnull final String... elementNames) throws XMLStreamException {
+        for (final String elementName : elementNames) {
+            boolean found = false;
+            while (!found && nextChildElement(reader)) {
+                if (elementName.equals(reader.getLocalName())) {
+                    found = true;
+                } else {
+                    skipElement(reader);
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Skips the current element, including all its children.
+     *
+     * @param reader a reader positioned on the start of the element, which will be left on the end of the element
+     * @throws XMLStreamException if the stream cannot be read
+     */
+    public static void skipElement(@Nonnull final XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0 && reader.hasNext()) {
+            final int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    /**
+     * Reads the text of the current element, ignoring the content of any child elements, in the same way as
+     * {@link Element#getText()}.
+     *
+     * @param reader a reader positioned on the start of the element, which will be left on the end of the element
+     * @return the text of the element, which is empty if there is none
+     * @throws XMLStreamException if the stream cannot be read
+     */
+    @Nonnull
+    public static String readText(@Nonnull final XMLStreamReader reader) throws XMLStreamException {
+        final StringBuilder text = new StringBuilder();
+        while (reader.hasNext()) {
+            final int event = reader.next();
+            if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA || event == XMLStreamConstants.SPACE) {
+                text.append(reader.getText());
+            } else if (event == XMLStreamConstants.START_ELEMENT) {
+                skipElement(reader);
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                break;
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * Reads the trimmed text of the current element, in the same way as
+     * {@link TinderPacketUtil#getNullableChildElementString(Element, String)}.
+     *
+     * @param reader a reader positioned on the start of the element, which will be left on the end of the element
+     * @return the trimmed text of the element, or null if there is none
+     * @throws XMLStreamException if the stream cannot be read
+     */
+    @Nullable
+    public static String readNullableText(@Nonnull final XMLStreamReader reader) throws XMLStreamException {
+        final String text = readText(reader).trim();
+        return text.isEmpty() ? null : text;
+    }
+
+    /**
+     * @param reader        a reader positioned on the start of an element
+     * @param attributeName the name of the attribute
+     * @return the value of the attribute, or null if it is missing or empty
+     */
+    @Nullable
+    public static String getNullableAttribute(@Nonnull final XMLStreamReader reader, @Nonnull final String attributeName) {
+        final String value = reader.getAttributeValue(null, attributeName);
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    @Nonnull
+    public static Optional<JID> getJID(@Nonnull final XMLStreamReader reader, @Nonnull final String attributeName) {
+        return TinderPacketUtil.getJID(reader.getAttributeValue(null, attributeName));
+    }
+
+    @Nonnull
+    public static Optional<Boolean> getBooleanAttribute(
+            @Nonnull final XMLStreamReader reader,
+            @Nonnull final String attributeName,
+            @Nonnull final String description,
+            @Nonnull final List<String> parseErrors) {
+        return getBoolean(getNullableAttribute(reader, attributeName), description, parseErrors);
+    }
+
+    @Nonnull
+    private static Optional<Boolean> getBoolean(@Nullable final String value, @Nonnull final String description, @Nonnull final List<String> parseErrors) {
+        if ("true".equalsIgnoreCase(value)) {
+            return Optional.of(Boolean.TRUE);
+        } else if ("false".equalsIgnoreCase(value)) {
+            return Optional.of(Boolean.FALSE);
+        }
+        if (value != null) {
+            ParseDiagnostics.report(parseErrors, "Invalid %s: %s is neither true or false", description, value);
+        }
+        return Optional.empty();
+    }
+
+    @Nullable
+    private static String getRequiredAttribute(
+            @Nonnull final XMLStreamReader reader,
+            @Nonnull final String attributeName,
+            @Nonnull final String description,
+            @Nonnull final List<String> parseErrors) {
+        final String value = getNullableAttribute(reader, attributeName);
+        if (value == null) {
+            ParseDiagnostics.report(parseErrors, "Invalid %s; missing '%s' attribute is mandatory", description, attributeName);
+        }
+        return value;
+    }
+
+    /**
+     * The attributes of a site element, held until the whole element has been read.
+     */
+    private static final class SiteFields {
+        @Nullable private String id;
+        @Nullable private String isDefault;
+        @Nullable private String type;
+        @Nonnull private String name = "";
+    }
+
+    @Nonnull
+    private static SiteFields readSite(@Nonnull final XMLStreamReader reader) throws XMLStreamException {
+        final SiteFields site = new SiteFields();
+        site.id = getNullableAttribute(reader, "id");
+        site.isDefault = getNullableAttribute(reader, OpenlinkXmppNamespace.TAG_DEFAULT);
+        site.type = getNullableAttribute(reader, "type");
+        site.name = readText(reader);
+        return site;
+    }
+
+    @Nonnull
+    private static Site buildSite(@Nonnull final SiteFields fields, @Nonnull final String description, @Nonnull final List<String> parseErrors) {
+        final Site.Builder siteBuilder = Site.Builder.start()
+                .setName(fields.name);
+        if (fields.id != null) {
+            try {
+                siteBuilder.setId(Long.valueOf(fields.id));
+            } catch (final NumberFormatException e) {
+                ParseDiagnostics.report(parseErrors, "Invalid %s; Unable to parse number attribute %s: '%s'", description, "id", Optional.of(fields.id));
+            }
+        }
+        getBoolean(fields.isDefault, description, parseErrors).ifPresent(siteBuilder::setDefault);
+        Site.Type.from(fields.type).ifPresent(siteBuilder::setType);
+        return siteBuilder.build(parseErrors);
+    }
+
+    /**
+     * Decodes a site element.
+     *
+     * @param reader      a reader positioned on the start of the site element
+     * @param description the description of the stanza, used in parse errors
+     * @param parseErrors the list to which any parse errors are added
+     * @return the site
+     * @throws XMLStreamException if the stream cannot be read
+     */
+    @Nonnull
+    public static Site getSite(@Nonnull final XMLStreamReader reader, @Nonnull final String description, @Nonnull final List<String> parseErrors) throws XMLStreamException {
+        return buildSite(readSite(reader), description, parseErrors);
+    }
+
+    /**
+     * Decodes a profile element of a get-profiles result.
+     *
+     * @param reader      a reader positioned on the start of the profile element
+     * @param description the description of the stanza, used in parse errors
+     * @param parseErrors the list to which any parse errors are added
+     * @return the profile
+     * @throws XMLStreamException if the stream cannot be read
+     */
+    @Nonnull
+    public static Profile getProfile(@Nonnull final XMLStreamReader reader, @Nonnull final String description, @Nonnull final List<String> parseErrors) throws XMLStreamException {
+        final Profile.Builder profileBuilder = Profile.Builder.start();
+        ProfileId.from(getNullableAttribute(reader, "id")).ifPresent(profileBuilder::setId);
+        getBooleanAttribute(reader, OpenlinkXmppNamespace.TAG_DEFAULT, description, parseErrors).ifPresent(profileBuilder::setDefault);
+        Optional.ofNullable(getNullableAttribute(reader, "device")).ifPresent(profileBuilder::setDevice);
+        Optional.ofNullable(getNullableAttribute(reader, OpenlinkXmppNamespace.TAG_LABEL)).ifPresent(profileBuilder::setLabel);
+        getBooleanAttribute(reader, "online", description, parseErrors).ifPresent(profileBuilder::setOnline);
+        boolean siteFound = false;
+        boolean actionsFound = false;
+        while (nextChildElement(reader)) {
+            final String elementName = reader.getLocalName();
+            if ("site".equals(elementName) && !siteFound) {
+                siteFound = true;
+                profileBuilder.setSite(getSite(reader, description, parseErrors));
+            } else if (OpenlinkXmppNamespace.TAG_ACTIONS.equals(elementName) && !actionsFound) {
+                actionsFound = true;
+                final RequestActionSet.Builder actions = RequestActionSet.Builder.start();
+                while (nextChildElement(reader)) {
+                    if (OpenlinkXmppNamespace.TAG_ACTION.equals(reader.getLocalName())) {
+                        RequestAction.from(getNullableAttribute(reader, "id")).ifPresent(actions::add);
+                    }
+                    skipElement(reader);
+                }
+                profileBuilder.setActions(actions.build());
+            } else {
+                skipElement(reader);
+            }
+        }
+        return profileBuilder.build(parseErrors);
+    }
+
+    /**
+     * Decodes an interest element.
+     *
+     * @param reader      a reader positioned on the start of the interest element
+     * @param description the description of the stanza, used in parse errors
+     * @param parseErrors the list to which any parse errors are added
+     * @return the interest
+     * @throws XMLStreamException if the stream cannot be read
+     */
+    @Nonnull
+    public static Interest getInterest(@Nonnull final XMLStreamReader reader, @Nonnull final String description, @Nonnull final List<String> parseErrors) throws XMLStreamException {
+        final Interest.Builder interestBuilder = Interest.Builder.start();
+        InterestId.from(getNullableAttribute(reader, "id")).ifPresent(interestBuilder::setId);
+        InterestType.from(getNullableAttribute(reader, "type")).ifPresent(interestBuilder::setType);
+        Optional.ofNullable(getNullableAttribute(reader, OpenlinkXmppNamespace.TAG_LABEL)).ifPresent(interestBuilder::setLabel);
+        getBooleanAttribute(reader, OpenlinkXmppNamespace.TAG_DEFAULT, description, parseErrors).ifPresent(interestBuilder::setDefault);
+        skipElement(reader);
+        return interestBuilder.build(parseErrors);
+    }
+
+    /**
+     * Decodes a feature element of a get-features result.
+     *
+     * @param reader      a reader positioned on the start of the feature element
+     * @param description the description of the stanza, used in parse errors
+     * @param parseErrors the list to which any parse errors are added
+     * @return the feature
+     * @throws XMLStreamException if the stream cannot be read
+     */
+    @Nonnull
+    public static Feature getFeature(@Nonnull final XMLStreamReader reader, @Nonnull final String description, @Nonnull final List<String> parseErrors) throws XMLStreamException {
+        final Feature.Builder featureBuilder = Feature.Builder.start();
+        FeatureId.from(getRequiredAttribute(reader, "id", description, parseErrors)).ifPresent(featureBuilder::setId);
+        final String featureTypeString = getRequiredAttribute(reader, "type", description, parseErrors);
+        if (featureTypeString != null) {
+            final Optional<FeatureType> featureType = FeatureType.from(featureTypeString);
+            if (featureType.isPresent()) {
+                featureBuilder.setType(featureType.get());
+            } else {
+                ParseDiagnostics.report(parseErrors, "Invalid %s; invalid feature type - '%s'", description, featureTypeString);
+            }
+        }
+        Optional.ofNullable(getRequiredAttribute(reader, OpenlinkXmppNamespace.TAG_LABEL, description, parseErrors)).ifPresent(featureBuilder::setLabel);
+        skipElement(reader);
+        return featureBuilder.build(parseErrors);
+    }
+
+    /**
+     * Decodes the profile of a devicestatus element.
+     *
+     * @param reader      a reader positioned on the start of the devicestatus element
+     * @param description the description of the stanza, used in parse errors
+     * @param parseErrors the list to which any parse errors are added
+     * @return the device status, if the devicestatus element contains a profile
+     * @throws XMLStreamException if the stream cannot be read
+     */
+    @Nonnull
+    public static Optional<DeviceStatus> getDeviceStatus(@Nonnull final XMLStreamReader reader, @Nonnull final String description, @Nonnull final List<String> parseErrors) throws XMLStreamException {
+        DeviceStatus deviceStatus = null;
+        while (nextChildElement(reader)) {
+            if (ELEMENT_PROFILE.equals(reader.getLocalName()) && deviceStatus == null) {
+                final DeviceStatus.Builder builder = DeviceStatus.Builder.start();
+                getBooleanAttribute(reader, "online", description, parseErrors).ifPresent(builder::setOnline);
+                ProfileId.from(readNullableText(reader)).ifPresent(builder::setProfileId);
+                deviceStatus = builder.build(parseErrors);
+            } else {
+                skipElement(reader);
+            }
+        }
+        return Optional.ofNullable(deviceStatus);
+    }
+
+    /**
+     * The raw values of a call feature element, held until the whole element has been read.
+     */
+    private static final class CallFeatureFields {
+        @Nullable private String id;
+        @Nullable private String label;
+        @Nullable private String type;
+        @Nonnull private String text = "";
+        private boolean hasChildElement;
+        @Nullable private String deviceKey;
+    }
+
+    /**
+     * The raw values of a participant element.
+     */
+    private static final class ParticipantFields {
+        @Nullable private String jid;
+        @Nullable private String type;
+        @Nullable private String direction;
+        @Nullable private String timestamp;
+        @Nullable private String startTime;
+        @Nullable private String duration;
+    }
+
+    /**
+     * The raw values of a call element. The values are collected in a single pass over the element and then decoded in
+     * the same order as {@link TinderPacketUtil#getCalls(Element, String, List)}, so that any parse errors are reported
+     * in the same order whatever the order of the elements in the stanza.
+     */
+    private static final class CallFields {
+        @Nullable private String id;
+        @Nullable private String conferenceId;
+        @Nullable private SiteFields site;
+        @Nullable private String profileId;
+        @Nullable private String userId;
+        @Nullable private String interestId;
+        @Nullable private String changed;
+        @Nullable private String state;
+        @Nullable private String direction;
+        private boolean callerFound;
+        @Nullable private String callerNumber;
+        @Nullable private String callerName;
+        @Nullable private String callerE164Numbers;
+        private boolean calledFound;
+        @Nullable private String calledNumber;
+        @Nullable private String calledName;
+        @Nullable private String calledDestination;
+        @Nullable private String calledE164Numbers;
+        @Nullable private List<String[]> originatorReferences;
+        @Nullable private String startTime;
+        @Nullable private String duration;
+        @Nullable private List<String> actions;
+        @Nullable private List<CallFeatureFields> features;
+        @Nullable private List<ParticipantFields> participants;
+    }
+
+    /**
+     * Decodes the calls in a callstatus element.
+     *
+     * @param reader      a reader positioned on the start of the callstatus element
+     * @param description the description of the stanza, used in parse errors
+     * @param parseErrors the list to which any parse errors are added
+     * @return the calls
+     * @throws XMLStreamException if the stream cannot be read
+     */
+    @Nonnull
+    public static List<Call> getCalls(@Nonnull final XMLStreamReader reader, @Nonnull final String description, @Nonnull final List<String> parseErrors) throws XMLStreamException {
+        return getCalls(reader, description, parseErrors, CallFieldMask.all());
+    }
+
+    /**
+     * Decodes the calls in a callstatus element, skipping the elements of any field not in the mask without reading
+     * them.
+     *
+     * @param reader      a reader positioned on the start of the callstatus element
+     * @param description the description of the stanza, used in parse errors
+     * @param parseErrors the list to which any parse errors are added
+     * @param fieldMask   the fields of each call to decode
+     * @return the calls
+     * @throws XMLStreamException if the stream cannot be read
+     */
+    @Nonnull
+    public static List<Call> getCalls(@Nonnull final XMLStreamReader reader, @Nonnull final String description, @Nonnull final List<String> parseErrors, @Nonnull final CallFieldMask fieldMask) throws XMLStreamException {
+        final List<Call> calls = new ArrayList<>();
+        while (nextChildElement(reader)) {
+            if ("call".equals(reader.getLocalName())) {
+                calls.add(buildCall(readCall(reader, fieldMask), description, parseErrors, fieldMask));
+            } else {
+                skipElement(reader);
+            }
+        }
+        return calls;
+    }
+
+    @Nonnull
+    private static CallFields readCall(@Nonnull final XMLStreamReader reader, @Nonnull final CallFieldMask fieldMask) throws XMLStreamException {
+        final CallFields call = new CallFields();
+        final boolean allFields = fieldMask.isAll();
+        while (nextChildElement(reader)) {
+            final String elementName = reader.getLocalName();
+            if (!allFields && !isDecoded(elementName, fieldMask)) {
+                skipElement(reader);
+                continue;
+            }
+            switch (elementName) {
+            case "id":
+                call.id = readFirstText(reader, call.id);
+                break;
+            case "conference":
+                call.conferenceId = readFirstText(reader, call.conferenceId);
+                break;
+            case "site":
+                if (call.site == null) {
+                    call.site = readSite(reader);
+                } else {
+                    skipElement(reader);
+                }
+                break;
+            case ELEMENT_PROFILE:
+                call.profileId = readFirstText(reader, call.profileId);
+                break;
+            case "user":
+                call.userId = readFirstText(reader, call.userId);
+                break;
+            case "interest":
+                call.interestId = readFirstText(reader, call.interestId);
+                break;
+            case "changed":
+                call.changed = readFirstText(reader, call.changed);
+                break;
+            case "state":
+                call.state = readFirstText(reader, call.state);
+                break;
+            case ATTRIBUTE_DIRECTION:
+                call.direction = readFirstText(reader, call.direction);
+                break;
+            case "caller":
+                if (call.callerFound) {
+                    skipElement(reader);
+                } else {
+                    call.callerFound = true;
+                    readCaller(reader, call);
+                }
+                break;
+            case "called":
+                if (call.calledFound) {
+                    skipElement(reader);
+                } else {
+                    call.calledFound = true;
+                    readCalled(reader, call);
+                }
+                break;
+            case "originator-ref":
+                if (call.originatorReferences == null) {
+                    call.originatorReferences = readOriginatorReferences(reader);
+                } else {
+                    skipElement(reader);
+                }
+                break;
+            case ATTRIBUTE_START_TIME:
+                call.startTime = readFirstText(reader, call.startTime);
+                break;
+            case ATTRIBUTE_DURATION:
+                call.duration = readFirstText(reader, call.duration);
+                break;
+            case "actions":
+                if (call.actions == null) {
+                    call.actions = readActions(reader);
+                } else {
+                    skipElement(reader);
+                }
+                break;
+            case "features":
+                if (call.features == null) {
+                    call.features = readCallFeatures(reader);
+                } else {
+                    skipElement(reader);
+                }
+                break;
+            case "participants":
+                if (call.participants == null) {
+                    call.participants = readParticipants(reader);
+                } else {
+                    skipElement(reader);
+                }
+                break;
+            default:
+                skipElement(reader);
+                break;
+            }
+        }
+        return call;
+    }
+
+    private static boolean isDecoded(@Nonnull final String elementName, @Nonnull final CallFieldMask fieldMask) {
+        final Optional<CallFieldMask.Field> field = CallFieldMask.Field.fromElementName(elementName);
+        return !field.isPresent() || fieldMask.contains(field.get());
+    }
+
+    // As with dom4j's element(name), only the first element with a given name is used
+    @Nullable
+    private static String readFirstText(@Nonnull final XMLStreamReader reader, @Nullable final String existingValue) throws XMLStreamException {
+        if (existingValue != null) {
+            skipElement(reader);
+            return existingValue;
+        }
+        return readNullableText(reader);
+    }
+
+    private static void readCaller(@Nonnull final XMLStreamReader reader, @Nonnull final CallFields call) throws XMLStreamException {
+        boolean numberFound = false;
+        boolean nameFound = false;
+        while (nextChildElement(reader)) {
+            final String elementName = reader.getLocalName();
+            if (ELEMENT_NUMBER.equals(elementName) && !numberFound) {
+                numberFound = true;
+                call.callerE164Numbers = getNullableAttribute(reader, "e164");
+                call.callerNumber = readNullableText(reader);
+            } else if ("name".equals(elementName) && !nameFound) {
+                nameFound = true;
+                call.callerName = readNullableText(reader);
+            } else {
+                skipElement(reader);
+            }
+        }
+    }
+
+    private static void readCalled(@Nonnull final XMLStreamReader reader, @Nonnull final CallFields call) throws XMLStreamException {
+        boolean numberFound = false;
+        boolean nameFound = false;
+        while (nextChildElement(reader)) {
+            final String elementName = reader.getLocalName();
+            if (ELEMENT_NUMBER.equals(elementName) && !numberFound) {
+                numberFound = true;
+                call.calledE164Numbers = getNullableAttribute(reader, "e164");
+                call.calledDestination = getNullableAttribute(reader, "destination");
+                call.calledNumber = readNullableText(reader);
+            } else if ("name".equals(elementName) && !nameFound) {
+                nameFound = true;
+                call.calledName = readNullableText(reader);
+            } else {
+                skipElement(reader);
+            }
+        }
+    }
+
+    @Nonnull
+    private static List<String[]> readOriginatorReferences(@Nonnull final XMLStreamReader reader) throws XMLStreamException {
+        final List<String[]> originatorReferences = new ArrayList<>();
+        while (nextChildElement(reader)) {
+            if ("property".equals(reader.getLocalName())) {
+                final String key = Optional.ofNullable(getNullableAttribute(reader, "id")).orElse("");
+                String value = null;
+                while (nextChildElement(reader)) {
+                    value = "value".equals(reader.getLocalName()) ? readFirstText(reader, value) : skipAndKeep(reader, value);
+                }
+                originatorReferences.add(new String[]{key, value == null ? "" : value});
+            } else {
+                skipElement(reader);
+            }
+        }
+        return originatorReferences;
+    }
+
+    @Nullable
+    private static String skipAndKeep(@Nonnull final XMLStreamReader reader, @Nullable final String value) throws XMLStreamException {
+        skipElement(reader);
+        return value;
+    }
+
+    @Nonnull
+    private static List<String> readActions(@Nonnull final XMLStreamReader reader) throws XMLStreamException {
+        final List<String> actions = new ArrayList<>();
+        while (nextChildElement(reader)) {
+            actions.add(reader.getLocalName());
+            skipElement(reader);
+        }
+        return actions;
+    }
+
+    @Nonnull
+    private static List<CallFeatureFields> readCallFeatures(@Nonnull final XMLStreamReader reader) throws XMLStreamException {
+        final List<CallFeatureFields> features = new ArrayList<>();
+        while (nextChildElement(reader)) {
+            if (!"feature".equals(reader.getLocalName())) {
+                skipElement(reader);
+                continue;
+            }
+            final CallFeatureFields feature = new CallFeatureFields();
+            feature.id = reader.getAttributeValue(null, "id");
+            feature.label = reader.getAttributeValue(null, "label");
+            feature.type = reader.getAttributeValue(null, "type");
+            final StringBuilder text = new StringBuilder();
+            boolean deviceKeysFound = false;
+            while (reader.hasNext()) {
+                final int event = reader.next();
+                if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA || event == XMLStreamConstants.SPACE) {
+                    text.append(reader.getText());
+                } else if (event == XMLStreamConstants.START_ELEMENT) {
+                    feature.hasChildElement = true;
+                    if ("devicekeys".equals(reader.getLocalName()) && !deviceKeysFound) {
+                        deviceKeysFound = true;
+                        while (nextChildElement(reader)) {
+                            feature.deviceKey = "key".equals(reader.getLocalName()) ? readFirstText(reader, feature.deviceKey) : skipAndKeep(reader, feature.deviceKey);
+                        }
+                    } else {
+                        skipElement(reader);
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    break;
+                }
+            }
+            feature.text = text.toString();
+            features.add(feature);
+        }
+        return features;
+    }
+
+    @Nonnull
+    private static List<ParticipantFields> readParticipants(@Nonnull final XMLStreamReader reader) throws XMLStreamException {
+        final List<ParticipantFields> participants = new ArrayList<>();
+        while (nextChildElement(reader)) {
+            if ("participant".equals(reader.getLocalName())) {
+                final ParticipantFields participant = new ParticipantFields();
+                participant.jid = getNullableAttribute(reader, "jid");
+                participant.type = getNullableAttribute(reader, "type");
+                participant.direction = getNullableAttribute(reader, ATTRIBUTE_DIRECTION);
+                participant.timestamp = getNullableAttribute(reader, ATTRIBUTE_TIMESTAMP);
+                participant.startTime = getNullableAttribute(reader, ATTRIBUTE_START_TIME);
+                participant.duration = getNullableAttribute(reader, ATTRIBUTE_DURATION);
+                participants.add(participant);
+            }
+            skipElement(reader);
+        }
+        return participants;
+    }
+
+    @Nonnull
+    private static Call buildCall(@Nonnull final CallFields fields, @Nonnull final String description, @Nonnull final List<String> parseErrors, @Nonnull final CallFieldMask fieldMask) {
+        final Call.Builder callBuilder = Call.Builder.start().setFieldMask(fieldMask);
+        CallId.from(fields.id).ifPresent(callBuilder::setId);
+        ConferenceId.from(fields.conferenceId).ifPresent(callBuilder::setConferenceId);
+        if (fields.site != null) {
+            callBuilder.setSite(buildSite(fields.site, description, parseErrors));
+        }
+        ProfileId.from(fields.profileId).ifPresent(callBuilder::setProfileId);
+        UserId.from(fields.userId).ifPresent(callBuilder::setUserId);
+        InterestId.from(fields.interestId).ifPresent(callBuilder::setInterestId);
+        Changed.from(fields.changed).ifPresent(callBuilder::setChanged);
+        CallState.from(fields.state).ifPresent(callBuilder::setState);
+        CallDirection.from(fields.direction).ifPresent(callBuilder::setDirection);
+        PhoneNumber.from(fields.callerNumber).ifPresent(callBuilder::setCallerNumber);
+        Optional.ofNullable(fields.callerName).ifPresent(callBuilder::setCallerName);
+        callBuilder.addCallerE164Numbers(getPhoneNumbers(fields.callerE164Numbers));
+        PhoneNumber.from(fields.calledNumber).ifPresent(callBuilder::setCalledNumber);
+        Optional.ofNullable(fields.calledName).ifPresent(callBuilder::setCalledName);
+        PhoneNumber.from(fields.calledDestination).ifPresent(callBuilder::setCalledDestination);
+        callBuilder.addCalledE164Numbers(getPhoneNumbers(fields.calledE164Numbers));
+        if (fields.originatorReferences != null) {
+            fields.originatorReferences.forEach(keyValue -> callBuilder.addOriginatorReference(keyValue[0], keyValue[1]));
+        }
+        if (fields.startTime != null) {
+            try {
+                callBuilder.setStartTime(TimestampCodec.parseIso8601(fields.startTime));
+            } catch (final DateTimeParseException ignored) {
+                ParseDiagnostics.report(parseErrors, "Invalid %s; invalid %s '%s'; format should be compliant with XEP-0082", description, ATTRIBUTE_START_TIME, fields.startTime);
+            }
+        }
+        if (fields.duration != null) {
+            try {
+                callBuilder.setDuration(Duration.ofMillis(Long.parseLong(fields.duration)));
+            } catch (final NumberFormatException ignored) {
+                ParseDiagnostics.report(parseErrors, "Invalid %s; invalid %s '%s'; please supply an integer", description, ATTRIBUTE_DURATION, fields.duration);
+            }
+        }
+        if (fields.actions != null) {
+            final RequestActionSet.Builder actions = RequestActionSet.Builder.start();
+            for (final String actionString : fields.actions) {
+                final Optional<RequestAction> action = RequestAction.from(actionString);
+                if (action.isPresent()) {
+                    actions.add(action.get());
+                } else {
+                    ParseDiagnostics.report(parseErrors, "Invalid %s: %s is not a valid action", description, actionString);
+                }
+            }
+            callBuilder.setActions(actions.build());
+        }
+        if (fields.features != null) {
+            for (final CallFeatureFields featureFields : fields.features) {
+                final CallFeature.Builder callFeatureBuilder = CallFeature.Builder.start();
+                FeatureId.from(featureFields.id).ifPresent(callFeatureBuilder::setId);
+                Optional.ofNullable(featureFields.label).ifPresent(callFeatureBuilder::setLabel);
+                FeatureType.from(featureFields.type).ifPresent(callFeatureBuilder::setType);
+                if (featureFields.hasChildElement) {
+                    DeviceKey.from(featureFields.deviceKey).ifPresent(callFeatureBuilder::setDeviceKey);
+                } else {
+                    getBoolean(featureFields.text, description, parseErrors).ifPresent(callFeatureBuilder::setEnabled);
+                }
+                callBuilder.addFeature(callFeatureBuilder.build(parseErrors));
+            }
+        }
+        if (fields.participants != null) {
+            for (final ParticipantFields participantFields : fields.participants) {
+                callBuilder.addParticipant(buildParticipant(participantFields, description, parseErrors));
+            }
+        }
+        return callBuilder.build(parseErrors);
+    }
+
+    @Nonnull
+    private static Participant buildParticipant(@Nonnull final ParticipantFields fields, @Nonnull final String description, @Nonnull final List<String> parseErrors) {
+        final Participant.Builder participantBuilder = Participant.Builder.start();
+        if (fields.jid == null) {
+            ParseDiagnostics.report(parseErrors, "Invalid %s; missing '%s' attribute is mandatory", description, "jid");
+        } else {
+            participantBuilder.setJID(fields.jid);
+        }
+        ParticipantType.from(fields.type).ifPresent(participantBuilder::setType);
+        CallDirection.from(fields.direction).ifPresent(participantBuilder::setDirection);
+        Optional<Instant> participantTimestamp = Optional.empty();
+        if (fields.timestamp != null) {
+            try {
+                participantTimestamp = Optional.of(TimestampCodec.parseJavaUtilDate(fields.timestamp));
+            } catch (final DateTimeParseException ignored) {
+                ParseDiagnostics.report(parseErrors, "Invalid %s; invalid %s '%s'; format should be 'dow mon dd hh:mm:ss zzz yyyy'", description, ATTRIBUTE_TIMESTAMP, Optional.of(fields.timestamp));
+            }
+        }
+        participantTimestamp.ifPresent(participantBuilder::setStartTime);
+        Optional<Instant> participantStartTime = Optional.empty();
+        if (fields.startTime != null) {
+            try {
+                participantStartTime = Optional.of(TimestampCodec.parseIso8601(fields.startTime));
+            } catch (final DateTimeParseException ignored) {
+                ParseDiagnostics.report(parseErrors, "Invalid %s; invalid %s '%s'; format should be compliant with XEP-0082", description, ATTRIBUTE_START_TIME, Optional.of(fields.startTime));
+            }
+        }
+        participantStartTime.ifPresent(participantBuilder::setStartTime);
+        if (participantStartTime.isPresent() && participantTimestamp.isPresent() && !participantStartTime.equals(participantTimestamp)) {
+            parseErrors.add("Invalid participant; the legacy timestamp field does not match the start time field");
+        }
+        if (fields.duration != null) {
+            try {
+                participantBuilder.setDuration(Duration.ofMillis(Long.valueOf(fields.duration)));
+            } catch (final NumberFormatException e) {
+                ParseDiagnostics.report(parseErrors, "Invalid %s; Unable to parse number attribute %s: '%s'", description, ATTRIBUTE_DURATION, Optional.of(fields.duration));
+            }
+        }
+        return participantBuilder.build(parseErrors);
+    }
+
+    @Nonnull
+    private static List<PhoneNumber> getPhoneNumbers(@Nullable final String e164String) {
+        final List<PhoneNumber> phoneNumbers = new ArrayList<>();
+        if (e164String != null) {
+            Arrays.stream(e164String.split(","))
+                    .map(String::trim)
+                    .map(PhoneNumber::from)
+                    .filter(Optional::isPresent)
+                    .map(Optional::get)
+                    .forEach(phoneNumbers::add);
+        }
+        return phoneNumbers;
+    }
+}
@@ -2,7 +2,6 @@ package com.bt.openlink.tinder.iq;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,6 +13,7 @@ import org.xmpp.packet.IQ;
 import org.xmpp.packet.JID;
 
 import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.ParseDiagnostics;
 import com.bt.openlink.iq.GetCallHistoryRequestBuilder;
 import com.bt.openlink.tinder.internal.TinderPacketUtil;
 import com.bt.openlink.type.CallType;
@@ -56,7 +56,7 @@ public class GetCallHistoryRequest extends OpenlinkIQ {
     @Nonnull
     public static GetCallHistoryRequest from(@Nonnull IQ iq) {
         final Builder builder = Builder.start(iq);
-        final List<String> parseErrors = new ArrayList<>();
+        final List<String> parseErrors = ParseDiagnostics.create();
         final Element inElement = TinderPacketUtil.getIOInElement(iq);
         TinderPacketUtil.getJID(TinderPacketUtil.getNullableChildElementString(inElement, "jid")).ifPresent(builder::setJID);
         TinderPacketUtil.getOptionalChildElementString(inElement, "caller").ifPresent(builder::setCaller);
@@ -67,7 +67,7 @@ public class GetCallHistoryRequest extends OpenlinkIQ {
             if (callType.isPresent()) {
                 builder.setCallType(callType.get());
             } else {
-                parseErrors.add(String.format("Invalid %s; invalid calltype - '%s' should be 'in', 'out' or 'missed'", STANZA_DESCRIPTION, string));
+                ParseDiagnostics.report(parseErrors, "Invalid %s; invalid calltype - '%s' should be 'in', 'out' or 'missed'", STANZA_DESCRIPTION, string);
             }
         });
         TinderPacketUtil.getChildElementLocalDate(inElement,"fromdate", DATE_FORMATTER, STANZA_DESCRIPTION, DATE_PATTERN, parseErrors)
@@ -7,14 +7,18 @@ import java.util.Optional;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import org.dom4j.Element;
 import org.xmpp.packet.IQ;
 import org.xmpp.packet.JID;
 
 import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.ParseDiagnostics;
 import com.bt.openlink.iq.GetFeaturesResultBuilder;
 import com.bt.openlink.tinder.internal.TinderPacketUtil;
+import com.bt.openlink.tinder.internal.TinderStreamUtil;
 import com.bt.openlink.type.Feature;
 import com.bt.openlink.type.FeatureId;
 import com.bt.openlink.type.FeatureType;
@@ -54,7 +58,7 @@ public class GetFeaturesResult extends OpenlinkIQ {
     @SuppressWarnings("unchecked")
     @Nonnull
     public static GetFeaturesResult from(@Nonnull IQ iq) {
-        final List<String> parseErrors = new ArrayList<>();
+        final List<String> parseErrors = ParseDiagnostics.create();
         final GetFeaturesResult.Builder builder = GetFeaturesResult.Builder.start(iq);
         final Element outElement = TinderPacketUtil.getIOOutElement(iq);
         final Element profileElement = TinderPacketUtil.getChildElement(outElement, "profile");
@@ -73,7 +77,7 @@ public class GetFeaturesResult extends OpenlinkIQ {
                     if (type.isPresent()) {
                         featureBuilder.setType(type.get());
                     } else {
-                        parseErrors.add(String.format("Invalid %s; invalid feature type - '%s'", DESCRIPTION, featureType));
+                        ParseDiagnostics.report(parseErrors, "Invalid %s; invalid feature type - '%s'", DESCRIPTION, featureType);
                     }
                 });
                 TinderPacketUtil.getStringAttribute(featureElement, "label", true, DESCRIPTION, parseErrors).ifPresent(featureBuilder::setLabel);
@@ -86,6 +90,50 @@ public class GetFeaturesResult extends OpenlinkIQ {
         return request;
     }
 
+    /**
+     * Decodes the result from the XML stream; equivalent to {@link #from(IQ)}.
+     *
+     * @param header an IQ with the type, id, to and from of the stanza
+     * @param reader a reader positioned on the start of the command element
+     */
+    @Nonnull
+    static GetFeaturesResult from(@Nonnull final IQ header, @Nonnull final XMLStreamReader reader) throws XMLStreamException {
+        final List<String> parseErrors = ParseDiagnostics.create();
+        final GetFeaturesResult.Builder builder = GetFeaturesResult.Builder.start(header);
+        final List<Feature> features = new ArrayList<>();
+        boolean profileFound = false;
+        boolean featuresFound = false;
+        if (TinderStreamUtil.moveToChildElement(reader, OpenlinkXmppNamespace.TAG_IODATA, OpenlinkXmppNamespace.TAG_OUT)) {
+            while (TinderStreamUtil.nextChildElement(reader)) {
+                final String elementName = reader.getLocalName();
+                if (!profileFound && "profile".equals(elementName)) {
+                    profileFound = true;
+                    ProfileId.from(TinderStreamUtil.getNullableAttribute(reader, "id")).ifPresent(builder::setProfileId);
+                    TinderStreamUtil.skipElement(reader);
+                } else if (!featuresFound && "features".equals(elementName)) {
+                    featuresFound = true;
+                    while (TinderStreamUtil.nextChildElement(reader)) {
+                        if ("feature".equals(reader.getLocalName())) {
+                            features.add(TinderStreamUtil.getFeature(reader, DESCRIPTION, parseErrors));
+                        } else {
+                            TinderStreamUtil.skipElement(reader);
+                        }
+                    }
+                } else {
+                    TinderStreamUtil.skipElement(reader);
+                }
+            }
+        }
+        if (!featuresFound) {
+            parseErrors.add("Invalid get-features result; missing 'features' element is mandatory");
+        }
+        features.forEach(builder::addFeature);
+
+        final GetFeaturesResult request = builder.build(parseErrors);
+        request.setID(header.getID());
+        return request;
+    }
+
     public static final class Builder extends GetFeaturesResultBuilder<Builder, JID, Type> {
 
         @Nonnull
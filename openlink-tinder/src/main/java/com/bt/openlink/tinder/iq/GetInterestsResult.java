@@ -1,19 +1,22 @@
 package com.bt.openlink.tinder.iq;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import org.dom4j.Element;
 import org.xmpp.packet.IQ;
 import org.xmpp.packet.JID;
 
 import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.ParseDiagnostics;
 import com.bt.openlink.iq.GetInterestsResultBuilder;
 import com.bt.openlink.tinder.internal.TinderPacketUtil;
+import com.bt.openlink.tinder.internal.TinderStreamUtil;
 import com.bt.openlink.type.Interest;
 import com.bt.openlink.type.InterestId;
 import com.bt.openlink.type.InterestType;
@@ -45,7 +48,7 @@ public class GetInterestsResult extends OpenlinkIQ {
     @SuppressWarnings("unchecked")
     @Nonnull
     public static GetInterestsResult from(@Nonnull IQ iq) {
-        final List<String> parseErrors = new ArrayList<>();
+        final List<String> parseErrors = ParseDiagnostics.create();
         final Builder builder = Builder.start(iq);
         final Element outElement = TinderPacketUtil.getIOOutElement(iq);
         final Element interestsElement = TinderPacketUtil.getChildElement(outElement, "interests");
@@ -66,6 +69,31 @@ public class GetInterestsResult extends OpenlinkIQ {
         return request;
     }
 
+    /**
+     * Decodes the result from the XML stream; equivalent to {@link #from(IQ)}.
+     *
+     * @param header an IQ with the type, id, to and from of the stanza
+     * @param reader a reader positioned on the start of the command element
+     */
+    @Nonnull
+    static GetInterestsResult from(@Nonnull final IQ header, @Nonnull final XMLStreamReader reader) throws XMLStreamException {
+        final List<String> parseErrors = ParseDiagnostics.create();
+        final Builder builder = Builder.start(header);
+        if (TinderStreamUtil.moveToChildElement(reader, OpenlinkXmppNamespace.TAG_IODATA, OpenlinkXmppNamespace.TAG_OUT, "interests")) {
+            while (TinderStreamUtil.nextChildElement(reader)) {
+                if ("interest".equals(reader.getLocalName())) {
+                    builder.addInterest(TinderStreamUtil.getInterest(reader, DESCRIPTION, parseErrors));
+                } else {
+                    TinderStreamUtil.skipElement(reader);
+                }
+            }
+        }
+
+        final GetInterestsResult request = builder.build(parseErrors);
+        request.setID(header.getID());
+        return request;
+    }
+
     public static final class Builder extends GetInterestsResultBuilder<Builder, JID, Type> {
 
         @Nonnull
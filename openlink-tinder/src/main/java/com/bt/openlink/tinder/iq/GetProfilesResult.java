@@ -1,23 +1,29 @@
 package com.bt.openlink.tinder.iq;
 
-import java.util.ArrayList;
+import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import org.dom4j.Element;
 import org.xmpp.packet.IQ;
 import org.xmpp.packet.JID;
 
+import com.bt.openlink.OpenlinkXmlWriter;
 import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.ParseDiagnostics;
 import com.bt.openlink.iq.GetProfilesResultBuilder;
 import com.bt.openlink.tinder.internal.TinderPacketUtil;
+import com.bt.openlink.tinder.internal.TinderStreamUtil;
 import com.bt.openlink.type.Profile;
 import com.bt.openlink.type.ProfileId;
 import com.bt.openlink.type.RequestAction;
+import com.bt.openlink.type.RequestActionSet;
 
 public class GetProfilesResult extends OpenlinkIQ {
     private static final String DESCRIPTION = "get-profiles result";
@@ -25,9 +31,26 @@ public class GetProfilesResult extends OpenlinkIQ {
     private static final String ATTRIBUTE_LABEL = "label";
     @Nonnull private final List<Profile> profiles;
 
-    private GetProfilesResult(@Nonnull Builder builder, @Nullable List<String> parseErrors) {
+    private GetProfilesResult(@Nonnull Builder builder, @Nullable List<String> parseErrors, final boolean deferElement) {
         super(builder, parseErrors);
         this.profiles = Collections.unmodifiableList(builder.getProfiles());
+        addChildElements(this::addProfilesElement, this::writeProfilesElement, deferElement);
+    }
+
+    private void writeProfilesElement(@Nonnull final OpenlinkXmlWriter writer) throws IOException {
+        writer.startElement("command", OpenlinkXmppNamespace.XMPP_COMMANDS.uri())
+                .attribute("status", "completed")
+                .attribute("node", OpenlinkXmppNamespace.OPENLINK_GET_PROFILES.uri())
+                .startElement(OpenlinkXmppNamespace.TAG_IODATA, OpenlinkXmppNamespace.XMPP_IO_DATA.uri())
+                .attribute("type", "output")
+                .startElement(OpenlinkXmppNamespace.TAG_OUT)
+                .writeProfiles(profiles)
+                .endElement(OpenlinkXmppNamespace.TAG_OUT)
+                .endElement(OpenlinkXmppNamespace.TAG_IODATA)
+                .endElement("command");
+    }
+
+    private void addProfilesElement() {
         final Element outElement = TinderPacketUtil.addCommandIOOutputElement(this, OpenlinkXmppNamespace.OPENLINK_GET_PROFILES);
         final Element profilesElement = outElement.addElement(OpenlinkXmppNamespace.TAG_PROFILES, OpenlinkXmppNamespace.OPENLINK_PROFILES.uri());
         getProfiles().forEach(profile -> {
@@ -55,7 +78,7 @@ public class GetProfilesResult extends OpenlinkIQ {
     public static GetProfilesResult from(@Nonnull IQ iq) {
         final Builder builder = Builder.start(iq);
         final Element profilesElement = TinderPacketUtil.getChildElement(TinderPacketUtil.getIOOutElement(iq), OpenlinkXmppNamespace.TAG_PROFILES);
-        final List<String> parseErrors = new ArrayList<>();
+        final List<String> parseErrors = ParseDiagnostics.create();
         final AtomicBoolean profileFound = new AtomicBoolean(false);
         if (profilesElement != null) {
             final List<Element> profileElements = profilesElement.elements(OpenlinkXmppNamespace.TAG_PROFILE);
@@ -70,9 +93,11 @@ public class GetProfilesResult extends OpenlinkIQ {
                 final Element actionsElement = TinderPacketUtil.getChildElement(profileElement, OpenlinkXmppNamespace.TAG_ACTIONS);
                 if (actionsElement != null) {
                     final List<Element> actionElements = actionsElement.elements(OpenlinkXmppNamespace.TAG_ACTION);
+                    final RequestActionSet.Builder actions = RequestActionSet.Builder.start();
                     for (final Element actionElement : actionElements) {
-                        RequestAction.from(TinderPacketUtil.getNullableStringAttribute(actionElement, "id")).ifPresent(profileBuilder::addAction);
+                        RequestAction.from(TinderPacketUtil.getNullableStringAttribute(actionElement, "id")).ifPresent(actions::add);
                     }
+                    profileBuilder.setActions(actions.build());
                 }
                 builder.addProfile(profileBuilder.build(parseErrors));
                 profileFound.set(true);
@@ -86,6 +111,35 @@ public class GetProfilesResult extends OpenlinkIQ {
         return result;
     }
 
+    /**
+     * Decodes the result from the XML stream; equivalent to {@link #from(IQ)}.
+     *
+     * @param header an IQ with the type, id, to and from of the stanza
+     * @param reader a reader positioned on the start of the command element
+     */
+    @Nonnull
+    static GetProfilesResult from(@Nonnull final IQ header, @Nonnull final XMLStreamReader reader) throws XMLStreamException {
+        final Builder builder = Builder.start(header);
+        final List<String> parseErrors = ParseDiagnostics.create();
+        boolean profileFound = false;
+        if (TinderStreamUtil.moveToChildElement(reader, OpenlinkXmppNamespace.TAG_IODATA, OpenlinkXmppNamespace.TAG_OUT, OpenlinkXmppNamespace.TAG_PROFILES)) {
+            while (TinderStreamUtil.nextChildElement(reader)) {
+                if (OpenlinkXmppNamespace.TAG_PROFILE.equals(reader.getLocalName())) {
+                    builder.addProfile(TinderStreamUtil.getProfile(reader, DESCRIPTION, parseErrors));
+                    profileFound = true;
+                } else {
+                    TinderStreamUtil.skipElement(reader);
+                }
+            }
+        }
+        if (!profileFound) {
+            parseErrors.add("Invalid get-profiles result; no profiles present");
+        }
+        final GetProfilesResult result = builder.build(parseErrors);
+        result.setID(header.getID());
+        return result;
+    }
+
     @Nonnull
     public List<Profile> getProfiles() {
         return profiles;
@@ -117,13 +171,25 @@ public class GetProfilesResult extends OpenlinkIQ {
         @Nonnull
         public GetProfilesResult build() {
             super.validate();
-            return new GetProfilesResult(this, null);
+            return new GetProfilesResult(this, null, false);
+        }
+
+        /**
+         * Builds the result as per {@link #build()}, except that the XML element of the result is only built when it is
+         * first required, for example when the result is sent. This avoids building an XML tree that is never used.
+         *
+         * @return the result
+         */
+        @Nonnull
+        public GetProfilesResult buildLazily() {
+            super.validate();
+            return new GetProfilesResult(this, null, true);
         }
 
         @Nonnull
         private GetProfilesResult build(@Nonnull final List<String> errors) {
             super.validate(errors, true);
-            return new GetProfilesResult(this, errors);
+            return new GetProfilesResult(this, errors, false);
         }
     }
 }
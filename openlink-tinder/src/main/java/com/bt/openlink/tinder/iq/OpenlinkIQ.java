@@ -1,31 +1,58 @@
 package com.bt.openlink.tinder.iq;
 
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
+import org.dom4j.Element;
 import org.xmpp.packet.IQ;
 import org.xmpp.packet.JID;
+import org.xmpp.packet.PacketExtension;
 
+import com.bt.openlink.OpenlinkXmlWriter;
+import com.bt.openlink.ParseDiagnostics;
 import com.bt.openlink.iq.IQBuilder;
+import com.bt.openlink.tinder.StanzaFanOut;
+import com.bt.openlink.tinder.internal.DeferredElement;
 
 abstract class OpenlinkIQ extends IQ {
 
     @Nonnull private List<String> parseErrors;
+    @Nullable private volatile DeferredElement deferredElement;
 
     OpenlinkIQ(@Nonnull final IQBuilder<?, JID, IQ.Type> builder, @Nullable final List<String> parseErrors) {
         builder.getTo().ifPresent(this::setTo);
         builder.getFrom().ifPresent(this::setFrom);
         builder.getId().ifPresent(this::setID);
         builder.getIqType().ifPresent(this::setType);
-        if (parseErrors == null) {
-            this.parseErrors = Collections.emptyList();
+        // The builder has already validated the parse errors, so there is no need to validate them again
+        this.parseErrors = ParseDiagnostics.copyOf(parseErrors);
+    }
+
+    /**
+     * Adds the child elements of the IQ, either immediately or, if deferred, only when the IQ's element is first
+     * required - for example, when it is serialised. The typed fields of the IQ are available either way.
+     *
+     * @param elementBuilder the code that adds the child elements
+     * @param childContent   the code that writes the same child elements directly, used to serialise the IQ
+     *                       while adding the child elements is deferred
+     * @param defer          {@code true} to defer adding the child elements
+     */
+    void addChildElements(@Nonnull final Runnable elementBuilder, @Nonnull final OpenlinkXmlWriter.Content childContent, final boolean defer) {
+        if (defer) {
+            deferredElement = new DeferredElement(elementBuilder, childContent);
         } else {
-            this.parseErrors = new ArrayList<>(parseErrors);
-            builder.validate(parseErrors);
+            elementBuilder.run();
+        }
+    }
+
+    private void materialiseElement() {
+        final DeferredElement currentDeferredElement = deferredElement;
+        if (currentDeferredElement != null) {
+            currentDeferredElement.materialise();
+            deferredElement = null;
         }
     }
 
@@ -34,4 +61,89 @@ abstract class OpenlinkIQ extends IQ {
         return parseErrors;
     }
 
+    @Override
+    public Element getElement() {
+        materialiseElement();
+        return super.getElement();
+    }
+
+    /**
+     * Encodes the content of the IQ once, so that it can be sent to many recipients, each of which only costs the
+     * encoding of the addressing envelope. If the IQ's element has not yet been built, it is not built by this method.
+     *
+     * @return the encoded IQ
+     */
+    @Nonnull
+    public StanzaFanOut fanOut() {
+        final DeferredElement currentDeferredElement = deferredElement;
+        if (currentDeferredElement != null) {
+            final Optional<String> payload = currentDeferredElement.getChildXML(element);
+            if (payload.isPresent()) {
+                return new StanzaFanOut(element, payload.get());
+            }
+        }
+        return StanzaFanOut.of(this);
+    }
+
+    @Override
+    public String toXML() {
+        final DeferredElement currentDeferredElement = deferredElement;
+        if (currentDeferredElement != null) {
+            final Optional<String> xml = currentDeferredElement.toXML(element);
+            if (xml.isPresent()) {
+                return xml.get();
+            }
+        }
+        materialiseElement();
+        return super.toXML();
+    }
+
+    @Override
+    public String toString() {
+        materialiseElement();
+        return super.toString();
+    }
+
+    @Override
+    public IQ createCopy() {
+        materialiseElement();
+        return super.createCopy();
+    }
+
+    @Override
+    public Element getChildElement() {
+        materialiseElement();
+        return super.getChildElement();
+    }
+
+    @Override
+    public Element setChildElement(final String name, final String namespace) {
+        materialiseElement();
+        return super.setChildElement(name, namespace);
+    }
+
+    @Override
+    public void setChildElement(final Element childElement) {
+        materialiseElement();
+        super.setChildElement(childElement);
+    }
+
+    @Override
+    public PacketExtension getExtension(final String name, final String namespace) {
+        materialiseElement();
+        return super.getExtension(name, namespace);
+    }
+
+    @Override
+    public void addExtension(final PacketExtension extension) {
+        materialiseElement();
+        super.addExtension(extension);
+    }
+
+    @Override
+    public boolean deleteExtension(final String name, final String namespace) {
+        materialiseElement();
+        return super.deleteExtension(name, namespace);
+    }
+
 }
@@ -1,103 +1,329 @@
 package com.bt.openlink.tinder.iq;
 
-import java.util.Arrays;
-import java.util.List;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
+import org.dom4j.DocumentHelper;
 import org.dom4j.Element;
 import org.xmpp.packet.IQ;
+import org.xmpp.packet.JID;
 
 import com.bt.openlink.OpenlinkXmppNamespace;
-import com.bt.openlink.tinder.internal.TinderPacketUtil;
+import com.bt.openlink.ParseOptions;
+import com.bt.openlink.tinder.internal.TinderStreamUtil;
 
+/**
+ * Converts a generic Tinder IQ in to the appropriate Openlink IQ. Ad-hoc commands are dispatched on the command node and
+ * the type of the IQ, pub-sub requests on the name of the child of the pubsub element. Each dispatch is a single hash
+ * lookup, and further stanza types can be supported by registering a {@link StanzaFactory} for them.
+ */
 public final class OpenlinkIQParser {
 
     private OpenlinkIQParser() {
     }
 
-    private interface StanzaFactory {
-        IQ from(final IQ iq);
+    /**
+     * Creates an Openlink IQ from a generic Tinder IQ.
+     */
+    @FunctionalInterface
+    public interface StanzaFactory {
+        @Nonnull
+        IQ from(@Nonnull final IQ iq);
     }
 
-    private static class IQMatcher {
+    /**
+     * Creates an Openlink IQ directly from the XML stream.
+     */
+    @FunctionalInterface
+    private interface StreamFactory {
+        @Nonnull
+        IQ from(@Nonnull final IQ header, @Nonnull final XMLStreamReader reader) throws XMLStreamException;
+    }
 
-        private final OpenlinkXmppNamespace namespace;
-        private final IQ.Type type;
-        private final StanzaFactory stanzaFactory;
+    // Writes are rare, so each per-node map is replaced rather than updated; readers never see a partially updated map
+    private static final Map<String, Map<IQ.Type, StanzaFactory>> COMMAND_FACTORIES = new ConcurrentHashMap<>();
+    private static final Map<String, StanzaFactory> PUBSUB_FACTORIES = new ConcurrentHashMap<>();
+    // Only holds entries whose stanza factory has not been replaced or removed, so the stream always decodes to the same stanza
+    private static final Map<String, Map<IQ.Type, StreamFactory>> STREAM_FACTORIES = new ConcurrentHashMap<>();
+    private static final Object COMMAND_FACTORIES_LOCK = new Object();
+    private static final String COMMANDS_NAMESPACE = "http://jabber.org/protocol/commands";
 
-        IQMatcher(final OpenlinkXmppNamespace namespace, final IQ.Type type, final StanzaFactory stanzaFactory) {
-            this.namespace = namespace;
-            this.type = type;
-            this.stanzaFactory = stanzaFactory;
-        }
+    static {
+        registerCommandFactory(OpenlinkXmppNamespace.OPENLINK_GET_PROFILES, IQ.Type.set, GetProfilesRequest::from);
+        registerCommandFactory(OpenlinkXmppNamespace.OPENLINK_GET_PROFILES, IQ.Type.result, GetProfilesResult::from);
+        registerCommandFactory(OpenlinkXmppNamespace.OPENLINK_GET_INTERESTS, IQ.Type.set, GetInterestsRequest::from);
+        registerCommandFactory(OpenlinkXmppNamespace.OPENLINK_GET_INTERESTS, IQ.Type.result, GetInterestsResult::from);
+        registerCommandFactory(OpenlinkXmppNamespace.OPENLINK_GET_INTEREST, IQ.Type.set, GetInterestRequest::from);
+        registerCommandFactory(OpenlinkXmppNamespace.OPENLINK_GET_INTEREST, IQ.Type.result, GetInterestResult::from);
+        registerCommandFactory(OpenlinkXmppNamespace.OPENLINK_GET_FEATURES, IQ.Type.set, GetFeaturesRequest::from);
+        registerCommandFactory(OpenlinkXmppNamespace.OPENLINK_GET_FEATURES, IQ.Type.result, GetFeaturesResult::from);
+        registerCommandFactory(OpenlinkXmppNamespace.OPENLINK_GET_CALL_HISTORY, IQ.Type.set, GetCallHistoryRequest::from);
+        registerCommandFactory(OpenlinkXmppNamespace.OPENLINK_MAKE_CALL, IQ.Type.set, MakeCallRequest::from);
+        registerCommandFactory(OpenlinkXmppNamespace.OPENLINK_MAKE_CALL, IQ.Type.result, MakeCallResult::from);
+        registerCommandFactory(OpenlinkXmppNamespace.OPENLINK_REQUEST_ACTION, IQ.Type.set, RequestActionRequest::from);
+        registerCommandFactory(OpenlinkXmppNamespace.OPENLINK_REQUEST_ACTION, IQ.Type.result, RequestActionResult::from);
 
-        boolean matches(@Nullable final String namespace, @Nullable final IQ.Type type) {
-            return this.type == type && this.namespace.uri().equals(namespace);
-        }
-    }
+        registerPubSubFactory("subscribe", PubSubSubscriptionRequest::from);
+        registerPubSubFactory("unsubscribe", PubSubSubscriptionRequest::from);
+        registerPubSubFactory("subscription", PubSubSubscriptionResult::from);
+        registerPubSubFactory("publish", PubSubPublishRequest::from);
 
-    private static final List<IQMatcher> STANZA_TYPE_MATCHER_LIST = Arrays.asList(
-            new IQMatcher(OpenlinkXmppNamespace.OPENLINK_GET_PROFILES, IQ.Type.set, GetProfilesRequest::from),
-            new IQMatcher(OpenlinkXmppNamespace.OPENLINK_GET_PROFILES, IQ.Type.result, GetProfilesResult::from),
-            new IQMatcher(OpenlinkXmppNamespace.OPENLINK_GET_INTERESTS, IQ.Type.set, GetInterestsRequest::from),
-            new IQMatcher(OpenlinkXmppNamespace.OPENLINK_GET_INTERESTS, IQ.Type.result, GetInterestsResult::from),
-            new IQMatcher(OpenlinkXmppNamespace.OPENLINK_GET_INTEREST, IQ.Type.set, GetInterestRequest::from),
-            new IQMatcher(OpenlinkXmppNamespace.OPENLINK_GET_INTEREST, IQ.Type.result, GetInterestResult::from),
-            new IQMatcher(OpenlinkXmppNamespace.OPENLINK_GET_FEATURES, IQ.Type.set, GetFeaturesRequest::from),
-            new IQMatcher(OpenlinkXmppNamespace.OPENLINK_GET_FEATURES, IQ.Type.result, GetFeaturesResult::from),
-            new IQMatcher(OpenlinkXmppNamespace.OPENLINK_GET_CALL_HISTORY, IQ.Type.set, GetCallHistoryRequest::from),
-            new IQMatcher(OpenlinkXmppNamespace.OPENLINK_MAKE_CALL, IQ.Type.set, MakeCallRequest::from),
-            new IQMatcher(OpenlinkXmppNamespace.OPENLINK_MAKE_CALL, IQ.Type.result, MakeCallResult::from),
-            new IQMatcher(OpenlinkXmppNamespace.OPENLINK_REQUEST_ACTION, IQ.Type.set, RequestActionRequest::from),
-            new IQMatcher(OpenlinkXmppNamespace.OPENLINK_REQUEST_ACTION, IQ.Type.result, RequestActionResult::from)
-            );
+        registerStreamFactory(OpenlinkXmppNamespace.OPENLINK_GET_PROFILES, GetProfilesResult::from);
+        registerStreamFactory(OpenlinkXmppNamespace.OPENLINK_GET_INTERESTS, GetInterestsResult::from);
+        registerStreamFactory(OpenlinkXmppNamespace.OPENLINK_GET_FEATURES, GetFeaturesResult::from);
+    }
 
     @Nonnull
     public static IQ parse(@Nonnull final IQ iq) {
-        final String namespace = iq.getChildElement().getNamespaceURI();
+        final Element childElement = iq.getChildElement();
+        if (childElement == null) {
+            return iq;
+        }
+        final String namespace = childElement.getNamespaceURI();
         switch (namespace) {
-        case "http://jabber.org/protocol/commands":
-            return parseCommand(iq);
+        case COMMANDS_NAMESPACE:
+            return parseCommand(iq, childElement);
         case "http://jabber.org/protocol/pubsub":
-            return parsePubSub(iq);
+            return parsePubSub(iq, childElement);
         default:
             return iq;
 
         }
     }
 
-    private static IQ parseCommand(@Nonnull final IQ iq) {
-        final Element commandElement = iq.getChildElement();
-        final Optional<String> node = TinderPacketUtil.getStringAttribute(commandElement, "node");
-        if (!node.isPresent()) {
-            return iq;
+    /**
+     * Parses an IQ as per {@link #parse(IQ)}, validating it as the options require for the sender of the IQ.
+     *
+     * @param iq      the IQ to parse
+     * @param options the options, which may trust the sender
+     * @return the parsed IQ
+     */
+    @Nonnull
+    public static IQ parse(@Nonnull final IQ iq, @Nonnull final ParseOptions options) {
+        final JID from = iq.getFrom();
+        return options.parse(from == null ? null : from.toString(), () -> parse(iq));
+    }
+
+    /**
+     * Parses an IQ directly from its XML. The get-profiles, get-interests and get-features results are decoded from the
+     * XML stream in a single pass without first building a dom4j tree; any other IQ is parsed as per {@link #parse(IQ)}.
+     * The resulting IQ, including any parse errors, is the same as parsing the equivalent Tinder IQ.
+     * <p>
+     * This is only intended for those results. Any other IQ is built as a dom4j tree, as Tinder would, after the stream
+     * has been read up to the start of its payload - or, if it is not a result, only up to the start of the iq element -
+     * so it costs slightly more than {@link #parse(IQ)} with a Tinder IQ built from the same XML.
+     *
+     * @param stanza the XML of the IQ
+     * @return the parsed IQ
+     * @throws IllegalArgumentException if the stanza is not well-formed XML
+     */
+    @Nonnull
+    public static IQ parse(@Nonnull final String stanza) {
+        return parse(stanza, ParseOptions.defaults());
+    }
+
+    /**
+     * Parses an IQ directly from its XML as per {@link #parse(String)}, validating it as the options require for the
+     * sender of the IQ.
+     *
+     * @param stanza  the XML of the IQ
+     * @param options the options, which may trust the sender
+     * @return the parsed IQ
+     * @throws IllegalArgumentException if the stanza is not well-formed XML
+     */
+    @Nonnull
+    public static IQ parse(@Nonnull final String stanza, @Nonnull final ParseOptions options) {
+        try {
+            final XMLStreamReader reader = TinderStreamUtil.createReader(stanza);
+            try {
+                final IQ iq = options.parse(reader.getAttributeValue(null, "from"), () -> parseCommand(reader));
+                if (iq != null) {
+                    return iq;
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (final XMLStreamException e) {
+            throw new IllegalArgumentException("Unable to parse stanza", e);
         }
-        final IQ.Type type = iq.getType();
-        for (final IQMatcher iqMatcher : STANZA_TYPE_MATCHER_LIST) {
-            if (iqMatcher.matches(node.get(), type)) {
-                return iqMatcher.stanzaFactory.from(iq);
+        return parse(new IQ(TinderStreamUtil.getRootElement(stanza)), options);
+    }
+
+    /**
+     * Registers a factory for ad-hoc commands with the given node and IQ type, replacing any existing factory.
+     *
+     * @param node    the command node
+     * @param type    the type of the IQ
+     * @param factory the factory that will create the stanza
+     * @return the factory that was previously registered, if any
+     */
+    @Nonnull
+    public static Optional<StanzaFactory> registerCommandFactory(@Nonnull final OpenlinkXmppNamespace node, @Nonnull final IQ.Type type, @Nonnull final StanzaFactory factory) {
+        return registerCommandFactory(node.uri(), type, factory);
+    }
+
+    /**
+     * Registers a factory for ad-hoc commands with the given node and IQ type, replacing any existing factory.
+     *
+     * @param node    the command node
+     * @param type    the type of the IQ
+     * @param factory the factory that will create the stanza
+     * @return the factory that was previously registered, if any
+     */
+    @Nonnull
+    public static Optional<StanzaFactory> registerCommandFactory(@Nonnull final String node, @Nonnull final IQ.Type type, @Nonnull final StanzaFactory factory) {
+        synchronized (COMMAND_FACTORIES_LOCK) {
+            final Map<IQ.Type, StanzaFactory> existingFactories = COMMAND_FACTORIES.get(node);
+            final Map<IQ.Type, StanzaFactory> factories = existingFactories == null ? new EnumMap<>(IQ.Type.class) : new EnumMap<>(existingFactories);
+            final StanzaFactory previousFactory = factories.put(type, factory);
+            COMMAND_FACTORIES.put(node, factories);
+            unregisterStreamFactory(node, type);
+            return Optional.ofNullable(previousFactory);
+        }
+    }
+
+    /**
+     * Removes the factory for ad-hoc commands with the given node and IQ type; such IQs will no longer be converted.
+     *
+     * @param node the command node
+     * @param type the type of the IQ
+     * @return the factory that was previously registered, if any
+     */
+    @Nonnull
+    public static Optional<StanzaFactory> unregisterCommandFactory(@Nonnull final OpenlinkXmppNamespace node, @Nonnull final IQ.Type type) {
+        return unregisterCommandFactory(node.uri(), type);
+    }
+
+    /**
+     * Removes the factory for ad-hoc commands with the given node and IQ type; such IQs will no longer be converted.
+     *
+     * @param node the command node
+     * @param type the type of the IQ
+     * @return the factory that was previously registered, if any
+     */
+    @Nonnull
+    public static Optional<StanzaFactory> unregisterCommandFactory(@Nonnull final String node, @Nonnull final IQ.Type type) {
+        synchronized (COMMAND_FACTORIES_LOCK) {
+            final Map<IQ.Type, StanzaFactory> existingFactories = COMMAND_FACTORIES.get(node);
+            if (existingFactories == null || !existingFactories.containsKey(type)) {
+                return Optional.empty();
             }
+            final Map<IQ.Type, StanzaFactory> factories = new EnumMap<>(existingFactories);
+            final StanzaFactory previousFactory = factories.remove(type);
+            if (factories.isEmpty()) {
+                COMMAND_FACTORIES.remove(node);
+            } else {
+                COMMAND_FACTORIES.put(node, factories);
+            }
+            unregisterStreamFactory(node, type);
+            return Optional.of(previousFactory);
         }
-        return iq;
     }
 
-    private static IQ parsePubSub(@Nonnull final IQ iq) {
+    /**
+     * Registers a factory for pub-sub requests whose pubsub element has a first child of the given name, replacing any
+     * existing factory.
+     *
+     * @param elementName the name of the child of the pubsub element
+     * @param factory     the factory that will create the stanza
+     * @return the factory that was previously registered, if any
+     */
+    @Nonnull
+    public static Optional<StanzaFactory> registerPubSubFactory(@Nonnull final String elementName, @Nonnull final StanzaFactory factory) {
+        return Optional.ofNullable(PUBSUB_FACTORIES.put(elementName, factory));
+    }
 
-        final Element pubSubElement = iq.getChildElement();
-        final Element childElement = (Element) pubSubElement.elements().get(0);
-        switch (childElement.getName()) {
-        case "subscribe":
-        case "unsubscribe":
-            return PubSubSubscriptionRequest.from(iq);
-        case "subscription":
-            return PubSubSubscriptionResult.from(iq);
-        case "publish":
-            return PubSubPublishRequest.from(iq);
-        default:
+    /**
+     * Removes the factory for pub-sub requests whose pubsub element has a first child of the given name; such IQs will no
+     * longer be converted.
+     *
+     * @param elementName the name of the child of the pubsub element
+     * @return the factory that was previously registered, if any
+     */
+    @Nonnull
+    public static Optional<StanzaFactory> unregisterPubSubFactory(@Nonnull final String elementName) {
+        return Optional.ofNullable(PUBSUB_FACTORIES.remove(elementName));
+    }
+
+    private static void registerStreamFactory(@Nonnull final OpenlinkXmppNamespace node, @Nonnull final StreamFactory factory) {
+        final Map<IQ.Type, StreamFactory> factories = new EnumMap<>(IQ.Type.class);
+        factories.put(IQ.Type.result, factory);
+        STREAM_FACTORIES.put(node.uri(), factories);
+    }
+
+    private static void unregisterStreamFactory(@Nonnull final String node, @Nonnull final IQ.Type type) {
+        final Map<IQ.Type, StreamFactory> existingFactories = STREAM_FACTORIES.get(node);
+        if (existingFactories != null && existingFactories.containsKey(type)) {
+            final Map<IQ.Type, StreamFactory> factories = new EnumMap<>(existingFactories);
+            factories.remove(type);
+            if (factories.isEmpty()) {
+                STREAM_FACTORIES.remove(node);
+            } else {
+                STREAM_FACTORIES.put(node, factories);
+            }
+        }
+    }
+
+    @Nullable
+    private static IQ parseCommand(@Nonnull final XMLStreamReader reader) throws XMLStreamException {
+        // Only results are decoded from the stream, so any other IQ is built as a dom4j tree without reading its payload
+        if (!"iq".equals(reader.getLocalName()) || !"result".equals(reader.getAttributeValue(null, "type"))) {
+            return null;
+        }
+        // Copy the attributes so the header reports them exactly as an IQ parsed by Tinder would
+        final Element headerElement = DocumentHelper.createElement("iq");
+        for (final String attributeName : new String[]{"type", "id", "to", "from"}) {
+            final String attributeValue = reader.getAttributeValue(null, attributeName);
+            if (attributeValue != null) {
+                headerElement.addAttribute(attributeName, attributeValue);
+            }
+        }
+        final IQ header = new IQ(headerElement);
+        // As with IQ.getChildElement(), the payload is the first child in a namespace other than the stream's
+        String namespace = null;
+        while (namespace == null && TinderStreamUtil.nextChildElement(reader)) {
+            final String childNamespace = reader.getNamespaceURI();
+            if (childNamespace == null || childNamespace.isEmpty() || "jabber:client".equals(childNamespace) || "jabber:server".equals(childNamespace)) {
+                TinderStreamUtil.skipElement(reader);
+            } else {
+                namespace = childNamespace;
+            }
+        }
+        if (!COMMANDS_NAMESPACE.equals(namespace)) {
+            return null;
+        }
+        final String node = reader.getAttributeValue(null, "node");
+        final Map<IQ.Type, StreamFactory> factories = node == null ? null : STREAM_FACTORIES.get(node);
+        final IQ.Type type = header.getType();
+        final StreamFactory factory = factories == null || type == null ? null : factories.get(type);
+        return factory == null ? null : factory.from(header, reader);
+    }
+
+    private static IQ parseCommand(@Nonnull final IQ iq, @Nonnull final Element commandElement) {
+        final String node = commandElement.attributeValue("node");
+        if (node == null) {
+            return iq;
+        }
+        final Map<IQ.Type, StanzaFactory> factories = COMMAND_FACTORIES.get(node);
+        final IQ.Type type = iq.getType();
+        final StanzaFactory factory = factories == null || type == null ? null : factories.get(type);
+        return factory == null ? iq : factory.from(iq);
+    }
+
+    private static IQ parsePubSub(@Nonnull final IQ iq, @Nonnull final Element pubSubElement) {
+        final Iterator<?> childElements = pubSubElement.elementIterator();
+        if (!childElements.hasNext()) {
             return iq;
         }
+        final StanzaFactory factory = PUBSUB_FACTORIES.get(((Element) childElements.next()).getName());
+        return factory == null ? iq : factory.from(iq);
     }
 }
@@ -1,6 +1,6 @@
 package com.bt.openlink.tinder.iq;
 
-import java.util.ArrayList;
+import java.io.IOException;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -13,42 +13,74 @@ import org.dom4j.Element;
 import org.xmpp.packet.IQ;
 import org.xmpp.packet.JID;
 
+import com.bt.openlink.OpenlinkXmlWriter;
 import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.ParseDiagnostics;
 import com.bt.openlink.iq.PubSubPublishRequestBuilder;
 import com.bt.openlink.tinder.internal.TinderPacketUtil;
 import com.bt.openlink.type.Call;
 import com.bt.openlink.type.DeviceStatus;
+import com.bt.openlink.type.ItemId;
 import com.bt.openlink.type.PubSubNodeId;
 
 public class PubSubPublishRequest extends OpenlinkIQ {
     private static final String STANZA_DESCRIPTION = "PubSub unsubscribe request";
 
     @Nullable private final PubSubNodeId pubSubNodeId;
+    @Nullable private final ItemId itemId;
     @Nullable private final Boolean callStatusBusy;
     @Nonnull private final Collection<Call> calls;
     @Nullable private final DeviceStatus deviceStatus;
 
-    private PubSubPublishRequest(@Nonnull Builder builder, @Nullable List<String> parseErrors) {
+    private PubSubPublishRequest(@Nonnull Builder builder, @Nullable List<String> parseErrors, final boolean deferElement) {
         super(builder, parseErrors);
         this.pubSubNodeId = builder.getPubSubNodeId().orElse(null);
+        this.itemId = builder.getItemId().orElse(null);
         this.calls = Collections.unmodifiableCollection(builder.getCalls());
         this.callStatusBusy = builder.isCallStatusBusy().orElse(null);
         this.deviceStatus = builder.getDeviceStatus().orElse(null);
+        addChildElements(this::addPubSubElement, this::writePubSubElement, deferElement);
+    }
+
+    private void addPubSubElement() {
         final Element pubSubElement = this.getElement().addElement("pubsub", OpenlinkXmppNamespace.XMPP_PUBSUB.uri());
         final Element publishElement = pubSubElement.addElement("publish");
         getPubSubNodeId().ifPresent(nodeId -> publishElement.addAttribute("node", nodeId.value()));
         final Element itemElement = publishElement.addElement("item");
+        getItemId().ifPresent(id -> itemElement.addAttribute("id", id.value()));
         if (!calls.isEmpty()) {
             TinderPacketUtil.addCallStatusCalls(itemElement, callStatusBusy, calls);
         }
         getDeviceStatus().ifPresent(status -> TinderPacketUtil.addDeviceStatus(itemElement, status));
     }
 
+    private void writePubSubElement(@Nonnull final OpenlinkXmlWriter writer) throws IOException {
+        writer.startElement("pubsub", OpenlinkXmppNamespace.XMPP_PUBSUB.uri())
+                .startElement("publish")
+                .attribute("node", pubSubNodeId == null ? null : pubSubNodeId.value())
+                .startElement("item")
+                .attribute("id", itemId == null ? null : itemId.value());
+        if (!calls.isEmpty()) {
+            writer.writeCallStatus(callStatusBusy, calls);
+        }
+        if (deviceStatus != null) {
+            writer.writeDeviceStatus(deviceStatus);
+        }
+        writer.endElement("item")
+                .endElement("publish")
+                .endElement("pubsub");
+    }
+
     @Nonnull
     public Optional<PubSubNodeId> getPubSubNodeId() {
         return Optional.ofNullable(pubSubNodeId);
     }
 
+    @Nonnull
+    public Optional<ItemId> getItemId() {
+        return Optional.ofNullable(itemId);
+    }
+
     @Nonnull
     public Optional<Boolean> isCallStatusBusy() {
         return Optional.ofNullable(callStatusBusy);
@@ -67,12 +99,13 @@ public class PubSubPublishRequest extends OpenlinkIQ {
     @SuppressWarnings("unchecked")
     @Nonnull
     public static PubSubPublishRequest from(@Nonnull IQ iq) {
-        final List<String> parseErrors = new ArrayList<>();
+        final List<String> parseErrors = ParseDiagnostics.create();
         final Builder builder = Builder.start(iq);
         final Element publishElement = TinderPacketUtil.getChildElement(iq.getElement(), "pubsub", "publish");
         final Element itemElement = TinderPacketUtil.getChildElement(publishElement, "item");
         final Element callStatusElement = TinderPacketUtil.getChildElement(itemElement, "callstatus");
         PubSubNodeId.from(TinderPacketUtil.getNullableStringAttribute(publishElement, "node")).ifPresent(builder::setPubSubNodeId);
+        ItemId.from(TinderPacketUtil.getNullableStringAttribute(itemElement, "id")).ifPresent(builder::setItemId);
         TinderPacketUtil.getBooleanAttribute(callStatusElement, "busy", "busy attribute", parseErrors).ifPresent(builder::setCallStatusBusy);
         builder.addCalls(TinderPacketUtil.getCalls(callStatusElement, STANZA_DESCRIPTION, parseErrors));
         final Element deviceStatusElement = TinderPacketUtil.getChildElement(itemElement, "devicestatus");
@@ -103,13 +136,25 @@ public class PubSubPublishRequest extends OpenlinkIQ {
         @Nonnull
         public PubSubPublishRequest build() {
             super.validate();
-            return new PubSubPublishRequest(this, null);
+            return new PubSubPublishRequest(this, null, false);
+        }
+
+        /**
+         * Builds the request as per {@link #build()}, except that the XML element of the request is only built when it
+         * is first required, for example when the request is sent.
+         *
+         * @return the request
+         */
+        @Nonnull
+        public PubSubPublishRequest buildLazily() {
+            super.validate();
+            return new PubSubPublishRequest(this, null, true);
         }
 
         @Nonnull
         private PubSubPublishRequest build(@Nonnull final List<String> errors) {
             super.validate(errors, true);
-            return new PubSubPublishRequest(this, errors);
+            return new PubSubPublishRequest(this, errors, false);
         }
     }
 
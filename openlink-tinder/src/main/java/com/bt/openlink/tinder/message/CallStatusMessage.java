@@ -1,20 +1,27 @@
 package com.bt.openlink.tinder.message;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import org.dom4j.Element;
 import org.xmpp.packet.JID;
 import org.xmpp.packet.Message;
 
+import com.bt.openlink.ParseDiagnostics;
 import com.bt.openlink.message.CallStatusMessageBuilder;
 import com.bt.openlink.tinder.internal.TinderPacketUtil;
+import com.bt.openlink.tinder.internal.TinderStreamUtil;
 import com.bt.openlink.type.Call;
+import com.bt.openlink.type.CallFieldMask;
+import com.bt.openlink.type.CallId;
+import com.bt.openlink.type.CallState;
 
 public class CallStatusMessage extends OpenlinkPubSubMessage {
 
@@ -22,15 +29,48 @@ public class CallStatusMessage extends OpenlinkPubSubMessage {
 
     @Nullable private final Boolean callStatusBusy;
     @Nonnull private final List<Call> calls;
-
-    private CallStatusMessage(@Nonnull final Builder builder, @Nullable final List<String> parseErrors) {
+    // The remaining fields are only set when the calls are decoded lazily
+    @Nullable private final LazyCallList lazyCalls;
+    @Nullable private final Builder lazyBuilder;
+    @Nullable private final List<String> lazyParseErrors;
+    @Nullable private final ParseDiagnostics.Mode lazyMode;
+    @Nullable private List<String> decodedParseErrors;
+
+    private CallStatusMessage(@Nonnull final Builder builder, @Nullable final List<String> parseErrors, final boolean deferElement) {
         super(builder, parseErrors);
         this.callStatusBusy = builder.isCallStatusBusy().orElse(null);
         this.calls = Collections.unmodifiableList(builder.getCalls());
+        this.lazyCalls = null;
+        this.lazyBuilder = null;
+        this.lazyParseErrors = null;
+        this.lazyMode = null;
+        addChildElements(this::addCallStatusElement, writer -> writePubSubEvent(writer, itemWriter -> itemWriter.writeCallStatus(callStatusBusy, calls)), deferElement);
+    }
+
+    private void addCallStatusElement() {
         final Element messageElement = getElement();
-        final Element itemElement = TinderPacketUtil.addPubSubMetaData(messageElement, builder);
+        final Element itemElement = TinderPacketUtil.addPubSubMetaData(messageElement, getPubSubNodeId(), getItemId());
         TinderPacketUtil.addCallStatusCalls(itemElement, callStatusBusy, calls);
+        TinderPacketUtil.addDelay(messageElement, getDelay());
+    }
+
+    @SuppressWarnings("unchecked")
+    private CallStatusMessage(@Nonnull final Builder builder, @Nonnull final Element callStatusElement, @Nonnull final List<String> parseErrors, @Nonnull final CallFieldMask fieldMask) {
+        super(builder, null);
+        this.callStatusBusy = builder.isCallStatusBusy().orElse(null);
+        final Element messageElement = getElement();
+        final Element itemElement = TinderPacketUtil.addPubSubMetaData(messageElement, builder);
+        // The original callstatus element is retained as-is, so the message can be forwarded without decoding the calls
+        final Element callStatusCopy = callStatusElement.createCopy();
+        itemElement.add(callStatusCopy);
         TinderPacketUtil.addDelay(messageElement, builder);
+        // The calls are decoded in the mode the message was parsed in, so that, for example, a message parsed to fail fast
+        // still fails on the first invalid call
+        this.lazyMode = ParseDiagnostics.modeOf(parseErrors);
+        this.lazyCalls = new LazyCallList(callStatusCopy.elements("call"), STANZA_DESCRIPTION, fieldMask, lazyMode);
+        this.calls = lazyCalls;
+        this.lazyBuilder = builder;
+        this.lazyParseErrors = ParseDiagnostics.copyOf(parseErrors);
     }
 
     @Nonnull
@@ -38,22 +78,145 @@ public class CallStatusMessage extends OpenlinkPubSubMessage {
         return Optional.ofNullable(callStatusBusy);
     }
 
+    /**
+     * @return the calls in the message; if the message was created with {@link #fromLazily(Message)} each call is decoded
+     * when it is first accessed
+     */
     @Nonnull
     public List<Call> getCalls() {
         return calls;
     }
 
+    /**
+     * @return the number of calls in the message, without decoding them
+     */
+    public int getCallCount() {
+        return calls.size();
+    }
+
+    /**
+     * @param index the index of the call
+     * @return the id of the call, without decoding the rest of the call
+     */
+    @Nonnull
+    public Optional<CallId> getCallId(final int index) {
+        return lazyCalls == null ? calls.get(index).getId() : lazyCalls.getCallId(index);
+    }
+
+    /**
+     * @param index the index of the call
+     * @return the state of the call, without decoding the rest of the call
+     */
+    @Nonnull
+    public Optional<CallState> getCallState(final int index) {
+        return lazyCalls == null ? calls.get(index).getState() : lazyCalls.getCallState(index);
+    }
+
+    /**
+     * @return any errors found parsing the message; if the calls are decoded lazily, this decodes any that have not yet
+     * been decoded
+     * @throws IllegalArgumentException if the calls are decoded lazily, the message was parsed to fail fast, and a call
+     *                                  is invalid
+     */
+    @Nonnull
+    @Override
+    public List<String> getParseErrors() {
+        if (lazyCalls == null) {
+            return super.getParseErrors();
+        }
+        // A message from a trusted source is not validated, so there is no need to decode its calls to do so
+        if (lazyMode == ParseDiagnostics.Mode.SKIP) {
+            return lazyParseErrors;
+        }
+        synchronized (lazyCalls) {
+            if (decodedParseErrors == null) {
+                final List<String> parseErrors = ParseDiagnostics.create(lazyMode);
+                parseErrors.addAll(lazyParseErrors);
+                parseErrors.addAll(lazyCalls.decodeAll());
+                lazyBuilder.addCalls(lazyCalls);
+                lazyBuilder.validate(parseErrors);
+                decodedParseErrors = ParseDiagnostics.copyOf(parseErrors);
+            }
+            return decodedParseErrors;
+        }
+    }
+
     @Nonnull
     public static CallStatusMessage from(@Nonnull final Message message) {
-        final List<String> parseErrors = new ArrayList<>();
+        return from(message, CallFieldMask.all());
+    }
+
+    /**
+     * Creates a message as per {@link #from(Message)}, except that only the given fields of each call are decoded; each
+     * call reports the fields that were decoded with {@link Call#getFieldMask()}.
+     *
+     * @param message   the message to parse
+     * @param fieldMask the fields of each call to decode
+     * @return the call status message
+     */
+    @Nonnull
+    public static CallStatusMessage from(@Nonnull final Message message, @Nonnull final CallFieldMask fieldMask) {
+        final List<String> parseErrors = ParseDiagnostics.create();
         final Builder builder = Builder.start();
         final Element itemElement = TinderPacketUtil.setPubSubMetaData(message, builder, STANZA_DESCRIPTION, parseErrors);
         final Element callStatusElement = TinderPacketUtil.getChildElement(itemElement, "callstatus");
         TinderPacketUtil.getBooleanAttribute(callStatusElement, "busy", "busy attribute", parseErrors).ifPresent(builder::setCallStatusBusy);
-        builder.addCalls(TinderPacketUtil.getCalls(callStatusElement, STANZA_DESCRIPTION, parseErrors));
+        builder.addCalls(TinderPacketUtil.getCalls(callStatusElement, STANZA_DESCRIPTION, parseErrors, fieldMask));
         return builder.build(parseErrors);
     }
 
+    /**
+     * Creates a message whose calls are only decoded when they are accessed; the pub-sub meta-data and busy flag are
+     * decoded immediately. This is much cheaper than {@link #from(Message)} if the calls are never inspected, for example
+     * when the message is simply forwarded. The parse errors, once requested, are the same as from {@link #from(Message)}.
+     *
+     * @param message the message to parse
+     * @return the call status message
+     */
+    @Nonnull
+    public static CallStatusMessage fromLazily(@Nonnull final Message message) {
+        return fromLazily(message, CallFieldMask.all());
+    }
+
+    /**
+     * Creates a message as per {@link #fromLazily(Message)}, except that only the given fields of each call are decoded
+     * when it is accessed.
+     *
+     * @param message   the message to parse
+     * @param fieldMask the fields of each call to decode
+     * @return the call status message
+     */
+    @Nonnull
+    public static CallStatusMessage fromLazily(@Nonnull final Message message, @Nonnull final CallFieldMask fieldMask) {
+        final List<String> parseErrors = ParseDiagnostics.create();
+        final Builder builder = Builder.start();
+        final Element itemElement = TinderPacketUtil.setPubSubMetaData(message, builder, STANZA_DESCRIPTION, parseErrors);
+        final Element callStatusElement = TinderPacketUtil.getChildElement(itemElement, "callstatus");
+        if (callStatusElement == null) {
+            return from(message, fieldMask);
+        }
+        TinderPacketUtil.getBooleanAttribute(callStatusElement, "busy", "busy attribute", parseErrors).ifPresent(builder::setCallStatusBusy);
+        return new CallStatusMessage(builder, callStatusElement, parseErrors, fieldMask);
+    }
+
+    /**
+     * Decodes the callstatus element from the XML stream; the message is built once the rest of the message, which may
+     * include a delay, has been read.
+     */
+    @Nonnull
+    static Function<PubSubEnvelope, CallStatusMessage> from(@Nonnull final XMLStreamReader reader, @Nonnull final CallFieldMask fieldMask) throws XMLStreamException {
+        final List<String> payloadErrors = ParseDiagnostics.create();
+        final Builder builder = Builder.start();
+        TinderStreamUtil.getBooleanAttribute(reader, "busy", "busy attribute", payloadErrors).ifPresent(builder::setCallStatusBusy);
+        builder.addCalls(TinderStreamUtil.getCalls(reader, STANZA_DESCRIPTION, payloadErrors, fieldMask));
+        return envelope -> {
+            final List<String> parseErrors = ParseDiagnostics.create();
+            envelope.setPubSubMetaData(builder, STANZA_DESCRIPTION, parseErrors);
+            parseErrors.addAll(payloadErrors);
+            return builder.build(parseErrors);
+        };
+    }
+
     public static final class Builder extends CallStatusMessageBuilder<Builder, JID> {
 
         private Builder() {
@@ -67,13 +230,26 @@ public class CallStatusMessage extends OpenlinkPubSubMessage {
         @Nonnull
         public CallStatusMessage build() {
             super.validate();
-            return new CallStatusMessage(this, null);
+            return new CallStatusMessage(this, null, false);
+        }
+
+        /**
+         * Builds the message as per {@link #build()}, except that the XML element of the message is only built when it
+         * is first required, for example when the message is sent. This avoids building an XML tree for a message that
+         * is only inspected, or that is serialised by other means.
+         *
+         * @return the message
+         */
+        @Nonnull
+        public CallStatusMessage buildLazily() {
+            super.validate();
+            return new CallStatusMessage(this, null, true);
         }
 
         @Nonnull
         protected CallStatusMessage build(final List<String> parseErrors) {
             super.validate(parseErrors, true);
-            return new CallStatusMessage(this, parseErrors);
+            return new CallStatusMessage(this, parseErrors, false);
         }
     }
 }
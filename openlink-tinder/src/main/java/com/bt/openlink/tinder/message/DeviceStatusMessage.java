@@ -1,18 +1,22 @@
 package com.bt.openlink.tinder.message;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import org.dom4j.Element;
 import org.xmpp.packet.JID;
 import org.xmpp.packet.Message;
 
+import com.bt.openlink.ParseDiagnostics;
 import com.bt.openlink.message.DeviceStatusMessageBuilder;
 import com.bt.openlink.tinder.internal.TinderPacketUtil;
+import com.bt.openlink.tinder.internal.TinderStreamUtil;
 import com.bt.openlink.type.DeviceStatus;
 
 public class DeviceStatusMessage extends OpenlinkPubSubMessage {
@@ -32,7 +36,7 @@ public class DeviceStatusMessage extends OpenlinkPubSubMessage {
 
     @Nonnull
     public static DeviceStatusMessage from(@Nonnull final Message message) {
-        final List<String> parseErrors = new ArrayList<>();
+        final List<String> parseErrors = ParseDiagnostics.create();
         final Builder builder = Builder.start();
         final Element itemElement = TinderPacketUtil.setPubSubMetaData(message, builder, STANZA_DESCRIPTION, parseErrors);
         final Element deviceStatusElement = TinderPacketUtil.getChildElement(itemElement, "devicestatus");
@@ -40,6 +44,23 @@ public class DeviceStatusMessage extends OpenlinkPubSubMessage {
         return builder.build(parseErrors);
     }
 
+    /**
+     * Decodes the devicestatus element from the XML stream; the message is built once the rest of the message, which may
+     * include a delay, has been read.
+     */
+    @Nonnull
+    static Function<PubSubEnvelope, DeviceStatusMessage> from(@Nonnull final XMLStreamReader reader) throws XMLStreamException {
+        final List<String> payloadErrors = ParseDiagnostics.create();
+        final Builder builder = Builder.start();
+        TinderStreamUtil.getDeviceStatus(reader, STANZA_DESCRIPTION, payloadErrors).ifPresent(builder::setDeviceStatus);
+        return envelope -> {
+            final List<String> parseErrors = ParseDiagnostics.create();
+            envelope.setPubSubMetaData(builder, STANZA_DESCRIPTION, parseErrors);
+            parseErrors.addAll(payloadErrors);
+            return builder.build(parseErrors);
+        };
+    }
+
     @Nonnull
     public Optional<DeviceStatus> getDeviceStatus() {
         return Optional.ofNullable(deviceStatus);
@@ -0,0 +1,98 @@
+package com.bt.openlink.tinder.message;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.RandomAccess;
+
+import javax.annotation.Nonnull;
+
+import org.dom4j.Element;
+
+import com.bt.openlink.ParseDiagnostics;
+import com.bt.openlink.tinder.internal.TinderPacketUtil;
+import com.bt.openlink.type.Call;
+import com.bt.openlink.type.CallFieldMask;
+import com.bt.openlink.type.CallId;
+import com.bt.openlink.type.CallState;
+
+/**
+ * An unmodifiable list of the calls in a callstatus element, each of which is only decoded when it is first accessed.
+ * The parse errors for each call are retained, so that the errors for the whole list can be reported in the same order
+ * as if the calls had been decoded eagerly. Each call is decoded in the mode the message was parsed in, so in
+ * {@link ParseDiagnostics.Mode#FAIL_FAST} decoding an invalid call throws an {@link IllegalArgumentException}.
+ */
+final class LazyCallList extends AbstractList<Call> implements RandomAccess {
+
+    @Nonnull private final List<Element> callElements;
+    @Nonnull private final String description;
+    @Nonnull private final CallFieldMask fieldMask;
+    @Nonnull private final ParseDiagnostics.Mode mode;
+    @Nonnull private final Call[] calls;
+    @Nonnull private final List<List<String>> callParseErrors;
+
+    LazyCallList(@Nonnull final List<Element> callElements, @Nonnull final String description, @Nonnull final CallFieldMask fieldMask, @Nonnull final ParseDiagnostics.Mode mode) {
+        this.callElements = callElements;
+        this.description = description;
+        this.fieldMask = fieldMask;
+        this.mode = mode;
+        this.calls = new Call[callElements.size()];
+        this.callParseErrors = new ArrayList<>(callElements.size());
+        for (int i = 0; i < callElements.size(); i++) {
+            callParseErrors.add(null);
+        }
+    }
+
+    @Override
+    public synchronized Call get(final int index) {
+        Call call = calls[index];
+        if (call == null) {
+            final List<String> parseErrors = ParseDiagnostics.create(mode);
+            call = TinderPacketUtil.getCall(callElements.get(index), description, parseErrors, fieldMask);
+            calls[index] = call;
+            callParseErrors.set(index, parseErrors);
+        }
+        return call;
+    }
+
+    @Override
+    public int size() {
+        return calls.length;
+    }
+
+    /**
+     * @param index the index of the call
+     * @return the id of the call, without decoding the rest of the call
+     */
+    @Nonnull
+    synchronized Optional<CallId> getCallId(final int index) {
+        final Call call = calls[index];
+        return call == null ? CallId.from(TinderPacketUtil.getNullableChildElementString(callElements.get(index), "id")) : call.getId();
+    }
+
+    /**
+     * @param index the index of the call
+     * @return the state of the call, without decoding the rest of the call
+     */
+    @Nonnull
+    synchronized Optional<CallState> getCallState(final int index) {
+        final Call call = calls[index];
+        return call == null ? CallState.from(TinderPacketUtil.getNullableChildElementString(callElements.get(index), "state")) : call.getState();
+    }
+
+    /**
+     * Decodes every call that has not yet been decoded.
+     *
+     * @return the parse errors for all the calls, in the order of the calls
+     */
+    @Nonnull
+    synchronized List<String> decodeAll() {
+        final List<String> parseErrors = ParseDiagnostics.create(ParseDiagnostics.Mode.COLLECT);
+        for (int i = 0; i < calls.length; i++) {
+            get(i);
+            parseErrors.addAll(callParseErrors.get(i));
+        }
+        return parseErrors;
+    }
+}
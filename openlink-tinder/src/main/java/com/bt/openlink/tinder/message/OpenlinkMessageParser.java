@@ -1,21 +1,82 @@
 package com.bt.openlink.tinder.message;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import org.dom4j.Element;
+import org.xmpp.packet.JID;
 import org.xmpp.packet.Message;
 
+import com.bt.openlink.ParseOptions;
 import com.bt.openlink.tinder.internal.TinderPacketUtil;
+import com.bt.openlink.tinder.internal.TinderStreamUtil;
+import com.bt.openlink.type.CallFieldMask;
 
 public final class OpenlinkMessageParser {
 
+    private static final String PUBSUB_EVENT_NAMESPACE = "http://jabber.org/protocol/pubsub#event";
+    private static final String DELAY_NAMESPACE = "urn:xmpp:delay";
+
     private OpenlinkMessageParser() {
     }
 
     @Nonnull
     public static Message parse(@Nonnull final Message message) {
+        return parse(message, false, CallFieldMask.all());
+    }
+
+    /**
+     * Parses a message as per {@link #parse(Message)}, except that the calls in a call status message are only decoded
+     * when they are accessed - see {@link CallStatusMessage#fromLazily(Message)}.
+     *
+     * @param message the message to parse
+     * @return the parsed message
+     */
+    @Nonnull
+    public static Message parseLazily(@Nonnull final Message message) {
+        return parse(message, true, CallFieldMask.all());
+    }
+
+    /**
+     * Parses a message as per {@link #parse(Message)}, validating it as the options require for the sender of the
+     * message, and decoding only the fields of each call in the options.
+     *
+     * @param message the message to parse
+     * @param options the options, which may trust the sender
+     * @return the parsed message
+     */
+    @Nonnull
+    public static Message parse(@Nonnull final Message message, @Nonnull final ParseOptions options) {
+        return options.parse(getFrom(message), () -> parse(message, false, options.getCallFieldMask()));
+    }
+
+    /**
+     * Parses a message as per {@link #parseLazily(Message)}, validating it as the options require for the sender of the
+     * message. The calls of a call status message from a trusted sender are never decoded just to validate them.
+     *
+     * @param message the message to parse
+     * @param options the options, which may trust the sender
+     * @return the parsed message
+     */
+    @Nonnull
+    public static Message parseLazily(@Nonnull final Message message, @Nonnull final ParseOptions options) {
+        return options.parse(getFrom(message), () -> parse(message, true, options.getCallFieldMask()));
+    }
+
+    @Nullable
+    private static String getFrom(@Nonnull final Message message) {
+        final JID from = message.getFrom();
+        return from == null ? null : from.toString();
+    }
+
+    @Nonnull
+    private static Message parse(@Nonnull final Message message, final boolean decodeCallsLazily, @Nonnull final CallFieldMask fieldMask) {
 
         final List elements = message.getElement().elements();
         if (elements.isEmpty()) {
@@ -23,23 +84,121 @@ public final class OpenlinkMessageParser {
         }
         final Element childElement = (Element) elements.get(0);
         final String namespace = childElement.getNamespaceURI();
-        if (namespace.equals("http://jabber.org/protocol/pubsub#event")) {
-            return parsePubSubEvent(message);
+        if (namespace.equals(PUBSUB_EVENT_NAMESPACE)) {
+            return parsePubSubEvent(message, decodeCallsLazily, fieldMask);
         } else {
             return message;
         }
     }
 
+    /**
+     * Parses a message directly from its XML. Call status and device status messages are decoded from the XML stream in a
+     * single pass without first building a dom4j tree; any other message is parsed as per {@link #parse(Message)}. The
+     * resulting message, including any parse errors, is the same as parsing the equivalent Tinder message.
+     *
+     * @param stanza the XML of the message
+     * @return the parsed message
+     * @throws IllegalArgumentException if the stanza is not well-formed XML
+     */
     @Nonnull
-    private static Message parsePubSubEvent(final Message message) {
+    public static Message parse(@Nonnull final String stanza) {
+        return parse(stanza, ParseOptions.defaults());
+    }
+
+    /**
+     * Parses a message directly from its XML as per {@link #parse(String)}, validating it as the options require for the
+     * sender of the message, and decoding only the fields of each call in the options. The elements of any other field
+     * are skipped without being read.
+     *
+     * @param stanza  the XML of the message
+     * @param options the options, which may trust the sender
+     * @return the parsed message
+     * @throws IllegalArgumentException if the stanza is not well-formed XML
+     */
+    @Nonnull
+    public static Message parse(@Nonnull final String stanza, @Nonnull final ParseOptions options) {
+        try {
+            final XMLStreamReader reader = TinderStreamUtil.createReader(stanza);
+            try {
+                final Optional<Message> message = options.parse(reader.getAttributeValue(null, "from"), () -> parsePubSubEvent(reader, options.getCallFieldMask()));
+                if (message.isPresent()) {
+                    return message.get();
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (final XMLStreamException e) {
+            throw new IllegalArgumentException("Unable to parse stanza", e);
+        }
+        return parse(new Message(TinderStreamUtil.getRootElement(stanza)), options);
+    }
+
+    @Nonnull
+    private static Message parsePubSubEvent(final Message message, final boolean decodeCallsLazily, @Nonnull final CallFieldMask fieldMask) {
         final Element callStatusElement = TinderPacketUtil.getChildElement(message.getElement(), "event", "items", "item", "callstatus");
         final Element deviceStatusElement = TinderPacketUtil.getChildElement(message.getElement(), "event", "items", "item", "devicestatus");
         if (callStatusElement != null) {
-            return CallStatusMessage.from(message);
+            return decodeCallsLazily ? CallStatusMessage.fromLazily(message, fieldMask) : CallStatusMessage.from(message, fieldMask);
         } else if (deviceStatusElement != null) {
             return DeviceStatusMessage.from(message);
         } else {
             return message;
         }
     }
+
+    @Nonnull
+    private static Optional<Message> parsePubSubEvent(@Nonnull final XMLStreamReader reader, @Nonnull final CallFieldMask fieldMask) throws XMLStreamException {
+        if (!"message".equals(reader.getLocalName())) {
+            return Optional.empty();
+        }
+        final PubSubEnvelope envelope = new PubSubEnvelope();
+        envelope.id = reader.getAttributeValue(null, "id");
+        envelope.from = reader.getAttributeValue(null, "from");
+        envelope.to = reader.getAttributeValue(null, "to");
+        if (!TinderStreamUtil.nextChildElement(reader)
+                || !"event".equals(reader.getLocalName())
+                || !PUBSUB_EVENT_NAMESPACE.equals(reader.getNamespaceURI())) {
+            return Optional.empty();
+        }
+        Function<PubSubEnvelope, ? extends Message> messageFactory = null;
+        if (TinderStreamUtil.moveToChildElement(reader, "items")) {
+            envelope.pubSubNodeId = reader.getAttributeValue(null, "node");
+            if (TinderStreamUtil.moveToChildElement(reader, "item")) {
+                envelope.itemId = TinderStreamUtil.getNullableAttribute(reader, "id");
+                messageFactory = getMessageFactory(reader, fieldMask);
+                // Skip any remaining items
+                TinderStreamUtil.skipElement(reader);
+            }
+            // Skip the remainder of the event element
+            TinderStreamUtil.skipElement(reader);
+        }
+        if (messageFactory == null) {
+            return Optional.empty();
+        }
+        boolean delayFound = false;
+        while (TinderStreamUtil.nextChildElement(reader)) {
+            if (!delayFound && "delay".equals(reader.getLocalName()) && DELAY_NAMESPACE.equals(reader.getNamespaceURI())) {
+                delayFound = true;
+                envelope.delay = TinderStreamUtil.getNullableAttribute(reader, "stamp");
+            }
+            TinderStreamUtil.skipElement(reader);
+        }
+        return Optional.of(messageFactory.apply(envelope));
+    }
+
+    private static Function<PubSubEnvelope, ? extends Message> getMessageFactory(@Nonnull final XMLStreamReader reader, @Nonnull final CallFieldMask fieldMask) throws XMLStreamException {
+        Function<PubSubEnvelope, ? extends Message> callStatusFactory = null;
+        Function<PubSubEnvelope, ? extends Message> deviceStatusFactory = null;
+        while (TinderStreamUtil.nextChildElement(reader)) {
+            final String elementName = reader.getLocalName();
+            if (callStatusFactory == null && "callstatus".equals(elementName)) {
+                callStatusFactory = CallStatusMessage.from(reader, fieldMask);
+            } else if (deviceStatusFactory == null && "devicestatus".equals(elementName)) {
+                deviceStatusFactory = DeviceStatusMessage.from(reader);
+            } else {
+                TinderStreamUtil.skipElement(reader);
+            }
+        }
+        return callStatusFactory == null ? deviceStatusFactory : callStatusFactory;
+    }
 }
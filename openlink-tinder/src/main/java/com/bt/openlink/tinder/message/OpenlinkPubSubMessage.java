@@ -1,18 +1,24 @@
 package com.bt.openlink.tinder.message;
 
+import java.io.IOException;
 import java.time.Instant;
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
+import org.dom4j.Element;
 import org.xmpp.packet.JID;
 import org.xmpp.packet.Message;
+import org.xmpp.packet.PacketExtension;
 
+import com.bt.openlink.OpenlinkXmlWriter;
+import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.ParseDiagnostics;
 import com.bt.openlink.message.PubSubMessageBuilder;
+import com.bt.openlink.tinder.StanzaFanOut;
+import com.bt.openlink.tinder.internal.DeferredElement;
 import com.bt.openlink.type.ItemId;
 import com.bt.openlink.type.PubSubNodeId;
 
@@ -24,6 +30,7 @@ public class OpenlinkPubSubMessage extends Message {
 
     @Nonnull
     private List<String> parseErrors;
+    @Nullable private volatile DeferredElement deferredElement;
 
     OpenlinkPubSubMessage(@Nonnull final PubSubMessageBuilder<?, JID> builder, @Nullable final List<String> parseErrors) {
         builder.getTo().ifPresent(this::setTo);
@@ -32,11 +39,57 @@ public class OpenlinkPubSubMessage extends Message {
         this.delay = builder.getDelay().orElse(null);
         this.pubSubNodeId = builder.getPubSubNodeId().orElse(null);
         this.itemId = builder.getItemId().orElse(null);
-        if (parseErrors == null) {
-            this.parseErrors = Collections.emptyList();
+        // The builder has already validated the parse errors, so there is no need to validate them again
+        this.parseErrors = ParseDiagnostics.copyOf(parseErrors);
+    }
+
+    /**
+     * Adds the child elements of the message, either immediately or, if deferred, only when the message's element is
+     * first required - for example, when it is serialised. The typed fields of the message are available either way.
+     *
+     * @param elementBuilder the code that adds the child elements
+     * @param childContent   the code that writes the same child elements directly, used to serialise the message
+     *                       while adding the child elements is deferred
+     * @param defer          {@code true} to defer adding the child elements
+     */
+    void addChildElements(@Nonnull final Runnable elementBuilder, @Nonnull final OpenlinkXmlWriter.Content childContent, final boolean defer) {
+        if (defer) {
+            deferredElement = new DeferredElement(elementBuilder, childContent);
         } else {
-            this.parseErrors = new ArrayList<>(parseErrors);
-            builder.validate(parseErrors);
+            elementBuilder.run();
+        }
+    }
+
+    /**
+     * Writes the pub-sub event and any delay; the same elements as are added by {@code TinderPacketUtil.addPubSubMetaData}
+     * and {@code TinderPacketUtil.addDelay}.
+     *
+     * @param writer      the writer to write to
+     * @param itemContent the content of the pub-sub item
+     * @throws IOException if the writer cannot be written to
+     */
+    void writePubSubEvent(@Nonnull final OpenlinkXmlWriter writer, @Nonnull final OpenlinkXmlWriter.Content itemContent) throws IOException {
+        writer.startElement("event", OpenlinkXmppNamespace.XMPP_PUBSUB_EVENT.uri())
+                .startElement("items")
+                .attribute("node", pubSubNodeId == null ? null : pubSubNodeId.value())
+                .startElement("item")
+                .attribute("id", itemId == null ? null : itemId.value());
+        itemContent.writeTo(writer);
+        writer.endElement("item")
+                .endElement("items")
+                .endElement("event");
+        if (delay != null) {
+            writer.startElement("delay", "urn:xmpp:delay")
+                    .attribute("stamp", delay.toString())
+                    .endElement("delay");
+        }
+    }
+
+    private void materialiseElement() {
+        final DeferredElement currentDeferredElement = deferredElement;
+        if (currentDeferredElement != null) {
+            currentDeferredElement.materialise();
+            deferredElement = null;
         }
     }
 
@@ -60,5 +113,83 @@ public class OpenlinkPubSubMessage extends Message {
         return Optional.ofNullable(itemId);
     }
 
+    @Override
+    public Element getElement() {
+        materialiseElement();
+        return super.getElement();
+    }
+
+    /**
+     * Encodes the content of the message once, so that it can be sent to many recipients, each of which only costs the
+     * encoding of the addressing envelope. If the message's element has not yet been built, it is not built by this method.
+     *
+     * @return the encoded message
+     */
+    @Nonnull
+    public StanzaFanOut fanOut() {
+        final DeferredElement currentDeferredElement = deferredElement;
+        if (currentDeferredElement != null) {
+            final Optional<String> payload = currentDeferredElement.getChildXML(element);
+            if (payload.isPresent()) {
+                return new StanzaFanOut(element, payload.get());
+            }
+        }
+        return StanzaFanOut.of(this);
+    }
+
+    @Override
+    public String toXML() {
+        final DeferredElement currentDeferredElement = deferredElement;
+        if (currentDeferredElement != null) {
+            final Optional<String> xml = currentDeferredElement.toXML(element);
+            if (xml.isPresent()) {
+                return xml.get();
+            }
+        }
+        materialiseElement();
+        return super.toXML();
+    }
+
+    @Override
+    public String toString() {
+        materialiseElement();
+        return super.toString();
+    }
+
+    @Override
+    public Message createCopy() {
+        materialiseElement();
+        return super.createCopy();
+    }
+
+    @Override
+    public Element getChildElement(final String name, final String namespace) {
+        materialiseElement();
+        return super.getChildElement(name, namespace);
+    }
+
+    @Override
+    public Element addChildElement(final String name, final String namespace) {
+        materialiseElement();
+        return super.addChildElement(name, namespace);
+    }
+
+    @Override
+    public PacketExtension getExtension(final String name, final String namespace) {
+        materialiseElement();
+        return super.getExtension(name, namespace);
+    }
+
+    @Override
+    public void addExtension(final PacketExtension extension) {
+        materialiseElement();
+        super.addExtension(extension);
+    }
+
+    @Override
+    public boolean deleteExtension(final String name, final String namespace) {
+        materialiseElement();
+        return super.deleteExtension(name, namespace);
+    }
 
 }
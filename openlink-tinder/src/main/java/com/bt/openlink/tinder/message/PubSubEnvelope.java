@@ -0,0 +1,51 @@
+package com.bt.openlink.tinder.message;
+
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.xmpp.packet.JID;
+
+import com.bt.openlink.ParseDiagnostics;
+import com.bt.openlink.TimestampCodec;
+import com.bt.openlink.message.PubSubMessageBuilder;
+import com.bt.openlink.tinder.internal.TinderPacketUtil;
+import com.bt.openlink.type.ItemId;
+import com.bt.openlink.type.PubSubNodeId;
+
+/**
+ * The addressing and pub-sub meta-data of a message read from the XML stream. The delay element may follow the pub-sub
+ * payload, so this is only applied to the builder once the whole message has been read.
+ */
+final class PubSubEnvelope {
+
+    @Nullable String id;
+    @Nullable String from;
+    @Nullable String to;
+    @Nullable String pubSubNodeId;
+    @Nullable String itemId;
+    @Nullable String delay;
+
+    /**
+     * Equivalent to {@link TinderPacketUtil#setPubSubMetaData}, including the parse errors.
+     */
+    void setPubSubMetaData(
+            @Nonnull PubSubMessageBuilder<?, JID> builder,
+            @Nonnull final String description,
+            @Nonnull final List<String> parseErrors) {
+        builder.setId(id);
+        builder.setFrom(TinderPacketUtil.getJID(from).orElse(null));
+        builder.setTo(TinderPacketUtil.getJID(to).orElse(null));
+        PubSubNodeId.from(pubSubNodeId).ifPresent(builder::setPubSubNodeId);
+        ItemId.from(itemId).ifPresent(builder::setItemId);
+        if (delay != null) {
+            try {
+                builder.setDelay(TimestampCodec.parseIso8601(delay));
+            } catch (final DateTimeParseException e) {
+                ParseDiagnostics.report(parseErrors, "Invalid %s; invalid timestamp '%s'; format should be compliant with XEP-0082", description, delay);
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.bt.openlink.tinder;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.xmlunit.matchers.CompareMatcher.isIdenticalTo;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+import org.xmpp.packet.JID;
+import org.xmpp.packet.Message;
+
+import com.bt.openlink.CoreFixtures;
+import com.bt.openlink.PubSubMessageFixtures;
+import com.bt.openlink.PubSubPublishFixtures;
+import com.bt.openlink.tinder.iq.PubSubPublishRequest;
+import com.bt.openlink.tinder.message.CallStatusMessage;
+
+@SuppressWarnings("ConstantConditions")
+public class StanzaFanOutTest {
+
+    private static final JID ANOTHER_JID = new JID("another-user@test-domain/test-resource");
+
+    private static CallStatusMessage.Builder callStatusMessageBuilder(final JID to) {
+        return CallStatusMessage.Builder.start()
+                .setId(CoreFixtures.STANZA_ID)
+                .setTo(to)
+                .setFrom(Fixtures.FROM_JID)
+                .setPubSubNodeId(CoreFixtures.CALL_INCOMING_ORIGINATED.getInterestId().get())
+                .setItemId(PubSubMessageFixtures.ITEM_ID)
+                .setCallStatusBusy(false)
+                .addCall(CoreFixtures.CALL_INCOMING_ORIGINATED);
+    }
+
+    @Test
+    public void willAddressALazilyBuiltMessageToEachRecipient() {
+
+        final StanzaFanOut fanOut = callStatusMessageBuilder(Fixtures.TO_JID).buildLazily().fanOut();
+
+        assertThat(fanOut.toXML(Fixtures.TO_JID), isIdenticalTo(PubSubMessageFixtures.CALL_STATUS_MESSAGE).ignoreWhitespace());
+        assertThat(fanOut.toXML(ANOTHER_JID), isIdenticalTo(callStatusMessageBuilder(ANOTHER_JID).build().toXML()).ignoreWhitespace());
+    }
+
+    @Test
+    public void willAddressAnEagerlyBuiltMessageToEachRecipient() {
+
+        final StanzaFanOut fanOut = callStatusMessageBuilder(Fixtures.TO_JID).build().fanOut();
+
+        assertThat(fanOut.toXML(Fixtures.TO_JID), isIdenticalTo(PubSubMessageFixtures.CALL_STATUS_MESSAGE).ignoreWhitespace());
+        assertThat(fanOut.toXML(ANOTHER_JID), isIdenticalTo(callStatusMessageBuilder(ANOTHER_JID).build().toXML()).ignoreWhitespace());
+    }
+
+    @Test
+    public void willReplaceTheIdOfARequest() {
+
+        final PubSubPublishRequest request = PubSubPublishRequest.Builder.start()
+                .setId("another-id")
+                .setTo(Fixtures.TO_JID)
+                .setFrom(Fixtures.FROM_JID)
+                .addCall(CoreFixtures.CALL_INCOMING_ORIGINATED)
+                .setInterestId(CoreFixtures.INTEREST_ID)
+                .buildLazily();
+
+        final StanzaFanOut fanOut = request.fanOut();
+
+        assertThat(fanOut.toXML(Fixtures.TO_JID, CoreFixtures.STANZA_ID), isIdenticalTo(PubSubPublishFixtures.PUBLISH_REQUEST_CALL_STATUS).ignoreWhitespace());
+    }
+
+    @Test
+    public void willEncodeAsUtf8() {
+
+        final StanzaFanOut fanOut = callStatusMessageBuilder(Fixtures.TO_JID).buildLazily().fanOut();
+
+        assertThat(new String(fanOut.toBytes(ANOTHER_JID), StandardCharsets.UTF_8), is(fanOut.toXML(ANOTHER_JID)));
+    }
+
+    @Test
+    public void willFanOutAnyStanza() {
+
+        final Message message = Fixtures.messageFrom(PubSubMessageFixtures.ARBITRARY_PUBSUB_MESSAGE);
+
+        final StanzaFanOut fanOut = StanzaFanOut.of(message);
+
+        assertThat(fanOut.toXML(message.getTo()), isIdenticalTo(PubSubMessageFixtures.ARBITRARY_PUBSUB_MESSAGE).ignoreWhitespace());
+    }
+}
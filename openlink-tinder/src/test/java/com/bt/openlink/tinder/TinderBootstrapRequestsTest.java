@@ -0,0 +1,81 @@
+package com.bt.openlink.tinder;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+import org.xmpp.packet.IQ;
+
+import com.bt.openlink.AsyncIQClient;
+import com.bt.openlink.CoreFixtures;
+import com.bt.openlink.HashedWheelTimer;
+import com.bt.openlink.OpenlinkBootstrap;
+import com.bt.openlink.OpenlinkSnapshot;
+import com.bt.openlink.tinder.iq.GetFeaturesRequest;
+import com.bt.openlink.tinder.iq.GetFeaturesResult;
+import com.bt.openlink.tinder.iq.GetInterestsRequest;
+import com.bt.openlink.tinder.iq.GetInterestsResult;
+import com.bt.openlink.tinder.iq.GetProfilesRequest;
+import com.bt.openlink.tinder.iq.GetProfilesResult;
+import com.bt.openlink.tinder.iq.PubSubSubscriptionRequest;
+import com.bt.openlink.type.SubscriptionState;
+
+@SuppressWarnings("ConstantConditions")
+public class TinderBootstrapRequestsTest {
+
+    private final List<IQ> sentRequests = new ArrayList<>();
+    private final HashedWheelTimer timer = new HashedWheelTimer(10, TimeUnit.MILLISECONDS, 16, Thread::new);
+    private final AsyncIQClient<IQ> client = new AsyncIQClient<>(new TinderIQAdapter(sentRequests::add), timer, Duration.ofSeconds(30), 10);
+    private final TinderBootstrapRequests requests = new TinderBootstrapRequests(client, Fixtures.FROM_JID, Fixtures.TO_JID, Fixtures.TO_JID, Fixtures.USER_FULL_JID);
+
+    @After
+    public void tearDown() {
+        timer.stop();
+    }
+
+    @Test
+    public void willBootstrapAUser() {
+
+        final CompletableFuture<OpenlinkSnapshot> future = new OpenlinkBootstrap(requests, 10).start();
+
+        final GetProfilesRequest getProfilesRequest = (GetProfilesRequest) sentRequests.get(0);
+        assertThat(getProfilesRequest.getTo(), is(Fixtures.TO_JID));
+        assertThat(getProfilesRequest.getFrom(), is(Fixtures.FROM_JID));
+        assertThat(getProfilesRequest.getJID().get(), is(Fixtures.USER_FULL_JID));
+        client.handleResponse(GetProfilesResult.Builder.start(getProfilesRequest)
+                .addProfile(CoreFixtures.PROFILE)
+                .build());
+
+        final GetInterestsRequest getInterestsRequest = (GetInterestsRequest) sentRequests.get(1);
+        assertThat(getInterestsRequest.getProfileId().get(), is(CoreFixtures.PROFILE_ID));
+        final GetFeaturesRequest getFeaturesRequest = (GetFeaturesRequest) sentRequests.get(2);
+        assertThat(getFeaturesRequest.getProfileId().get(), is(CoreFixtures.PROFILE_ID));
+        client.handleResponse(GetInterestsResult.Builder.start(getInterestsRequest)
+                .addInterest(CoreFixtures.INTEREST)
+                .build());
+        client.handleResponse(GetFeaturesResult.Builder.start(getFeaturesRequest)
+                .addFeature(CoreFixtures.FEATURE)
+                .build());
+
+        final PubSubSubscriptionRequest subscriptionRequest = (PubSubSubscriptionRequest) sentRequests.get(3);
+        assertThat(subscriptionRequest.getPubSubNodeId().get(), is(CoreFixtures.INTEREST_ID.toPubSubNodeId()));
+        assertThat(subscriptionRequest.getJID().get(), is(Fixtures.USER_FULL_JID));
+        assertThat(subscriptionRequest.getSubscriptionState().get(), is(SubscriptionState.SUBSCRIBED));
+        client.handleResponse(IQ.createResultIQ(subscriptionRequest));
+
+        final OpenlinkSnapshot snapshot = future.join();
+        assertThat(snapshot.isComplete(), is(true));
+        assertThat(snapshot.getProfiles().size(), is(1));
+        assertThat(snapshot.getInterests(CoreFixtures.PROFILE_ID).size(), is(1));
+        assertThat(snapshot.getFeatures(CoreFixtures.PROFILE_ID).size(), is(1));
+        assertThat(snapshot.getSubscribedInterests(), contains(CoreFixtures.INTEREST_ID));
+    }
+}
@@ -0,0 +1,62 @@
+package com.bt.openlink.tinder;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.xmpp.packet.Message;
+
+import com.bt.openlink.CallStatusRouter;
+import com.bt.openlink.CoreFixtures;
+import com.bt.openlink.PubSubMessageFixtures;
+import com.bt.openlink.tinder.message.CallStatusMessage;
+import com.bt.openlink.tinder.message.DeviceStatusMessage;
+import com.bt.openlink.type.Call;
+
+@SuppressWarnings("ConstantConditions")
+public class TinderCallStatusRouterTest {
+
+    private final CallStatusRouter router = new CallStatusRouter();
+    private final TinderCallStatusRouter messageRouter = new TinderCallStatusRouter(router);
+    private final List<Call> routedCalls = new ArrayList<>();
+
+    @Test
+    public void willRouteTheCallsOfACallStatusMessage() {
+
+        router.addListener(CallStatusRouter.Filter.forInterest(CoreFixtures.INTEREST_ID), routedCalls::add);
+
+        final Message message = messageRouter.route(Fixtures.messageFrom(PubSubMessageFixtures.CALL_STATUS_MESSAGE));
+
+        assertThat(message, is(instanceOf(CallStatusMessage.class)));
+        assertThat(routedCalls.size(), is(1));
+        assertThat(routedCalls.get(0).getId().get(), is(CoreFixtures.CALL_ID));
+    }
+
+    @Test
+    public void willRouteTheCallsOfACallStatusMessageFromItsXml() {
+
+        router.addListener(CallStatusRouter.Filter.forProfile(CoreFixtures.PROFILE_ID), routedCalls::add);
+
+        final Message message = messageRouter.route(PubSubMessageFixtures.CALL_STATUS_MESSAGE);
+
+        assertThat(message, is(instanceOf(CallStatusMessage.class)));
+        assertThat(routedCalls.size(), is(1));
+        assertThat(routedCalls.get(0).getId().get(), is(CoreFixtures.CALL_ID));
+    }
+
+    @Test
+    public void willReturnAnyOtherMessageWithoutRoutingIt() {
+
+        router.addListener(CallStatusRouter.Filter.all(), routedCalls::add);
+
+        final Message message = messageRouter.route(Fixtures.messageFrom(PubSubMessageFixtures.DEVICE_STATUS_MESSAGE));
+
+        assertThat(message, is(instanceOf(DeviceStatusMessage.class)));
+        assertThat(routedCalls, is(empty()));
+    }
+}
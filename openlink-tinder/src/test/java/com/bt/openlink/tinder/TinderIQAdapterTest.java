@@ -0,0 +1,107 @@
+package com.bt.openlink.tinder;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.xmpp.packet.IQ;
+import org.xmpp.packet.PacketError;
+
+import com.bt.openlink.AsyncIQClient;
+import com.bt.openlink.CoreFixtures;
+import com.bt.openlink.GetProfilesFixtures;
+import com.bt.openlink.HashedWheelTimer;
+import com.bt.openlink.StanzaErrorException;
+import com.bt.openlink.tinder.iq.GetProfilesRequest;
+import com.bt.openlink.tinder.iq.GetProfilesResult;
+
+@SuppressWarnings("ConstantConditions")
+public class TinderIQAdapterTest {
+
+    @Rule public final ExpectedException expectedException = ExpectedException.none();
+
+    private final List<IQ> sentRequests = new ArrayList<>();
+    private final HashedWheelTimer timer = new HashedWheelTimer(10, TimeUnit.MILLISECONDS, 16, Thread::new);
+    private final AsyncIQClient<IQ> client = new AsyncIQClient<>(new TinderIQAdapter(sentRequests::add), timer, Duration.ofSeconds(30), 10);
+
+    @After
+    public void tearDown() {
+        timer.stop();
+    }
+
+    private static GetProfilesRequest request() {
+        // Addressed to the sender of the result fixtures
+        return GetProfilesRequest.Builder.start()
+                .setId(CoreFixtures.STANZA_ID)
+                .setTo(Fixtures.FROM_JID)
+                .setFrom(Fixtures.TO_JID)
+                .setJID(Fixtures.USER_FULL_JID)
+                .build();
+    }
+
+    @Test
+    public void willParseTheResultOfARequest() {
+
+        final CompletableFuture<GetProfilesResult> future = client.sendRequest(request(), GetProfilesResult.class);
+
+        assertThat(sentRequests.size(), is(1));
+        assertThat(client.handleResponse(Fixtures.iqFrom(GetProfilesFixtures.GET_PROFILES_RESULT_WITH_NO_NOTES)), is(true));
+
+        final GetProfilesResult result = future.join();
+        assertThat(result.getID(), is(CoreFixtures.STANZA_ID));
+        assertThat(result.getProfiles().size(), is(2));
+    }
+
+    @Test
+    public void willIgnoreAResultFromAnotherEntity() {
+
+        client.sendRequest(request(), GetProfilesResult.class);
+        final IQ result = IQ.createResultIQ(sentRequests.get(0));
+        result.setFrom(Fixtures.USER_FULL_JID);
+
+        assertThat(client.handleResponse(result), is(false));
+        assertThat(client.getOutstandingCount(), is(1));
+    }
+
+    @Test
+    public void willFailWhenAnErrorIsReceived() throws Exception {
+
+        final CompletableFuture<GetProfilesResult> future = client.sendRequest(request(), GetProfilesResult.class);
+        final IQ error = IQ.createResultIQ(sentRequests.get(0));
+        error.setType(IQ.Type.error);
+        error.setError(PacketError.Condition.item_not_found);
+
+        client.handleResponse(error);
+
+        try {
+            future.get();
+        } catch (final ExecutionException e) {
+            assertThat(e.getCause(), is(instanceOf(StanzaErrorException.class)));
+            final StanzaErrorException stanzaError = (StanzaErrorException) e.getCause();
+            assertThat(stanzaError.getStanzaId().get(), is(CoreFixtures.STANZA_ID));
+            assertThat(stanzaError.getCondition(), is("item-not-found"));
+            return;
+        }
+        throw new AssertionError("The request did not fail");
+    }
+
+    @Test
+    public void willNotTreatARequestAsAResponse() {
+
+        client.sendRequest(request(), GetProfilesResult.class);
+
+        assertThat(client.handleResponse(sentRequests.get(0)), is(false));
+        assertThat(client.getOutstandingCount(), is(1));
+    }
+}
@@ -0,0 +1,115 @@
+package com.bt.openlink.tinder;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.xmpp.packet.IQ;
+import org.xmpp.packet.PacketError;
+
+import com.bt.openlink.AsyncIQClient;
+import com.bt.openlink.CoreFixtures;
+import com.bt.openlink.HashedWheelTimer;
+import com.bt.openlink.PubSubPublication;
+import com.bt.openlink.StanzaErrorException;
+import com.bt.openlink.tinder.iq.PubSubPublishRequest;
+
+@SuppressWarnings("ConstantConditions")
+public class TinderPubSubPublisherTest {
+
+    @Rule public final ExpectedException expectedException = ExpectedException.none();
+
+    private final List<IQ> sentRequests = new ArrayList<>();
+    private final HashedWheelTimer timer = new HashedWheelTimer(10, TimeUnit.MILLISECONDS, 16, Thread::new);
+    private final AsyncIQClient<IQ> client = new AsyncIQClient<>(new TinderIQAdapter(sentRequests::add), timer, Duration.ofSeconds(30), 10);
+    private final TinderPubSubPublisher publisher = new TinderPubSubPublisher(Fixtures.FROM_JID, Fixtures.TO_JID, client);
+
+    @After
+    public void tearDown() {
+        timer.stop();
+    }
+
+    private static PubSubPublication publication() {
+        return PubSubPublication.ofCalls(CoreFixtures.INTEREST_ID, Collections.singletonList(CoreFixtures.CALL_INCOMING_ORIGINATED));
+    }
+
+    @Test
+    public void willSendAPublishRequest() {
+
+        publisher.apply(publication());
+
+        assertThat(sentRequests.size(), is(1));
+        final PubSubPublishRequest request = (PubSubPublishRequest) sentRequests.get(0);
+        assertThat(request.getTo(), is(Fixtures.TO_JID));
+        assertThat(request.getFrom(), is(Fixtures.FROM_JID));
+        assertThat(request.getType(), is(IQ.Type.set));
+        assertThat(request.getPubSubNodeId().get(), is(CoreFixtures.INTEREST_ID.toPubSubNodeId()));
+        assertThat(request.getCalls().size(), is(1));
+        assertThat(client.getOutstandingCount(), is(1));
+    }
+
+    @Test
+    public void willCompleteWhenTheResultIsReceived() {
+
+        final CompletableFuture<IQ> future = publisher.apply(publication());
+        final IQ result = IQ.createResultIQ(sentRequests.get(0));
+
+        assertThat(client.handleResponse(result), is(true));
+
+        assertThat(future.join(), is(result));
+        assertThat(client.getOutstandingCount(), is(0));
+    }
+
+    @Test
+    public void willFailWhenAnErrorIsReceived() throws Exception {
+
+        final CompletableFuture<IQ> future = publisher.apply(publication());
+        final IQ error = IQ.createResultIQ(sentRequests.get(0));
+        error.setType(IQ.Type.error);
+        error.setError(PacketError.Condition.item_not_found);
+
+        client.handleResponse(error);
+
+        expectedException.expect(ExecutionException.class);
+        expectedException.expectCause(instanceOf(StanzaErrorException.class));
+        future.get();
+    }
+
+    @Test
+    public void willFailIfTheResultIsNeverReceived() throws Exception {
+
+        final AsyncIQClient<IQ> impatientClient = new AsyncIQClient<>(new TinderIQAdapter(sentRequests::add), timer, Duration.ofMillis(20), 10);
+        final CompletableFuture<IQ> future = new TinderPubSubPublisher(Fixtures.FROM_JID, Fixtures.TO_JID, impatientClient).apply(publication());
+
+        expectedException.expect(ExecutionException.class);
+        expectedException.expectCause(instanceOf(TimeoutException.class));
+        try {
+            future.get(5, TimeUnit.SECONDS);
+        } finally {
+            assertThat(impatientClient.getOutstandingCount(), is(0));
+            assertThat(impatientClient.handleResponse(IQ.createResultIQ(sentRequests.get(0))), is(false));
+        }
+    }
+
+    @Test
+    public void willUseAUniqueIdForEachRequest() {
+
+        publisher.apply(publication());
+        publisher.apply(publication());
+
+        assertThat(sentRequests.get(0).getID().equals(sentRequests.get(1).getID()), is(false));
+    }
+}
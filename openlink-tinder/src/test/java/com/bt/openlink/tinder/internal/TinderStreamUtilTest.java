@@ -0,0 +1,36 @@
+package com.bt.openlink.tinder.internal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.dom4j.Element;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.bt.openlink.PubSubMessageFixtures;
+
+public class TinderStreamUtilTest {
+
+    @Rule public final ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void willBuildTheRootElementOfAStanza() {
+
+        final Element element = TinderStreamUtil.getRootElement(PubSubMessageFixtures.CALL_STATUS_MESSAGE);
+
+        assertThat(element.getName(), is("message"));
+    }
+
+    @Test
+    public void willNotResolveAnExternalEntity() {
+
+        final String stanza = "<?xml version='1.0'?>\n" +
+                "<!DOCTYPE message [<!ENTITY xxe SYSTEM 'file:///etc/passwd'>]>\n" +
+                "<message to='test-to-user@test-domain'><body>&xxe;</body></message>";
+
+        expectedException.expect(IllegalArgumentException.class);
+
+        TinderStreamUtil.getRootElement(stanza);
+    }
+}
@@ -56,6 +56,23 @@ public class GetProfilesResultTest {
         assertThat(result.toXML(), isIdenticalTo(GetProfilesFixtures.GET_PROFILES_RESULT_WITH_NO_NOTES).ignoreWhitespace());
     }
 
+    @Test
+    public void willGenerateAnXmppStanzaLazily() throws Exception {
+
+        final GetProfilesResult result = GetProfilesResult.Builder.start()
+                .setId(CoreFixtures.STANZA_ID)
+                .setTo(Fixtures.TO_JID)
+                .setFrom(Fixtures.FROM_JID)
+                .addProfile(CoreFixtures.PROFILE)
+                .addProfile(GetProfilesFixtures.PROFILE_2)
+                .buildLazily();
+
+        assertThat(result.getProfiles().size(), is(2));
+        assertThat(result.toXML(), isIdenticalTo(GetProfilesFixtures.GET_PROFILES_RESULT_WITH_NO_NOTES).ignoreWhitespace());
+        assertThat(result.getChildElement().getName(), is("command"));
+        assertThat(result.toXML(), isIdenticalTo(GetProfilesFixtures.GET_PROFILES_RESULT_WITH_NO_NOTES).ignoreWhitespace());
+    }
+
     @Test
     public void willParseAnXmppStanza() throws Exception {
 
@@ -0,0 +1,178 @@
+package com.bt.openlink.tinder.iq;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.xmlunit.matchers.CompareMatcher.isIdenticalTo;
+
+import java.util.Optional;
+
+import org.junit.After;
+import org.junit.Test;
+import org.xmpp.packet.IQ;
+
+import com.bt.openlink.CoreFixtures;
+import com.bt.openlink.GetFeaturesFixtures;
+import com.bt.openlink.GetInterestsFixtures;
+import com.bt.openlink.GetProfilesFixtures;
+import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.PubSubSubscribeFixtures;
+import com.bt.openlink.tinder.Fixtures;
+
+@SuppressWarnings("ConstantConditions")
+public class OpenlinkIQParserTest {
+
+    private static final String SET_FEATURES_REQUEST = "<iq type='set' id='" + CoreFixtures.STANZA_ID + "' to='" + CoreFixtures.TO_JID_STRING + "' from='" + CoreFixtures.FROM_JID_STRING + "'>\n" +
+            "  <command xmlns='http://jabber.org/protocol/commands' action='execute' node='" + OpenlinkXmppNamespace.OPENLINK_SET_FEATURES.uri() + "'/>\n" +
+            "</iq>";
+    private static final String PUBSUB_ITEMS_REQUEST = "<iq type='get' id='" + CoreFixtures.STANZA_ID + "' to='" + CoreFixtures.TO_JID_STRING + "' from='" + CoreFixtures.FROM_JID_STRING + "'>\n" +
+            "  <pubsub xmlns='http://jabber.org/protocol/pubsub'>\n" +
+            "    <items node='test-node'/>\n" +
+            "  </pubsub>\n" +
+            "</iq>";
+
+    @After
+    public void tearDown() {
+        OpenlinkIQParser.unregisterCommandFactory(OpenlinkXmppNamespace.OPENLINK_SET_FEATURES, IQ.Type.set);
+        OpenlinkIQParser.unregisterPubSubFactory("items");
+        OpenlinkIQParser.registerCommandFactory(OpenlinkXmppNamespace.OPENLINK_GET_PROFILES, IQ.Type.set, GetProfilesRequest::from);
+    }
+
+    private static void assertStreamedIQMatchesParsedIQ(final String stanza) {
+
+        final IQ parsedIQ = OpenlinkIQParser.parse(Fixtures.iqFrom(stanza));
+        final IQ streamedIQ = OpenlinkIQParser.parse(stanza);
+
+        assertThat(streamedIQ.getClass(), is(parsedIQ.getClass()));
+        assertThat(streamedIQ.toXML(), isIdenticalTo(parsedIQ.toXML()).ignoreWhitespace());
+        if (parsedIQ instanceof OpenlinkIQ) {
+            assertThat(((OpenlinkIQ) streamedIQ).getParseErrors(), is(((OpenlinkIQ) parsedIQ).getParseErrors()));
+        }
+    }
+
+    @Test
+    public void willParseAKnownCommand() {
+
+        final IQ iq = OpenlinkIQParser.parse(Fixtures.iqFrom(GetProfilesFixtures.GET_PROFILES_REQUEST));
+
+        assertThat(iq, is(instanceOf(GetProfilesRequest.class)));
+    }
+
+    @Test
+    public void willParseAKnownPubSubRequest() {
+
+        final IQ iq = OpenlinkIQParser.parse(Fixtures.iqFrom(PubSubSubscribeFixtures.SUBSCRIBE_REQUEST));
+
+        assertThat(iq, is(instanceOf(PubSubSubscriptionRequest.class)));
+    }
+
+    @Test
+    public void willNotParseACommandWithTheWrongType() {
+
+        final IQ originalIQ = Fixtures.iqFrom(GetProfilesFixtures.GET_PROFILES_REQUEST);
+        originalIQ.setType(IQ.Type.get);
+
+        final IQ iq = OpenlinkIQParser.parse(originalIQ);
+
+        assertThat(iq, is(sameInstance(originalIQ)));
+    }
+
+    @Test
+    public void willNotParseAnUnknownCommand() {
+
+        final IQ originalIQ = Fixtures.iqFrom(SET_FEATURES_REQUEST);
+
+        final IQ iq = OpenlinkIQParser.parse(originalIQ);
+
+        assertThat(iq, is(sameInstance(originalIQ)));
+    }
+
+    @Test
+    public void willParseARegisteredCommand() {
+
+        final IQ convertedIQ = new IQ();
+        final Optional<OpenlinkIQParser.StanzaFactory> previousFactory = OpenlinkIQParser.registerCommandFactory(OpenlinkXmppNamespace.OPENLINK_SET_FEATURES, IQ.Type.set, iq -> convertedIQ);
+
+        final IQ iq = OpenlinkIQParser.parse(Fixtures.iqFrom(SET_FEATURES_REQUEST));
+
+        assertThat(previousFactory, is(Optional.empty()));
+        assertThat(iq, is(sameInstance(convertedIQ)));
+    }
+
+    @Test
+    public void willParseARegisteredPubSubRequest() {
+
+        final IQ convertedIQ = new IQ();
+        OpenlinkIQParser.registerPubSubFactory("items", iq -> convertedIQ);
+
+        final IQ iq = OpenlinkIQParser.parse(Fixtures.iqFrom(PUBSUB_ITEMS_REQUEST));
+
+        assertThat(iq, is(sameInstance(convertedIQ)));
+    }
+
+    @Test
+    public void canReplaceAnExistingFactory() {
+
+        final IQ convertedIQ = new IQ();
+        final Optional<OpenlinkIQParser.StanzaFactory> previousFactory = OpenlinkIQParser.registerCommandFactory(OpenlinkXmppNamespace.OPENLINK_GET_PROFILES, IQ.Type.set, iq -> convertedIQ);
+
+        final IQ iq = OpenlinkIQParser.parse(Fixtures.iqFrom(GetProfilesFixtures.GET_PROFILES_REQUEST));
+
+        assertThat(previousFactory.isPresent(), is(true));
+        assertThat(iq, is(sameInstance(convertedIQ)));
+    }
+
+    @Test
+    public void willNotParseAnUnregisteredCommand() {
+
+        final Optional<OpenlinkIQParser.StanzaFactory> previousFactory = OpenlinkIQParser.unregisterCommandFactory(OpenlinkXmppNamespace.OPENLINK_GET_PROFILES, IQ.Type.set);
+        final IQ originalIQ = Fixtures.iqFrom(GetProfilesFixtures.GET_PROFILES_REQUEST);
+
+        final IQ iq = OpenlinkIQParser.parse(originalIQ);
+
+        assertThat(previousFactory.isPresent(), is(true));
+        assertThat(iq, is(sameInstance(originalIQ)));
+        assertThat(OpenlinkIQParser.parse(Fixtures.iqFrom(GetProfilesFixtures.GET_PROFILES_RESULT_WITH_NO_NOTES)), is(instanceOf(GetProfilesResult.class)));
+    }
+
+    @Test
+    public void willStreamTheSameResultsAsTinder() {
+
+        assertStreamedIQMatchesParsedIQ(GetProfilesFixtures.GET_PROFILES_RESULT_WITH_NO_NOTES);
+        assertStreamedIQMatchesParsedIQ(GetInterestsFixtures.GET_INTERESTS_RESULT);
+        assertStreamedIQMatchesParsedIQ(GetFeaturesFixtures.GET_FEATURES_RESULT);
+    }
+
+    @Test
+    public void willStreamTheSameParseErrorsAsTinder() {
+
+        assertStreamedIQMatchesParsedIQ(GetProfilesFixtures.GET_PROFILES_RESULT_WITH_BAD_VALUES);
+        assertStreamedIQMatchesParsedIQ(GetProfilesFixtures.GET_PROFILES_RESULT_WITH_NO_PROFILES);
+        assertStreamedIQMatchesParsedIQ(GetInterestsFixtures.GET_INTERESTS_RESULT_WITH_BAD_VALUES);
+        assertStreamedIQMatchesParsedIQ(GetFeaturesFixtures.GET_FEATURES_RESULT_WITH_BAD_VALUES);
+    }
+
+    @Test
+    public void willParseOtherStanzasFromAString() {
+
+        assertThat(OpenlinkIQParser.parse(GetProfilesFixtures.GET_PROFILES_REQUEST), is(instanceOf(GetProfilesRequest.class)));
+        assertThat(OpenlinkIQParser.parse(PubSubSubscribeFixtures.SUBSCRIBE_REQUEST), is(instanceOf(PubSubSubscriptionRequest.class)));
+        assertStreamedIQMatchesParsedIQ(SET_FEATURES_REQUEST);
+    }
+
+    @Test
+    public void willNotStreamAReplacedResultFactory() {
+
+        final IQ convertedIQ = new IQ();
+        OpenlinkIQParser.registerCommandFactory(OpenlinkXmppNamespace.OPENLINK_GET_INTERESTS, IQ.Type.result, iq -> convertedIQ);
+        try {
+            final IQ iq = OpenlinkIQParser.parse(GetInterestsFixtures.GET_INTERESTS_RESULT);
+
+            assertThat(iq, is(sameInstance(convertedIQ)));
+        } finally {
+            OpenlinkIQParser.registerCommandFactory(OpenlinkXmppNamespace.OPENLINK_GET_INTERESTS, IQ.Type.result, GetInterestsResult::from);
+        }
+    }
+
+}
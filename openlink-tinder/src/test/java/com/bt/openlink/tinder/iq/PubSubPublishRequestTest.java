@@ -99,6 +99,22 @@ public class PubSubPublishRequestTest {
         assertThat(request.toXML(), isIdenticalTo(PubSubPublishFixtures.PUBLISH_REQUEST_CALL_STATUS).ignoreWhitespace());
     }
 
+    @Test
+    public void willGenerateAnXmppStanzaLazily() {
+
+        final PubSubPublishRequest request = PubSubPublishRequest.Builder.start()
+                .setId(CoreFixtures.STANZA_ID)
+                .setTo(Fixtures.TO_JID)
+                .setFrom(Fixtures.FROM_JID)
+                .addCall(CoreFixtures.CALL_INCOMING_ORIGINATED)
+                .setInterestId(CoreFixtures.INTEREST_ID)
+                .buildLazily();
+
+        assertThat(request.getCalls().size(), is(1));
+        assertThat(request.toXML(), isIdenticalTo(PubSubPublishFixtures.PUBLISH_REQUEST_CALL_STATUS).ignoreWhitespace());
+        assertThat(request.getElement().asXML(), isIdenticalTo(PubSubPublishFixtures.PUBLISH_REQUEST_CALL_STATUS).ignoreWhitespace());
+    }
+
     @Test
     public void willParseAnXmppStanza() {
 
@@ -69,6 +69,25 @@ public class CallStatusMessageTest {
         assertThat(message.toXML(), isIdenticalTo(PubSubMessageFixtures.CALL_STATUS_MESSAGE).ignoreWhitespace());
     }
 
+    @Test
+    public void willGenerateAnXmppStanzaLazily() {
+
+        final CallStatusMessage message = CallStatusMessage.Builder.start()
+                .setId(CoreFixtures.STANZA_ID)
+                .setTo(Fixtures.TO_JID)
+                .setFrom(Fixtures.FROM_JID)
+                .setPubSubNodeId(CoreFixtures.CALL_INCOMING_ORIGINATED.getInterestId().get())
+                .setItemId(ItemId.from("test-item-id").get())
+                .setCallStatusBusy(true)
+                .addCall(CoreFixtures.CALL_INCOMING_ORIGINATED)
+                .buildLazily();
+
+        assertThat(message.getID(), is(CoreFixtures.STANZA_ID));
+        assertThat(message.getCalls(), contains(CoreFixtures.CALL_INCOMING_ORIGINATED));
+        assertThat(message.toXML(), isIdenticalTo(PubSubMessageFixtures.CALL_STATUS_MESSAGE).ignoreWhitespace());
+        assertThat(message.createCopy().toXML(), isIdenticalTo(PubSubMessageFixtures.CALL_STATUS_MESSAGE).ignoreWhitespace());
+    }
+
     @Test
     public void willCreateAStanzaWithoutMandatoryFields() {
 
@@ -165,4 +184,41 @@ public class CallStatusMessageTest {
 
         assertThat(message.getParseErrors(), contains("Invalid participant; the legacy timestamp field does not match the start time field"));
     }
+
+    @Test
+    public void willParseAnXmppStanzaLazily() {
+
+        final Message stanza = Fixtures.messageFrom(PubSubMessageFixtures.CALL_STATUS_MESSAGE);
+
+        final CallStatusMessage message = (CallStatusMessage) OpenlinkMessageParser.parseLazily(stanza);
+
+        assertThat(message.getPubSubNodeId().get(), is(PubSubMessageFixtures.NODE_ID));
+        assertThat(message.getItemId().get(), is(PubSubMessageFixtures.ITEM_ID));
+        assertThat(message.isCallStatusBusy().get(), is(false));
+        assertThat(message.getCallCount(), is(1));
+        assertThat(message.getCallId(0).get(), is(CoreFixtures.CALL_ID));
+        assertThat(message.getCallState(0).get(), is(CallState.CALL_ORIGINATED));
+        assertThat(message.toXML(), isIdenticalTo(PubSubMessageFixtures.CALL_STATUS_MESSAGE).ignoreWhitespace());
+        final Call theOnlyCall = message.getCalls().get(0);
+        assertThat(message.getCalls().get(0), is(sameInstance(theOnlyCall)));
+        assertThat(theOnlyCall.getId().get(), is(CoreFixtures.CALL_ID));
+        assertThat(theOnlyCall.getDuration().get(), is(Duration.ofMinutes(1)));
+        assertThat(message.getParseErrors().size(), is(0));
+    }
+
+    @Test
+    public void willReportTheSameParseErrorsWhenParsingLazily() {
+
+        for (final String stanza : new String[]{
+                PubSubMessageFixtures.CALL_STATUS_MESSAGE_WITH_NO_FIELDS,
+                PubSubMessageFixtures.CALL_STATUS_MESSAGE_WITH_MISMATCHED_TIMESTAMPS,
+                PubSubMessageFixtures.CALL_STATUS_MESSAGE_DELAYED_WITH_BAD_TIMESTAMP}) {
+
+            final CallStatusMessage eagerMessage = CallStatusMessage.from(Fixtures.messageFrom(stanza));
+            final CallStatusMessage lazyMessage = CallStatusMessage.fromLazily(Fixtures.messageFrom(stanza));
+
+            assertThat(lazyMessage.getParseErrors(), is(eagerMessage.getParseErrors()));
+        }
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,165 @@
+package com.bt.openlink.tinder.message;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.Assert.assertThat;
+import static org.xmlunit.matchers.CompareMatcher.isIdenticalTo;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.xmpp.packet.Message;
+
+import com.bt.openlink.CoreFixtures;
+import com.bt.openlink.ParseOptions;
+import com.bt.openlink.PubSubMessageFixtures;
+import com.bt.openlink.tinder.Fixtures;
+import com.bt.openlink.type.Call;
+import com.bt.openlink.type.CallFieldMask;
+
+@SuppressWarnings("ConstantConditions")
+public class OpenlinkMessageParserTest {
+
+    @Rule public final ExpectedException expectedException = ExpectedException.none();
+
+    private static void assertStreamedMessageMatchesParsedMessage(final String stanza) {
+
+        final Message parsedMessage = OpenlinkMessageParser.parse(Fixtures.messageFrom(stanza));
+        final Message streamedMessage = OpenlinkMessageParser.parse(stanza);
+
+        assertThat(streamedMessage.getClass(), is(parsedMessage.getClass()));
+        assertThat(streamedMessage.toXML(), isIdenticalTo(parsedMessage.toXML()).ignoreWhitespace());
+        if (parsedMessage instanceof OpenlinkPubSubMessage) {
+            assertThat(((OpenlinkPubSubMessage) streamedMessage).getParseErrors(), is(((OpenlinkPubSubMessage) parsedMessage).getParseErrors()));
+        }
+    }
+
+    @Test
+    public void willStreamACallStatusMessage() {
+
+        final Message message = OpenlinkMessageParser.parse(PubSubMessageFixtures.CALL_STATUS_MESSAGE);
+
+        assertThat(message, is(instanceOf(CallStatusMessage.class)));
+        assertThat(((CallStatusMessage) message).getParseErrors().size(), is(0));
+        assertThat(message.toXML(), isIdenticalTo(PubSubMessageFixtures.CALL_STATUS_MESSAGE).ignoreWhitespace());
+    }
+
+    @Test
+    public void willStreamADeviceStatusMessage() {
+
+        final Message message = OpenlinkMessageParser.parse(PubSubMessageFixtures.DEVICE_STATUS_MESSAGE);
+
+        assertThat(message, is(instanceOf(DeviceStatusMessage.class)));
+        assertThat(((DeviceStatusMessage) message).getParseErrors().size(), is(0));
+        assertThat(message.toXML(), isIdenticalTo(PubSubMessageFixtures.DEVICE_STATUS_MESSAGE).ignoreWhitespace());
+    }
+
+    @Test
+    public void willStreamTheSameMessagesAsTinder() {
+
+        assertStreamedMessageMatchesParsedMessage(PubSubMessageFixtures.CALL_STATUS_MESSAGE);
+        assertStreamedMessageMatchesParsedMessage(PubSubMessageFixtures.CALL_STATUS_MESSAGE_WITH_LEGACY_TIMESTAMP_ONLY);
+        assertStreamedMessageMatchesParsedMessage(PubSubMessageFixtures.CALL_STATUS_MESSAGE_DELAYED);
+        assertStreamedMessageMatchesParsedMessage(PubSubMessageFixtures.DEVICE_STATUS_MESSAGE);
+    }
+
+    @Test
+    public void willStreamTheSameParseErrorsAsTinder() {
+
+        assertStreamedMessageMatchesParsedMessage(PubSubMessageFixtures.CALL_STATUS_MESSAGE_WITH_NO_FIELDS);
+        assertStreamedMessageMatchesParsedMessage(PubSubMessageFixtures.CALL_STATUS_MESSAGE_WITH_MISMATCHED_TIMESTAMPS);
+        assertStreamedMessageMatchesParsedMessage(PubSubMessageFixtures.CALL_STATUS_MESSAGE_DELAYED_WITH_BAD_TIMESTAMP);
+    }
+
+    @Test
+    public void willNotConvertAnArbitraryPubSubMessage() {
+
+        final Message message = OpenlinkMessageParser.parse(PubSubMessageFixtures.ARBITRARY_PUBSUB_MESSAGE);
+
+        assertThat(message, is(not(instanceOf(OpenlinkPubSubMessage.class))));
+        assertStreamedMessageMatchesParsedMessage(PubSubMessageFixtures.ARBITRARY_PUBSUB_MESSAGE);
+        assertStreamedMessageMatchesParsedMessage(PubSubMessageFixtures.DEVICE_STATUS_MESSAGE_WITH_NO_FIELDS);
+    }
+
+    @Test
+    public void willNotParseMalformedXml() {
+
+        expectedException.expect(IllegalArgumentException.class);
+
+        OpenlinkMessageParser.parse("<message><event>");
+    }
+
+    @Test
+    public void willNotValidateAMessageFromATrustedSource() {
+
+        final ParseOptions options = ParseOptions.Builder.start().addTrustedSource(Fixtures.FROM_JID.toBareJID()).build();
+        final Message stanza = Fixtures.messageFrom(PubSubMessageFixtures.CALL_STATUS_MESSAGE_WITH_NO_FIELDS);
+        stanza.setFrom(Fixtures.FROM_JID);
+
+        final Message message = OpenlinkMessageParser.parse(stanza, options);
+        final Message lazyMessage = OpenlinkMessageParser.parseLazily(stanza, options);
+
+        assertThat(message, is(instanceOf(CallStatusMessage.class)));
+        assertThat(((CallStatusMessage) message).getParseErrors().size(), is(0));
+        assertThat(((CallStatusMessage) lazyMessage).getParseErrors().size(), is(0));
+    }
+
+    @Test
+    public void willFailFastWhenTheCallsOfALazilyParsedMessageAreDecoded() {
+
+        final ParseOptions options = ParseOptions.Builder.start()
+                .addTrustedSource(Fixtures.FROM_JID.toBareJID())
+                .setTrustLevel(ParseOptions.TrustLevel.FAIL_FAST)
+                .build();
+        final Message stanza = Fixtures.messageFrom(PubSubMessageFixtures.CALL_STATUS_MESSAGE_WITH_MISMATCHED_TIMESTAMPS);
+        stanza.setFrom(Fixtures.FROM_JID);
+
+        final CallStatusMessage message = (CallStatusMessage) OpenlinkMessageParser.parseLazily(stanza, options);
+
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("the legacy timestamp field does not match the start time field");
+        message.getParseErrors();
+    }
+
+    @Test
+    public void willValidateAMessageFromAnUntrustedSource() {
+
+        final ParseOptions options = ParseOptions.Builder.start().addTrustedSource(Fixtures.FROM_JID.toBareJID()).build();
+
+        final Message message = OpenlinkMessageParser.parse(PubSubMessageFixtures.CALL_STATUS_MESSAGE_WITH_NO_FIELDS, options);
+
+        assertThat(message, is(instanceOf(CallStatusMessage.class)));
+        assertThat(((CallStatusMessage) message).getParseErrors().size(), is(not(0)));
+    }
+
+    @Test
+    public void willOnlyDecodeTheFieldsOfEachCallInTheMask() {
+
+        final ParseOptions options = ParseOptions.Builder.start().setCallFieldMask(CallFieldMask.summary()).build();
+        final Call expectedCall = CoreFixtures.CALL_INCOMING_ORIGINATED;
+
+        final CallStatusMessage parsedMessage = (CallStatusMessage) OpenlinkMessageParser.parse(Fixtures.messageFrom(PubSubMessageFixtures.CALL_STATUS_MESSAGE), options);
+        final CallStatusMessage streamedMessage = (CallStatusMessage) OpenlinkMessageParser.parse(PubSubMessageFixtures.CALL_STATUS_MESSAGE, options);
+
+        for (final CallStatusMessage message : new CallStatusMessage[]{parsedMessage, streamedMessage}) {
+            final Call call = message.getCalls().get(0);
+            assertThat(message.getParseErrors(), is(empty()));
+            assertThat(call.isProjected(), is(true));
+            assertThat(call.getFieldMask(), is(CallFieldMask.summary()));
+            assertThat(call.getId(), is(expectedCall.getId()));
+            assertThat(call.getInterestId(), is(expectedCall.getInterestId()));
+            assertThat(call.getState(), is(expectedCall.getState()));
+            assertThat(call.getCallerNumber(), is(expectedCall.getCallerNumber()));
+            assertThat(call.getCalledNumber(), is(expectedCall.getCalledNumber()));
+            assertThat(call.getCalledDestination(), is(expectedCall.getCalledDestination()));
+            assertThat(call.getSite().isPresent(), is(false));
+            assertThat(call.getStartTime().isPresent(), is(false));
+            assertThat(call.getOriginatorReferences(), is(empty()));
+            assertThat(call.getActions(), is(empty()));
+            assertThat(call.getFeatures(), is(empty()));
+            assertThat(call.getParticipants(), is(empty()));
+        }
+    }
+}